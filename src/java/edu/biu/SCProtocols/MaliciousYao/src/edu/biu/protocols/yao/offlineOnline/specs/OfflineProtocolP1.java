@@ -4,7 +4,6 @@ import java.io.IOException;
 
 import javax.crypto.SecretKey;
 
-import edu.biu.protocols.yao.common.LogTimer;
 import edu.biu.protocols.yao.offlineOnline.primitives.BucketList;
 import edu.biu.protocols.yao.offlineOnline.primitives.Bundle;
 import edu.biu.protocols.yao.offlineOnline.primitives.BundleBuilder;
@@ -17,6 +16,8 @@ import edu.biu.protocols.yao.primitives.CryptoPrimitives;
 import edu.biu.protocols.yao.primitives.Expector;
 import edu.biu.protocols.yao.primitives.KProbeResistantMatrix;
 import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.metrics.CommMetrics;
+import edu.biu.scapi.comm.metrics.CommSpan;
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension.OTExtensionMaliciousSender;
 
@@ -62,19 +63,16 @@ public class OfflineProtocolP1 {
 	 */
 	public void run() {
 		
-		//LogTimer timer = new LogTimer("Offline protocol");
-		try {
+		try (CommSpan span = CommMetrics.startSpan("OfflineProtocolP1")) {
 			// Pick master proof of cheating (true for all buckets!!!).
 			SecretKey proofOfCheating = primitives.getMultiKeyEncryptionScheme().generateKey();
 			
-			//timer.reset("receiving probe resistant matrices");
 			// Receive matrices from p2.
-			mainMatrix = receiveProbeResistantMatrix();
-			crMatrix = receiveProbeResistantMatrix();
-			//timer.stop();
-			
+			try (CommSpan phase = CommMetrics.startSpan("receiveProbeResistantMatrices")) {
+				mainMatrix = receiveProbeResistantMatrix();
+				crMatrix = receiveProbeResistantMatrix();
+			}
 			
-			//timer.reset("init bundle builders...");
 			//Create bundle builders of the main circuit and for the cheating recovery circuit.
 			//In order to use threads, create bundle for each thread.
 			BundleBuilder[] mainBundleBuilder;
@@ -92,27 +90,26 @@ public class OfflineProtocolP1 {
 				mainBundleBuilder[i] = new BundleBuilder(mainExecution.getCircuit(i), mainMatrix, primitives, channels);
 				crBundleBuilder[i] = new CheatingRecoveryBundleBuilder(crExecution.getCircuit(i), crMatrix, primitives, channels, proofOfCheating);
 			}
-			//timer.stop();
 
-			//timer.reset("runCutAndChooseProtocol(AES)");
 			//Run Cut and Choose protocol on the main circuit.
-			mainBuckets = runCutAndChooseProtocol(mainExecution, mainBundleBuilder); 
-			//timer.stop();
+			try (CommSpan phase = CommMetrics.startSpan("runCutAndChooseProtocol(main)")) {
+				mainBuckets = runCutAndChooseProtocol(mainExecution, mainBundleBuilder); 
+			}
 			
-		//	timer.reset("runCutAndChooseProtocol(CR)");
 			//Run Cut and Choose protocol on the cheating recovery circuit.
-			crBuckets = runCutAndChooseProtocol(crExecution, crBundleBuilder); 
-		//	timer.stop();
+			try (CommSpan phase = CommMetrics.startSpan("runCutAndChooseProtocol(CR)")) {
+				crBuckets = runCutAndChooseProtocol(crExecution, crBundleBuilder); 
+			}
 			
-		//	timer.reset("runObliviousTransferOnP2Keys(AES)");
 			//Run OT on p2 keys of the main circuit.
-			runObliviousTransferOnP2Keys(mainExecution, mainMatrix, mainBuckets);
-		//	timer.stop();
+			try (CommSpan phase = CommMetrics.startSpan("runObliviousTransferOnP2Keys(main)")) {
+				runObliviousTransferOnP2Keys(mainExecution, mainMatrix, mainBuckets);
+			}
 			
-		//	timer.reset("runObliviousTransferOnP2Keys(CR)");
 			//Run OT on p2 keys of the cheating recovery circuit.
-			runObliviousTransferOnP2Keys(crExecution, crMatrix, crBuckets);
-		//	timer.stop();
+			try (CommSpan phase = CommMetrics.startSpan("runObliviousTransferOnP2Keys(CR)")) {
+				runObliviousTransferOnP2Keys(crExecution, crMatrix, crBuckets);
+			}
 			
 		} catch (CheatAttemptException e) {
 			e.printStackTrace();
@@ -32,6 +32,8 @@ import edu.biu.scapi.circuits.circuit.BooleanCircuit;
 import edu.biu.scapi.circuits.circuit.Wire;
 import edu.biu.scapi.circuits.fastGarbledCircuit.FastGarbledBooleanCircuit;
 import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.metrics.CommMetrics;
+import edu.biu.scapi.comm.metrics.CommSpan;
 import edu.biu.scapi.comm.Protocol;
 import edu.biu.scapi.comm.ProtocolInput;
 import edu.biu.scapi.comm.ProtocolOutput;
@@ -168,21 +170,21 @@ public class OnlineProtocolP2 implements Protocol {
 	 * basically, it computes the main circuit and than the cheating recovery circuit.
 	 */
 	public void run() {
-		//LogTimer timer = new LogTimer("Evaluating Main circuit");
-		try {
+		try (CommSpan span = CommMetrics.startSpan("OnlineProtocolP2")) {
 			//Compute the main circuits part.
-			evaluateMainCircuit();
-			//timer.stop();
+			try (CommSpan phase = CommMetrics.startSpan("evaluateMainCircuit")) {
+				evaluateMainCircuit();
+			}
 			
-			//timer.reset("Evaluating CR circuit");
 			//Compute the cheating recovery circuits part.
-			evaluateCheatingRecoveryCircuit();
-			//timer.stop();
+			try (CommSpan phase = CommMetrics.startSpan("evaluateCheatingRecoveryCircuit")) {
+				evaluateCheatingRecoveryCircuit();
+			}
 		} catch (CheatAttemptException e) {
 			e.printStackTrace();
 		} catch (IOException e) {
 			e.printStackTrace();
-		} 
+		}
 	}
 	
 	/**
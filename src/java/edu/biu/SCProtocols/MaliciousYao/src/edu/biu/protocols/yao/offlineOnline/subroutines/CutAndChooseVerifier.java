@@ -17,7 +17,6 @@ import java.util.Arrays;
 
 import edu.biu.protocols.CommitmentWithZkProofOfDifference.CmtWithDifferenceReceiver;
 import edu.biu.protocols.CommitmentWithZkProofOfDifference.DifferenceCommitmentReceiverBundle;
-import edu.biu.protocols.yao.common.LogTimer;
 import edu.biu.protocols.yao.common.Preconditions;
 import edu.biu.protocols.yao.offlineOnline.primitives.BucketList;
 import edu.biu.protocols.yao.offlineOnline.primitives.BucketMapping;
@@ -37,6 +36,8 @@ import edu.biu.protocols.yao.primitives.KProbeResistantMatrix;
 import edu.biu.scapi.circuits.fastGarbledCircuit.FastGarbledBooleanCircuit;
 import edu.biu.scapi.circuits.garbledCircuit.GarbledTablesHolder;
 import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.metrics.CommMetrics;
+import edu.biu.scapi.comm.metrics.CommSpan;
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.exceptions.CommitValueException;
 import edu.biu.scapi.exceptions.NoSuchPartyException;
@@ -188,41 +189,43 @@ public class CutAndChooseVerifier {
 	 * @throws CheatAttemptException
 	 */
 	public void run() throws IOException, CheatAttemptException {
-		
-		//Receive all garbled circuits from the cut and choose prover.
-		//LogTimer timer = new LogTimer("receiveGarbledCircuits");
-		//System.out.println("receiveGarbledCircuits...");
-		receiveGarbledCircuits();
-		//timer.stop();
-		//Send the commitments of the circuits selection and mapping.
-		//	timer.reset("commitToCutAndChoose");
-		commitToCutAndChoose();
-		//timer.stop();
-		
-		//Receive the commitments needed by the protocol (on keys, masks, seed, etc).
-		//timer.reset("receiveCommitments");
-		receiveCommitments();
-		//timer.stop();
-		
-		//Send to the cut and choose prover the circuit selection and mapping.
-		//timer.reset("revealCutAndChoose");
-		revealCutAndChoose();
-		//timer.stop();
-		
-		//Verify the checked circuits by verifying the commitments of the seeds, masks, keys of the checked circuits.
-		//timer.reset("verifyCheckCircuits");
-		verifyCheckCircuits();
-		//timer.stop();
-		
-		//Put all evaluated circuits in buckets according to the received mapping.
-		//timer.reset("putCircuitsInBuckets");
-		putCircuitsInBuckets();
-		//timer.stop();
-		
-		//Verify the placement masks by verifying the decommitments of the diff protocol.
-		//timer.reset("verifyCorrectnessOfPlacementMasks");
-		verifyCorrectnessOfPlacementMasks();
-		//timer.stop();
+		try (CommSpan span = CommMetrics.startSpan("CutAndChooseVerifier")) {
+			
+			//Receive all garbled circuits from the cut and choose prover.
+			try (CommSpan phase = CommMetrics.startSpan("receiveGarbledCircuits")) {
+				receiveGarbledCircuits();
+			}
+			
+			//Send the commitments of the circuits selection and mapping.
+			try (CommSpan phase = CommMetrics.startSpan("commitToCutAndChoose")) {
+				commitToCutAndChoose();
+			}
+			
+			//Receive the commitments needed by the protocol (on keys, masks, seed, etc).
+			try (CommSpan phase = CommMetrics.startSpan("receiveCommitments")) {
+				receiveCommitments();
+			}
+			
+			//Send to the cut and choose prover the circuit selection and mapping.
+			try (CommSpan phase = CommMetrics.startSpan("revealCutAndChoose")) {
+				revealCutAndChoose();
+			}
+			
+			//Verify the checked circuits by verifying the commitments of the seeds, masks, keys of the checked circuits.
+			try (CommSpan phase = CommMetrics.startSpan("verifyCheckCircuits")) {
+				verifyCheckCircuits();
+			}
+			
+			//Put all evaluated circuits in buckets according to the received mapping.
+			try (CommSpan phase = CommMetrics.startSpan("putCircuitsInBuckets")) {
+				putCircuitsInBuckets();
+			}
+			
+			//Verify the placement masks by verifying the decommitments of the diff protocol.
+			try (CommSpan phase = CommMetrics.startSpan("verifyCorrectnessOfPlacementMasks")) {
+				verifyCorrectnessOfPlacementMasks();
+			}
+		}
 	}
 	
 	/**
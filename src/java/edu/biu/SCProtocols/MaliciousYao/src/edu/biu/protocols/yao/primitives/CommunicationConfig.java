@@ -11,6 +11,7 @@ import java.util.concurrent.TimeoutException;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.comm.Party;
+import edu.biu.scapi.comm.metrics.CommMetrics;
 import edu.biu.scapi.comm.twoPartyComm.LoadSocketParties;
 import edu.biu.scapi.comm.twoPartyComm.NativeChannel;
 import edu.biu.scapi.comm.twoPartyComm.NativeSocketCommunicationSetup;
@@ -76,11 +77,12 @@ public class CommunicationConfig {
 		}
 		
 		System.out.println("<<<<<<<<<<< DONE >>>>>>>>>>>");
-		//Get the created channel.
+		//Get the created channel. The channels are metered if the communication metrics are enabled (by the scapi.metrics system property), 
+		//so the spans of the protocols count the traffic.
 		Object[] objects = connections.values().toArray();
 		channels = new Channel[objects.length];
 		for (int i=0; i<objects.length; i++){
-			channels[i] = (NativeChannel) objects[i];
+			channels[i] = CommMetrics.meter((NativeChannel) objects[i], "channel" + i);
 		}
 		return channels;
 	}
@@ -8,6 +8,7 @@ import edu.biu.scapi.exceptions.FactoriesException;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.hash.CryptographicHash;
 import edu.biu.scapi.primitives.kdf.KeyDerivationFunction;
+import edu.biu.scapi.primitives.prf.bc.BcAES;
 import edu.biu.scapi.tools.Factories.CryptographicHashFactory;
 import edu.biu.scapi.tools.Factories.DlogGroupFactory;
 import edu.biu.scapi.tools.Factories.KdfFactory;
@@ -53,7 +54,9 @@ public class CryptoPrimitives {
 	}
 	
 	/**
-	 * Returns the default Dlog group.
+	 * Returns the default Dlog group.<p>
+	 * The same instance is returned to all the threads of the protocol. The group returned by defaultPrimitives with jvmOnly 
+	 * is thread-safe, so the threads can share it, including its pre-computed exponentiations.
 	 */
 	public DlogGroup getDiscreteLogGroup() {
 		return dlog;
@@ -184,33 +187,7 @@ public class CryptoPrimitives {
 	 * Creates a CryptoPrimitives object using default primitives.
 	 */
 	public static CryptoPrimitives defaultPrimitives() {
-		// Initialize mathematical entities required for protocol.
-		DlogGroup dlog = null;
-		CryptographicHash hash = null;
-		KeyDerivationFunction kdf = null;
-		MultiKeyEncryptionScheme mes = new AESFixedKeyMultiKeyEncryption();
-		SecureRandom random = new SecureRandom();
-		
-		try {
-			//Use the K-233 koblitz curve, SHA-1 and KdfISO18033.
-			dlog = DlogGroupFactory.getInstance().getObject("DlogECF2m(K-233)", "Miracl");
-			//hash = CryptographicHashFactory.getInstance().getObject("SHA-1", "OpenSSL");
-			hash = CryptographicHashFactory.getInstance().getObject("SHA-1", "CryptoPP");
-			kdf = KdfFactory.getInstance().getObject("KdfISO18033(SHA-1)");
-		} catch (FactoriesException e) {
-			e.printStackTrace();
-		}
-
-		//Create a CryptoPrimitives object with the created primitives, when statistical parameter = 40 and number of thread = 0. 
-		return new CryptoPrimitives.Builder()
-			.dlog(dlog)
-			.kdf(kdf)
-			.mes(mes)
-			.hash(hash)
-			.random(random)
-			.statisticalParameter(40)
-			.numOfThreads(0)
-			.build();
+		return defaultPrimitives(0, false);
 	}
 	
 	/**
@@ -218,18 +195,36 @@ public class CryptoPrimitives {
 	 * @param numThreads The nuber of threads to use in the protocol.
 	 */
 	public static CryptoPrimitives defaultPrimitives(int numThreads) {
+		return defaultPrimitives(numThreads, false);
+	}
+	
+	/**
+	 * Creates a CryptoPrimitives object using default primitives.<p>
+	 * The default primitives use the native Miracl and Crypto++ libraries. If jvmOnly is true, pure Java primitives are used instead, 
+	 * so that the protocol can be executed on machines without the native libraries: 
+	 * The Ristretto255 group replaces the K-233 koblitz curve and the BC implementations of SHA-1 and AES replace the Crypto++ ones.
+	 * @param numThreads The nuber of threads to use in the protocol.
+	 * @param jvmOnly Whether to use only primitives that are implemented in Java.
+	 */
+	public static CryptoPrimitives defaultPrimitives(int numThreads, boolean jvmOnly) {
 		// Initialize mathematical entities required for protocol.
 		DlogGroup dlog = null;
 		CryptographicHash hash = null;
 		KeyDerivationFunction kdf = null;
-		MultiKeyEncryptionScheme mes = new AESFixedKeyMultiKeyEncryption();
+		MultiKeyEncryptionScheme mes = (jvmOnly) ? new AESFixedKeyMultiKeyEncryption(new BcAES()) : new AESFixedKeyMultiKeyEncryption();
 		SecureRandom random = new SecureRandom();
 		
 		try {
-			//Use the K-233 koblitz curve, SHA-1 and KdfISO18033.
-			dlog = DlogGroupFactory.getInstance().getObject("DlogECF2m(K-233)", "Miracl");
-			//hash = CryptographicHashFactory.getInstance().getObject("SHA-1", "OpenSSL");
-			hash = CryptographicHashFactory.getInstance().getObject("SHA-1", "CryptoPP");
+			if (jvmOnly) {
+				//Use the Ristretto255 group, SHA-1 and KdfISO18033, all implemented in Java.
+				dlog = DlogGroupFactory.getInstance().getObject("DlogRistretto255", "Scapi");
+				hash = CryptographicHashFactory.getInstance().getObject("SHA-1", "BC");
+			} else {
+				//Use the K-233 koblitz curve, SHA-1 and KdfISO18033.
+				dlog = DlogGroupFactory.getInstance().getObject("DlogECF2m(K-233)", "Miracl");
+				//hash = CryptographicHashFactory.getInstance().getObject("SHA-1", "OpenSSL");
+				hash = CryptographicHashFactory.getInstance().getObject("SHA-1", "CryptoPP");
+			}
 			kdf = KdfFactory.getInstance().getObject("KdfISO18033(SHA-1)");
 		} catch (FactoriesException e) {
 			e.printStackTrace();
@@ -0,0 +1,232 @@
+package edu.biu.SCProtocols.gmw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import edu.biu.scapi.circuits.circuit.BooleanCircuit;
+import edu.biu.scapi.circuits.circuit.Gate;
+import edu.biu.scapi.exceptions.NoSuchPartyException;
+
+/**
+ * Splits a {@link BooleanCircuit} into the layers evaluated by {@link ScGmwParty}. <p>
+ *
+ * Every gate with one or two inputs is written as f(x,y) = c0 ^ cx*x ^ cy*y ^ cxy*x*y, where the coefficients are taken
+ * from the truth table. Gates with cxy = 0 are linear and computed locally on the shares; the other gates need one
+ * multiplication triple each. The layer of a gate is its multiplicative depth, so all the non linear gates of a layer
+ * can be opened together in one round. <p>
+ *
+ * Each layer gets its own word aligned range of the triples, so the triple bits of the gates of a layer can be
+ * processed a whole long at a time. <p>
+ *
+ * The linear gates of a layer may depend on each other, so they are split into levels by their linear depth inside the
+ * layer; The gates of a level depend only on wires that are known before the level. The gates of every group (the non
+ * linear gates of a layer, or a level of its linear gates) are numbered from 0, and the coefficients of gate k of the group
+ * are kept as bit k of the masks of the group, so a group is evaluated 64 gates at a time.
+ *
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+final class ScGmwCircuitLayers {
+
+	/**
+	 * Gates that are evaluated together, with their coefficients packed into words. Bit k of a mask is the coefficient of gate k.
+	 */
+	static final class GateGroup {
+		final int[] gates;		//The indices of the gates in the circuit.
+		final long[] c0;
+		final long[] cx;
+		final long[] cy;
+
+		private GateGroup(int[] gates, int[] coefficients){
+			this.gates = gates;
+			c0 = new long[words(gates.length)];
+			cx = new long[words(gates.length)];
+			cy = new long[words(gates.length)];
+			for (int k = 0; k < gates.length; k++){
+				int coefficient = coefficients[gates[k]];
+				c0[k >>> 6] |= (long) (coefficient & C0) << k;
+				cx[k >>> 6] |= (long) ((coefficient & CX) >>> 1) << k;
+				cy[k >>> 6] |= (long) ((coefficient & CY) >>> 2) << k;
+			}
+		}
+	}
+
+	static final int C0 = 1;	//Bit of the constant coefficient.
+	static final int CX = 2;	//Bit of the coefficient of the first input.
+	static final int CY = 4;	//Bit of the coefficient of the second input.
+	static final int CXY = 8;	//Bit of the coefficient of the product.
+
+	private Gate[] gates;
+	private int[] coefficients;		//The coefficients of each gate, as a combination of the bits above.
+	private GateGroup[] andGates;		//The non linear gates of each layer.
+	private GateGroup[][] linearGates;	//The levels of the linear gates of each layer.
+	private int[] wordOffsets;		//The first triple word of each layer.
+	private int numberOfTripleWords;
+	private int numberOfAndGates;
+	private int numberOfWires;
+
+	ScGmwCircuitLayers(BooleanCircuit circuit){
+		gates = circuit.getGates();
+		coefficients = new int[gates.length];
+
+		int maxWire = -1;
+		for (Gate gate : gates){
+			for (int w : gate.getInputWireIndices()){
+				maxWire = Math.max(maxWire, w);
+			}
+			for (int w : gate.getOutputWireIndices()){
+				maxWire = Math.max(maxWire, w);
+			}
+		}
+		try {
+			for (int party = 1; party <= circuit.getNumberOfParties(); party++){
+				for (int w : circuit.getInputWireIndices(party)){
+					maxWire = Math.max(maxWire, w);
+				}
+			}
+		} catch (NoSuchPartyException e) {
+			//Can not happen since the parties are taken from the circuit.
+			throw new IllegalStateException(e);
+		}
+		numberOfWires = maxWire + 1;
+
+		//The gates are topologically sorted, so the depth of the inputs of a gate is known when the gate is reached.
+		//The level of a wire is the linear depth of the gate that computed it inside its layer, or -1 if the wire is known
+		//before the linear gates of its layer are computed.
+		int[] wireDepth = new int[numberOfWires];
+		int[] wireLevel = new int[numberOfWires];
+		Arrays.fill(wireLevel, -1);
+		int[] gateDepth = new int[gates.length];
+		int[] gateLevel = new int[gates.length];
+		int maxDepth = 0;
+		for (int i = 0; i < gates.length; i++){
+			coefficients[i] = coefficientsOf(gates[i]);
+			int depth = 0;
+			for (int w : gates[i].getInputWireIndices()){
+				depth = Math.max(depth, wireDepth[w]);
+			}
+			int level = -1;
+			if ((coefficients[i] & CXY) != 0){
+				depth++;
+				numberOfAndGates++;
+			} else {
+				for (int w : gates[i].getInputWireIndices()){
+					if (wireDepth[w] == depth){
+						level = Math.max(level, wireLevel[w]);
+					}
+				}
+				level++;
+			}
+			for (int w : gates[i].getOutputWireIndices()){
+				wireDepth[w] = depth;
+				wireLevel[w] = level;
+			}
+			gateDepth[i] = depth;
+			gateLevel[i] = level;
+			maxDepth = Math.max(maxDepth, depth);
+		}
+
+		ArrayList<ArrayList<Integer>> ands = new ArrayList<ArrayList<Integer>>();
+		ArrayList<ArrayList<ArrayList<Integer>>> linears = new ArrayList<ArrayList<ArrayList<Integer>>>();
+		for (int d = 0; d <= maxDepth; d++){
+			ands.add(new ArrayList<Integer>());
+			linears.add(new ArrayList<ArrayList<Integer>>());
+		}
+		for (int i = 0; i < gates.length; i++){
+			if ((coefficients[i] & CXY) != 0){
+				ands.get(gateDepth[i]).add(i);
+			} else {
+				ArrayList<ArrayList<Integer>> levels = linears.get(gateDepth[i]);
+				while (levels.size() <= gateLevel[i]){
+					levels.add(new ArrayList<Integer>());
+				}
+				levels.get(gateLevel[i]).add(i);
+			}
+		}
+
+		andGates = new GateGroup[maxDepth + 1];
+		linearGates = new GateGroup[maxDepth + 1][];
+		wordOffsets = new int[maxDepth + 1];
+		for (int d = 0; d <= maxDepth; d++){
+			andGates[d] = new GateGroup(toArray(ands.get(d)), coefficients);
+			linearGates[d] = new GateGroup[linears.get(d).size()];
+			for (int level = 0; level < linearGates[d].length; level++){
+				linearGates[d][level] = new GateGroup(toArray(linears.get(d).get(level)), coefficients);
+			}
+			wordOffsets[d] = numberOfTripleWords;
+			numberOfTripleWords += words(andGates[d].gates.length);
+		}
+	}
+
+	/**
+	 * Computes the coefficients of the given gate from its truth table. <p>
+	 * The first input wire is the most significant bit of the truth table index, so T[2x+y] = f(x,y).
+	 */
+	private static int coefficientsOf(Gate gate){
+		BitSet table = gate.getTruthTable();
+		int numberOfInputs = gate.getInputWireIndices().length;
+		int t0 = table.get(0) ? 1 : 0;
+		int t1 = table.get(1) ? 1 : 0;
+		switch (numberOfInputs){
+		case 1:
+			return t0 * C0 | (t0 ^ t1) * CX;
+		case 2:
+			int t2 = table.get(2) ? 1 : 0;
+			int t3 = table.get(3) ? 1 : 0;
+			return t0 * C0 | (t0 ^ t2) * CX | (t0 ^ t1) * CY | (t0 ^ t1 ^ t2 ^ t3) * CXY;
+		default:
+			throw new IllegalArgumentException("GMW supports gates with one or two inputs only; gate " + gate.getGateNumber() + " has " + numberOfInputs);
+		}
+	}
+
+	private static int[] toArray(ArrayList<Integer> list){
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++){
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * @return the number of longs needed to hold the given number of bits.
+	 */
+	static int words(int bits){
+		return (bits + 63) >>> 6;
+	}
+
+	Gate[] getGates(){
+		return gates;
+	}
+
+	int getNumberOfLayers(){
+		return andGates.length;
+	}
+
+	GateGroup getAndGates(int layer){
+		return andGates[layer];
+	}
+
+	/**
+	 * @return the levels of the linear gates of the given layer, in the order they should be computed.
+	 */
+	GateGroup[] getLinearGates(int layer){
+		return linearGates[layer];
+	}
+
+	int getWordOffset(int layer){
+		return wordOffsets[layer];
+	}
+
+	int getNumberOfTripleWords(){
+		return numberOfTripleWords;
+	}
+
+	int getNumberOfAndGates(){
+		return numberOfAndGates;
+	}
+
+	int getNumberOfWires(){
+		return numberOfWires;
+	}
+}
@@ -0,0 +1,486 @@
+package edu.biu.SCProtocols.gmw;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import edu.biu.scapi.circuits.circuit.BooleanCircuit;
+import edu.biu.scapi.circuits.circuit.Gate;
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.Protocol;
+import edu.biu.scapi.comm.ProtocolInput;
+import edu.biu.scapi.comm.ProtocolOutput;
+import edu.biu.scapi.comm.twoPartyComm.PartyData;
+import edu.biu.scapi.exceptions.CheatAttemptException;
+import edu.biu.scapi.exceptions.InvalidDlogGroupException;
+import edu.biu.scapi.exceptions.NoSuchPartyException;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnByteArrayROutput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnByteArraySInput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchRBasicInput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchReceiver;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSender;
+
+/**
+ * A pure java implementation of the semi honest n-party GMW protocol, using Beaver's multiplication triples. <p>
+ * A general explanation of the GMW protocol can be found at <a href ="http://crypto.biu.ac.il/sites/default/files/Winter%20School%2015%20-%20GMW%20and%20OT%20extension.pdf">http://crypto.biu.ac.il/sites/default/files/Winter%20School%2015%20-%20GMW%20and%20OT%20extension.pdf</a>.<p>
+ *
+ * The protocol has two phases:
+ * <ul>
+ * <li>Offline: the parties generate a multiplication triple for every non linear gate of the circuit. Each party chooses
+ * random shares a and b, and the cross products a_i*b_j are shared using one batch of bit OTs per ordered pair of parties.
+ * The triples do not depend on the inputs and can be generated before they are known.</li>
+ * <li>Online: the parties share their inputs and evaluate the circuit layer by layer, where a layer contains all the non
+ * linear gates of the same multiplicative depth. All the gates of a layer are opened together, so every party sends
+ * exactly one message to every other party per layer. Linear gates are computed locally.</li>
+ * </ul>
+ * The shares of the wires and of the triples are packed into long arrays. The inputs of a group of gates (the non linear
+ * gates of a layer, or a level of its linear gates) are gathered into words, and the gates of the group are evaluated
+ * 64 at a time using the coefficient masks of {@link ScGmwCircuitLayers}. <p>
+ *
+ * The parties are numbered from 1 to n as in {@link BooleanCircuit}. Every party receives the values of its own output
+ * wires; in a two party circuit both parties receive the common output. <p>
+ *
+ * The OT sender and receiver are used with {@link OTBatchOnByteArraySInput} and {@link OTBatchRBasicInput}, with
+ * messages of a single byte. Any batch OT that accepts these inputs can be used, for example
+ * {@link edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest.OTSemiHonestDDHBatchOnByteArraySender}. <p>
+ *
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ScGmwParty implements Protocol {
+
+	private int id;							//The number of this party, starting from 1.
+	private int numberOfParties;
+	private BooleanCircuit circuit;
+	private ScGmwCircuitLayers layers;
+	private Channel[] channels;				//The channel to party i+1 is in index i.
+	private OTBatchSender otSender;
+	private OTBatchReceiver otReceiver;
+	private SecureRandom random;
+
+	//This party's shares of the multiplication triples, c = a*b.
+	private long[] a;
+	private long[] b;
+	private long[] c;
+
+	private byte[] inputs;
+	private GmwProtocolOutput output;
+
+	/**
+	 * Constructor that sets the given parameters.
+	 * @param id the number of this party in the circuit, starting from 1.
+	 * @param circuit the circuit to compute.
+	 * @param channels the channels to the other parties. The channel to party i is in index i-1; the index of this party is ignored.
+	 * @param otSender used to generate the triples with the parties with the higher numbers.
+	 * @param otReceiver used to generate the triples with the parties with the lower numbers.
+	 * @param random the source of randomness of the shares.
+	 * @throws IllegalArgumentException if the id is not a party of the circuit or a channel is missing.
+	 */
+	public ScGmwParty(int id, BooleanCircuit circuit, Channel[] channels, OTBatchSender otSender, OTBatchReceiver otReceiver, SecureRandom random){
+		numberOfParties = circuit.getNumberOfParties();
+		if (id < 1 || id > numberOfParties){
+			throw new IllegalArgumentException("The circuit has no party " + id);
+		}
+		if (channels.length != numberOfParties){
+			throw new IllegalArgumentException("There should be a channel for each of the " + numberOfParties + " parties");
+		}
+		for (int i = 0; i < numberOfParties; i++){
+			if (i != id - 1 && channels[i] == null){
+				throw new IllegalArgumentException("Missing the channel to party " + (i + 1));
+			}
+		}
+		this.id = id;
+		this.circuit = circuit;
+		this.channels = channels;
+		this.otSender = otSender;
+		this.otReceiver = otReceiver;
+		this.random = random;
+		layers = new ScGmwCircuitLayers(circuit);
+	}
+
+	/**
+	 * Constructor that takes the channels from the output of
+	 * {@link edu.biu.scapi.comm.multiPartyComm.MultipartyCommunicationSetup#prepareForCommunication(Map, long)}.
+	 * The first channel to each party is used.
+	 * @param id the number of this party in the circuit, starting from 1.
+	 * @param circuit the circuit to compute.
+	 * @param parties the data of all the parties, where party i is in index i-1.
+	 * @param connections the channels created by the communication setup.
+	 * @param otSender used to generate the triples with the parties with the higher numbers.
+	 * @param otReceiver used to generate the triples with the parties with the lower numbers.
+	 * @param random the source of randomness of the shares.
+	 */
+	public ScGmwParty(int id, BooleanCircuit circuit, List<PartyData> parties, Map<PartyData, Map<String, Channel>> connections,
+			OTBatchSender otSender, OTBatchReceiver otReceiver, SecureRandom random){
+		this(id, circuit, channelsOf(id, parties, connections), otSender, otReceiver, random);
+	}
+
+	private static Channel[] channelsOf(int id, List<PartyData> parties, Map<PartyData, Map<String, Channel>> connections){
+		Channel[] channels = new Channel[parties.size()];
+		for (int i = 0; i < channels.length; i++){
+			Map<String, Channel> partyChannels = connections.get(parties.get(i));
+			if (i != id - 1 && partyChannels != null && !partyChannels.isEmpty()){
+				channels[i] = partyChannels.values().iterator().next();
+			}
+		}
+		return channels;
+	}
+
+	@Override
+	public void start(ProtocolInput protocolInput) {
+		if (!(protocolInput instanceof ScGmwProtocolInput)){
+			throw new IllegalArgumentException("The given input should be an instance of ScGmwProtocolInput");
+		}
+		byte[] inputs = ((ScGmwProtocolInput) protocolInput).getInputs();
+		if (inputs.length != inputWiresOf(id).size()){
+			throw new IllegalArgumentException("Party " + id + " should have " + inputWiresOf(id).size() + " inputs");
+		}
+		this.inputs = inputs;
+	}
+
+	/**
+	 * Executes the offline phase if it was not executed yet, and then the online phase.
+	 * @throws IllegalStateException if the protocol fails.
+	 */
+	@Override
+	public void run() {
+		try {
+			if (a == null){
+				runOffline();
+			}
+			runOnline();
+		} catch (IOException | ClassNotFoundException | CheatAttemptException | InvalidDlogGroupException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public ProtocolOutput getOutput() {
+		return output;
+	}
+
+	/**
+	 * Generates a multiplication triple for every non linear gate of the circuit. <p>
+	 * The product of the sums of the shares is the sum of a_i*b_j over all pairs. This party computes a_i*b_i locally.
+	 * For every other party j, it shares a_i*b_j with j by acting as the sender of a batch of OTs with the messages
+	 * (r, r^a_i), and shares a_j*b_i with j by acting as the receiver with the choice bits b_i.
+	 * The pairs are handled in increasing order, so the parties never wait for each other in a cycle.
+	 */
+	public void runOffline() throws IOException, ClassNotFoundException, CheatAttemptException, InvalidDlogGroupException {
+		int words = layers.getNumberOfTripleWords();
+		a = randomWords(words);
+		b = randomWords(words);
+		c = new long[words];
+		for (int i = 0; i < words; i++){
+			c[i] = a[i] & b[i];
+		}
+
+		int[] positions = triplePositions();
+		for (int other = 1; other <= numberOfParties; other++){
+			if (other == id){
+				continue;
+			}
+			if (id < other){
+				shareCrossProductsAsSender(other, positions);
+				shareCrossProductsAsReceiver(other, positions);
+			} else {
+				shareCrossProductsAsReceiver(other, positions);
+				shareCrossProductsAsSender(other, positions);
+			}
+		}
+	}
+
+	/**
+	 * Shares the inputs, evaluates the circuit and reveals the outputs. The offline phase is executed first if needed.
+	 * The triples are consumed, so every execution of the online phase needs its own offline phase.
+	 */
+	public void runOnline() throws IOException, ClassNotFoundException, CheatAttemptException, InvalidDlogGroupException {
+		if (inputs == null){
+			throw new IllegalStateException("start should be called before running the protocol");
+		}
+		if (a == null){
+			runOffline();
+		}
+
+		long[] shares = new long[ScGmwCircuitLayers.words(layers.getNumberOfWires())];
+		shareInputs(shares);
+		for (int layer = 0; layer < layers.getNumberOfLayers(); layer++){
+			computeAndGates(layer, shares);
+			computeLinearGates(layer, shares);
+		}
+		output = new GmwProtocolOutput(revealOutputs(shares));
+
+		a = null;
+		b = null;
+		c = null;
+	}
+
+	/**
+	 * @return the bit indices of the triples that belong to gates, in the order of the layers.
+	 */
+	private int[] triplePositions(){
+		int[] positions = new int[layers.getNumberOfAndGates()];
+		int index = 0;
+		for (int layer = 0; layer < layers.getNumberOfLayers(); layer++){
+			int first = layers.getWordOffset(layer) << 6;
+			int size = layers.getAndGates(layer).gates.length;
+			for (int k = 0; k < size; k++){
+				positions[index++] = first + k;
+			}
+		}
+		return positions;
+	}
+
+	private void shareCrossProductsAsSender(int other, int[] positions) throws IOException, ClassNotFoundException, CheatAttemptException, InvalidDlogGroupException {
+		long[] r = randomWords(c.length);
+		ArrayList<byte[]> x0 = new ArrayList<byte[]>(positions.length);
+		ArrayList<byte[]> x1 = new ArrayList<byte[]>(positions.length);
+		for (int position : positions){
+			long bit = getBit(r, position);
+			x0.add(new byte[]{(byte) bit});
+			x1.add(new byte[]{(byte) (bit ^ getBit(a, position))});
+		}
+		otSender.transfer(channels[other - 1], new OTBatchOnByteArraySInput(x0, x1));
+		for (int i = 0; i < c.length; i++){
+			c[i] ^= r[i];
+		}
+	}
+
+	private void shareCrossProductsAsReceiver(int other, int[] positions) throws IOException, ClassNotFoundException, CheatAttemptException {
+		ArrayList<Byte> sigma = new ArrayList<Byte>(positions.length);
+		for (int position : positions){
+			sigma.add((byte) getBit(b, position));
+		}
+		OTBatchOnByteArrayROutput received = (OTBatchOnByteArrayROutput) otReceiver.transfer(channels[other - 1], new OTBatchRBasicInput(sigma));
+		ArrayList<byte[]> xSigma = received.getXSigmaArr();
+		for (int k = 0; k < positions.length; k++){
+			c[positions[k] >>> 6] ^= (long) (xSigma.get(k)[0] & 1) << positions[k];
+		}
+	}
+
+	/**
+	 * Splits this party's inputs into random shares, sends a share to each other party and sets the shares of the
+	 * other parties' inputs from their messages.
+	 */
+	private void shareInputs(long[] shares) throws IOException, ClassNotFoundException, CheatAttemptException {
+		ArrayList<Integer> wires = inputWiresOf(id);
+		long[] value = new long[ScGmwCircuitLayers.words(wires.size())];
+		for (int k = 0; k < inputs.length; k++){
+			setBit(value, k, inputs[k] & 1);
+		}
+		for (int other = 1; other <= numberOfParties; other++){
+			if (other != id){
+				long[] share = randomWords(value.length);
+				for (int i = 0; i < value.length; i++){
+					value[i] ^= share[i];
+				}
+				channels[other - 1].send(share);
+			}
+		}
+		setWires(shares, wires, value);
+
+		for (int other = 1; other <= numberOfParties; other++){
+			if (other != id){
+				ArrayList<Integer> otherWires = inputWiresOf(other);
+				setWires(shares, otherWires, receiveWords(other, ScGmwCircuitLayers.words(otherWires.size())));
+			}
+		}
+	}
+
+	/**
+	 * Computes all the non linear gates of the given layer with one round of communication. <p>
+	 * For inputs x,y and a triple a,b,c the parties open d = x^a and e = y^b, and x*y = c ^ d*b ^ e*a ^ d*e,
+	 * where d*e is added by the first party only.
+	 */
+	private void computeAndGates(int layer, long[] shares) throws IOException, ClassNotFoundException, CheatAttemptException {
+		ScGmwCircuitLayers.GateGroup group = layers.getAndGates(layer);
+		if (group.gates.length == 0){
+			return;
+		}
+		int words = ScGmwCircuitLayers.words(group.gates.length);
+		int offset = layers.getWordOffset(layer);
+
+		long[] x = new long[words];
+		long[] y = new long[words];
+		gatherInputs(group, shares, x, y);
+
+		long[] message = new long[2 * words];
+		for (int i = 0; i < words; i++){
+			message[i] = x[i] ^ a[offset + i];
+			message[words + i] = y[i] ^ b[offset + i];
+		}
+		long[] opened = exchange(message);
+
+		long[] z = new long[words];
+		long first = (id == 1) ? -1L : 0;
+		for (int i = 0; i < words; i++){
+			long d = opened[i];
+			long e = opened[words + i];
+			z[i] = c[offset + i] ^ (d & b[offset + i]) ^ (e & a[offset + i]) ^ (d & e & first)
+					^ (x[i] & group.cx[i]) ^ (y[i] & group.cy[i]) ^ (group.c0[i] & first);
+		}
+		scatterOutputs(group, shares, z);
+	}
+
+	/**
+	 * Computes the linear gates of the given layer locally, a level at a time. The constant is added by the first party only.
+	 */
+	private void computeLinearGates(int layer, long[] shares){
+		long first = (id == 1) ? -1L : 0;
+		for (ScGmwCircuitLayers.GateGroup group : layers.getLinearGates(layer)){
+			int words = ScGmwCircuitLayers.words(group.gates.length);
+			long[] x = new long[words];
+			long[] y = new long[words];
+			gatherInputs(group, shares, x, y);
+			long[] z = new long[words];
+			for (int i = 0; i < words; i++){
+				z[i] = (x[i] & group.cx[i]) ^ (y[i] & group.cy[i]) ^ (group.c0[i] & first);
+			}
+			scatterOutputs(group, shares, z);
+		}
+	}
+
+	/**
+	 * Packs the shares of the inputs of the gates of the given group, so bit k of x and y is the share of the first and
+	 * second input of gate k. The second input of a gate with one input is left 0.
+	 */
+	private void gatherInputs(ScGmwCircuitLayers.GateGroup group, long[] shares, long[] x, long[] y){
+		Gate[] gates = layers.getGates();
+		for (int k = 0; k < group.gates.length; k++){
+			int[] in = gates[group.gates[k]].getInputWireIndices();
+			x[k >>> 6] |= getBit(shares, in[0]) << k;
+			if (in.length > 1){
+				y[k >>> 6] |= getBit(shares, in[1]) << k;
+			}
+		}
+	}
+
+	/**
+	 * Sets the output wires of gate k of the given group to bit k of the given words.
+	 */
+	private void scatterOutputs(ScGmwCircuitLayers.GateGroup group, long[] shares, long[] z){
+		Gate[] gates = layers.getGates();
+		for (int k = 0; k < group.gates.length; k++){
+			long value = getBit(z, k);
+			for (int w : gates[group.gates[k]].getOutputWireIndices()){
+				setBit(shares, w, value);
+			}
+		}
+	}
+
+	/**
+	 * Sends to each party this party's shares of that party's output wires and combines the shares of this party's output wires.
+	 * @return the values of this party's output wires.
+	 */
+	private byte[] revealOutputs(long[] shares) throws IOException, ClassNotFoundException, CheatAttemptException {
+		for (int other = 1; other <= numberOfParties; other++){
+			if (other != id){
+				channels[other - 1].send(getWires(shares, outputWiresOf(other)));
+			}
+		}
+
+		ArrayList<Integer> wires = outputWiresOf(id);
+		long[] value = getWires(shares, wires);
+		for (int other = 1; other <= numberOfParties; other++){
+			if (other != id){
+				long[] share = receiveWords(other, value.length);
+				for (int i = 0; i < value.length; i++){
+					value[i] ^= share[i];
+				}
+			}
+		}
+
+		byte[] result = new byte[wires.size()];
+		for (int k = 0; k < result.length; k++){
+			result[k] = (byte) getBit(value, k);
+		}
+		return result;
+	}
+
+	/**
+	 * Sends the given message to all the other parties and returns the XOR of all the messages.
+	 */
+	private long[] exchange(long[] message) throws IOException, ClassNotFoundException, CheatAttemptException {
+		for (int other = 1; other <= numberOfParties; other++){
+			if (other != id){
+				channels[other - 1].send(message);
+			}
+		}
+		long[] result = message.clone();
+		for (int other = 1; other <= numberOfParties; other++){
+			if (other != id){
+				long[] received = receiveWords(other, message.length);
+				for (int i = 0; i < result.length; i++){
+					result[i] ^= received[i];
+				}
+			}
+		}
+		return result;
+	}
+
+	private long[] receiveWords(int other, int length) throws IOException, ClassNotFoundException, CheatAttemptException {
+		Serializable message = channels[other - 1].receive();
+		if (!(message instanceof long[]) || ((long[]) message).length != length){
+			throw new CheatAttemptException("party " + other + " sent a message of the wrong size");
+		}
+		return (long[]) message;
+	}
+
+	private ArrayList<Integer> inputWiresOf(int party){
+		try {
+			return circuit.getInputWireIndices(party);
+		} catch (NoSuchPartyException e) {
+			//Can not happen since the party numbers are checked in the constructor.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private ArrayList<Integer> outputWiresOf(int party){
+		if (numberOfParties == 2){
+			ArrayList<Integer> wires = new ArrayList<Integer>();
+			for (int w : circuit.getOutputWireIndices()){
+				wires.add(w);
+			}
+			return wires;
+		}
+		try {
+			return circuit.getOutputWireIndices(party);
+		} catch (NoSuchPartyException e) {
+			//Can not happen since the party numbers are checked in the constructor.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private long[] randomWords(int length){
+		long[] words = new long[length];
+		for (int i = 0; i < length; i++){
+			words[i] = random.nextLong();
+		}
+		return words;
+	}
+
+	private static long[] getWires(long[] shares, ArrayList<Integer> wires){
+		long[] packed = new long[ScGmwCircuitLayers.words(wires.size())];
+		for (int k = 0; k < wires.size(); k++){
+			setBit(packed, k, getBit(shares, wires.get(k)));
+		}
+		return packed;
+	}
+
+	private static void setWires(long[] shares, ArrayList<Integer> wires, long[] packed){
+		for (int k = 0; k < wires.size(); k++){
+			setBit(shares, wires.get(k), getBit(packed, k));
+		}
+	}
+
+	private static long getBit(long[] words, int index){
+		return (words[index >>> 6] >>> index) & 1L;
+	}
+
+	private static void setBit(long[] words, int index, long bit){
+		words[index >>> 6] = (words[index >>> 6] & ~(1L << index)) | (bit << index);
+	}
+}
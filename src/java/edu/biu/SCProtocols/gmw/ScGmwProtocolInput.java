@@ -0,0 +1,24 @@
+package edu.biu.SCProtocols.gmw;
+
+import edu.biu.scapi.comm.ProtocolInput;
+
+/**
+ * This class manage the input for the pure java GMW protocol. <p>
+ * The input is the value of each of the party's input wires, in the order returned by
+ * {@link edu.biu.scapi.circuits.circuit.BooleanCircuit#getInputWireIndices(int)}. Each value should be 0 or 1. <p>
+ *
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ScGmwProtocolInput implements ProtocolInput {
+
+	private byte[] inputs;
+
+	public ScGmwProtocolInput(byte[] inputs){
+		this.inputs = inputs;
+	}
+
+	public byte[] getInputs(){
+		return inputs;
+	}
+}
@@ -0,0 +1,277 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESFastEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+/** 
+ * This channel ensures both secrecy and authenticity of the messages, using AES in GCM mode. <p>
+ * 
+ * Unlike composing {@link EncryptedChannel} and {@link AuthenticatedChannel}, this channel does not wrap the message in a ciphertext or 
+ * tagged object that is serialized again by the underlying channel. Each message is serialized into a buffer that is reused by the channel, 
+ * encrypted and authenticated in a single pass into a byte array holding the ciphertext followed by the tag, and this array is sent as is. 
+ * The received array is decrypted in place. <p>
+ * 
+ * The nonce of a message is the direction of the message, a random prefix that the sender chooses for each key, and the number of the message. 
+ * The prefix is sent once, before the first message sent with the key, and is authenticated as associated data of that message; 
+ * The receiver uses the prefix only after the tag of the first message verifies. The numbers are not sent. Each side keeps a counter of the messages 
+ * it sent and received. Therefore, the two parties should be created with different values of the initiator flag, and the messages 
+ * should arrive in the order they were sent (as is the case with the TCP channels). A message that was modified, replayed or reordered does not verify. 
+ * Since the prefix is random, channels that use the same key do not reuse nonces; still, a new key should be set for each channel when possible. <p>
+ * 
+ * AES-GCM is taken from the lightweight API of Bouncy Castle, since the default provider of Java 7 does not implement it, 
+ * and the provider of older Bouncy Castle versions does not accept associated data.
+ *    
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ */
+public class AeadChannel extends ChannelDecorator {
+
+	private static final int TAG_BYTES = 16;
+	private static final int NONCE_BYTES = 12;
+	private static final int PREFIX_BYTES = 7;		//The nonce is the direction, the prefix and a counter of 4 bytes.
+	private static final long MAX_MESSAGES = 1L << 32;
+	private static final byte[] NO_ASSOCIATED_DATA = new byte[0];
+	
+	private GCMBlockCipher encryptor = new GCMBlockCipher(new AESFastEngine());
+	private GCMBlockCipher decryptor = new GCMBlockCipher(new AESFastEngine());
+	private SecretKey key;
+	private KeyParameter keyParam;					//The key in the format of the Bouncy Castle ciphers.
+	private boolean initiator;						//Indicates the direction of the messages sent by this party.
+	private SecureRandom random = new SecureRandom();
+	private byte[] sendPrefix = new byte[PREFIX_BYTES];	//The random prefix of the nonces of the sent messages.
+	private byte[] receivePrefix;					//The prefix of the nonces of the received messages. Null until the first message is received.
+	private long sendCounter;						//The number of messages sent with the current key.
+	private long receiveCounter;					//The number of messages received with the current key.
+	private byte[] nonce = new byte[NONCE_BYTES];
+	private SerializationBuffer buffer = new SerializationBuffer();
+	
+	/**
+	 * Byte array output stream that gives access to its internal buffer, so the serialized message can be encrypted without copying it.
+	 */
+	private static class SerializationBuffer extends ByteArrayOutputStream {
+		byte[] array(){
+			return buf;
+		}
+	}
+	
+	/**
+	 * This constructor can only be used by SCAPI's CommunicationSetup class.
+	 * Creates a new AeadChannel that wraps the given connected channel and takes the key from the output of the key exchange protocol.
+	 * @param channel an already connected channel
+	 * @param keyExchangeOutput the output of the key exchange protocol that was executed on the channel. 
+	 * @param initiator true if this party is the party that initiated the connection.
+	 * @throws InvalidKeyException if the encryption key of the key exchange output is not a valid AES key.
+	 */
+	AeadChannel(PlainChannel channel, KeyExchangeOutput keyExchangeOutput, boolean initiator) throws InvalidKeyException {
+		this(channel, initiator);
+		Key encKey = keyExchangeOutput.getEncKey();
+		if (encKey == null){
+			throw new InvalidKeyException("The key exchange did not output an encryption key");
+		}
+		setKey(new SecretKeySpec(encKey.getEncoded(), "AES"));
+	}
+	
+	/**
+	 * This public constructor can be used by anyone holding a channel that is connected. Such a channel can be obtained by running the prepareForCommunications function
+	 * of {@link CommunicationSetup} which returns a set of already connected channels.<p>
+	 * The key does not need to be set at this moment, but before sending or receiving a message over this channel the relevant secret key must be set.
+	 * @param channel an already connected channel
+	 * @param initiator should be true in one of the parties of the channel and false in the other one.
+	 */
+	public AeadChannel(PlainChannel channel, boolean initiator) {
+		super(channel);
+		this.initiator = initiator;
+	}
+	
+	/**
+	 * This public constructor can be used by anyone holding a channel that is connected and a key that was agreed by both parties.
+	 * @param channel an already connected channel
+	 * @param key an AES key of 128, 192 or 256 bits. 
+	 * @param initiator should be true in one of the parties of the channel and false in the other one.
+	 * @throws InvalidKeyException if the given key is not a valid AES key.
+	 */
+	public AeadChannel(PlainChannel channel, SecretKey key, boolean initiator) throws InvalidKeyException {
+		this(channel, initiator);
+		setKey(key);
+	}
+	
+	/**
+	 * Sets the key of the channel. This function must be called before sending or receiving messages if the key was not given in the constructor. 
+	 * Setting a key restarts the counters of the messages and chooses a new prefix of the nonces, 
+	 * so both parties should set the new key between the same messages.
+	 * @param key an AES key of 128, 192 or 256 bits.
+	 * @throws InvalidKeyException if the given key is not a valid AES key.
+	 * @throws IllegalArgumentException if the given key is the current key of the channel.
+	 */
+	public void setKey(SecretKey key) throws InvalidKeyException{
+		byte[] encoded = key.getEncoded();
+		if (encoded.length != 16 && encoded.length != 24 && encoded.length != 32){
+			throw new InvalidKeyException("AES key size should be 128, 192 or 256 bits");
+		}
+		if (this.key != null && MessageDigest.isEqual(this.key.getEncoded(), encoded)){
+			throw new IllegalArgumentException("The new key should be different from the current key");
+		}
+		this.key = key;
+		keyParam = new KeyParameter(encoded);
+		random.nextBytes(sendPrefix);
+		receivePrefix = null;
+		sendCounter = 0;
+		receiveCounter = 0;
+	}
+	
+	/**
+	 * Receives a message sent by the other party, decrypts it in place and returns the actual message object sent by the other party.
+	 * @return <B> the actual object </B> sent by the other party, if the message verifies<p>
+	 * 		   <B>{@code null}</B> if the message does not verify	
+	 * @throws IllegalStateException if the key was not set.
+	 */
+	public Serializable receive() throws ClassNotFoundException, IOException {
+		checkKey();
+		byte[] frame = (byte[]) channel.receive();
+		
+		//The first frame of the key starts with the prefix of the nonces of the other party.
+		//The prefix is kept only after the tag of the frame verifies, so a forged first frame cannot replace it.
+		boolean first = (receivePrefix == null);
+		byte[] prefix = receivePrefix;
+		int offset = 0;
+		if (first){
+			if (frame.length < PREFIX_BYTES){
+				return null;
+			}
+			prefix = Arrays.copyOf(frame, PREFIX_BYTES);
+			offset = PREFIX_BYTES;
+		}
+		//Each received frame after the first one consumes a nonce even if it does not verify, so the counters stay synchronized with the sender.
+		//The first frame consumes its nonce only if it verifies.
+		long counter = first ? receiveCounter : receiveCounter++;
+		if (frame.length - offset < TAG_BYTES){
+			return null;
+		}
+		int length;
+		try {
+			decryptor.init(false, new AEADParameters(keyParam, TAG_BYTES * 8, nonce(!initiator, prefix, counter), first ? prefix : NO_ASSOCIATED_DATA));
+			length = decryptor.processBytes(frame, offset, frame.length - offset, frame, 0);
+			length += decryptor.doFinal(frame, length);
+		} catch (InvalidCipherTextException e) {
+			//A tag that does not verify.
+			return null;
+		}
+		if (first){
+			receivePrefix = prefix;
+			receiveCounter++;
+		}
+		
+		ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(frame, 0, length));
+		return (Serializable) ois.readObject();
+	}
+
+	/**
+	 * Sends an encrypted and authenticated message on the channel. 
+	 * The message is serialized into the buffer of the channel and encrypted from there into the sent array.
+	 * @param msg the object to send to the other party AS IS, the only constraint is that it must be Serializable
+	 * @throws IllegalStateException if the key was not set, or if 2^32 messages were sent with the current key.
+	 */
+	public void send(Serializable msg) throws IOException {
+		checkKey();
+		if (sendCounter == MAX_MESSAGES){
+			throw new IllegalStateException("The number of messages sent with the current key reached the maximum. A new key should be set");
+		}
+		buffer.reset();
+		ObjectOutputStream oos = new ObjectOutputStream(buffer);
+		oos.writeObject(msg);
+		oos.flush();
+		
+		int length = buffer.size();
+		//The first frame of the key starts with the prefix of the nonces.
+		int offset = (sendCounter == 0) ? PREFIX_BYTES : 0;
+		byte[] frame = new byte[offset + length + TAG_BYTES];
+		System.arraycopy(sendPrefix, 0, frame, 0, offset);
+		//The prefix is authenticated as associated data of the first frame.
+		encryptor.init(true, new AEADParameters(keyParam, TAG_BYTES * 8, nonce(initiator, sendPrefix, sendCounter++), (offset > 0) ? sendPrefix : NO_ASSOCIATED_DATA));
+		int written = encryptor.processBytes(buffer.array(), 0, length, frame, offset);
+		try {
+			encryptor.doFinal(frame, offset + written);
+		} catch (InvalidCipherTextException e) {
+			//Encryption does not check a tag.
+			throw new IOException(e);
+		}
+		channel.send(frame);
+	}
+	
+	private void checkKey(){
+		if (key == null){
+			throw new IllegalStateException("The key of the channel was not set");
+		}
+	}
+	
+	/**
+	 * Returns the nonce of the message with the given prefix and counter, sent by the initiator or by the other party.
+	 * The returned array is reused by the next call.
+	 */
+	private byte[] nonce(boolean fromInitiator, byte[] prefix, long counter){
+		nonce[0] = (byte) (fromInitiator ? 1 : 2);
+		System.arraycopy(prefix, 0, nonce, 1, PREFIX_BYTES);
+		for (int i = 0; i < 4; i++){
+			nonce[NONCE_BYTES - 1 - i] = (byte) (counter >>> (8 * i));
+		}
+		return nonce;
+	}
+
+	/**
+	 * Close the channel.
+	 */
+	public void close() {
+		channel.close();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.biu.scapi.comm.Channel#isClosed()
+	 */
+	@Override
+	public boolean isClosed() {
+		return this.channel.isClosed();
+	}
+}
@@ -0,0 +1,165 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.logging.Level;
+
+import edu.biu.scapi.generals.Logging;
+
+/**
+ * This channel coalesces consecutive sent messages into one frame, so a round of a protocol that sends several small messages 
+ * (such as a commitment followed by a proof) is sent to the other party as one message of the underlying channel, 
+ * instead of a TCP segment and a system call for each message. <p>
+ * 
+ * The sent messages are serialized into a buffer, which is sent when:
+ * <ul>
+ * <li>the party calls {@link #receive()}, since the other party probably waits for the buffered messages before it answers,</li>
+ * <li>the party calls {@link #flush()} explicitly, or</li>
+ * <li>the buffer reaches its maximal size.</li>
+ * </ul>
+ * Both parties should wrap their channel with a CoalescingChannel, since the frames are unpacked by the receiving side. 
+ * The channel should be used by one thread at a time.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CoalescingChannel implements Channel {
+	
+	private static final int DEFAULT_MAX_BUFFER = 64 * 1024;
+	
+	private Channel channel;
+	private int maxBuffer;
+	private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+	private ObjectOutputStream frame;						//Writes the messages of the current frame into the buffer. Null if there are no buffered messages.
+	private ArrayDeque<Message> received = new ArrayDeque<Message>();	//Messages of the last received frame that were not returned yet.
+	
+	/**
+	 * Constructor that wraps the given channel with the default maximal buffer size of 64 KB.
+	 * @param channel the channel to send the frames on.
+	 */
+	public CoalescingChannel(Channel channel){
+		this(channel, DEFAULT_MAX_BUFFER);
+	}
+	
+	/**
+	 * Constructor that wraps the given channel.
+	 * @param channel the channel to send the frames on.
+	 * @param maxBuffer the size in bytes of buffered messages that causes the buffer to be sent.
+	 */
+	public CoalescingChannel(Channel channel, int maxBuffer){
+		if (maxBuffer < 1){
+			throw new IllegalArgumentException("the maximal buffer size should be positive");
+		}
+		this.channel = channel;
+		this.maxBuffer = maxBuffer;
+	}
+
+	/**
+	 * Adds the message to the current frame. The frame is sent if its size reached the maximal buffer size.
+	 */
+	@Override
+	public void send(Serializable data) throws IOException {
+		if (frame == null){
+			buffer.reset();
+			frame = new ObjectOutputStream(buffer);
+		}
+		//Each message is preceded by true, and the frame ends with false.
+		frame.writeBoolean(true);
+		//Each message is written as a new object, since the caller may change an object after sending it and then send it again. 
+		//The reset also forgets the objects that are contained in the message.
+		frame.writeUnshared(data);
+		frame.reset();
+		frame.flush();
+		if (buffer.size() >= maxBuffer){
+			flush();
+		}
+	}
+	
+	/**
+	 * Sends the buffered messages as one frame. Does nothing if there are no buffered messages.
+	 */
+	public void flush() throws IOException {
+		if (frame == null){
+			return;
+		}
+		frame.writeBoolean(false);
+		frame.close();
+		frame = null;
+		channel.send(buffer.toByteArray());
+	}
+
+	/**
+	 * Sends the buffered messages and returns the next message sent by the other party.
+	 */
+	@Override
+	public Serializable receive() throws ClassNotFoundException, IOException {
+		flush();
+		if (received.isEmpty()){
+			ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream((byte[]) channel.receive()));
+			while (in.readBoolean()){
+				received.add(new Message((Serializable) in.readUnshared()));
+			}
+		}
+		return received.poll().data;
+	}
+	
+	/**
+	 * Holds a received message, since the queue does not accept null messages.
+	 */
+	private static class Message {
+		private Serializable data;
+		
+		Message(Serializable data){
+			this.data = data;
+		}
+	}
+
+	/**
+	 * Sends the buffered messages and closes the channel.
+	 */
+	@Override
+	public void close() {
+		try {
+			flush();
+		} catch (IOException e) {
+			Logging.getLogger().log(Level.WARNING, e.toString());
+		}
+		channel.close();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return channel.isClosed();
+	}
+}
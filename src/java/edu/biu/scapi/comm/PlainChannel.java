@@ -55,7 +55,7 @@ public abstract class PlainChannel implements Channel {
 
 	}
 	
-	private State state;
+	private volatile State state;		//Volatile since the state is set by the connecting threads and read by the waiting thread.
 	
 	
 	
@@ -0,0 +1,367 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.logging.Level;
+
+import edu.biu.scapi.comm.twoPartyComm.ConnectBackoff;
+import edu.biu.scapi.generals.Logging;
+
+/**
+ * This channel survives failures of the underlying connection. When the connection fails, the channel creates a new one using a 
+ * {@link ChannelReconnector}, and both parties resend the messages that the other party did not receive. Thus, a long protocol 
+ * (such as the offline phase of a two party computation) continues after a network failure instead of being restarted. <p>
+ * 
+ * Each sent message is numbered and serialized when it is sent, so the caller may change the object afterwards. 
+ * The serialized messages are kept in a replay buffer until the other party acknowledges them. 
+ * The acknowledgments are added to the sent messages, and a party that receives many bytes without sending also sends 
+ * acknowledgments of its own. When the replay buffer is full, sending waits for acknowledgments, so a party can not get too far 
+ * ahead of the other party. <p>
+ * 
+ * Closing the channel tells the other party that the channel was closed, so the other party does not try to reconnect. <p>
+ * 
+ * After reconnecting, each party sends the number of the last message it received and then resends the messages that come after 
+ * the number sent by the other party. The parties should wrap their channels at the same point of the protocol, and the channel 
+ * should be used by one thread at a time.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ResumableChannel implements Channel {
+	
+	private static final int DEFAULT_MAX_UNACKNOWLEDGED = 1024 * 1024;
+	private static final int DEFAULT_MAX_ATTEMPTS = 10;
+	private static final long INITIAL_RETRY_MILLIS = 100;	//The waiting time after the first failed reconnection.
+	private static final long MAX_RETRY_MILLIS = 10000;		//The maximal waiting time between reconnections.
+	
+	private static final byte DATA = 0;
+	private static final byte ACK = 1;
+	private static final byte RESUME = 2;
+	private static final byte CLOSE = 3;
+	
+	/**
+	 * The message that is sent on the underlying channel.
+	 */
+	private static class Frame implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private byte type;
+		private long seq;				//The number of a data message.
+		private long ack;				//The number of the last message that the sender received.
+		private byte[] data;			//The serialized message.
+		
+		Frame(byte type, long seq, long ack, byte[] data){
+			this.type = type;
+			this.seq = seq;
+			this.ack = ack;
+			this.data = data;
+		}
+	}
+	
+	private Channel channel;
+	private ChannelReconnector reconnector;
+	private int maxUnacknowledged;
+	private int ackInterval;			//The number of received bytes after which an acknowledgment is sent if the party did not send.
+	private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+	private ArrayDeque<Frame> unacknowledged = new ArrayDeque<Frame>();	//The replay buffer.
+	private long unacknowledgedBytes;	//The size of the messages in the replay buffer.
+	private ArrayDeque<byte[]> received = new ArrayDeque<byte[]>();		//Messages that were received while waiting for acknowledgments.
+	private long sentSeq;				//The number of the last sent message.
+	private long receivedSeq;			//The number of the last received message.
+	private long acknowledgedSeq;		//The number of the last received message that was acknowledged to the other party.
+	private long receivedBytes;			//The size of the received messages that were not acknowledged to the other party.
+	private int reconnections;
+	private boolean isClosed;
+	private boolean isClosedByOther;
+	
+	/**
+	 * Constructor that wraps the given channel with a replay buffer of 1 MB.
+	 * @param channel the current connection to the other party.
+	 * @param reconnector creates a new connection when the current one fails.
+	 */
+	public ResumableChannel(Channel channel, ChannelReconnector reconnector){
+		this(channel, reconnector, DEFAULT_MAX_UNACKNOWLEDGED);
+	}
+	
+	/**
+	 * Constructor that wraps the given channel.
+	 * @param channel the current connection to the other party.
+	 * @param reconnector creates a new connection when the current one fails.
+	 * @param maxUnacknowledged the size of the replay buffer; the number of bytes of sent messages that the other party did not acknowledge yet. 
+	 * 		  Sending waits when the buffer is full, so the buffer may exceed this size by one message.
+	 */
+	public ResumableChannel(Channel channel, ChannelReconnector reconnector, int maxUnacknowledged){
+		if (maxUnacknowledged < 1){
+			throw new IllegalArgumentException("the replay buffer size should be positive");
+		}
+		this.channel = channel;
+		this.reconnector = reconnector;
+		this.maxUnacknowledged = maxUnacknowledged;
+		this.ackInterval = Math.max(1, maxUnacknowledged / 2);
+	}
+	
+	/**
+	 * Sets the number of times the channel tries to reconnect after a failure before giving up. The default is 10.
+	 * @param maxAttempts the number of attempts, should be positive.
+	 */
+	public void setMaxAttempts(int maxAttempts){
+		if (maxAttempts < 1){
+			throw new IllegalArgumentException("the number of attempts should be positive");
+		}
+		this.maxAttempts = maxAttempts;
+	}
+	
+	/**
+	 * @return the number of times the underlying connection was replaced.
+	 */
+	public int getReconnections(){
+		return reconnections;
+	}
+
+	/**
+	 * Serializes and numbers the message, adds it to the replay buffer and sends it. 
+	 * If the replay buffer is full, waits until the other party acknowledges some of the messages.
+	 * @throws IOException if the connection failed and could not be resumed.
+	 */
+	@Override
+	public void send(Serializable data) throws IOException {
+		checkOpen();
+		byte[] message = serialize(data);
+		//The buffer may exceed its size by the last message, so the other party always receives enough bytes to acknowledge.
+		while (unacknowledgedBytes >= maxUnacknowledged){
+			//Messages that arrive while waiting are kept for the next calls to receive.
+			Frame frame = readFrame();
+			if (frame.type == DATA && accept(frame)){
+				received.add(frame.data);
+				sendAckIfNeeded();
+			}
+		}
+		Frame frame = new Frame(DATA, ++sentSeq, receivedSeq, message);
+		unacknowledged.add(frame);
+		unacknowledgedBytes += message.length;
+		acknowledgedSeq = receivedSeq;
+		receivedBytes = 0;
+		try {
+			channel.send(frame);
+		} catch (IOException e) {
+			//The frame is in the replay buffer, so it is sent again after reconnecting.
+			reconnect(e);
+		}
+	}
+
+	/**
+	 * Returns the next message of the other party. Messages that were already received after a failure are skipped.
+	 * @throws IOException if the connection failed and could not be resumed.
+	 */
+	@Override
+	public Serializable receive() throws ClassNotFoundException, IOException {
+		checkOpen();
+		while (received.isEmpty()){
+			Frame frame = readFrame();
+			if (frame.type == DATA && accept(frame)){
+				received.add(frame.data);
+			}
+		}
+		sendAckIfNeeded();
+		return deserialize(received.poll());
+	}
+	
+	private static byte[] serialize(Serializable data) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(data);
+		out.close();
+		return bytes.toByteArray();
+	}
+	
+	private static Serializable deserialize(byte[] data) throws ClassNotFoundException, IOException {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data));
+		try {
+			return (Serializable) in.readObject();
+		} finally {
+			in.close();
+		}
+	}
+	
+	/**
+	 * Reads the next frame from the current connection, and reconnects if the connection failed. 
+	 * Removes the acknowledged messages from the replay buffer.
+	 * @throws EOFException if the other party closed the channel.
+	 */
+	private Frame readFrame() throws IOException {
+		while (true){
+			try {
+				Frame frame = (Frame) channel.receive();
+				acknowledge(frame.ack);
+				if (frame.type == CLOSE){
+					isClosedByOther = true;
+					throw new EOFException("the other party closed the channel");
+				}
+				return frame;
+			} catch (ClassNotFoundException e) {
+				//The class of a message is not known. This is not a connection failure, so the connection is not resumed.
+				throw new IOException("the received message can not be read", e);
+			} catch (IOException e) {
+				reconnect(e);
+			}
+		}
+	}
+	
+	/**
+	 * Checks the number of the given data frame.
+	 * @return true if this is the next message, false if it was already received.
+	 * @throws IOException if messages before this one are missing.
+	 */
+	private boolean accept(Frame frame) throws IOException {
+		if (frame.seq <= receivedSeq){
+			return false;
+		}
+		if (frame.seq != receivedSeq + 1){
+			throw new IOException("messages " + (receivedSeq + 1) + " to " + (frame.seq - 1) + " were lost");
+		}
+		receivedSeq = frame.seq;
+		receivedBytes += frame.data.length;
+		return true;
+	}
+	
+	private void acknowledge(long ack){
+		while (!unacknowledged.isEmpty() && unacknowledged.peek().seq <= ack){
+			unacknowledgedBytes -= unacknowledged.poll().data.length;
+		}
+	}
+	
+	/**
+	 * Sends an acknowledgment if the party received many bytes since it last sent one.
+	 */
+	private void sendAckIfNeeded() throws IOException {
+		if (receivedSeq == acknowledgedSeq || receivedBytes < ackInterval){
+			return;
+		}
+		acknowledgedSeq = receivedSeq;
+		receivedBytes = 0;
+		try {
+			channel.send(new Frame(ACK, 0, receivedSeq, null));
+		} catch (IOException e) {
+			//The acknowledgment is part of the resume message.
+			reconnect(e);
+		}
+	}
+	
+	/**
+	 * Replaces the failed connection and resends the messages that the other party did not receive.
+	 * @param cause the failure of the current connection.
+	 * @throws IOException if one of the parties closed the channel or all the attempts failed.
+	 */
+	private void reconnect(IOException cause) throws IOException {
+		if (isClosed || isClosedByOther){
+			throw cause;
+		}
+		Logging.getLogger().log(Level.WARNING, "The connection failed, reconnecting: " + cause);
+		channel.close();
+		
+		ConnectBackoff backoff = new ConnectBackoff(INITIAL_RETRY_MILLIS, MAX_RETRY_MILLIS);
+		IOException failure = cause;
+		for (int attempt = 0; attempt < maxAttempts; attempt++){
+			Channel next = null;
+			try {
+				next = reconnector.reconnect();
+				next.send(new Frame(RESUME, 0, receivedSeq, null));
+				Frame resume = (Frame) next.receive();
+				if (resume.type != RESUME){
+					throw new IOException("the other party did not resume the connection");
+				}
+				acknowledge(resume.ack);
+				if (!unacknowledged.isEmpty() && unacknowledged.peek().seq != resume.ack + 1){
+					throw new IOException("the other party is missing messages that are not in the replay buffer");
+				}
+				for (Frame frame : unacknowledged){
+					next.send(frame);
+				}
+				channel = next;
+				acknowledgedSeq = receivedSeq;
+				receivedBytes = 0;
+				reconnections++;
+				return;
+			} catch (ClassNotFoundException e) {
+				throw new IOException("the resume message can not be read", e);
+			} catch (IOException e) {
+				failure = e;
+				Logging.getLogger().log(Level.WARNING, "Reconnecting failed: " + e);
+				if (next != null){
+					next.close();
+				}
+			}
+			if (attempt + 1 < maxAttempts){
+				try {
+					backoff.pause();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		throw new IOException("the connection could not be resumed", failure);
+	}
+	
+	private void checkOpen(){
+		if (isClosed){
+			throw new IllegalStateException("the channel is closed");
+		}
+	}
+
+	/**
+	 * Tells the other party that the channel is closed and closes the underlying connection. 
+	 * The channel does not reconnect to send the close message, since the other party detects the failure anyway.
+	 */
+	@Override
+	public void close() {
+		if (isClosed){
+			return;
+		}
+		isClosed = true;
+		if (!isClosedByOther){
+			try {
+				channel.send(new Frame(CLOSE, 0, receivedSeq, null));
+			} catch (IOException e) {
+				Logging.getLogger().log(Level.FINE, "The close message was not sent: " + e);
+			}
+		}
+		channel.close();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return isClosed;
+	}
+}
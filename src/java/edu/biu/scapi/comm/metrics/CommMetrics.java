@@ -0,0 +1,332 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.SerializedMessageChannel;
+
+/**
+ * This class collects communication metrics of the channels and the phases of the protocols. <p>
+ * 
+ * The metrics are disabled by default, and can be enabled by setting the system property {@code scapi.metrics} to true or by calling 
+ * {@link #setEnabled(boolean)}. When they are disabled, {@link #meter(Channel, String)} returns the given channel and {@link #startSpan(String)} 
+ * returns a shared span that does nothing, so the instrumented code runs at the same speed as without the metrics. <p>
+ * 
+ * Only the traffic of metered channels is counted. The communication setups return plain channels, so the caller meters them right after 
+ * the setup, while the metrics are enabled:
+ * <pre>
+ * Map&lt;String, Channel&gt; connections = CommMetrics.meter(setup.prepareForCommunication(2, timeout), "p1-");
+ * </pre>
+ * The applications of the malicious Yao protocol meter their channels this way in their CommunicationConfig, 
+ * so running them with {@code -Dscapi.metrics=true} fills the spans of the protocol phases. <p>
+ * 
+ * The collected metrics can be exported as JSON by {@link #toJson()} or through JMX after calling {@link #registerMBean()}.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CommMetrics {
+	
+	/**
+	 * The name the MXBean is registered with.
+	 */
+	public static final String OBJECT_NAME = "edu.biu.scapi:type=CommMetrics";
+	
+	private static volatile boolean enabled = Boolean.getBoolean("scapi.metrics");
+	private static final ThreadLocal<CommSpan> currentSpan = new ThreadLocal<CommSpan>();
+	private static final Map<String, CommStats> channels = new LinkedHashMap<String, CommStats>();
+	private static final List<CommSpan> spans = new ArrayList<CommSpan>();
+	private static volatile CommStats total = new CommStats();
+	
+	private CommMetrics(){}
+	
+	/**
+	 * @return true if the metrics are collected.
+	 */
+	public static boolean isEnabled(){
+		return enabled;
+	}
+	
+	/**
+	 * Starts or stops the collection of the metrics. Channels and spans that were created while the metrics were disabled are not metered.
+	 */
+	public static void setEnabled(boolean enable){
+		enabled = enable;
+	}
+	
+	/**
+	 * Returns a channel that counts the messages sent and received on the given channel. 
+	 * Channels that are metered with the same name share their statistics.
+	 * @param channel the channel to meter.
+	 * @param name the name of the channel in the statistics.
+	 * @return a metered channel that wraps the given channel, or the given channel itself if the metrics are disabled.
+	 */
+	public static Channel meter(Channel channel, String name){
+		if (!enabled){
+			return channel;
+		}
+		CommStats stats;
+		synchronized (channels) {
+			stats = channels.get(name);
+			if (stats == null){
+				stats = new CommStats();
+				channels.put(name, stats);
+			}
+		}
+		if (channel instanceof SerializedMessageChannel){
+			return new MeteredSerializedChannel((SerializedMessageChannel) channel, stats);
+		}
+		return new MeteredChannel(channel, stats);
+	}
+	
+	/**
+	 * Meters all the channels in the given map. The name of each channel is the given prefix followed by its key.
+	 * @param channels the channels to meter.
+	 * @param prefix the prefix of the names of the channels.
+	 * @return a map with the same keys and the metered channels.
+	 */
+	public static Map<String, Channel> meter(Map<String, Channel> channels, String prefix){
+		if (!enabled){
+			return channels;
+		}
+		Map<String, Channel> metered = new LinkedHashMap<String, Channel>();
+		for (Map.Entry<String, Channel> entry : channels.entrySet()){
+			metered.put(entry.getKey(), meter(entry.getValue(), prefix + entry.getKey()));
+		}
+		return metered;
+	}
+	
+	/**
+	 * Starts a span in the calling thread. If the thread is already in a span, the new span is its child.
+	 * @param name the name of the span.
+	 * @return the started span, which should be closed by the same thread.
+	 */
+	public static CommSpan startSpan(String name){
+		if (!enabled){
+			return CommSpan.DISABLED;
+		}
+		CommSpan parent = currentSpan.get();
+		CommSpan span = new CommSpan(name, parent);
+		if (parent == null){
+			synchronized (spans) {
+				spans.add(span);
+			}
+		}
+		currentSpan.set(span);
+		return span;
+	}
+	
+	/**
+	 * Called when the given span is closed. If the current span of the thread is the given span or one of its descendants 
+	 * (that were not closed because of an exception), the parent of the given span becomes the current span.
+	 */
+	static void endSpan(CommSpan span){
+		for (CommSpan open = currentSpan.get(); open != null; open = open.getParent()){
+			if (open == span){
+				if (span.getParent() == null){
+					currentSpan.remove();
+				} else {
+					currentSpan.set(span.getParent());
+				}
+				return;
+			}
+		}
+	}
+	
+	static void recordSend(CommStats stats, int bytes, long serializationTime){
+		stats.recordSend(bytes, serializationTime);
+		total.recordSend(bytes, serializationTime);
+		for (CommSpan span = currentSpan.get(); span != null; span = span.getParent()){
+			span.getStats().recordSend(bytes, serializationTime);
+		}
+	}
+	
+	static void recordReceive(CommStats stats, long blockedTime){
+		stats.recordReceive(blockedTime);
+		total.recordReceive(blockedTime);
+		for (CommSpan span = currentSpan.get(); span != null; span = span.getParent()){
+			span.getStats().recordReceive(blockedTime);
+		}
+	}
+	
+	/**
+	 * @return the totals of all the metered channels.
+	 */
+	public static CommStats getTotal(){
+		return total;
+	}
+	
+	/**
+	 * @return the statistics of each metered channel, by name.
+	 */
+	public static Map<String, CommStats> getChannelStats(){
+		synchronized (channels) {
+			return new LinkedHashMap<String, CommStats>(channels);
+		}
+	}
+	
+	/**
+	 * @return the spans that were started outside of any other span, in the order they were started.
+	 */
+	public static List<CommSpan> getSpans(){
+		synchronized (spans) {
+			return new ArrayList<CommSpan>(spans);
+		}
+	}
+	
+	/**
+	 * Removes all the recorded statistics. Metered channels that were already created keep counting into their previous statistics objects.
+	 */
+	public static void reset(){
+		synchronized (channels) {
+			channels.clear();
+		}
+		synchronized (spans) {
+			spans.clear();
+		}
+		total = new CommStats();
+	}
+	
+	/**
+	 * Returns the metrics as a JSON object with the fields "total", "channels" (an object from the channel names to their statistics) 
+	 * and "spans" (an array of span trees).
+	 */
+	public static String toJson(){
+		StringBuilder json = new StringBuilder("{\"total\":{");
+		total.appendJson(json);
+		json.append("},\"channels\":{");
+		boolean first = true;
+		for (Map.Entry<String, CommStats> entry : getChannelStats().entrySet()){
+			if (!first){
+				json.append(',');
+			}
+			first = false;
+			appendString(json, entry.getKey());
+			json.append(":{");
+			entry.getValue().appendJson(json);
+			json.append('}');
+		}
+		json.append("},\"spans\":[");
+		List<CommSpan> roots = getSpans();
+		for (int i = 0; i < roots.size(); i++){
+			if (i > 0){
+				json.append(',');
+			}
+			roots.get(i).appendJson(json);
+		}
+		json.append("]}");
+		return json.toString();
+	}
+	
+	/**
+	 * Appends the given string to the builder as a quoted JSON string.
+	 */
+	static void appendString(StringBuilder json, String value){
+		json.append('"');
+		for (int i = 0; i < value.length(); i++){
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\'){
+				json.append('\\').append(c);
+			} else if (c < 0x20){
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+	
+	/**
+	 * Registers the metrics in the platform MBean server under {@link #OBJECT_NAME}, if they were not registered yet.
+	 * @throws IllegalStateException if the registration failed.
+	 */
+	public static void registerMBean(){
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			synchronized (CommMetrics.class) {
+				if (!server.isRegistered(name)){
+					server.registerMBean(new MXBean(), name);
+				}
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException("Could not register the communication metrics MBean", e);
+		}
+	}
+	
+	/**
+	 * The implementation of the MXBean, which reads the static metrics.
+	 */
+	private static class MXBean implements CommMetricsMXBean {
+
+		public boolean isEnabled() {
+			return CommMetrics.isEnabled();
+		}
+
+		public void setEnabled(boolean enabled) {
+			CommMetrics.setEnabled(enabled);
+		}
+
+		public long getSentMessages() {
+			return total.getSentMessages();
+		}
+
+		public long getSentBytes() {
+			return total.getSentBytes();
+		}
+
+		public long getSerializationNanos() {
+			return total.getSerializationNanos();
+		}
+
+		public long getReceivedMessages() {
+			return total.getReceivedMessages();
+		}
+
+		public long getBlockedNanos() {
+			return total.getBlockedNanos();
+		}
+
+		public String getJson() {
+			return toJson();
+		}
+
+		public void reset() {
+			CommMetrics.reset();
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.metrics;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A span marks a phase of a protocol, such as the offline phase or a cut and choose sub protocol. <p>
+ * A span is started by {@link CommMetrics#startSpan(String)} and ended by {@link #close()}, and spans that are started inside 
+ * a span of the same thread become its children. The messages that a thread sends and receives on metered channels while 
+ * a span is open are counted in the span and in all its ancestors. <p>
+ * Usage:
+ * <pre>
+ * CommSpan span = CommMetrics.startSpan("offline");
+ * try {
+ * 	...
+ * } finally {
+ * 	span.close();
+ * }
+ * </pre>
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CommSpan implements Closeable {
+	
+	/**
+	 * The span returned when the metrics are disabled. Closing it does nothing.
+	 */
+	static final CommSpan DISABLED = new CommSpan("disabled", null);
+	
+	private final String name;
+	private final CommSpan parent;
+	private final long start;
+	private volatile long end;
+	private final CommStats stats = new CommStats();
+	private final List<CommSpan> children = new ArrayList<CommSpan>();
+	
+	CommSpan(String name, CommSpan parent){
+		this.name = name;
+		this.parent = parent;
+		this.start = System.nanoTime();
+		if (parent != null){
+			synchronized (parent.children) {
+				parent.children.add(this);
+			}
+		}
+	}
+	
+	/**
+	 * Ends the span. The enclosing span of the thread becomes the current span again.
+	 */
+	public void close(){
+		if (this == DISABLED || end != 0){
+			return;
+		}
+		end = System.nanoTime();
+		CommMetrics.endSpan(this);
+	}
+	
+	/**
+	 * @return the name of the span.
+	 */
+	public String getName(){
+		return name;
+	}
+	
+	CommSpan getParent(){
+		return parent;
+	}
+	
+	/**
+	 * @return the time between the start and the end of the span, or until now if the span was not closed yet, in nanoseconds. 
+	 */
+	public long getDurationNanos(){
+		long endTime = end;
+		return ((endTime == 0) ? System.nanoTime() : endTime) - start;
+	}
+	
+	/**
+	 * @return the communication counters of this span, including its children.
+	 */
+	public CommStats getStats(){
+		return stats;
+	}
+	
+	/**
+	 * @return the spans that were started inside this span.
+	 */
+	public List<CommSpan> getChildren(){
+		synchronized (children) {
+			return new ArrayList<CommSpan>(children);
+		}
+	}
+	
+	void appendJson(StringBuilder json){
+		json.append("{\"name\":");
+		CommMetrics.appendString(json, name);
+		json.append(",\"durationNanos\":").append(getDurationNanos()).append(',');
+		stats.appendJson(json);
+		json.append(",\"children\":[");
+		List<CommSpan> spans = getChildren();
+		for (int i = 0; i < spans.size(); i++){
+			if (i > 0){
+				json.append(',');
+			}
+			spans.get(i).appendJson(json);
+		}
+		json.append("]}");
+	}
+}
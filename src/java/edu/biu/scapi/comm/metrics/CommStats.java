@@ -0,0 +1,103 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class holds the communication counters of a channel or of a span. <p>
+ * The counters are updated by the threads that use the metered channels, so they are atomic.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CommStats {
+	
+	private final AtomicLong sentMessages = new AtomicLong();
+	private final AtomicLong sentBytes = new AtomicLong();
+	private final AtomicLong serializationNanos = new AtomicLong();
+	private final AtomicLong receivedMessages = new AtomicLong();
+	private final AtomicLong blockedNanos = new AtomicLong();
+	
+	void recordSend(int bytes, long serializationTime){
+		sentMessages.incrementAndGet();
+		sentBytes.addAndGet(bytes);
+		serializationNanos.addAndGet(serializationTime);
+	}
+	
+	void recordReceive(long blockedTime){
+		receivedMessages.incrementAndGet();
+		blockedNanos.addAndGet(blockedTime);
+	}
+	
+	/**
+	 * @return the number of sent messages.
+	 */
+	public long getSentMessages(){
+		return sentMessages.get();
+	}
+	
+	/**
+	 * @return the number of bytes of the serialized sent messages. 
+	 * Messages sent on channels that serialize the messages themselves are counted without their bytes, see {@link MeteredChannel}.
+	 */
+	public long getSentBytes(){
+		return sentBytes.get();
+	}
+	
+	/**
+	 * @return the time spent serializing the sent messages, in nanoseconds.
+	 */
+	public long getSerializationNanos(){
+		return serializationNanos.get();
+	}
+	
+	/**
+	 * @return the number of received messages.
+	 */
+	public long getReceivedMessages(){
+		return receivedMessages.get();
+	}
+	
+	/**
+	 * @return the time spent in the receive function, waiting for the messages and reading them, in nanoseconds.
+	 */
+	public long getBlockedNanos(){
+		return blockedNanos.get();
+	}
+	
+	/**
+	 * Appends the counters to the given builder as the fields of a JSON object.
+	 */
+	void appendJson(StringBuilder json){
+		json.append("\"sentMessages\":").append(getSentMessages())
+			.append(",\"sentBytes\":").append(getSentBytes())
+			.append(",\"serializationNanos\":").append(getSerializationNanos())
+			.append(",\"receivedMessages\":").append(getReceivedMessages())
+			.append(",\"blockedNanos\":").append(getBlockedNanos());
+	}
+}
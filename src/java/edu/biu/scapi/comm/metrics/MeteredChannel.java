@@ -0,0 +1,113 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import edu.biu.scapi.comm.Channel;
+
+/**
+ * This channel wraps another channel and counts the messages sent and received on it. <p>
+ * For each received message the channel records the time the thread was blocked in the receive function. 
+ * This class counts the sent messages without their sizes, since the wrapped channel serializes the message itself and 
+ * serializing it again only to count the bytes would double the cost of sending. 
+ * Channels that implement {@link edu.biu.scapi.comm.SerializedMessageChannel} are wrapped by {@link MeteredSerializedChannel}, 
+ * which also records the serialized size of each sent message and the time it took to serialize it. The counters are added to the statistics of the channel, to the current 
+ * span of the calling thread and to the totals of {@link CommMetrics}. <p>
+ * Metered channels are created by {@link CommMetrics#meter(Channel, String)}, which returns the given channel itself when the metrics are disabled.
+ * If the metrics are disabled after the channel was created, the channel passes the calls to the wrapped channel without measuring them.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class MeteredChannel implements Channel {
+
+	protected final Channel channel;
+	protected final CommStats stats;
+	
+	MeteredChannel(Channel channel, CommStats stats){
+		this.channel = channel;
+		this.stats = stats;
+	}
+	
+	/**
+	 * @return the wrapped channel.
+	 */
+	public Channel getChannel(){
+		return channel;
+	}
+	
+	/**
+	 * @return the counters of this channel.
+	 */
+	public CommStats getStats(){
+		return stats;
+	}
+	
+	/**
+	 * Sends the message on the wrapped channel and counts it. The size of the message is not known, so no bytes are recorded.
+	 */
+	@Override
+	public void send(Serializable data) throws IOException {
+		channel.send(data);
+		if (CommMetrics.isEnabled()){
+			CommMetrics.recordSend(stats, 0, 0);
+		}
+	}
+
+	@Override
+	public Serializable receive() throws ClassNotFoundException, IOException {
+		if (!CommMetrics.isEnabled()){
+			return channel.receive();
+		}
+		long start = System.nanoTime();
+		Serializable data = channel.receive();
+		CommMetrics.recordReceive(stats, System.nanoTime() - start);
+		return data;
+	}
+
+	@Override
+	public void close() {
+		channel.close();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return channel.isClosed();
+	}
+	
+	static byte[] serialize(Serializable data) throws IOException {
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		ObjectOutputStream oOut = new ObjectOutputStream(bOut);
+		oOut.writeObject(data);
+		oOut.close();
+		return bOut.toByteArray();
+	}
+}
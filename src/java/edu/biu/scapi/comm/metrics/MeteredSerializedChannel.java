@@ -0,0 +1,68 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.metrics;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import edu.biu.scapi.comm.SerializedMessageChannel;
+
+/**
+ * Metered channel that wraps a {@link SerializedMessageChannel}. <p>
+ * The message is serialized once by this channel and the serialized message is passed to the wrapped channel, so metering 
+ * does not add a serialization.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class MeteredSerializedChannel extends MeteredChannel implements SerializedMessageChannel {
+
+	MeteredSerializedChannel(SerializedMessageChannel channel, CommStats stats) {
+		super(channel, stats);
+	}
+	
+	@Override
+	public void send(Serializable data) throws IOException {
+		if (!CommMetrics.isEnabled()){
+			channel.send(data);
+			return;
+		}
+		long start = System.nanoTime();
+		byte[] serialized = serialize(data);
+		long serializationTime = System.nanoTime() - start;
+		((SerializedMessageChannel) channel).sendSerialized(serialized);
+		CommMetrics.recordSend(stats, serialized.length, serializationTime);
+	}
+
+	@Override
+	public void sendSerialized(byte[] serialized) throws IOException {
+		((SerializedMessageChannel) channel).sendSerialized(serialized);
+		if (CommMetrics.isEnabled()){
+			CommMetrics.recordSend(stats, serialized.length, 0);
+		}
+	}
+}
@@ -0,0 +1,279 @@
+package edu.biu.scapi.comm.multiPartyComm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.SerializedMessageChannel;
+import edu.biu.scapi.comm.twoPartyComm.PartyData;
+
+/**
+ * This class executes a communication round with all the other parties of a multiparty protocol. <p>
+ *
+ * Sending a message to n-1 parties by calling {@link Channel#send(Serializable)} in a loop serializes the message n-1 times,
+ * and each send waits for the previous one, so the latency of a round grows with the number of parties.
+ * This class serializes every distinct message once, and sends and receives on all the channels at the same time,
+ * so a round takes about one network delay regardless of the number of parties. <p>
+ *
+ * The serialized message is passed to channels that implement {@link SerializedMessageChannel} (such as the channels
+ * created by {@link SocketMultipartyCommunicationSetup}); other channels get the message object itself. <p>
+ *
+ * Each channel is used by a single thread during a round, but the channels should not be used by the application
+ * while a round is executed.
+ *
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class MultipartyRound implements Closeable {
+
+	private Map<PartyData, Channel> channels;
+	private ExecutorService executor;
+	private boolean ownExecutor;		//Indicates if the executor was created by this class and should be shut down by it.
+
+	/**
+	 * Constructor that sets the given channels and creates a thread for each of the other parties.
+	 * @param channels the channel to each of the other parties.
+	 */
+	public MultipartyRound(Map<PartyData, Channel> channels){
+		this(channels, Executors.newFixedThreadPool(Math.max(1, channels.size() - 1), new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "MultipartyRound");
+				thread.setDaemon(true);
+				return thread;
+			}
+		}));
+		ownExecutor = true;
+	}
+
+	/**
+	 * Constructor that sets the given channels and executor. <p>
+	 * Each task of a round sends to a party and then waits for its message, so the executor needs a thread for each of the other parties 
+	 * but one (the calling thread runs the last task). With fewer threads, a task may be queued behind a task that waits for a message 
+	 * that the other party sends only after our queued task runs, and the rounds of the parties wait for each other forever. 
+	 * For the same reason, an executor that is shared by several rounds that run at the same time needs a thread for every task of all of them.
+	 * @param channels the channel to each of the other parties.
+	 * @param executor used to send and receive on the channels in parallel.
+	 * @throws IllegalArgumentException if the executor is a {@link ThreadPoolExecutor} whose maximal pool size is smaller than the number of the other parties minus one.
+	 */
+	public MultipartyRound(Map<PartyData, Channel> channels, ExecutorService executor){
+		if (executor instanceof ThreadPoolExecutor && ((ThreadPoolExecutor) executor).getMaximumPoolSize() < channels.size() - 1){
+			throw new IllegalArgumentException("The executor should have at least " + (channels.size() - 1) + " threads, one for each of the other parties but one");
+		}
+		this.channels = new LinkedHashMap<PartyData, Channel>(channels);
+		this.executor = executor;
+	}
+
+	/**
+	 * Constructor that takes the channels from the output of
+	 * {@link MultipartyCommunicationSetup#prepareForCommunication(Map, long)}.
+	 * @param connections the channels created by the communication setup.
+	 * @param connectionName the name of the connection to use with each party. If null, the first connection to each party is used.
+	 * @throws IllegalArgumentException if there is a party without such a connection.
+	 */
+	public MultipartyRound(Map<PartyData, Map<String, Channel>> connections, String connectionName){
+		this(selectChannels(connections, connectionName));
+	}
+
+	private static Map<PartyData, Channel> selectChannels(Map<PartyData, Map<String, Channel>> connections, String connectionName){
+		Map<PartyData, Channel> channels = new LinkedHashMap<PartyData, Channel>();
+		for (Map.Entry<PartyData, Map<String, Channel>> entry : connections.entrySet()){
+			Channel channel = null;
+			if (connectionName != null){
+				channel = entry.getValue().get(connectionName);
+			} else if (!entry.getValue().isEmpty()){
+				channel = entry.getValue().values().iterator().next();
+			}
+			if (channel == null){
+				throw new IllegalArgumentException("There is no connection " + connectionName + " to party " + entry.getKey());
+			}
+			channels.put(entry.getKey(), channel);
+		}
+		return channels;
+	}
+
+	/**
+	 * @return the parties of this round.
+	 */
+	public List<PartyData> getParties(){
+		return new ArrayList<PartyData>(channels.keySet());
+	}
+
+	/**
+	 * Sends the given message to all the other parties. <p>
+	 * The message is serialized once and written to all the channels in parallel.
+	 * The function returns after the message was written to all the channels.
+	 * @param msg the message to send.
+	 * @throws IOException if the sending to one of the parties failed.
+	 */
+	public void broadcast(Serializable msg) throws IOException {
+		Map<PartyData, Serializable> messages = new HashMap<PartyData, Serializable>();
+		for (PartyData party : channels.keySet()){
+			messages.put(party, msg);
+		}
+		try {
+			execute(messages, false);
+		} catch (ClassNotFoundException e) {
+			//Can not happen since nothing is received.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Receives a message from each of the other parties in parallel.
+	 * @return a map from each party to the message it sent.
+	 */
+	public Map<PartyData, Serializable> receiveAll() throws IOException, ClassNotFoundException {
+		return execute(new HashMap<PartyData, Serializable>(), true);
+	}
+
+	/**
+	 * Sends the given message to all the other parties and receives a message from each one of them. <p>
+	 * The message is serialized once. Sending and receiving are done on all the channels in parallel.
+	 * @param msg the message to send.
+	 * @return a map from each party to the message it sent.
+	 */
+	public Map<PartyData, Serializable> exchangeAll(Serializable msg) throws IOException, ClassNotFoundException {
+		Map<PartyData, Serializable> messages = new HashMap<PartyData, Serializable>();
+		for (PartyData party : channels.keySet()){
+			messages.put(party, msg);
+		}
+		return execute(messages, true);
+	}
+
+	/**
+	 * Sends to each party its message and receives a message from each one of the other parties. <p>
+	 * Each distinct message is serialized once, even if it is sent to several parties.
+	 * Sending and receiving are done on all the channels in parallel, and the function returns when the round is complete.
+	 * @param messages a message to each party. A party that is missing from the map does not get a message, but a message is still received from it.
+	 * @return a map from each party to the message it sent.
+	 * @throws IllegalArgumentException if the map contains a party that is not part of this round.
+	 */
+	public Map<PartyData, Serializable> exchangeAll(Map<PartyData, ? extends Serializable> messages) throws IOException, ClassNotFoundException {
+		return execute(messages, true);
+	}
+
+	/**
+	 * Shuts down the executor if it was created by this object. The channels are not closed.
+	 */
+	public void close(){
+		if (ownExecutor){
+			executor.shutdown();
+		}
+	}
+
+	private Map<PartyData, Serializable> execute(Map<PartyData, ? extends Serializable> messages, final boolean receive) throws IOException, ClassNotFoundException {
+		for (PartyData party : messages.keySet()){
+			if (!channels.containsKey(party)){
+				throw new IllegalArgumentException("Party " + party + " is not part of this round");
+			}
+		}
+
+		//Each distinct message is serialized once, and only if it is sent on a channel that accepts serialized messages.
+		IdentityHashMap<Serializable, byte[]> serialized = new IdentityHashMap<Serializable, byte[]>();
+		List<PartyData> parties = new ArrayList<PartyData>();
+		List<Callable<Serializable>> tasks = new ArrayList<Callable<Serializable>>();
+		for (Map.Entry<PartyData, Channel> entry : channels.entrySet()){
+			final Channel channel = entry.getValue();
+			final Serializable msg = messages.get(entry.getKey());
+			if (msg == null && !receive){
+				continue;
+			}
+			byte[] bytes = null;
+			if (msg != null && channel instanceof SerializedMessageChannel){
+				bytes = serialized.get(msg);
+				if (bytes == null){
+					bytes = serialize(msg);
+					serialized.put(msg, bytes);
+				}
+			}
+			final byte[] serializedMsg = bytes;
+			parties.add(entry.getKey());
+			tasks.add(new Callable<Serializable>() {
+				public Serializable call() throws Exception {
+					if (serializedMsg != null){
+						((SerializedMessageChannel) channel).sendSerialized(serializedMsg);
+					} else if (msg != null){
+						channel.send(msg);
+					}
+					return receive ? channel.receive() : null;
+				}
+			});
+		}
+		if (tasks.isEmpty()){
+			return new LinkedHashMap<PartyData, Serializable>();
+		}
+
+		//The last task is executed by the calling thread, so a round with a single party does not use the executor.
+		int last = tasks.size() - 1;
+		List<Future<Serializable>> futures = new ArrayList<Future<Serializable>>();
+		for (int i = 0; i < last; i++){
+			futures.add(executor.submit(tasks.get(i)));
+		}
+
+		Serializable[] results = new Serializable[tasks.size()];
+		Exception failure = null;
+		try {
+			results[last] = tasks.get(last).call();
+		} catch (Exception e) {
+			failure = e;
+		}
+		for (int i = 0; i < last; i++){
+			try {
+				results[i] = futures.get(i).get();
+			} catch (ExecutionException e) {
+				if (failure == null){
+					failure = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("The round was interrupted", e);
+			}
+		}
+
+		if (failure instanceof IOException){
+			throw (IOException) failure;
+		}
+		if (failure instanceof ClassNotFoundException){
+			throw (ClassNotFoundException) failure;
+		}
+		if (failure instanceof RuntimeException){
+			throw (RuntimeException) failure;
+		}
+		if (failure != null){
+			throw new IOException(failure);
+		}
+
+		Map<PartyData, Serializable> received = new LinkedHashMap<PartyData, Serializable>();
+		for (int i = 0; i < results.length; i++){
+			received.put(parties.get(i), results[i]);
+		}
+		return received;
+	}
+
+	/**
+	 * Serializes the given message the same way {@link edu.biu.scapi.comm.twoPartyComm.PlainTCPSocketChannel#send(Serializable)} does.
+	 */
+	private static byte[] serialize(Serializable msg) throws IOException {
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		ObjectOutputStream oOut = new ObjectOutputStream(bOut);
+		oOut.writeObject(msg);
+		oOut.close();
+		return bOut.toByteArray();
+	}
+}
@@ -1,9 +1,16 @@
 package edu.biu.scapi.comm.multiPartyComm;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
@@ -11,6 +18,7 @@ import org.apache.commons.exec.TimeoutObserver;
 import org.apache.commons.exec.Watchdog;
 
 import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.twoPartyComm.ConnectBackoff;
 import edu.biu.scapi.comm.twoPartyComm.PartyData;
 import edu.biu.scapi.comm.twoPartyComm.PlainTCPSocketChannel;
 import edu.biu.scapi.comm.twoPartyComm.SocketPartyData;
@@ -39,13 +47,21 @@ import edu.biu.scapi.generals.Logging;
  */
 public class SocketMultipartyCommunicationSetup implements MultipartyCommunicationSetup, TimeoutObserver{
 
-	protected boolean bTimedOut = false;							//Indicated whether or not to end the communication.
+	protected volatile boolean bTimedOut = false;						//Indicated whether or not to end the communication.
 	private boolean enableNagle = false;							//Indicated whether or not to use Nagle optimization algorithm.
 	protected Map<PartyData, TwoPartySocketConnector> connectors;	//Used to create and connect the channels to the other parties.
 	private Watchdog watchdog;										//Used to measure times.
 	private Map<PartyData, Integer> connectionsNumber;				//Holds the number of created connections for each party. 
 	private SocketMultipartyListenerThread listeningThread ;		//Listen to calls from the other parties.
 	protected SocketPartyData me;									//The data of the current application.
+	private Map<PartyData, Map<String, Channel>> establishedConnections;	//The connections created by previous calls, reused by later calls.
+	private Map<PartyData, Long> connectLatencies;					//The time it took to connect to each party in the last call, in milliseconds.
+	private Set<PartyData> connectingParties;						//The parties that new connections are created with in the current call.
+	private ExecutorService connectExecutor;						//Connects to the other parties in parallel.
+	private int connectingThreads = DEFAULT_CONNECTING_THREADS;		//The maximal number of parties to connect to at the same time.
+	
+	private static final int DEFAULT_CONNECTING_THREADS = 16;
+	private static final long MAX_POLL_MILLIS = 100;				//The maximal waiting time between checks that the channels are ready.
 	
 	protected SocketMultipartyCommunicationSetup(){}
 	
@@ -67,6 +83,8 @@ public class SocketMultipartyCommunicationSetup implements MultipartyCommunicati
 	protected void doConstruct(List<PartyData> parties) {
 		connectionsNumber = new HashMap<PartyData, Integer>();
 		connectors = new HashMap<PartyData, TwoPartySocketConnector>();
+		establishedConnections = new HashMap<PartyData, Map<String, Channel>>();
+		connectLatencies = new LinkedHashMap<PartyData, Long>();
 		
 		//All parties should be instances of SocketPartyData. IN any other case, throw IllegalArgumentException.
 		if (!(parties.get(0) instanceof SocketPartyData)){
@@ -101,11 +119,50 @@ public class SocketMultipartyCommunicationSetup implements MultipartyCommunicati
 		return connector;
 	}
 	
+	/**
+	 * {@inheritDoc} <p>
+	 * 
+	 * Connections that were established by previous calls and are still open are reused: 
+	 * a requested connection name that was already established is returned again, and a requested number of connections 
+	 * is first taken from the established connections to that party. Only the missing connections are created, 
+	 * so a call that can be satisfied by established connections returns immediately. Both parties should make the same 
+	 * sequence of calls so they agree on the connections to create. <p>
+	 * 
+	 * The parties are connected in parallel, using up to {@link #setConnectingThreads(int)} threads. 
+	 * The time it took to connect to each party can be retrieved using {@link #getConnectLatencies()}.
+	 */
 	@Override
 	public Map<PartyData, Map<String, Channel>> prepareForCommunication(Map<PartyData, Object> connectionsPerParty, long timeOut)
 			throws TimeoutException {
 		
+		long start = System.nanoTime();
+		connectLatencies = new LinkedHashMap<PartyData, Long>();
+		
+		//Create the map to contains all channels between all parties.
+		Map<PartyData, Map<String, Channel>> returnedChannels = new HashMap<PartyData, Map<String, Channel>>();
+		
+		//Take the established connections that can be reused and compute the names of the connections that should be created.
+		Map<PartyData, Object> newConnections = new HashMap<PartyData, Object>();
+		Iterator<PartyData> parties = connectionsPerParty.keySet().iterator();
+		while (parties.hasNext()){
+			PartyData key = parties.next();
+			Map<String, Channel> channels = new HashMap<String, Channel>();
+			returnedChannels.put(key, channels);
+			
+			String[] names = reuseConnections(key, connectionsPerParty.get(key), channels);
+			if (names.length > 0){
+				newConnections.put(key, names);
+			} else{
+				connectLatencies.put(key, 0L);
+			}
+		}
+		
+		if (newConnections.isEmpty()){
+			return returnedChannels;
+		}
+		
 		//Start the watch dog with timeout
+		bTimedOut = false;
 		watchdog = new Watchdog(timeOut);
 		//Add this instance as the observer in order to receive the event of time out.
 		watchdog.addTimeoutObserver(this);
@@ -113,10 +170,10 @@ public class SocketMultipartyCommunicationSetup implements MultipartyCommunicati
 		watchdog.start();
 		
 		//Establish all connections between all parties.
-		establishConnections(connectionsPerParty);
+		establishConnections(newConnections);
 	
 		//Verify that all connections have been connected. This function will block until all connections will be established.
-		verifyConnectingStatus(connectionsPerParty.keySet().iterator());
+		verifyConnectingStatus(newConnections.keySet(), start);
 				
 		//If we already know that all the connections were established we can stop the watchdog.
 		watchdog.stop();
@@ -125,12 +182,9 @@ public class SocketMultipartyCommunicationSetup implements MultipartyCommunicati
 		if (bTimedOut){
 			throw new TimeoutException("timeout has occurred");
 		}
-			
-		//Create the map to contains all channels between all parties.
-		Map<PartyData, Map<String, Channel>> returnedChannels = new HashMap<PartyData, Map<String, Channel>>();
 		
-		Iterator<PartyData> parties = connectionsPerParty.keySet().iterator();
-		//Get the channels between me and every other party and put them in the returnedChannels map.
+		parties = newConnections.keySet().iterator();
+		//Get the new channels between me and every other party and put them in the returnedChannels map.
 		while (parties.hasNext()){
 			//The party data is the key to the map.
 			PartyData key = parties.next();
@@ -146,8 +200,9 @@ public class SocketMultipartyCommunicationSetup implements MultipartyCommunicati
 			//Update the number of the created connections for this party.
 			connectionsNumber.put(key, connectionsNumber.get(key) + connector.getConnectionsCount());
 		
-			//Add the channels of this connector to the channels map.
-			returnedChannels.put(key, connector.getConnections());
+			//Add the channels of this connector to the channels map and keep them for later calls.
+			returnedChannels.get(key).putAll(connector.getConnections());
+			establishedConnections.get(key).putAll(connector.getConnections());
 			
 			//Reset the connector in order to be able to reuse it next time this function will be called.
 			connector.reset();
@@ -158,18 +213,113 @@ public class SocketMultipartyCommunicationSetup implements MultipartyCommunicati
 	}
 	
 	/**
-	 * This function checks that all the channels have been established.
+	 * Puts the established connections to the given party that can be used for the request in the given channels map, 
+	 * and returns the names of the connections that should be created.
+	 * @param party The other party.
+	 * @param reqChannels The number of requested connections (Integer) or their names (String[]).
+	 * @param channels The map to put the reused connections in.
+	 * @return the names of the connections to create.
+	 */
+	private String[] reuseConnections(PartyData party, Object reqChannels, Map<String, Channel> channels){
+		Map<String, Channel> established = establishedConnections.get(party);
+		if (established == null){
+			established = new LinkedHashMap<String, Channel>();
+			establishedConnections.put(party, established);
+		}
+		
+		//Forget the connections that were closed since the previous call.
+		Iterator<Channel> existing = established.values().iterator();
+		while (existing.hasNext()){
+			if (existing.next().isClosed()){
+				existing.remove();
+			}
+		}
+		
+		List<String> names = new ArrayList<String>();
+		//In case the user gave the number of requested channels, take established connections and create names for the missing ones.
+		if (reqChannels instanceof Integer){
+			int connectionsNum = (Integer) reqChannels;
+			Iterator<Map.Entry<String, Channel>> entries = established.entrySet().iterator();
+			while (channels.size() < connectionsNum && entries.hasNext()){
+				Map.Entry<String, Channel> entry = entries.next();
+				channels.put(entry.getKey(), entry.getValue());
+			}
+			for (int i=channels.size(); i<connectionsNum; i++){
+				int bigestConnection = connectionsNumber.get(party);
+				names.add(Integer.toString(bigestConnection));
+				connectionsNumber.put(party, bigestConnection + 1);
+			}
+		} else{ //else, the user gave the names of the requested channels, take the established ones.
+			for (String name : (String[]) reqChannels){
+				Channel channel = established.get(name);
+				if (channel != null){
+					channels.put(name, channel);
+				} else{
+					names.add(name);
+				}
+			}
+		}
+		return names.toArray(new String[names.size()]);
+	}
+	
+	/**
+	 * This function checks that all the channels have been established and records the time it took to connect to each party.
 	 * This function serves as a barrier. It is called from the prepareForCommunication function. The idea
 	 * is to let all the threads finish running before proceeding. 
 	 *
-	 * @param connectObjects Contained the data of the parties to connect to. 
+	 * @param connectParties The parties to connect to.
+	 * @param start The time the connection started, as returned by System.nanoTime().
 	 */
-	private void verifyConnectingStatus(Iterator<PartyData> connectObjects) {
-		//call the verifyConnectingStatus function of each connector.
-		//Each verifyConnectingStatus function will returned only when all the channels between me and the other party are established.
-		while (connectObjects.hasNext()){
-			TwoPartySocketConnector connector = connectors.get(connectObjects.next());
-			connector.verifyConnectingStatus();
+	private void verifyConnectingStatus(Set<PartyData> connectParties, long start) {
+		Set<PartyData> waiting = new HashSet<PartyData>(connectParties);
+		ConnectBackoff backoff = new ConnectBackoff(1, MAX_POLL_MILLIS);
+		
+		//Check all the parties until all of them are connected, so the latency of each party is measured when it is connected.
+		while (!waiting.isEmpty() && !bTimedOut){
+			Iterator<PartyData> parties = waiting.iterator();
+			while (parties.hasNext()){
+				PartyData party = parties.next();
+				if (connectors.get(party).areAllConnected()){
+					long latency = (System.nanoTime() - start) / 1000000;
+					connectLatencies.put(party, latency);
+					Logging.getLogger().log(Level.INFO, "connected to " + party + " in " + latency + " ms");
+					parties.remove();
+				}
+			}
+			if (!waiting.isEmpty()){
+				try {
+					backoff.pause();
+				} catch (InterruptedException e) {
+					Logging.getLogger().log(Level.FINEST, e.toString());
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the time it took to connect to each party in the last call to prepareForCommunication, in milliseconds. <p>
+	 * The time is measured from the beginning of the call until all the requested channels to the party were ready. 
+	 * Parties whose requested connections were all reused have latency 0.
+	 * @return a map from each party to its connect latency.
+	 */
+	public Map<PartyData, Long> getConnectLatencies(){
+		return new LinkedHashMap<PartyData, Long>(connectLatencies);
+	}
+	
+	/**
+	 * Sets the maximal number of parties to connect to at the same time. The default is 16.
+	 * @param connectingThreads the number of threads used to connect.
+	 */
+	public void setConnectingThreads(int connectingThreads){
+		if (connectingThreads < 1){
+			throw new IllegalArgumentException("The number of connecting threads should be positive");
+		}
+		this.connectingThreads = connectingThreads;
+		if (connectExecutor != null){
+			connectExecutor.shutdown();
+			connectExecutor = null;
 		}
 	}
 
@@ -199,13 +349,28 @@ public class SocketMultipartyCommunicationSetup implements MultipartyCommunicati
 			listeningThread = createListener(channelsPerParty);
 			listeningThread.start();
 		
-			//Create a connection thread for each other party that does the actual connecting. 
+			//Connect to all the other parties in parallel. Each task uses the connector object that calls each channel's connect function 
+			//in order to connect each channel to the other party.
+			if (connectExecutor == null){
+				connectExecutor = Executors.newFixedThreadPool(connectingThreads, new ThreadFactory() {
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "SocketMultipartyConnector");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+			}
+			connectingParties = new HashSet<PartyData>(connectionsPerParty.keySet());
 			Iterator<PartyData> connectParties = connectionsPerParty.keySet().iterator();
 			while (connectParties.hasNext()){
 				PartyData key = connectParties.next();
-				ConnectingThread thread = new ConnectingThread(channelsPerParty.get(key), connectors.get(key));
-				//Start the thread. It uses the connector object that calls each channel's connect function in order to connect each channel to the other party.
-				thread.start();
+				final PlainTCPSocketChannel[] channels = channelsPerParty.get(key);
+				final TwoPartySocketConnector connector = connectors.get(key);
+				connectExecutor.execute(new Runnable() {
+					public void run() {
+						connector.connect(channels);
+					}
+				});
 			}
 		}
 	}
@@ -277,44 +442,22 @@ public class SocketMultipartyCommunicationSetup implements MultipartyCommunicati
 		if(listeningThread != null)
 			listeningThread.stopConnecting();
 		
-		//Further stop the connectors objects if they still run. 
-		if(connectors != null){
-			Object[] connectorsobjects = connectors.values().toArray();
-			for(int i=0; i<connectorsobjects.length; i++){
-				((TwoPartySocketConnector) connectorsobjects[i]).stopConnecting();
+		//Further stop the connectors objects if they still run. The connectors of parties that all their connections were reused are not touched.
+		if(connectingParties != null){
+			Iterator<PartyData> parties = connectingParties.iterator();
+			while (parties.hasNext()){
+				connectors.get(parties.next()).stopConnecting();
 			}
 		}	
 	}
 
 	/**
-	 * This implementation has nothing to close besides the sockets (which are being closed by the channel instances).
+	 * Stops the threads used to connect. The sockets are closed by the channel instances.
 	 */
-	public void close() {}
-
-	/**
-	 * This thread has a connector object. The run function calls the connector.connect() function in order to connect the other party.
-	 * 
-	 * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
-	 *
-	 */
-	class ConnectingThread extends Thread{
-		
-		TwoPartySocketConnector connector;
-		PlainTCPSocketChannel[] channels;
-		
-		/**
-		 * Sets the given connector and channels.
-		 * @param channels
-		 * @param connector
-		 */
-		ConnectingThread(PlainTCPSocketChannel[] channels, TwoPartySocketConnector connector){
-			this.channels = channels;
-			this.connector = connector;
-		}
-		
-		//Runs the connect function with the channels in order to connect to the other party.
-		public void run(){
-			connector.connect(channels);
+	public void close() {
+		if (connectExecutor != null){
+			connectExecutor.shutdown();
+			connectExecutor = null;
 		}
 	}
 	
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 
+import edu.biu.scapi.comm.twoPartyComm.ConnectBackoff;
 import edu.biu.scapi.comm.twoPartyComm.PartyData;
 import edu.biu.scapi.comm.twoPartyComm.PlainTCPSocketChannel;
 import edu.biu.scapi.comm.twoPartyComm.SocketPartyData;
@@ -35,6 +36,8 @@ class SocketMultipartyListenerThread extends Thread{
 	
 	protected boolean bStopped = false;									//A flag that indicates if to keep on listening or stop.
 	protected ServerSocket listener;									//Channel to listen on.
+	
+	private static final long MAX_ACCEPT_WAIT_MILLIS = 50;				//The maximal waiting time between checks for incoming connections.
 
 	SocketMultipartyListenerThread(){}
 	
@@ -103,6 +106,7 @@ class SocketMultipartyListenerThread extends Thread{
 		//Set the state of all channels to connecting.
 		int count = setConnectingState(partiesChannelsCount);
 		int i=0;
+		ConnectBackoff backoff = new ConnectBackoff(1, MAX_ACCEPT_WAIT_MILLIS);
 		
 		//Loop for listening to incoming connections and make sure that this thread should not stopped.
 		while (i < count && !bStopped) {
@@ -110,7 +114,7 @@ class SocketMultipartyListenerThread extends Thread{
 			SocketChannel socketChannel = null;
 			try {
 			
-				Logging.getLogger().log(Level.INFO, "Trying to listen "+ listener.getLocalPort());
+				Logging.getLogger().log(Level.FINEST, "Trying to listen "+ listener.getLocalPort());
 				
 				//Use the server socket to listen to incoming connections.
 				socketChannel = listener.getChannel().accept();
@@ -122,16 +126,17 @@ class SocketMultipartyListenerThread extends Thread{
 				Logging.getLogger().log(Level.WARNING, e.toString());
 			}
 		
-			//If there was no connection request wait a second and try again.
+			//If there was no connection request wait and try again. The waiting time grows while no party calls.
 			if(socketChannel==null){
 				try {
-					Thread.sleep (1000);
+					backoff.pause();
 				} catch (InterruptedException e) {
 				
 					Logging.getLogger().log(Level.INFO, e.toString());
 				}
 			//If there was an incoming request, check that it valid and set the accepted socket to the right channel.
 			} else{
+				backoff.reset();
 				Socket socket = socketChannel.socket();
 				i = setSocket(partiesChannelsCount, i, socket);
 			}
@@ -82,6 +82,53 @@ public class ActiveMQCommunicationSetup extends QueueCommunicationSetup{
 		
 	}
 	
+	/**
+	 * Sets the parties parameters and create the communication using the given url and the given batched transport.<p>
+	 * See {@link QueueCommunicationSetup#setBatchedTransport(BatchedQueueTransport)} for the behavior of the batched channels.
+	 * 
+	 * @param url The url of the ActiveMQ broker.
+	 * @param me Data of the current application.
+	 * @param party Data of the other application.
+	 * @param enableNagle Indicates if to use Nagle's algorithm or not. For cryptographic algorithms it is much better to disable Nagle's algorithm.
+	 * @param transport The parameters of the batched transport, or null in order to send ObjectMessages.
+	 * @throws DuplicatePartyException
+	 */
+	public ActiveMQCommunicationSetup(String url, PartyData me, PartyData party, boolean enableNagle, BatchedQueueTransport transport) throws DuplicatePartyException {
+		this(new ActiveMQConnectionFactory("failover:tcp://"+url+"?socket.tcpNoDelay="+!enableNagle), me, party, transport);
+	}
+	
+	/**
+	 * Sets the parties parameters and create the communication using the given factory and the given batched transport.<p>
+	 * This constructor can be used with any ActiveMQ url, for example "vm://localhost" for a broker in the same JVM.
+	 * 
+	 * If the batched transport is used, the factory is set to send the batches asynchronously up to the producer window 
+	 * of the transport, and the broker pushes up to the prefetch of the transport batches to the consumer.
+	 * 
+	 * @param factory The ActiveMQ connection factory.
+	 * @param me Data of the current application.
+	 * @param party Data of the other application.
+	 * @param transport The parameters of the batched transport, or null in order to send ObjectMessages.
+	 * @throws DuplicatePartyException
+	 */
+	public ActiveMQCommunicationSetup(ActiveMQConnectionFactory factory, PartyData me, PartyData party, BatchedQueueTransport transport) throws DuplicatePartyException {
+		super(configure(factory, transport), new ActiveMQDestroyer(), me, party);
+		setBatchedTransport(transport);
+	}
+	
+	/**
+	 * Sets the flow control of the given factory according to the given transport. 
+	 * Should be called before the connection is created.
+	 */
+	private static ActiveMQConnectionFactory configure(ActiveMQConnectionFactory factory, BatchedQueueTransport transport){
+		if (transport != null){
+			//The producer does not wait for the broker on each batch, but only when the window of unacknowledged bytes is full.
+			factory.setUseAsyncSend(true);
+			factory.setProducerWindowSize(transport.getProducerWindowSize());
+			factory.getPrefetchPolicy().setQueuePrefetch(transport.getPrefetch());
+		}
+		return factory;
+	}
+	
 	/**
 	 * A class that delete the ActiveMQ destinations using the ActiveMQ connection.
 	 * 
@@ -0,0 +1,261 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.logging.Level;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import edu.biu.scapi.comm.SerializedMessageChannel;
+import edu.biu.scapi.generals.Logging;
+
+/**
+ * This class is a queue channel that packs consecutive messages into one JMS BytesMessage. <p>
+ * 
+ * The queues are the same as the queues of {@link QueueChannel}, but instead of an ObjectMessage for each message, 
+ * the messages are written into a batch with the following binary framing: each message starts with a type byte, 
+ * followed by the length and the bytes of the message. Byte arrays are written as they are, other messages are written in 
+ * their Java serialization and null is written as the type byte only. <p>
+ * 
+ * The batch is sent when the channel receives (since the other party probably waits for the sent messages before it answers), 
+ * when {@link #flush()} is called, when the channel is closed, or when the batch reaches the maximal size. 
+ * Both parties should use the batched transport. The channel should be used by one thread at a time.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class BatchedQueueChannel implements SerializedMessageChannel, Flushable {
+	
+	private static final byte NULL_MESSAGE = 0;
+	private static final byte BYTES_MESSAGE = 1;
+	private static final byte OBJECT_MESSAGE = 2;
+	
+	private Session session;
+	private MessageProducer producer;	// Used to send messages.
+	private MessageConsumer consumer;	//Used to receive messages.
+	private boolean isClosed;
+	//As in QueueChannel, the consumer queue is deleted by this channel at the end of the communication.
+	private Destination consumerQueue;
+	private Connection connection;
+	private DestroyDestinationUtil destroyer;
+	
+	private int maxBatchSize;
+	private ByteArrayOutputStream batch = new ByteArrayOutputStream();
+	private DataOutputStream batchOut = new DataOutputStream(batch);
+	private ArrayDeque<ReceivedMessage> received = new ArrayDeque<ReceivedMessage>();	//Messages of the last received batch that were not returned yet.
+	
+	/**
+	 * A constructor that creates the session, the producer and the consumer on the same queues that {@link QueueChannel} uses.
+	 * @param first The party which declares the running program.
+	 * @param second The party which declares the other program.
+	 * @param connection The JMS connection object to build the producer and consumer on.
+	 * @param connectionsId the id of this connection.
+	 * @param destroyer The class that delete the created destinations. Should match to the given connection object.
+	 * @param maxBatchSize the size in bytes of buffered messages that causes the batch to be sent.
+	 */
+	BatchedQueueChannel(QueuePartyData first, QueuePartyData second, Connection connection, String connectionsId, DestroyDestinationUtil destroyer, int maxBatchSize) {
+		try {
+			this.connection = connection;
+			
+			session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			Destination producerQueue = session.createQueue(connectionsId+" "+first.getId() + " "+ second.getId());
+			producer = session.createProducer(producerQueue);
+			producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+			//The batches are identified by their order in the queue, so the provider does not need to create ids and timestamps.
+			producer.setDisableMessageID(true);
+			producer.setDisableMessageTimestamp(true);
+			
+			consumerQueue = session.createQueue(connectionsId+" "+second.getId() + " "+ first.getId());
+			consumer = session.createConsumer(consumerQueue);
+			
+			isClosed = false;
+			this.destroyer = destroyer;
+			this.maxBatchSize = maxBatchSize;
+		} catch (JMSException e) {
+			throw new edu.biu.scapi.exceptions.JMSException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Adds the message to the current batch. The batch is sent if its size reached the maximal batch size.
+	 */
+	@Override
+	public void send(Serializable data) throws IOException {
+		if (data == null){
+			batchOut.writeByte(NULL_MESSAGE);
+		} else if (data instanceof byte[]){
+			write(BYTES_MESSAGE, (byte[]) data);
+		} else {
+			ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+			ObjectOutputStream oOut = new ObjectOutputStream(bOut);
+			oOut.writeObject(data);
+			oOut.close();
+			write(OBJECT_MESSAGE, bOut.toByteArray());
+		}
+	}
+	
+	/**
+	 * Adds the already serialized message to the current batch. The batch is sent if its size reached the maximal batch size.
+	 */
+	@Override
+	public void sendSerialized(byte[] serialized) throws IOException {
+		write(OBJECT_MESSAGE, serialized);
+	}
+	
+	private void write(byte type, byte[] message) throws IOException {
+		batchOut.writeByte(type);
+		batchOut.writeInt(message.length);
+		batchOut.write(message);
+		if (batch.size() >= maxBatchSize){
+			flush();
+		}
+	}
+	
+	/**
+	 * Sends the buffered messages as one BytesMessage. Does nothing if there are no buffered messages.
+	 */
+	@Override
+	public void flush() {
+		if (batch.size() == 0){
+			return;
+		}
+		try {
+			BytesMessage message = session.createBytesMessage();
+			message.writeBytes(batch.toByteArray());
+			producer.send(message);
+			batch.reset();
+		} catch (JMSException e) {
+			throw new edu.biu.scapi.exceptions.JMSException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Sends the buffered messages and returns the next message sent by the other party.
+	 */
+	@Override
+	public Serializable receive() throws ClassNotFoundException, IOException {
+		flush();
+		if (received.isEmpty()){
+			readBatch();
+		}
+		return received.poll().data;
+	}
+	
+	/**
+	 * Receives the next batch and unpacks its messages.
+	 */
+	private void readBatch() throws ClassNotFoundException, IOException {
+		byte[] body;
+		try {
+			Message message = consumer.receive();
+			if (message == null){
+				throw new IOException("the channel was closed");
+			}
+			if (!(message instanceof BytesMessage)){
+				throw new IllegalArgumentException("message should be an instance of BytesMessage");
+			}
+			BytesMessage bytesMessage = (BytesMessage) message;
+			body = new byte[(int) bytesMessage.getBodyLength()];
+			bytesMessage.readBytes(body);
+		} catch (JMSException e) {
+			throw new edu.biu.scapi.exceptions.JMSException(e.getMessage());
+		}
+		
+		ByteArrayInputStream bIn = new ByteArrayInputStream(body);
+		DataInputStream in = new DataInputStream(bIn);
+		while (bIn.available() > 0){
+			byte type = in.readByte();
+			if (type == NULL_MESSAGE){
+				received.add(new ReceivedMessage(null));
+				continue;
+			}
+			byte[] message = new byte[in.readInt()];
+			in.readFully(message);
+			if (type == BYTES_MESSAGE){
+				received.add(new ReceivedMessage(message));
+			} else {
+				ObjectInputStream oIn = new ObjectInputStream(new ByteArrayInputStream(message));
+				received.add(new ReceivedMessage((Serializable) oIn.readObject()));
+			}
+		}
+	}
+	
+	/**
+	 * Holds a received message, since the queue does not accept null messages.
+	 */
+	private static class ReceivedMessage {
+		private Serializable data;
+		
+		ReceivedMessage(Serializable data){
+			this.data = data;
+		}
+	}
+
+	/**
+	 * Sends the buffered messages, closes the producer, the consumer and the session and deletes the consumer queue.
+	 */
+	@Override
+	public void close(){
+		try {
+			flush();
+		} catch (edu.biu.scapi.exceptions.JMSException e) {
+			Logging.getLogger().log(Level.WARNING, e.toString());
+		}
+		try {
+			producer.close();
+			consumer.close();
+			session.close();
+			isClosed = true;
+			destroyer.destroyDestination(connection, consumerQueue);
+		} catch (JMSException e) {
+			throw new edu.biu.scapi.exceptions.JMSException(e.getMessage());
+		}
+	}
+
+	@Override
+	public boolean isClosed() {
+		return isClosed;
+	}
+}
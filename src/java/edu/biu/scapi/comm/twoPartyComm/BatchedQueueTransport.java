@@ -0,0 +1,92 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+/**
+ * This class describes the batched transport of the queue channels, which is selected by 
+ * {@link QueueCommunicationSetup#setBatchedTransport(BatchedQueueTransport)} or by the constructors of 
+ * {@link ActiveMQCommunicationSetup} that get an instance of this class.<p>
+ * 
+ * In the batched transport, consecutive messages are packed into one JMS BytesMessage with SCAPI's binary framing instead of 
+ * sending each message as an ObjectMessage. Byte arrays are written as they are, without Java serialization.
+ * The batch is sent when the channel receives, when it is flushed, or when it reaches the maximal batch size. <p>
+ * 
+ * The producer window and the prefetch are used by the ActiveMQ setup only, since other JMS implementations configure them 
+ * in their own connection factory.
+ *  
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class BatchedQueueTransport {
+	
+	/**
+	 * Batches of up to 64 KB, up to 1 MB of asynchronous sends that were not acknowledged by the broker, 
+	 * and up to 100 batches that are sent to the consumer before it asks for them.
+	 */
+	public static final BatchedQueueTransport DEFAULT = new BatchedQueueTransport(64 * 1024, 1024 * 1024, 100);
+	
+	private int maxBatchSize;
+	private int producerWindowSize;
+	private int prefetch;
+	
+	/**
+	 * Constructor that sets the transport parameters.
+	 * @param maxBatchSize the size in bytes of buffered messages that causes the batch to be sent.
+	 * @param producerWindowSize the number of bytes that may be sent asynchronously before the producer waits for the broker to acknowledge them.
+	 * @param prefetch the number of batches that the broker pushes to the consumer in advance.
+	 * @throws IllegalArgumentException if one of the arguments is not positive.
+	 */
+	public BatchedQueueTransport(int maxBatchSize, int producerWindowSize, int prefetch){
+		if (maxBatchSize < 1 || producerWindowSize < 1 || prefetch < 1){
+			throw new IllegalArgumentException("the batch size, the producer window and the prefetch should be positive");
+		}
+		this.maxBatchSize = maxBatchSize;
+		this.producerWindowSize = producerWindowSize;
+		this.prefetch = prefetch;
+	}
+	
+	/**
+	 * @return the size in bytes of buffered messages that causes the batch to be sent.
+	 */
+	public int getMaxBatchSize(){
+		return maxBatchSize;
+	}
+	
+	/**
+	 * @return the number of bytes that may be sent asynchronously before the producer waits for the broker.
+	 */
+	public int getProducerWindowSize(){
+		return producerWindowSize;
+	}
+	
+	/**
+	 * @return the number of batches that the broker pushes to the consumer in advance.
+	 */
+	public int getPrefetch(){
+		return prefetch;
+	}
+}
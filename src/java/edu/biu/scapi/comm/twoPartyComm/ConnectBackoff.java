@@ -0,0 +1,88 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+import java.util.Random;
+
+/**
+ * Computes the waiting times between attempts to connect or to accept a connection. <p>
+ * The waiting time starts at the initial value and is doubled after every failed attempt, up to the maximal value. 
+ * Each wait is chosen at random between half and all of the current waiting time, so parties that start together 
+ * do not keep retrying at the same moments. <p>
+ * 
+ * An object of this class should be used by a single thread.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ConnectBackoff {
+	
+	private final long initialMillis;
+	private final long maxMillis;
+	private long currentMillis;
+	private Random random = new Random();
+	
+	/**
+	 * Constructor that sets the initial and maximal waiting times.
+	 * @param initialMillis the waiting time after the first failed attempt. Should be positive.
+	 * @param maxMillis the maximal waiting time. Should not be smaller than initialMillis.
+	 */
+	public ConnectBackoff(long initialMillis, long maxMillis){
+		if (initialMillis <= 0 || maxMillis < initialMillis){
+			throw new IllegalArgumentException("The waiting times should be positive and the initial time should not be bigger than the maximal time");
+		}
+		this.initialMillis = initialMillis;
+		this.maxMillis = maxMillis;
+		this.currentMillis = initialMillis;
+	}
+	
+	/**
+	 * Returns the next waiting time and doubles the current waiting time.
+	 * @return a random time between half and all of the current waiting time, in milliseconds.
+	 */
+	public long nextWait(){
+		long half = currentMillis / 2;
+		long wait = half + (long) (random.nextDouble() * (currentMillis - half + 1));
+		currentMillis = Math.min(maxMillis, currentMillis * 2);
+		return Math.max(1, wait);
+	}
+	
+	/**
+	 * Sleeps for the next waiting time.
+	 * @throws InterruptedException if the thread was interrupted while sleeping.
+	 */
+	public void pause() throws InterruptedException {
+		Thread.sleep(nextWait());
+	}
+	
+	/**
+	 * Returns the waiting time to the initial value. Should be called after a successful attempt.
+	 */
+	public void reset(){
+		currentMillis = initialMillis;
+	}
+}
@@ -0,0 +1,122 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import edu.biu.scapi.comm.SerializedMessageChannel;
+
+/**
+ * This class implements a channel between two threads of the same JVM. <p>
+ * 
+ * The messages are serialized as they are by the socket channels, so the receiver gets a copy of the sent object and the number 
+ * of transmitted bytes is the same as in a real network. Each direction is a {@link LoopbackPipe} that delays the messages 
+ * according to the {@link LoopbackProfile} of the channel. <p>
+ * 
+ * The channels are created by the {@link LoopbackCommunicationSetup}, therefore the constructor is package private. 
+ * Each channel should be used by one sending thread and one receiving thread at a time.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class LoopbackChannel implements SerializedMessageChannel {
+	
+	private LoopbackPipe out;		//Used to send messages.
+	private LoopbackPipe in;		//Used to receive messages.
+	private long sentBytes;
+	private long sentMessages;
+	
+	/**
+	 * Constructor that sets the pipes of the channel.
+	 * @param out the pipe to write the sent messages to.
+	 * @param in the pipe to read the received messages from.
+	 */
+	LoopbackChannel(LoopbackPipe out, LoopbackPipe in){
+		this.out = out;
+		this.in = in;
+	}
+
+	@Override
+	public void send(Serializable data) throws IOException {
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		ObjectOutputStream oOut = new ObjectOutputStream(bOut);
+		oOut.writeObject(data);
+		oOut.close();
+		sendSerialized(bOut.toByteArray());
+	}
+	
+	/**
+	 * {@inheritDoc} <p>
+	 * The given array is passed to the other party without copying it, so it should not be changed after calling this function.
+	 */
+	@Override
+	public void sendSerialized(byte[] serialized) throws IOException {
+		out.write(serialized);
+		sentBytes += serialized.length;
+		sentMessages++;
+	}
+
+	@Override
+	public Serializable receive() throws ClassNotFoundException, IOException {
+		ObjectInputStream oIn = new ObjectInputStream(new ByteArrayInputStream(in.read()));
+		return (Serializable) oIn.readObject();
+	}
+
+	/**
+	 * Closes both directions of the channel. The other party can still receive the messages that were sent before the channel was closed, 
+	 * and then gets an IOException.
+	 */
+	@Override
+	public void close() {
+		out.close();
+		in.close();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return out.isClosed();
+	}
+	
+	/**
+	 * @return the number of serialized bytes sent on this channel.
+	 */
+	public long getSentBytes(){
+		return sentBytes;
+	}
+	
+	/**
+	 * @return the number of messages sent on this channel.
+	 */
+	public long getSentMessages(){
+		return sentMessages;
+	}
+}
@@ -0,0 +1,211 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import edu.biu.scapi.comm.Channel;
+
+/**
+ * This class implements a communication between two parties that run in the same JVM, usually in two threads. <p>
+ * 
+ * The created channels are {@link LoopbackChannel}s that pass the messages in memory, with the latency and bandwidth of the given 
+ * {@link LoopbackProfile}. This makes it possible to run and benchmark a two party protocol on one machine, with reproducible results 
+ * and without opening sockets. <p>
+ * 
+ * The setup of the first party is created with the profile of the network, and the setup of the second party is created from the 
+ * setup of the first party:
+ * <pre>
+ * LoopbackCommunicationSetup first = new LoopbackCommunicationSetup(LoopbackProfile.LAN);
+ * LoopbackCommunicationSetup second = new LoopbackCommunicationSetup(first);
+ * </pre>
+ * After that, each party calls prepareForCommunication as with any other {@link TwoPartyCommunicationSetup}. A connection is ready when 
+ * both parties requested it. 
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class LoopbackCommunicationSetup implements TwoPartyCommunicationSetup {
+	
+	private static final int DEFAULT_CAPACITY = 1024;
+	
+	/**
+	 * A connection between the two parties and the parties that requested it.
+	 */
+	private static class Connection {
+		private LoopbackChannel[] channels;
+		private boolean[] requested = new boolean[2];	//Indexed by the side of the party.
+		
+		Connection(LoopbackChannel[] channels){
+			this.channels = channels;
+		}
+		
+		boolean isReady(){
+			return requested[0] && requested[1];
+		}
+	}
+	
+	/**
+	 * The connections between the two parties. Shared by the setups of both parties and used as the lock of the connecting stage.
+	 */
+	private static class Connections {
+		private LoopbackProfile profile;
+		private int capacity;
+		private Map<String, Connection> connections = new HashMap<String, Connection>();	//The last connection of each id.
+		private boolean hasSecondParty;
+		
+		Connections(LoopbackProfile profile, int capacity){
+			this.profile = profile;
+			this.capacity = capacity;
+		}
+	}
+	
+	private Connections connections;
+	private int side;						//0 for the first party and 1 for the second party.
+	private int connectionsNumber;			//Holds the number of created connections.
+	
+	/**
+	 * Constructor that creates the setup of the first party.
+	 * @param profile the simulated network between the parties.
+	 */
+	public LoopbackCommunicationSetup(LoopbackProfile profile){
+		this(profile, DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructor that creates the setup of the first party.
+	 * @param profile the simulated network between the parties.
+	 * @param capacity the maximal number of messages that were sent and not received yet in each direction of a channel. 
+	 * A party that sends more messages waits until the other party receives them.
+	 */
+	public LoopbackCommunicationSetup(LoopbackProfile profile, int capacity){
+		if (capacity < 1){
+			throw new IllegalArgumentException("capacity should be positive");
+		}
+		connections = new Connections(profile, capacity);
+		side = 0;
+	}
+	
+	/**
+	 * Constructor that creates the setup of the second party, connected to the first party's setup.
+	 * @param firstParty the setup of the first party.
+	 * @throws IllegalStateException if a setup was already created for the second party.
+	 */
+	public LoopbackCommunicationSetup(LoopbackCommunicationSetup firstParty){
+		connections = firstParty.connections;
+		synchronized (connections) {
+			if (firstParty.side != 0 || connections.hasSecondParty){
+				throw new IllegalStateException("The setup of the second party was already created");
+			}
+			connections.hasSecondParty = true;
+		}
+		side = 1;
+	}
+
+	/**
+	 * {@inheritDoc} <p>
+	 * The function waits until the other party requested all the given connections, or until the timeout has passed.
+	 */
+	@Override
+	public Map<String, Channel> prepareForCommunication(String[] connectionsIds, long timeOut) throws TimeoutException {
+		long deadline = System.currentTimeMillis() + timeOut;
+		Map<String, Channel> channels = new HashMap<String, Channel>();
+		
+		synchronized (connections) {
+			//Create the requested connections that the other party did not request yet. 
+			//A connection that was already requested by both parties is replaced by a new one, as a socket setup creates new channels on each call.
+			Connection[] requested = new Connection[connectionsIds.length];
+			for (int i = 0; i < connectionsIds.length; i++){
+				Connection connection = connections.connections.get(connectionsIds[i]);
+				if (connection == null || connection.isReady()){
+					LoopbackPipe firstToSecond = new LoopbackPipe(connections.capacity, connections.profile);
+					LoopbackPipe secondToFirst = new LoopbackPipe(connections.capacity, connections.profile);
+					connection = new Connection(new LoopbackChannel[]{new LoopbackChannel(firstToSecond, secondToFirst), new LoopbackChannel(secondToFirst, firstToSecond)});
+					connections.connections.put(connectionsIds[i], connection);
+				}
+				//A repeated request of the same party, for example after a timeout, does not count as the request of the other party.
+				connection.requested[side] = true;
+				requested[i] = connection;
+				channels.put(connectionsIds[i], connection.channels[side]);
+			}
+			connections.notifyAll();
+			
+			//Wait until the other party requested all the connections.
+			for (Connection connection : requested){
+				while (!connection.isReady()){
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0 || Thread.currentThread().isInterrupted()){
+						cancel(requested);
+						throw new TimeoutException("timeout has occurred");
+					}
+					try {
+						connections.wait(remaining);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		}
+		return channels;
+	}
+
+	/**
+	 * Withdraws the requests of this party for the given connections that the other party did not request, 
+	 * so the next request of the other party waits for a new request of this party.
+	 */
+	private void cancel(Connection[] requested){
+		for (Connection connection : requested){
+			if (!connection.isReady()){
+				connection.requested[side] = false;
+			}
+		}
+	}
+
+	@Override
+	public Map<String, Channel> prepareForCommunication(int connectionsNum, long timeOut) throws TimeoutException {
+		//Prepare the connections Ids using the default implementation, meaning the connections are numbered 
+		//according to their index. i.e the first connection's name is "0", the second is "1" and so on.
+		String[] names = new String[connectionsNum];
+		for (int i=0; i<connectionsNum; i++){
+			names[i] = Integer.toString(connectionsNumber++);
+		}
+		
+		//Call the other prepareForCommunication function with the created ids.
+		return prepareForCommunication(names, timeOut);
+	}
+
+	/**
+	 * The channels pass the messages in memory, so there is no Nagle algorithm to enable. The delays are set by the {@link LoopbackProfile}.
+	 */
+	@Override
+	public void enableNagle() {}
+
+	@Override
+	public void close() {}
+}
@@ -0,0 +1,161 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One direction of a {@link LoopbackChannel}. <p>
+ * 
+ * The pipe is a bounded ring buffer with a single writer thread and a single reader thread. The two threads do not share a lock; 
+ * each one of them publishes its position in a volatile field, and a thread that has to wait parks until the other thread wakes it up. 
+ * Each message holds the time it should be delivered at, computed from the profile of the network, and the reader does not return 
+ * the message before this time.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class LoopbackPipe {
+	
+	private static final long MAX_PARK_NANOS = 1000000;	//A waiting thread checks the state of the pipe at least once a millisecond.
+	
+	private final byte[][] messages;
+	private final long[] deliveryTimes;
+	private final int mask;
+	private final LoopbackProfile profile;
+	
+	private volatile long head;							//The number of messages read. Written only by the reader.
+	private volatile long tail;							//The number of messages written. Written only by the writer.
+	private volatile boolean closed;
+	private volatile Thread waitingReader;
+	private volatile Thread waitingWriter;
+	private long linkFreeTime;							//The time the last written message is fully transmitted. Used only by the writer.
+	
+	/**
+	 * Constructor that creates an empty pipe.
+	 * @param capacity the maximal number of messages in the pipe. Rounded up to a power of two.
+	 * @param profile the simulated network.
+	 */
+	LoopbackPipe(int capacity, LoopbackProfile profile){
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		messages = new byte[size][];
+		deliveryTimes = new long[size];
+		mask = size - 1;
+		this.profile = profile;
+	}
+	
+	/**
+	 * Adds the given message to the pipe. Waits while the pipe is full.
+	 * @param message the serialized message. 
+	 * @throws IOException if the pipe is closed.
+	 */
+	void write(byte[] message) throws IOException {
+		long position = tail;
+		while (position - head > mask){
+			if (closed){
+				throw new IOException("the channel is closed");
+			}
+			waitingWriter = Thread.currentThread();
+			if (position - head > mask && !closed){
+				LockSupport.parkNanos(this, MAX_PARK_NANOS);
+			}
+			waitingWriter = null;
+		}
+		if (closed){
+			throw new IOException("the channel is closed");
+		}
+		
+		//The message starts its transmission when the previous messages were transmitted, and arrives after the latency.
+		long now = System.nanoTime();
+		long start = (linkFreeTime - now > 0) ? linkFreeTime : now;
+		linkFreeTime = start + profile.transmissionNanos(message.length);
+		
+		int index = (int) position & mask;
+		messages[index] = message;
+		deliveryTimes[index] = linkFreeTime + profile.getLatencyMicros() * 1000;
+		tail = position + 1;
+		
+		Thread reader = waitingReader;
+		if (reader != null){
+			LockSupport.unpark(reader);
+		}
+	}
+	
+	/**
+	 * Removes the next message from the pipe. Waits while the pipe is empty or until the message should be delivered.
+	 * @return the serialized message.
+	 * @throws IOException if the pipe was closed and there are no more messages.
+	 */
+	byte[] read() throws IOException {
+		long position = head;
+		while (position == tail){
+			if (closed){
+				throw new IOException("the channel is closed");
+			}
+			waitingReader = Thread.currentThread();
+			if (position == tail && !closed){
+				LockSupport.parkNanos(this, MAX_PARK_NANOS);
+			}
+			waitingReader = null;
+		}
+		
+		int index = (int) position & mask;
+		long wait;
+		while ((wait = deliveryTimes[index] - System.nanoTime()) > 0){
+			LockSupport.parkNanos(this, wait);
+		}
+		byte[] message = messages[index];
+		messages[index] = null;
+		head = position + 1;
+		
+		Thread writer = waitingWriter;
+		if (writer != null){
+			LockSupport.unpark(writer);
+		}
+		return message;
+	}
+	
+	/**
+	 * Closes the pipe and wakes up the waiting threads. Messages that were already written can still be read.
+	 */
+	void close(){
+		closed = true;
+		Thread thread = waitingReader;
+		if (thread != null){
+			LockSupport.unpark(thread);
+		}
+		thread = waitingWriter;
+		if (thread != null){
+			LockSupport.unpark(thread);
+		}
+	}
+	
+	boolean isClosed(){
+		return closed;
+	}
+}
@@ -0,0 +1,103 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+/**
+ * This class describes the network simulated by the {@link LoopbackCommunicationSetup}: the one way latency of each message and 
+ * the bandwidth of each direction of a channel.<p>
+ * 
+ * A message of n bytes that is sent when the link is free arrives to the other party after latency + n / bandwidth. 
+ * Messages that are sent while the link is busy wait for the previous messages to be transmitted, as in a real network.
+ *  
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class LoopbackProfile {
+	
+	/**
+	 * No latency and no bandwidth limit; the messages are passed as fast as the threads can handle them.
+	 */
+	public static final LoopbackProfile UNLIMITED = new LoopbackProfile(0, 0);
+	
+	/**
+	 * A local network: 0.1 milliseconds latency and 1 Gbit/s.
+	 */
+	public static final LoopbackProfile LAN = new LoopbackProfile(100, 125000000L);
+	
+	/**
+	 * A wide area network: 40 milliseconds latency and 100 Mbit/s.
+	 */
+	public static final LoopbackProfile WAN = new LoopbackProfile(40000, 12500000L);
+	
+	private long latencyMicros;
+	private long bytesPerSecond;
+	
+	/**
+	 * Constructor that sets the simulated network.
+	 * @param latencyMicros the one way latency of each message, in microseconds. 0 means no latency.
+	 * @param bytesPerSecond the bandwidth of each direction, in bytes per second. 0 means unlimited bandwidth.
+	 * @throws IllegalArgumentException if one of the arguments is negative.
+	 */
+	public LoopbackProfile(long latencyMicros, long bytesPerSecond){
+		if (latencyMicros < 0 || bytesPerSecond < 0){
+			throw new IllegalArgumentException("latency and bandwidth should not be negative");
+		}
+		this.latencyMicros = latencyMicros;
+		this.bytesPerSecond = bytesPerSecond;
+	}
+	
+	/**
+	 * @return the one way latency in microseconds.
+	 */
+	public long getLatencyMicros(){
+		return latencyMicros;
+	}
+	
+	/**
+	 * @return the bandwidth in bytes per second, or 0 if the bandwidth is unlimited.
+	 */
+	public long getBytesPerSecond(){
+		return bytesPerSecond;
+	}
+	
+	/**
+	 * Returns the time it takes to transmit the given number of bytes, not including the latency.
+	 * @param bytes the size of the message.
+	 * @return the transmission time in nanoseconds.
+	 */
+	long transmissionNanos(int bytes){
+		if (bytesPerSecond == 0){
+			return 0;
+		}
+		return bytes * 1000000000L / bytesPerSecond;
+	}
+	
+	@Override
+	public String toString(){
+		return "LoopbackProfile [latency " + latencyMicros + " us, " + (bytesPerSecond == 0 ? "unlimited" : bytesPerSecond + " bytes/s") + "]";
+	}
+}
@@ -8,10 +8,10 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.logging.Level;
 
-import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.SerializedMessageChannel;
 import edu.biu.scapi.generals.Logging;
 
-public class NativeChannel implements Channel{
+public class NativeChannel implements SerializedMessageChannel{
 
 	/**
 	 * A channel has a state. It can be either NOT_INIT,CONNECTING or READY.
@@ -61,6 +61,15 @@ public class NativeChannel implements Channel{
 		send(sendSocketPtr, msgBytes);
 		
 	}
+	
+	/**
+	 * Sends a message that was already serialized by a new ObjectOutputStream. 
+	 * The message is received by the {@link #receive()} function of the other side, as if it was sent using {@link #send(Serializable)}.
+	 */
+	@Override
+	public void sendSerialized(byte[] serialized) throws IOException {
+		send(sendSocketPtr, serialized);
+	}
 
 	@Override
 	public Serializable receive() throws ClassNotFoundException, IOException {
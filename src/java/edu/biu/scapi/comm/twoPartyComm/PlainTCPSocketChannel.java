@@ -39,6 +39,7 @@ import java.nio.ByteBuffer;
 import java.util.logging.Level;
 
 import edu.biu.scapi.comm.PlainChannel;
+import edu.biu.scapi.comm.SerializedMessageChannel;
 import edu.biu.scapi.generals.Logging;
 
 /**
@@ -56,7 +57,7 @@ import edu.biu.scapi.generals.Logging;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class PlainTCPSocketChannel extends PlainChannel{
+public class PlainTCPSocketChannel extends PlainChannel implements SerializedMessageChannel{
 	/**
 	 * 
 	 * A nested class to use in the send and receive functions. 
@@ -133,7 +134,18 @@ public class PlainTCPSocketChannel extends PlainChannel{
 		oOut.writeObject(msg);  
 		oOut.close();
 		
-		msgBytes = bOut.toByteArray();
+		sendSerialized(bOut.toByteArray());
+	}
+	
+	/** 
+	 * Sends a message that was already serialized to the other user of the channel. 
+	 * The message is received by the {@link #receive()} function of the other side, as if it was sent using {@link #send(Serializable)}.
+	 *  
+	 * @param serialized the message, serialized by a new ObjectOutputStream.
+	 * @throws IOException Any of the usual Input/Output related exceptions.  
+	 */
+	public void sendSerialized(byte[] serialized) throws IOException {
+		msgBytes = serialized;
 		msgObj = new Message(null);
 		msgObj.setData(msgBytes);
 		outStream.writeObject(msgObj);
@@ -271,10 +283,11 @@ public class PlainTCPSocketChannel extends PlainChannel{
 	}
 	
 	/**
-	 * This function sets the channel state to READY in case both send and receive sockets are connected.
+	 * This function sets the channel state to READY in case both send and receive sockets are connected.<p>
+	 * The sockets are connected by different threads, so the channel is ready only after both streams were created.
 	 */
-	protected void setReady() {
-		if(sendSocket != null && receiveSocket != null){
+	protected synchronized void setReady() {
+		if(sendSocket != null && receiveSocket != null && outStream != null && inStream != null){
 			
 			if (sendSocket.isConnected() && receiveSocket.isConnected()){
 				//set the channel state to READY
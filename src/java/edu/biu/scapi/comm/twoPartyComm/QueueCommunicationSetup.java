@@ -83,6 +83,7 @@ public class QueueCommunicationSetup implements TwoPartyCommunicationSetup, Time
 	QueuePartyData me;						//The data of the current application.
 	QueuePartyData other;					//The data of the other application to communicate with.
 	DestroyDestinationUtil destroyer;
+	BatchedQueueTransport transport;		//The batched transport of the created channels. Null if the channels send ObjectMessages.
 	
 	protected QueueCommunicationSetup(){}
 	
@@ -158,7 +159,12 @@ public class QueueCommunicationSetup implements TwoPartyCommunicationSetup, Time
 		//For each connection between the two parties, create a Queue channel.
 		int size = connectionsIds.length;
 		for (int i=0; i<size && !bTimedOut; i++){
-			QueueChannel channel = new QueueChannel(me, other, connection, connectionsIds[i], destroyer);
+			Channel channel;
+			if (transport == null){
+				channel = new QueueChannel(me, other, connection, connectionsIds[i], destroyer);
+			} else {
+				channel = new BatchedQueueChannel(me, other, connection, connectionsIds[i], destroyer, transport.getMaxBatchSize());
+			}
 			//put the created channel in the map.
 			connectedChannels.put(connectionsIds[i], channel);	
 		}
@@ -177,6 +183,18 @@ public class QueueCommunicationSetup implements TwoPartyCommunicationSetup, Time
 		return connectedChannels;
 	}
 	
+	/**
+	 * Sets the channels that are created from now on to use the batched transport, that packs consecutive messages 
+	 * into one BytesMessage instead of sending each message as an ObjectMessage. 
+	 * Since the batch is sent when the channel receives or is flushed, a party that sends a message without receiving 
+	 * an answer should flush the channel (the created channels implement {@link java.io.Flushable}). <p>
+	 * The other party should use the batched transport too.
+	 * @param transport the parameters of the batched transport, or null in order to use ObjectMessages.
+	 */
+	public void setBatchedTransport(BatchedQueueTransport transport){
+		this.transport = transport;
+	}
+	
 	@Override
 	public void close(){
 		try {
@@ -0,0 +1,322 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.logging.Level;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+
+import edu.biu.scapi.comm.SerializedMessageChannel;
+import edu.biu.scapi.generals.Logging;
+
+/**
+ * This class implements a TLS channel using an {@link SSLEngine} over a single NIO {@link SocketChannel}. <p>
+ * 
+ * Unlike the {@link SSLSocketChannel}, that uses an SSL socket for each direction, this channel sends and receives on the same 
+ * connection, so creating it requires one handshake. The channels are created by the {@link SSLEngineCommunicationSetup}, 
+ * which creates all the engines to a party from the same SSLContext, so the handshakes after the first one resume its session. <p>
+ * 
+ * Each message is sent as its serialization preceded by its length, without wrapping the serialized bytes in another object.
+ * One thread may send while another thread receives.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SSLEngineChannel implements SerializedMessageChannel {
+	
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+	
+	private SocketChannel socket;
+	private SSLEngine engine;
+	private ByteBuffer netOut;		//Encrypted bytes to write to the socket.
+	private ByteBuffer netIn;		//Encrypted bytes read from the socket that were not unwrapped yet. Kept ready for writing.
+	private ByteBuffer appIn;		//Decrypted bytes that were not returned yet. Kept ready for writing.
+	private ByteBuffer lengthIn = ByteBuffer.allocate(4);
+	private ByteBuffer lengthOut = ByteBuffer.allocate(4);
+	private final Object sendLock = new Object();
+	private final Object receiveLock = new Object();
+	private volatile boolean isClosed;
+	
+	/**
+	 * Constructor that sets the connected socket and the engine. The handshake is done by {@link #handshake()}.
+	 * @param socket a connected socket in blocking mode.
+	 * @param engine an engine that is set to client or server mode.
+	 */
+	SSLEngineChannel(SocketChannel socket, SSLEngine engine){
+		this.socket = socket;
+		this.engine = engine;
+		SSLSession session = engine.getSession();
+		netOut = ByteBuffer.allocate(session.getPacketBufferSize());
+		netIn = ByteBuffer.allocate(session.getPacketBufferSize());
+		appIn = ByteBuffer.allocate(session.getApplicationBufferSize());
+	}
+	
+	/**
+	 * Executes the TLS handshake. If the engine has a cached session with the other party, the session is resumed.
+	 * @throws IOException if the handshake failed or the connection was closed.
+	 */
+	void handshake() throws IOException {
+		engine.beginHandshake();
+		synchronized (receiveLock){
+			synchronized (sendLock){
+				while (processHandshake()){
+					unwrap();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Executes the handshake steps that do not need input from the other party.
+	 * @return true if the handshake waits for input from the other party.
+	 */
+	private boolean processHandshake() throws IOException {
+		while (true){
+			switch (engine.getHandshakeStatus()){
+			case NEED_TASK:
+				Runnable task;
+				while ((task = engine.getDelegatedTask()) != null){
+					task.run();
+				}
+				break;
+			case NEED_WRAP:
+				synchronized (sendLock){
+					wrap(new ByteBuffer[]{EMPTY});
+				}
+				break;
+			case NEED_UNWRAP:
+				return true;
+			case NOT_HANDSHAKING:
+			case FINISHED:
+				return false;
+			default:
+				throw new SSLException("unexpected handshake status " + engine.getHandshakeStatus());
+			}
+		}
+	}
+	
+	/**
+	 * @return the TLS session of this channel.
+	 */
+	public SSLSession getSession(){
+		return engine.getSession();
+	}
+
+	@Override
+	public void send(Serializable data) throws IOException {
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		ObjectOutputStream oOut = new ObjectOutputStream(bOut);
+		oOut.writeObject(data);
+		oOut.close();
+		sendSerialized(bOut.toByteArray());
+	}
+	
+	@Override
+	public void sendSerialized(byte[] serialized) throws IOException {
+		synchronized (sendLock){
+			lengthOut.clear();
+			lengthOut.putInt(serialized.length);
+			lengthOut.flip();
+			wrap(new ByteBuffer[]{lengthOut, ByteBuffer.wrap(serialized)});
+		}
+	}
+	
+	/**
+	 * Encrypts the given buffers and writes the records to the socket. Should be called while holding the send lock.
+	 */
+	private void wrap(ByteBuffer[] data) throws IOException {
+		do {
+			netOut.clear();
+			SSLEngineResult result = engine.wrap(data, netOut);
+			switch (result.getStatus()){
+			case BUFFER_OVERFLOW:
+				netOut = ByteBuffer.allocate(netOut.capacity() * 2);
+				continue;
+			case CLOSED:
+				if (result.bytesProduced() == 0){
+					throw new EOFException("the channel was closed");
+				}
+				break;
+			case OK:
+				break;
+			default:
+				throw new SSLException("unexpected wrap status " + result.getStatus());
+			}
+			netOut.flip();
+			while (netOut.hasRemaining()){
+				socket.write(netOut);
+			}
+		} while (hasRemaining(data));
+	}
+	
+	private static boolean hasRemaining(ByteBuffer[] data){
+		for (ByteBuffer buffer : data){
+			if (buffer.hasRemaining()){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Serializable receive() throws ClassNotFoundException, IOException {
+		byte[] message;
+		synchronized (receiveLock){
+			lengthIn.clear();
+			read(lengthIn);
+			lengthIn.flip();
+			message = new byte[lengthIn.getInt()];
+			read(ByteBuffer.wrap(message));
+		}
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(message));
+		return (Serializable) in.readObject();
+	}
+	
+	/**
+	 * Fills the given buffer with decrypted bytes. Should be called while holding the receive lock.
+	 */
+	private void read(ByteBuffer dst) throws IOException {
+		while (dst.hasRemaining()){
+			if (appIn.position() > 0){
+				appIn.flip();
+				int count = Math.min(appIn.remaining(), dst.remaining());
+				ByteBuffer slice = appIn.duplicate();
+				slice.limit(slice.position() + count);
+				dst.put(slice);
+				appIn.position(appIn.position() + count);
+				appIn.compact();
+			} else if (dst.remaining() >= appIn.capacity()){
+				//A big message is decrypted directly into its array.
+				unwrapInto(dst);
+			} else {
+				unwrap();
+			}
+		}
+	}
+	
+	/**
+	 * Decrypts the next record into the application buffer.
+	 */
+	private void unwrap() throws IOException {
+		unwrapInto(appIn);
+	}
+	
+	/**
+	 * Unwraps the next record into the given buffer, reading from the socket as needed. 
+	 * A handshake record produces no bytes, but the handshake steps that it requires are executed.
+	 */
+	private void unwrapInto(ByteBuffer dst) throws IOException {
+		while (true){
+			netIn.flip();
+			SSLEngineResult result = engine.unwrap(netIn, dst);
+			netIn.compact();
+			switch (result.getStatus()){
+			case BUFFER_UNDERFLOW:
+				if (!netIn.hasRemaining()){
+					netIn = enlarge(netIn);
+				}
+				if (socket.read(netIn) < 0){
+					throw new EOFException("the channel was closed by the other party");
+				}
+				break;
+			case BUFFER_OVERFLOW:
+				if (dst != appIn){
+					//The given buffer can not hold the record, so it is decrypted into the application buffer.
+					unwrapInto(appIn);
+					return;
+				}
+				appIn = enlarge(appIn);
+				dst = appIn;
+				break;
+			case CLOSED:
+				throw new EOFException("the channel was closed by the other party");
+			case OK:
+				//A renegotiation of the other party may require an answer.
+				SSLEngineResult.HandshakeStatus status = result.getHandshakeStatus();
+				if (status == SSLEngineResult.HandshakeStatus.NEED_TASK || status == SSLEngineResult.HandshakeStatus.NEED_WRAP){
+					processHandshake();
+				}
+				return;
+			default:
+				throw new SSLException("unexpected unwrap status " + result.getStatus());
+			}
+		}
+	}
+	
+	/**
+	 * Returns a buffer with twice the capacity, that contains the bytes of the given buffer. Both buffers are ready for writing.
+	 */
+	private static ByteBuffer enlarge(ByteBuffer buffer){
+		ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+		buffer.flip();
+		bigger.put(buffer);
+		return bigger;
+	}
+
+	/**
+	 * Sends the TLS close message and closes the socket.
+	 */
+	@Override
+	public void close() {
+		if (isClosed){
+			return;
+		}
+		isClosed = true;
+		try {
+			engine.closeOutbound();
+			synchronized (sendLock){
+				if (!engine.isOutboundDone()){
+					wrap(new ByteBuffer[]{EMPTY});
+				}
+			}
+		} catch (IOException e) {
+			Logging.getLogger().log(Level.FINE, e.toString());
+		}
+		try {
+			socket.close();
+		} catch (IOException e) {
+			Logging.getLogger().log(Level.WARNING, e.toString());
+		}
+	}
+
+	@Override
+	public boolean isClosed() {
+		return isClosed;
+	}
+}
@@ -0,0 +1,534 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+
+import org.apache.commons.exec.TimeoutObserver;
+import org.apache.commons.exec.Watchdog;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.DuplicatePartyException;
+import edu.biu.scapi.generals.Logging;
+
+/**
+ * This class implements a communication between two parties using TLS over NIO sockets.<p>
+ * 
+ * Each created channel is an {@link SSLEngineChannel} that uses one socket for both directions. The party with the smaller 
+ * address connects to the other party, which accepts the connections on its port. All the engines are created from the same 
+ * SSLContext, and the first channel completes its handshake before the other channels connect, so the other channels resume 
+ * the session of the first one instead of executing a full handshake. The other channels connect in parallel. <p>
+ * 
+ * The channels use TLS 1.2 with ECDHE key exchange and require client authentication. AES-GCM suites are preferred, 
+ * and the CBC suites of the {@link SSLSocketCommunicationSetup} are enabled after them. <p>
+ * 
+ * The key store and trust store are the same as in the {@link SSLSocketCommunicationSetup}. <p>
+ * 
+ * The connections and handshakes are done on blocking sockets. When the timeout of prepareForCommunication occurs, 
+ * the sockets that did not complete their handshake are closed, so a party that stopped answering does not block the setup.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SSLEngineCommunicationSetup implements TwoPartyCommunicationSetup, TimeoutObserver {
+	
+	private static final String[] CIPHER_SUITES = {
+		"TLS_ECDHE_ECDSA_WITH_AES_128_GCM_SHA256",
+		"TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256",
+		"TLS_ECDHE_ECDSA_WITH_AES_256_GCM_SHA384",
+		"TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384",
+		"TLS_ECDHE_ECDSA_WITH_AES_128_CBC_SHA256",
+		"TLS_ECDHE_RSA_WITH_AES_128_CBC_SHA256"
+	};
+	
+	private static final int MAX_HANDSHAKE_THREADS = 8;		//The maximal number of handshakes that are executed in parallel.
+	private static final long INITIAL_RETRY_MILLIS = 10;	//The waiting time after the first failed connection attempt.
+	private static final long MAX_RETRY_MILLIS = 1000;		//The maximal waiting time between connection attempts.
+	private static final long SELECT_MILLIS = 100;			//The maximal waiting time for a connection before checking if to stop accepting.
+	
+	private SSLContext sc;
+	private SocketPartyData me;					//The data of the current application.
+	private SocketPartyData other;				//The data of the other application to communicate with.
+	private boolean isClient;					//Indicates if this party connects to the other party or accepts its connections.
+	private ServerSocketChannel server;			//Accepts the connections of the other party. Null if this party is the client.
+	private boolean enableNagle = false;
+	private int connectionsNumber;
+	private Watchdog watchdog;					//Used to measure times.
+	//The sockets that are connecting or executing their handshake. They are closed when the timeout occurs, 
+	//which stops the blocking operations on them. Also used as the lock of bTimedOut.
+	private final Set<SocketChannel> connecting = new HashSet<SocketChannel>();
+	private boolean bTimedOut;
+	
+	/**
+	 * A channel of the accepting party together with its name, which is the first message of the connecting party.
+	 */
+	private static class AcceptedChannel {
+		private String id;
+		private SSLEngineChannel channel;
+		
+		AcceptedChannel(String id, SSLEngineChannel channel){
+			this.id = id;
+			this.channel = channel;
+		}
+	}
+	
+	/**
+	 * Constructor that gets the data of both parties and the password to the keyStore and trustStore, which are 
+	 * "scapiKeystore.jks" and "scapiCacerts.jks".
+	 * @param me The data of the current application.
+	 * @param party The data of the other application.
+	 * @param storePass The password to the keyStore and trustStore
+	 * @throws DuplicatePartyException In case both parties are the same.
+	 * @throws IOException In case there is a problem with the key store or trust store file, or the port of this party can not be listened on.
+	 * @throws SSLException In case there is a problem during the SSL protocol initialization.
+	 */
+	public SSLEngineCommunicationSetup(PartyData me, PartyData party, String storePass) throws DuplicatePartyException, SSLException, IOException {
+		this(me, party, "scapiKeystore.jks", "scapiCacerts.jks", storePass);
+	}
+	
+	/**
+	 * Constructor that gets the data of both parties, the keystore and truststore files names and the password to them.
+	 * @param me The data of the current application.
+	 * @param party The data of the other application.
+	 * @param keyStoreName Name of the keystore file of this party.
+	 * @param trustStoreName Name of the truststore file of this party.
+	 * @param storePass The password to the keyStore and trustStore
+	 * @throws DuplicatePartyException In case both parties are the same.
+	 * @throws IOException In case there is a problem with the key store or trust store file, or the port of this party can not be listened on.
+	 * @throws SSLException In case there is a problem during the SSL protocol initialization.
+	 */
+	public SSLEngineCommunicationSetup(PartyData me, PartyData party, String keyStoreName, String trustStoreName, String storePass) throws DuplicatePartyException, SSLException, IOException {
+		this(me, party, SSLSocketCommunicationSetup.createContext(keyStoreName, trustStoreName, storePass));
+	}
+	
+	/**
+	 * Constructor that gets the data of both parties and an SSL context that is loaded with the key and trust managers of this party.
+	 * @param me The data of the current application.
+	 * @param party The data of the other application.
+	 * @param context used to create the engines of the channels.
+	 * @throws DuplicatePartyException In case both parties are the same.
+	 * @throws IOException In case the port of this party can not be listened on.
+	 */
+	public SSLEngineCommunicationSetup(PartyData me, PartyData party, SSLContext context) throws DuplicatePartyException, IOException {
+		//Both parties should be instances of SocketPArty.
+		if (!(me instanceof SocketPartyData) || !(party instanceof SocketPartyData)){
+			throw new IllegalArgumentException("both parties should be instances of SocketParty");
+		}
+		this.me = (SocketPartyData) me;
+		this.other = (SocketPartyData) party;
+		
+		int partyCompare = this.me.compareTo(other);
+		if (partyCompare == 0){
+			throw new DuplicatePartyException("Another party with the same ip address and port");
+		}
+		this.sc = context;
+		
+		//The party with the smaller address connects, and the other party listens from now on, so the connecting party 
+		//does not have to wait for it.
+		isClient = partyCompare < 0;
+		if (!isClient){
+			server = ServerSocketChannel.open();
+			server.socket().setReuseAddress(true);
+			server.socket().bind(new InetSocketAddress(this.me.getIpAddress(), this.me.getPort()));
+			server.configureBlocking(false);
+		}
+	}
+	
+	/**  
+	 * Connects the channels to the other party and executes their handshakes. 
+	 * The first channel executes a full handshake and the others resume its session.
+	 * @throws TimeoutException in case a timeout has occurred before all channels have been connected.
+	 */
+	@Override
+	public Map<String, Channel> prepareForCommunication(String[] connectionsIds, long timeOut) throws TimeoutException {
+		long deadline = System.currentTimeMillis() + timeOut;
+		synchronized (connecting){
+			bTimedOut = false;
+		}
+		//Start the watch dog with the given timeout.
+		watchdog = new Watchdog(timeOut);
+		//Add this instance as the observer in order to receive the event of time out.
+		watchdog.addTimeoutObserver(this);
+		watchdog.start();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_HANDSHAKE_THREADS, Math.max(1, connectionsIds.length)) + 1);
+		Map<String, Channel> connections = new HashMap<String, Channel>();
+		try {
+			if (isClient){
+				connectAll(connectionsIds, deadline, executor, connections);
+			} else {
+				acceptAll(connectionsIds, deadline, executor, connections);
+			}
+		} catch (TimeoutException e) {
+			for (Channel channel : connections.values()){
+				channel.close();
+			}
+			throw e;
+		} finally {
+			watchdog.stop();
+			//Stops the tasks that did not complete before the timeout.
+			executor.shutdownNow();
+		}
+		return connections;
+	}
+	
+	@Override
+	public Map<String, Channel> prepareForCommunication(int connectionsNum, long timeOut) throws TimeoutException {
+		//Prepare the connections Ids using the default implementation, meaning the connections are numbered 
+		//according to their index. i.e the first connection's name is "0", the second is "1" and so on.
+		String[] names = new String[connectionsNum];
+		for (int i=0; i<connectionsNum; i++){
+			names[i] = Integer.toString(connectionsNumber++);
+		}
+		
+		return prepareForCommunication(names, timeOut);
+	}
+	
+	/**
+	 * Connects the first channel, and then the other channels in parallel.
+	 */
+	private void connectAll(String[] connectionsIds, final long deadline, ExecutorService executor, Map<String, Channel> connections) throws TimeoutException {
+		if (connectionsIds.length == 0){
+			return;
+		}
+		connections.put(connectionsIds[0], connect(connectionsIds[0], deadline));
+		
+		CompletionService<SSLEngineChannel> completion = new ExecutorCompletionService<SSLEngineChannel>(executor);
+		List<Future<SSLEngineChannel>> futures = new ArrayList<Future<SSLEngineChannel>>();
+		for (int i = 1; i < connectionsIds.length; i++){
+			final String id = connectionsIds[i];
+			futures.add(completion.submit(new Callable<SSLEngineChannel>() {
+				public SSLEngineChannel call() throws Exception {
+					return connect(id, deadline);
+				}
+			}));
+		}
+		try {
+			for (int i = 1; i < connectionsIds.length; i++){
+				take(completion, deadline);
+			}
+		} catch (TimeoutException e) {
+			//Close the channels that were connected before the timeout.
+			for (Future<SSLEngineChannel> future : futures){
+				if (future.isDone()){
+					try {
+						get(future).close();
+					} catch (TimeoutException | IllegalStateException ignored) {}
+				}
+			}
+			throw e;
+		}
+		for (int i = 1; i < connectionsIds.length; i++){
+			connections.put(connectionsIds[i], get(futures.get(i - 1)));
+		}
+	}
+	
+	/**
+	 * Connects a channel to the other party, executes the handshake and sends the name of the channel. 
+	 * Retries until it succeeds or the timeout occurs.
+	 */
+	private SSLEngineChannel connect(String id, long deadline) throws TimeoutException {
+		ConnectBackoff backoff = new ConnectBackoff(INITIAL_RETRY_MILLIS, MAX_RETRY_MILLIS);
+		while (true){
+			SocketChannel socket = null;
+			boolean connected = false;
+			try {
+				socket = SocketChannel.open();
+				register(socket);
+				socket.connect(new InetSocketAddress(other.getIpAddress(), other.getPort()));
+				socket.socket().setTcpNoDelay(!enableNagle);
+				
+				//The engine is created with the address of the other party, so the handshake resumes a cached session with it.
+				SSLEngine engine = sc.createSSLEngine(other.getIpAddress().getHostAddress(), other.getPort());
+				engine.setUseClientMode(true);
+				configure(engine);
+				SSLEngineChannel channel = new SSLEngineChannel(socket, engine);
+				channel.handshake();
+				channel.send(id);
+				connected = release(socket);
+				if (connected){
+					return channel;
+				}
+			} catch (IOException e) {
+				//The other party may not listen yet. The channel tries to connect until it succeeds.
+				Logging.getLogger().log(Level.FINEST, e.toString());
+			} finally {
+				if (!connected && socket != null){
+					release(socket);
+					close(socket);
+				}
+			}
+			if (isTimedOut() || System.currentTimeMillis() >= deadline || Thread.currentThread().isInterrupted()){
+				throw new TimeoutException("timeout has occurred");
+			}
+			try {
+				backoff.pause();
+			} catch (InterruptedException e) {
+				throw new TimeoutException("timeout has occurred");
+			}
+		}
+	}
+	
+	/**
+	 * Adds the socket to the sockets that are closed when the timeout occurs.
+	 * @throws IOException if the timeout already occurred.
+	 */
+	private void register(SocketChannel socket) throws IOException {
+		synchronized (connecting){
+			if (bTimedOut){
+				throw new IOException("timeout has occurred");
+			}
+			connecting.add(socket);
+		}
+	}
+	
+	/**
+	 * Removes the socket from the sockets that are closed when the timeout occurs.
+	 * @return true if the timeout did not occur, so the socket was not closed.
+	 */
+	private boolean release(SocketChannel socket){
+		synchronized (connecting){
+			connecting.remove(socket);
+			return !bTimedOut;
+		}
+	}
+	
+	private boolean isTimedOut(){
+		synchronized (connecting){
+			return bTimedOut;
+		}
+	}
+	
+	/**
+	 * Accepts the connections of the other party and executes their handshakes in parallel, until all the requested channels are connected.
+	 */
+	private void acceptAll(String[] connectionsIds, final long deadline, ExecutorService executor, Map<String, Channel> connections) throws TimeoutException {
+		Set<String> requested = new HashSet<String>(Arrays.asList(connectionsIds));
+		final CompletionService<AcceptedChannel> completion = new ExecutorCompletionService<AcceptedChannel>(executor);
+		Future<?> acceptor = executor.submit(new Callable<Void>() {
+			public Void call() throws Exception {
+				accept(completion, deadline);
+				return null;
+			}
+		});
+		try {
+			while (connections.size() < requested.size()){
+				AcceptedChannel accepted = get(take(completion, deadline));
+				if (accepted == null){
+					continue;
+				}
+				if (!requested.contains(accepted.id) || connections.containsKey(accepted.id)){
+					Logging.getLogger().log(Level.WARNING, "Unexpected connection " + accepted.id);
+					accepted.channel.close();
+					continue;
+				}
+				connections.put(accepted.id, accepted.channel);
+			}
+		} finally {
+			acceptor.cancel(true);
+		}
+	}
+	
+	/**
+	 * Accepts connections from the address of the other party and submits their handshakes, until the thread is interrupted or the deadline passes.
+	 */
+	private void accept(CompletionService<AcceptedChannel> completion, long deadline) throws IOException {
+		InetAddress partyAddr = other.getIpAddress();
+		Selector selector = Selector.open();
+		try {
+			server.register(selector, SelectionKey.OP_ACCEPT);
+			while (!Thread.currentThread().isInterrupted() && System.currentTimeMillis() < deadline){
+				selector.select(SELECT_MILLIS);
+				selector.selectedKeys().clear();
+				SocketChannel socket;
+				while ((socket = server.accept()) != null){
+					//An unauthorized ip tried to connect.
+					if (!socket.socket().getInetAddress().equals(partyAddr)){
+						close(socket);
+						continue;
+					}
+					final SocketChannel accepted = socket;
+					completion.submit(new Callable<AcceptedChannel>() {
+						public AcceptedChannel call() throws Exception {
+							return handshake(accepted);
+						}
+					});
+				}
+			}
+		} finally {
+			selector.close();
+		}
+	}
+	
+	/**
+	 * Executes the server side of the handshake on the accepted socket and receives the name of the channel.
+	 * @return the channel and its name, or null if the handshake failed.
+	 */
+	private AcceptedChannel handshake(SocketChannel socket){
+		boolean connected = false;
+		try {
+			register(socket);
+			socket.configureBlocking(true);
+			socket.socket().setTcpNoDelay(!enableNagle);
+			SSLEngine engine = sc.createSSLEngine();
+			engine.setUseClientMode(false);
+			engine.setNeedClientAuth(true);
+			configure(engine);
+			SSLEngineChannel channel = new SSLEngineChannel(socket, engine);
+			channel.handshake();
+			//The name of the channel is its first message.
+			String id = (String) channel.receive();
+			connected = release(socket);
+			return connected ? new AcceptedChannel(id, channel) : null;
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
+			//A failure of a delegated task of the engine is thrown as a runtime exception.
+			Logging.getLogger().log(Level.WARNING, e.toString());
+			return null;
+		} finally {
+			if (!connected){
+				release(socket);
+				close(socket);
+			}
+		}
+	}
+	
+	/**
+	 * Enables TLS 1.2 and the supported suites of CIPHER_SUITES, in their order of preference.
+	 */
+	private static void configure(SSLEngine engine){
+		engine.setEnabledProtocols(new String[]{"TLSv1.2"});
+		List<String> supported = Arrays.asList(engine.getSupportedCipherSuites());
+		List<String> suites = new ArrayList<String>();
+		for (String suite : CIPHER_SUITES){
+			if (supported.contains(suite)){
+				suites.add(suite);
+			}
+		}
+		engine.setEnabledCipherSuites(suites.toArray(new String[suites.size()]));
+	}
+	
+	private static <T> Future<T> take(CompletionService<T> completion, long deadline) throws TimeoutException {
+		try {
+			Future<T> future = completion.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			if (future == null){
+				throw new TimeoutException("timeout has occurred");
+			}
+			return future;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TimeoutException("interrupted while connecting");
+		}
+	}
+	
+	private static <T> T get(Future<T> future) throws TimeoutException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TimeoutException("interrupted while connecting");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof TimeoutException){
+				throw (TimeoutException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+	
+	private static void close(SocketChannel socket){
+		if (socket != null){
+			try {
+				socket.close();
+			} catch (IOException e) {
+				Logging.getLogger().log(Level.WARNING, e.toString());
+			}
+		}
+	}
+
+	/**
+	 * This function is called by the infrastructure of the Watchdog if the previously set timeout has passed. (Do not call this function).
+	 * Closes the sockets that did not complete their handshake, which stops the threads that are blocked on them.
+	 */
+	@Override
+	public void timeoutOccured(Watchdog w) {
+		Logging.getLogger().log(Level.INFO, "Timeout occured");
+		synchronized (connecting){
+			bTimedOut = true;
+			for (SocketChannel socket : connecting){
+				close(socket);
+			}
+			connecting.clear();
+		}
+	}
+
+	@Override
+	public void enableNagle() {
+		//Set to true the boolean indicates whether or not to use the Nagle optimization algorithm. 
+		//For Cryptographic algorithms is better to have it disabled.
+		this.enableNagle = true;
+	}
+
+	/**
+	 * Stops listening to the other party. The created channels are not closed.
+	 */
+	@Override
+	public void close() {
+		if (server != null){
+			try {
+				server.close();
+			} catch (IOException e) {
+				Logging.getLogger().log(Level.WARNING, e.toString());
+			}
+		}
+	}
+}
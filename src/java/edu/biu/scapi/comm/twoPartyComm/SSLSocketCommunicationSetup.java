@@ -90,7 +90,21 @@ public class SSLSocketCommunicationSetup extends SocketCommunicationSetup{
 	public SSLSocketCommunicationSetup(PartyData me, PartyData party, String keyStoreName, String trustStoreName, String storePass) throws DuplicatePartyException, SSLException, IOException{
 		super(me, party);
 		
-		//Creating the SSL Context to get the socket factories from.
+		sc = createContext(keyStoreName, trustStoreName, storePass);
+		
+		//Create the connector object that creates and connects the channels.
+		connector = new TwoPartySocketConnector(me, other, sc.getSocketFactory());
+	}
+	
+	/**
+	 * Creates an SSL context that is loaded with the given key store and trust store.
+	 * @param keyStoreName Name of the keystore file of this party.
+	 * @param trustStoreName Name of the truststore file of this party.
+	 * @param storePass The password to the keyStore and trustStore
+	 * @throws IOException In case there is a problem with the key store or trust store file.
+	 * @throws SSLException In case there is a problem during the SSL protocol initialization.
+	 */
+	static SSLContext createContext(String keyStoreName, String trustStoreName, String storePass) throws SSLException, IOException {
 		try {
 			
 			//Loading the trust store containing the certificate that should be received from the other party.
@@ -106,8 +120,9 @@ public class SSLSocketCommunicationSetup extends SocketCommunicationSetup{
 	        kmf.init(keyStore, storePass.toCharArray());
 	         
 	        //Create the SSL context and initialize it with the created key store and trust store.
-	        sc = SSLContext.getInstance("TLSv1.2");
+	        SSLContext sc = SSLContext.getInstance("TLSv1.2");
 	        sc.init(kmf.getKeyManagers(), tmf.getTrustManagers(), new SecureRandom());
+	        return sc;
 		
 		} catch (UnrecoverableKeyException e) {
 			Logging.getLogger().log(Level.SEVERE, e.toString());    
@@ -124,10 +139,7 @@ public class SSLSocketCommunicationSetup extends SocketCommunicationSetup{
 		} catch (KeyManagementException e) {
 			Logging.getLogger().log(Level.SEVERE, e.toString());    
 			throw new SSLException(e.getCause());
-		} 
-		
-		//Create the connector object that creates and connects the channels.
-		connector = new TwoPartySocketConnector(me, other, sc.getSocketFactory());
+		}
 	}
 	
 	@Override
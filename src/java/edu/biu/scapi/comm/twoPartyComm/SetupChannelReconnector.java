@@ -0,0 +1,73 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+
+package edu.biu.scapi.comm.twoPartyComm;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.ChannelReconnector;
+
+/**
+ * This class reconnects a {@link edu.biu.scapi.comm.ResumableChannel} by asking a {@link TwoPartyCommunicationSetup} for the 
+ * connection with the same name again. The setup of the other party is asked for the same connection by the resumable channel 
+ * of the other party, so the new connection is established when both parties noticed the failure. For example:
+ * <pre>
+ * Map&lt;String, Channel&gt; connections = setup.prepareForCommunication(new String[]{"offline"}, timeout);
+ * Channel channel = new ResumableChannel(connections.get("offline"), new SetupChannelReconnector(setup, "offline", timeout));
+ * </pre>
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SetupChannelReconnector implements ChannelReconnector {
+	
+	private TwoPartyCommunicationSetup setup;
+	private String connectionId;
+	private long timeOut;
+	
+	/**
+	 * Constructor that sets the setup and the connection to request.
+	 * @param setup the setup that created the original connection.
+	 * @param connectionId the name of the connection.
+	 * @param timeOut the time to wait for the other party to reconnect, in milliseconds.
+	 */
+	public SetupChannelReconnector(TwoPartyCommunicationSetup setup, String connectionId, long timeOut){
+		this.setup = setup;
+		this.connectionId = connectionId;
+		this.timeOut = timeOut;
+	}
+
+	@Override
+	public Channel reconnect() throws IOException {
+		try {
+			return setup.prepareForCommunication(new String[]{connectionId}, timeOut).get(connectionId);
+		} catch (TimeoutException e) {
+			throw new IOException("the other party did not reconnect", e);
+		}
+	}
+}
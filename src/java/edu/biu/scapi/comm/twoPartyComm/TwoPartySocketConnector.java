@@ -26,11 +26,15 @@ public class TwoPartySocketConnector {
 	
 	private SocketPartyData me;						//The data of the current application
 	private SocketPartyData other;					//The data of the other application to communicate with.
-	private boolean bStopped = false;				//A flag that indicates if to keep on listening or stop.
+	private volatile boolean bStopped = false;		//A flag that indicates if to keep on listening or stop.
 	private boolean isSecure;						// A flag that indicates to use SSL or not.
 	private SSLSocketFactory factory;				//In case of SSL communication, the sockets are created via this factory.
 	private Map<String, Channel> connectionsMap;
 	
+	private static final long INITIAL_RETRY_MILLIS = 10;	//The waiting time after the first failed connection attempt.
+	private static final long MAX_RETRY_MILLIS = 1000;		//The maximal waiting time between connection attempts.
+	private static final long MAX_POLL_MILLIS = 100;		//The maximal waiting time between checks that all the channels are ready.
+	
 	
 	/**
 	 * A constructor that set the parties.<p>
@@ -95,11 +99,16 @@ public class TwoPartySocketConnector {
 
 	
 	/**
-	 * This function calls each channel to connect to the other party.
+	 * This function calls each channel to connect to the other party.<p>
+	 * The channels are connected in their order, since the other party matches the incoming connections to its channels by this order.
+	 * After a failed attempt the function waits before trying again. The waiting time grows exponentially with random jitter, 
+	 * so a party that is not up yet is not called in a busy loop.
 	 * @param channels between me to the other party.
 	 */
 	public void connect(PlainTCPSocketChannel[] channels){
 
+		ConnectBackoff backoff = new ConnectBackoff(INITIAL_RETRY_MILLIS, MAX_RETRY_MILLIS);
+		
 		//For each channel, call the connect function until the channel is actually connected.
 		for (int i=0; i<channels.length && !bStopped; i++){
 			
@@ -110,10 +119,19 @@ public class TwoPartySocketConnector {
 				channels[i].setState(PlainTCPSocketChannel.State.CONNECTING);
 				Logging.getLogger().log(Level.INFO, "state: connecting " + channels[i].toString());
 				
-				//Try to connect.
-				channels[i].connect();
-				
+				//Try to connect. In case of failure, wait before the next attempt.
+				if (!channels[i].connect() && !bStopped){
+					try {
+						backoff.pause();
+					} catch (InterruptedException e) {
+						Logging.getLogger().log(Level.FINEST, e.toString());
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
 			}
+			//The other party is up, so the next channel should connect immediately.
+			backoff.reset();
 				
 			Logging.getLogger().log(Level.INFO, "End of securing thread run" + channels[i].toString());
 		}
@@ -163,12 +181,15 @@ public class TwoPartySocketConnector {
 	public void verifyConnectingStatus() {
 		
 		//Wait until the thread has been stopped or all the channels are connected.
+		ConnectBackoff backoff = new ConnectBackoff(1, MAX_POLL_MILLIS);
 		while(!bStopped && !areAllConnected()){
 			try {
-				Thread.sleep(500);
+				backoff.pause();
 			} catch (InterruptedException e) {
 
 				Logging.getLogger().log(Level.FINEST, e.toString());
+				Thread.currentThread().interrupt();
+				return;
 			}
 		}	
 	}
@@ -176,7 +197,7 @@ public class TwoPartySocketConnector {
 	/** 
 	 * @return true if all the channels are in READY state, false otherwise.
 	 */
-	private boolean areAllConnected() {
+	public boolean areAllConnected() {
 		//Set an iterator for the connection map.
 		Collection<Channel> c = connectionsMap.values();
 		Iterator<Channel> itr = c.iterator();
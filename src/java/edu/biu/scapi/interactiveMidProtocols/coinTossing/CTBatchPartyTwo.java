@@ -0,0 +1,113 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.coinTossing;
+
+import java.io.IOException;
+import java.security.InvalidKeyException;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.CheatAttemptException;
+import edu.biu.scapi.exceptions.CommitValueException;
+import edu.biu.scapi.primitives.prg.PseudorandomGenerator;
+import edu.biu.scapi.primitives.prg.ScPrgFromPrf;
+import edu.biu.scapi.securityLevel.Malicious;
+import edu.biu.scapi.securityLevel.StandAlone;
+
+/**
+ * Concrete implementation of batched coin tossing from party two's point of view.<p>
+ * 
+ * The protocols in this package run a full commit/decommit round, with zero-knowledge proofs, for every toss. 
+ * This protocol runs the underlying coin tossing protocol only once, to jointly toss a short seed, and expands the seed 
+ * with a pseudorandom generator into a shared random stream of any length. 
+ * Only the first toss communicates with the other party; every later toss, and every read of {@link #getStream()}, is computed locally.<p>
+ * 
+ * The other party should run {@link CTBatchPartyOne} with the same kind of generator and the same output length.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CTBatchPartyTwo implements CTPartyTwo, StandAlone, Malicious {
+	
+	private static final int SEED_BITS = 128;
+	
+	private CTPartyTwo seedToss;
+	private PseudorandomGenerator prg;
+	private int l;
+	private CTRandomStream stream;
+	
+	/**
+	 * Constructor that sets the given parameters.
+	 * @param seedToss the coin tossing protocol that tosses the seed. Its output should be a CTStringOutput.
+	 * @param prg the pseudorandom generator that expands the seed.
+	 * @param l the length in bits of the output of each toss. Should be a multiple of 8.
+	 */
+	public CTBatchPartyTwo(CTPartyTwo seedToss, PseudorandomGenerator prg, int l){
+		if (l <= 0 || l % 8 != 0){
+			throw new IllegalArgumentException("The output length should be a positive multiple of 8");
+		}
+		this.seedToss = seedToss;
+		this.prg = prg;
+		this.l = l;
+	}
+	
+	/**
+	 * Default constructor that tosses a 128-bit seed using {@link CTStringPartyTwo} and expands it using {@link ScPrgFromPrf}.
+	 * @param channel used to communicate between two parties.
+	 * @param l the length in bits of the output of each toss. Should be a multiple of 8.
+	 * @throws CheatAttemptException 
+	 * @throws IOException 
+	 * @throws ClassNotFoundException 
+	 */
+	public CTBatchPartyTwo(Channel channel, int l) throws ClassNotFoundException, IOException, CheatAttemptException{
+		this(new CTStringPartyTwo(channel, SEED_BITS), new ScPrgFromPrf(), l);
+	}
+	
+	/**
+	 * Returns the next l bits of the shared random stream. 
+	 * The first call tosses the seed with the other party; the next calls do not communicate.
+	 */
+	public CTOutput toss() throws IOException, CommitValueException, CheatAttemptException, ClassNotFoundException {
+		return new CTStringOutput(getStream().nextBytes(l/8));
+	}
+	
+	/**
+	 * Returns the shared random stream. The first call tosses the seed with the other party.
+	 * @return the stream expanded from the seed.
+	 */
+	public CTRandomStream getStream() throws IOException, CommitValueException, CheatAttemptException, ClassNotFoundException {
+		if (stream == null){
+			CTOutput output = seedToss.toss();
+			if (!(output instanceof CTStringOutput)){
+				throw new IllegalArgumentException("The seed should be tossed by a protocol that outputs a CTStringOutput");
+			}
+			try {
+				stream = new CTRandomStream(prg, ((CTStringOutput) output).getOutput());
+			} catch (InvalidKeyException e) {
+				throw new IllegalArgumentException("The tossed seed is not a valid key of the generator. The error is: " + e.getMessage());
+			}
+		}
+		return stream;
+	}
+}
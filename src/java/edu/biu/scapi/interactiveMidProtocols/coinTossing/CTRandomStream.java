@@ -0,0 +1,143 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.coinTossing;
+
+import java.math.BigInteger;
+import java.security.InvalidKeyException;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import edu.biu.scapi.primitives.prg.PseudorandomGenerator;
+
+/**
+ * A shared random stream that is expanded from a jointly tossed seed.<p>
+ * 
+ * Both parties key the same pseudorandom generator with the same seed, so they read the same stream. 
+ * The generator output is buffered in blocks of a fixed size, so the stream does not depend on the way it is split into reads: 
+ * reading 10 bytes and then 6 bytes gives the same bytes as reading 16 bytes at once. 
+ * Values that are derived from the stream, like {@link #nextBigInteger(BigInteger)}, consume a number of bytes that depends on the stream only, 
+ * so both parties stay synchronized as long as they request the same values in the same order.<p>
+ * 
+ * This class is not thread-safe.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CTRandomStream {
+	
+	private static final int BUFFER_SIZE = 1024;
+	
+	private PseudorandomGenerator prg;
+	private byte[] buffer = new byte[BUFFER_SIZE];
+	private int position = BUFFER_SIZE;		//The next unread byte in the buffer.
+	private long consumed;					//The number of bytes read from the stream.
+	
+	/**
+	 * Constructor that keys the given generator with the given seed.
+	 * @param prg the pseudorandom generator that expands the seed.
+	 * @param seed the jointly tossed seed.
+	 * @throws InvalidKeyException if the seed is not a valid key of the generator.
+	 */
+	public CTRandomStream(PseudorandomGenerator prg, byte[] seed) throws InvalidKeyException{
+		this.prg = prg;
+		prg.setKey(new SecretKeySpec(seed, ""));
+	}
+	
+	/**
+	 * Fills the given array with the next bytes of the stream.
+	 * @param out the array to fill.
+	 * @param offset the offset in the array to start from.
+	 * @param length the number of bytes to read.
+	 */
+	public void nextBytes(byte[] out, int offset, int length){
+		if (offset < 0 || length < 0 || offset + length > out.length){
+			throw new ArrayIndexOutOfBoundsException("wrong offset or length for the given output buffer");
+		}
+		int done = 0;
+		while (done < length){
+			if (position == BUFFER_SIZE){
+				prg.getPRGBytes(buffer, 0, BUFFER_SIZE);
+				position = 0;
+			}
+			int chunk = Math.min(length - done, BUFFER_SIZE - position);
+			System.arraycopy(buffer, position, out, offset + done, chunk);
+			position += chunk;
+			done += chunk;
+		}
+		consumed += length;
+	}
+	
+	/**
+	 * Returns the next bytes of the stream.
+	 * @param length the number of bytes to read.
+	 * @return the read bytes.
+	 */
+	public byte[] nextBytes(int length){
+		byte[] out = new byte[length];
+		nextBytes(out, 0, length);
+		return out;
+	}
+	
+	/**
+	 * Returns the next bit of the stream, which is the lowest bit of the next byte.
+	 * @return the next bit.
+	 */
+	public boolean nextBit(){
+		byte[] b = new byte[1];
+		nextBytes(b, 0, 1);
+		return (b[0] & 1) == 1;
+	}
+	
+	/**
+	 * Returns a uniform value in [0, bound), for example a joint challenge in Zq.<p>
+	 * Values are sampled by rejection: a value of the bit length of the bound is read from the stream until it is smaller than the bound.
+	 * @param bound the exclusive upper bound. Should be positive.
+	 * @return the sampled value.
+	 */
+	public BigInteger nextBigInteger(BigInteger bound){
+		if (bound.signum() <= 0){
+			throw new IllegalArgumentException("The bound should be positive");
+		}
+		int bits = bound.bitLength();
+		byte[] bytes = new byte[(bits + 7) / 8];
+		int excessBits = bytes.length * 8 - bits;
+		while (true){
+			nextBytes(bytes, 0, bytes.length);
+			//Clear the excess bits, so that the rejection probability is less than a half.
+			bytes[0] &= (byte) (0xff >>> excessBits);
+			BigInteger value = new BigInteger(1, bytes);
+			if (value.compareTo(bound) < 0){
+				return value;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of bytes that were read from the stream.
+	 */
+	public long getPosition(){
+		return consumed;
+	}
+}
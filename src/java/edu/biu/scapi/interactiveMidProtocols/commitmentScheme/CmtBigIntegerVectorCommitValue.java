@@ -0,0 +1,147 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import edu.biu.scapi.exceptions.CommitValueException;
+import edu.biu.scapi.midLayer.plaintext.Plaintext;
+
+/**
+ * Concrete implementation of CommitValue where the committed value is a vector of BigIntegers.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtBigIntegerVectorCommitValue implements CmtCommitValue {
+	
+	private BigInteger[] x;
+	
+	/**
+	 * Constructor that sets the committed vector.
+	 * @param x the committed vector.
+	 */
+	public CmtBigIntegerVectorCommitValue(BigInteger[] x) {
+		this.x = x;
+	}
+	
+	/**
+	 * Returns the committed vector.
+	 */
+	@Override
+	public BigInteger[] getX() {
+		return x;
+	}
+	
+	/**
+	 * Returns the number of committed values.
+	 */
+	public int size(){
+		return x.length;
+	}
+	
+	/**
+	 * There is no plaintext that holds a vector, so a vector can not be converted to a plaintext.
+	 * @throws UnsupportedOperationException
+	 */
+	@Override
+	public Plaintext convertToPlaintext() {
+		throw new UnsupportedOperationException("A vector of BigIntegers can not be converted to a plaintext");
+	}
+	
+	@Override
+	public Serializable generateSendableData() {
+		return x;
+	}
+	
+	/**
+	 * Converts the vector to a byte array. Each value is written with its length, so that {@link #fromByteArray(byte[])} can restore the vector.
+	 * @return the bytes of the vector.
+	 */
+	public byte[] toByteArray(){
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(x.length);
+			for (int i = 0; i < x.length; i++){
+				byte[] value = x[i].toByteArray();
+				out.writeInt(value.length);
+				out.write(value);
+			}
+			out.close();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			//Writing to a byte array does not throw IOException.
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Restores a vector from the bytes that were returned from {@link #toByteArray()}.
+	 * @param data the bytes of the vector.
+	 * @return the restored commit value.
+	 * @throws CommitValueException if the given bytes are not a vector.
+	 */
+	public static CmtBigIntegerVectorCommitValue fromByteArray(byte[] data) throws CommitValueException{
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+			int size = in.readInt();
+			if (size < 0 || size > data.length){
+				throw new CommitValueException("The given bytes are not a vector of BigIntegers");
+			}
+			BigInteger[] x = new BigInteger[size];
+			for (int i = 0; i < size; i++){
+				int length = in.readInt();
+				if (length <= 0 || length > data.length){
+					throw new CommitValueException("The given bytes are not a vector of BigIntegers");
+				}
+				byte[] value = new byte[length];
+				in.readFully(value);
+				x[i] = new BigInteger(value);
+			}
+			if (in.available() != 0){
+				throw new CommitValueException("The given bytes are not a vector of BigIntegers");
+			}
+			return new CmtBigIntegerVectorCommitValue(x);
+		} catch (IOException e) {
+			throw new CommitValueException("The given bytes are not a vector of BigIntegers");
+		}
+	}
+	
+	/**
+	 * Returns a string representation of the committed vector.
+	 */
+	@Override
+	public String toString(){
+		return Arrays.toString(x);
+	}
+}
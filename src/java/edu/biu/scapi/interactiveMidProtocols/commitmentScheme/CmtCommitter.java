@@ -123,6 +123,31 @@ public interface CmtCommitter {
 	 */
 	public void decommit(long id) throws IOException, CheatAttemptException, ClassNotFoundException, CommitValueException;
 	
+	/**
+	 * Commits to all the given values at once.<p>
+	 * This is equivalent to calling {@link #commit(CmtCommitValue, long)} on every value with the matching id, 
+	 * but schemes that support batching send one message that contains all the commitments, instead of a message per commitment. 
+	 * The receiver should call {@link CmtReceiver#receiveCommitmentBatch()} to receive them.
+	 * @param values the values that the committer commits about.
+	 * @param ids unique values attached to the inputs. ids[i] is the id of values[i].
+	 * @throws IOException if there is any problem at the communication level
+	 * @throws IllegalArgumentException if the number of ids is not the number of values.
+	 */
+	public void commitBatch(CmtCommitValue[] values, long[] ids) throws IOException;
+	
+	/**
+	 * Decommits all the given ids at once.<p>
+	 * This is equivalent to calling {@link #decommit(long)} on every id, but schemes that support batching send one 
+	 * message that contains all the decommitments. The receiver should call {@link CmtReceiver#receiveDecommitmentBatch(long[])} 
+	 * with the same ids, in the same order.
+	 * @param ids values used to identify which previously committed values need to be decommitted now.
+	 * @throws IOException if there is any problem at the communication level
+	 * @throws CheatAttemptException if there is an error that could have been caused by a cheating attempt
+	 * @throws ClassNotFoundException if there was a problem with the serialization mechanism.
+	 * @throws CommitValueException if the commit value does not match the implementing commitment.
+	 */
+	public void decommitBatch(long[] ids) throws IOException, CheatAttemptException, ClassNotFoundException, CommitValueException;
+	
 	/**
 	 * This function samples random commit value to commit on.
 	 * @return the sampled commit value.
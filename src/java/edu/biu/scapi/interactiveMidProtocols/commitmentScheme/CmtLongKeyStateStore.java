@@ -0,0 +1,356 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme;
+
+import java.util.Arrays;
+
+/**
+ * Commitment state store that keeps the values in an open addressing hash table with primitive long keys.<p>
+ * Unlike a {@code Hashtable<Long, V>}, the ids are not boxed and the table has no entry objects, so the memory of the store is 
+ * two arrays regardless of the number of commitments. Collisions are resolved by linear probing and removals shift the following 
+ * entries back, so the table does not accumulate deleted markers.<p>
+ * 
+ * The store can evict the values of decommitted commitments. Two policies are supported and can be combined:
+ * <ul>
+ * <li> Count - at most maxDecommitted decommitted values are kept. When more commitments are decommitted, the values that were decommitted first are evicted.
+ * <li> Time - a decommitted value is evicted once ttlMillis milliseconds have passed since it was decommitted. 
+ * 		Expired values are evicted lazily, when values are put or decommitted, or when {@link #evictExpired()} is called.
+ * </ul>
+ * Values that were not decommitted are never evicted. The default constructor creates a store that never evicts, which behaves like the map the committers used before.<p>
+ * 
+ * The public functions of this class are synchronized, so, like the {@code Hashtable} that the committers and receivers used before, 
+ * the store can be shared by several threads. A single thread takes the lock without contention, so the cost is small.
+ * 
+ * @param <V> the type of the kept values.
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtLongKeyStateStore<V> implements CmtStateStore<V> {
+	
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	private long[] keys;					//The ids of the commitments.
+	private Object[] values;				//The values of the commitments. A null value marks an empty slot.
+	private long[] decommitSeq;				//The sequence number of the decommitment of each slot, or 0 if the commitment was not decommitted.
+	private int size;
+	private int mask;						//The capacity of the table minus one. The capacity is always a power of two.
+	
+	//Queue of the decommitments, in the order they were made. Each decommitment is kept in three rings: the id, the sequence number and the time.
+	private long[] decIds;
+	private long[] decSeqs;
+	private long[] decTimes;
+	private int decHead;
+	private int decCount;
+	private long nextSeq = 1;
+	private int decommitted;				//The number of kept values that are marked as decommitted.
+	
+	private final int maxDecommitted;
+	private final long ttlMillis;
+	
+	/**
+	 * Constructor that creates a store that never evicts values.
+	 */
+	public CmtLongKeyStateStore(){
+		this(DEFAULT_CAPACITY, Integer.MAX_VALUE, 0);
+	}
+	
+	/**
+	 * Constructor that creates a store that evicts decommitted values.
+	 * @param maxDecommitted the maximum number of decommitted values to keep. Integer.MAX_VALUE means no limit.
+	 * @param ttlMillis the time in milliseconds to keep a value after it was decommitted. Zero means no time limit.
+	 */
+	public CmtLongKeyStateStore(int maxDecommitted, long ttlMillis){
+		this(DEFAULT_CAPACITY, maxDecommitted, ttlMillis);
+	}
+	
+	/**
+	 * Constructor that creates a store with the given initial capacity, that evicts decommitted values.
+	 * @param initialCapacity the expected number of kept values.
+	 * @param maxDecommitted the maximum number of decommitted values to keep. Integer.MAX_VALUE means no limit.
+	 * @param ttlMillis the time in milliseconds to keep a value after it was decommitted. Zero means no time limit.
+	 * @throws IllegalArgumentException if one of the arguments is negative.
+	 */
+	public CmtLongKeyStateStore(int initialCapacity, int maxDecommitted, long ttlMillis){
+		if (initialCapacity < 0 || maxDecommitted < 0 || ttlMillis < 0){
+			throw new IllegalArgumentException("The capacity, the number of decommitted values and the time to keep them should not be negative");
+		}
+		this.maxDecommitted = maxDecommitted;
+		this.ttlMillis = ttlMillis;
+		//Keep the load factor at most one half.
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity < 2L * initialCapacity && capacity < (1 << 30)){
+			capacity <<= 1;
+		}
+		allocate(capacity);
+		decIds = new long[DEFAULT_CAPACITY];
+		decSeqs = new long[DEFAULT_CAPACITY];
+		decTimes = new long[DEFAULT_CAPACITY];
+	}
+	
+	private void allocate(int capacity){
+		keys = new long[capacity];
+		values = new Object[capacity];
+		decommitSeq = new long[capacity];
+		mask = capacity - 1;
+	}
+	
+	/**
+	 * Spreads the bits of the id, so that sequential ids do not fill sequential slots.
+	 */
+	private static int hash(long id){
+		long h = id * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+	
+	/**
+	 * Returns the slot of the given id, or -1 if the id is not in the table.
+	 */
+	private int indexOf(long id){
+		int i = hash(id) & mask;
+		while (values[i] != null){
+			if (keys[i] == id){
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+	
+	@Override
+	public synchronized void put(long id, V value) {
+		if (value == null){
+			throw new IllegalArgumentException("The value should not be null");
+		}
+		evictExpired();
+		int i = hash(id) & mask;
+		while (values[i] != null){
+			if (keys[i] == id){
+				values[i] = value;
+				//A new commitment with the same id was made, so the value is not decommitted anymore.
+				unmark(i);
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = id;
+		values[i] = value;
+		decommitSeq[i] = 0;
+		size++;
+		if (2 * size > values.length){
+			resize(values.length << 1);
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public synchronized V get(long id) {
+		int i = indexOf(id);
+		return (i < 0) ? null : (V) values[i];
+	}
+	
+	/**
+	 * Checks if the given id has a kept value.
+	 * @param id the commitment id.
+	 * @return true if the id has a value; false, otherwise.
+	 */
+	public synchronized boolean containsKey(long id){
+		return indexOf(id) >= 0;
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public synchronized V remove(long id) {
+		int i = indexOf(id);
+		if (i < 0){
+			return null;
+		}
+		V value = (V) values[i];
+		removeAt(i);
+		return value;
+	}
+	
+	@Override
+	public synchronized void markDecommitted(long id) {
+		int i = indexOf(id);
+		if (i < 0){
+			return;
+		}
+		if (decommitSeq[i] == 0){
+			decommitted++;
+		}
+		long seq = nextSeq++;
+		decommitSeq[i] = seq;
+		enqueue(id, seq, now());
+		evict();
+	}
+	
+	/**
+	 * Evicts the decommitted values whose time to be kept has passed.
+	 */
+	public synchronized void evictExpired(){
+		if (decCount > 0){
+			evict();
+		}
+	}
+	
+	@Override
+	public synchronized int size() {
+		return size;
+	}
+	
+	@Override
+	public synchronized void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+		decHead = 0;
+		decCount = 0;
+		decommitted = 0;
+	}
+	
+	/**
+	 * Evicts decommitted values according to the policy of this store.
+	 * The queue may hold stale decommitments of values that were removed, re-committed or decommitted again. 
+	 * They are recognized by their sequence number and skipped.
+	 */
+	private void evict(){
+		long time = (ttlMillis > 0) ? now() : 0;
+		while (decCount > 0){
+			boolean overLimit = decommitted > maxDecommitted;
+			boolean expired = ttlMillis > 0 && time - decTimes[decHead] >= ttlMillis;
+			long id = decIds[decHead];
+			long seq = decSeqs[decHead];
+			int i = indexOf(id);
+			boolean stale = i < 0 || decommitSeq[i] != seq;
+			if (!stale && !overLimit && !expired){
+				return;
+			}
+			decHead = (decHead + 1) % decIds.length;
+			decCount--;
+			if (!stale){
+				removeAt(i);
+			}
+		}
+	}
+	
+	private void unmark(int i){
+		if (decommitSeq[i] != 0){
+			decommitSeq[i] = 0;
+			decommitted--;
+		}
+	}
+	
+	/**
+	 * Removes the entry in the given slot and shifts back the entries that follow it in the same probe sequence.
+	 */
+	private void removeAt(int i){
+		unmark(i);
+		size--;
+		int free = i;
+		int j = (i + 1) & mask;
+		while (values[j] != null){
+			int home = hash(keys[j]) & mask;
+			//The entry in slot j can move to the free slot only if the free slot is between its home slot and j (cyclically).
+			if (((j - home) & mask) >= ((j - free) & mask)){
+				keys[free] = keys[j];
+				values[free] = values[j];
+				decommitSeq[free] = decommitSeq[j];
+				free = j;
+			}
+			j = (j + 1) & mask;
+		}
+		values[free] = null;
+		decommitSeq[free] = 0;
+	}
+	
+	private void resize(int capacity){
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		long[] oldSeq = decommitSeq;
+		allocate(capacity);
+		for (int k = 0; k < oldValues.length; k++){
+			if (oldValues[k] != null){
+				int i = hash(oldKeys[k]) & mask;
+				while (values[i] != null){
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[k];
+				values[i] = oldValues[k];
+				decommitSeq[i] = oldSeq[k];
+			}
+		}
+	}
+	
+	private void enqueue(long id, long seq, long time){
+		if (decCount == decIds.length){
+			//Compact the stale decommitments before growing the queue.
+			compactQueue();
+		}
+		if (decCount == decIds.length){
+			int length = decIds.length;
+			long[] ids = new long[length << 1];
+			long[] seqs = new long[length << 1];
+			long[] times = new long[length << 1];
+			for (int k = 0; k < decCount; k++){
+				int from = (decHead + k) % length;
+				ids[k] = decIds[from];
+				seqs[k] = decSeqs[from];
+				times[k] = decTimes[from];
+			}
+			decIds = ids;
+			decSeqs = seqs;
+			decTimes = times;
+			decHead = 0;
+		}
+		int tail = (decHead + decCount) % decIds.length;
+		decIds[tail] = id;
+		decSeqs[tail] = seq;
+		decTimes[tail] = time;
+		decCount++;
+	}
+	
+	/**
+	 * Removes the stale decommitments from the queue, keeping the order of the others.
+	 */
+	private void compactQueue(){
+		int length = decIds.length;
+		int kept = 0;
+		for (int k = 0; k < decCount; k++){
+			int from = (decHead + k) % length;
+			int i = indexOf(decIds[from]);
+			if (i >= 0 && decommitSeq[i] == decSeqs[from]){
+				int to = (decHead + kept) % length;
+				decIds[to] = decIds[from];
+				decSeqs[to] = decSeqs[from];
+				decTimes[to] = decTimes[from];
+				kept++;
+			}
+		}
+		decCount = kept;
+	}
+	
+	private static long now(){
+		return System.nanoTime() / 1000000;
+	}
+}
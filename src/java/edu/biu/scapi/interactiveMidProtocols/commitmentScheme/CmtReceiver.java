@@ -56,6 +56,26 @@ public interface CmtReceiver {
 	 */
 	public CmtCommitValue receiveDecommitment(long id) throws ClassNotFoundException, IOException, CommitValueException, CheatAttemptException;
 	
+	/**
+	 * Receives the commitments that were sent by {@link CmtCommitter#commitBatch(CmtCommitValue[], long[])}.
+	 * @return the ids of the commitments and some other information if necessary according to the implementing class, 
+	 * in the order the committer gave them.
+	 * @throws ClassNotFoundException if the commitments received cannot be deserialized
+	 * @throws IOException if there is any problem at the communication level
+	 */
+	public CmtRCommitPhaseOutput[] receiveCommitmentBatch() throws ClassNotFoundException, IOException;
+	
+	/**
+	 * Receives the decommitments that were sent by {@link CmtCommitter#decommitBatch(long[])} and verifies each of them.
+	 * @param ids the ids of the decommitted values, in the order the committer gave them.
+	 * @return array that holds in place i the committed value of ids[i] if its decommitment was accepted; null, otherwise.
+	 * @throws ClassNotFoundException if the decommitments received cannot be deserialized
+	 * @throws IOException if there is any problem at the communication level.
+	 * @throws CommitValueException if the commit value does not match the implementing commitment.
+	 * @throws CheatAttemptException if the received decommitments do not belong to the given ids.
+	 */
+	public CmtCommitValue[] receiveDecommitmentBatch(long[] ids) throws ClassNotFoundException, IOException, CommitValueException, CheatAttemptException;
+	
 	/**
 	 * Verifies the given decommitment object according to the given commitment object.<p>
 	 * 
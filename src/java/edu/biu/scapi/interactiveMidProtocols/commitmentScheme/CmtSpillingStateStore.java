@@ -0,0 +1,302 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+ * Commitment state store that keeps a bounded number of values in memory and spills the others to a memory-mapped file.<p>
+ * This store fits very large sessions, where the values of the commitments that wait for decommitment do not fit in memory.
+ * The values are kept in memory in a {@link CmtLongKeyStateStore}. When there are more than maxInMemory values, the values that were put first 
+ * are converted to bytes by the given codec and appended to the spill file. Getting a spilled value reads and decodes it from the file, 
+ * so spilled values should be treated as read-only.<p>
+ * 
+ * The file is mapped in regions of a fixed size, so the operating system pages the spilled values in and out as needed.
+ * The space of removed spilled values is not reused until the store is cleared. Clearing the store writes the next values from the start of the file 
+ * again, and keeps its size and mapped regions, since a file should not be truncated while it is mapped; The file is deleted when the store is closed.<p>
+ * 
+ * Decommitted values are evicted according to the policy of the in-memory store. A spilled value is removed as soon as it is decommitted 
+ * if the in-memory store evicts decommitted values at all, and kept otherwise.<p>
+ * 
+ * This class is not thread-safe.
+ * 
+ * @param <V> the type of the kept values.
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtSpillingStateStore<V> implements CmtStateStore<V>, Closeable {
+	
+	private static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+	
+	private final CmtLongKeyStateStore<V> memory;
+	private final CmtLongKeyStateStore<long[]> spilled;	//Maps each spilled id to the offset and length of its bytes in the file.
+	private final CmtStateCodec<V> codec;
+	private final int maxInMemory;
+	private final boolean evictDecommitted;
+	
+	//The order of the puts, used to choose the values to spill.
+	private long[] order = new long[16];
+	private int orderHead;
+	private int orderCount;
+	
+	private final File file;
+	private RandomAccessFile raf;
+	private FileChannel fileChannel;
+	private final int regionSize;
+	private final ArrayList<MappedByteBuffer> regions = new ArrayList<MappedByteBuffer>();
+	private long writePosition;
+	
+	/**
+	 * Constructor that creates a store that never evicts decommitted values.
+	 * @param file the spill file. It is created if it does not exist and overwritten otherwise.
+	 * @param maxInMemory the maximum number of values to keep in memory.
+	 * @param codec converts the values to bytes and back.
+	 * @throws IOException if the file can not be opened.
+	 */
+	public CmtSpillingStateStore(File file, int maxInMemory, CmtStateCodec<V> codec) throws IOException{
+		this(file, maxInMemory, codec, Integer.MAX_VALUE, 0, DEFAULT_REGION_SIZE);
+	}
+	
+	/**
+	 * Constructor that creates a store that evicts decommitted values.
+	 * @param file the spill file. It is created if it does not exist and overwritten otherwise.
+	 * @param maxInMemory the maximum number of values to keep in memory.
+	 * @param codec converts the values to bytes and back.
+	 * @param maxDecommitted the maximum number of decommitted values to keep in memory. Integer.MAX_VALUE means no limit.
+	 * @param ttlMillis the time in milliseconds to keep a value in memory after it was decommitted. Zero means no time limit.
+	 * @param regionSize the size in bytes of each mapped region of the file.
+	 * @throws IOException if the file can not be opened.
+	 * @throws IllegalArgumentException if maxInMemory or regionSize is not positive.
+	 */
+	public CmtSpillingStateStore(File file, int maxInMemory, CmtStateCodec<V> codec, int maxDecommitted, long ttlMillis, int regionSize) throws IOException{
+		if (maxInMemory <= 0 || regionSize <= 0){
+			throw new IllegalArgumentException("The number of values in memory and the region size should be positive");
+		}
+		this.memory = new CmtLongKeyStateStore<V>(maxInMemory, maxDecommitted, ttlMillis);
+		this.spilled = new CmtLongKeyStateStore<long[]>();
+		this.codec = codec;
+		this.maxInMemory = maxInMemory;
+		this.evictDecommitted = maxDecommitted != Integer.MAX_VALUE || ttlMillis > 0;
+		this.file = file;
+		this.regionSize = regionSize;
+		raf = new RandomAccessFile(file, "rw");
+		raf.setLength(0);
+		fileChannel = raf.getChannel();
+	}
+	
+	@Override
+	public void put(long id, V value) {
+		checkOpen();
+		if (value == null){
+			throw new IllegalArgumentException("The value should not be null");
+		}
+		spilled.remove(id);
+		boolean isNew = !memory.containsKey(id);
+		memory.put(id, value);
+		if (isNew){
+			enqueue(id);
+		}
+		while (memory.size() > maxInMemory && orderCount > 0){
+			long oldest = order[orderHead];
+			orderHead = (orderHead + 1) % order.length;
+			orderCount--;
+			//The id may have been removed or evicted since it was put.
+			V oldValue = memory.remove(oldest);
+			if (oldValue != null){
+				spill(oldest, oldValue);
+			}
+		}
+	}
+	
+	@Override
+	public V get(long id) {
+		checkOpen();
+		V value = memory.get(id);
+		if (value != null){
+			return value;
+		}
+		long[] location = spilled.get(id);
+		if (location == null){
+			return null;
+		}
+		return codec.decode(read(location[0], (int) location[1]));
+	}
+	
+	@Override
+	public V remove(long id) {
+		checkOpen();
+		V value = memory.remove(id);
+		if (value != null){
+			return value;
+		}
+		long[] location = spilled.remove(id);
+		if (location == null){
+			return null;
+		}
+		return codec.decode(read(location[0], (int) location[1]));
+	}
+	
+	@Override
+	public void markDecommitted(long id) {
+		checkOpen();
+		if (memory.containsKey(id)){
+			memory.markDecommitted(id);
+		} else if (evictDecommitted){
+			spilled.remove(id);
+		}
+	}
+	
+	/**
+	 * @return the number of values that are kept in the spill file.
+	 */
+	public int spilledSize(){
+		return spilled.size();
+	}
+	
+	@Override
+	public int size() {
+		return memory.size() + spilled.size();
+	}
+	
+	@Override
+	public void clear() {
+		checkOpen();
+		memory.clear();
+		spilled.clear();
+		orderHead = 0;
+		orderCount = 0;
+		//The mapped regions can not be unmapped explicitly, so the file is not truncated while they are alive. 
+		//The regions are kept and the next values overwrite the old ones from the start of the file.
+		writePosition = 0;
+	}
+	
+	/**
+	 * Closes and deletes the spill file. The store can not be used after it is closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (raf == null){
+			return;
+		}
+		memory.clear();
+		spilled.clear();
+		regions.clear();
+		fileChannel = null;
+		raf.close();
+		raf = null;
+		file.delete();
+	}
+	
+	private void checkOpen(){
+		if (raf == null){
+			throw new IllegalStateException("The store is closed");
+		}
+	}
+	
+	private void enqueue(long id){
+		if (orderCount == order.length){
+			//Drop the ids that are not in memory anymore before growing the queue.
+			int kept = 0;
+			for (int k = 0; k < orderCount; k++){
+				long old = order[(orderHead + k) % order.length];
+				if (memory.containsKey(old)){
+					order[(orderHead + kept) % order.length] = old;
+					kept++;
+				}
+			}
+			orderCount = kept;
+		}
+		if (orderCount == order.length){
+			long[] newOrder = new long[order.length << 1];
+			for (int k = 0; k < orderCount; k++){
+				newOrder[k] = order[(orderHead + k) % order.length];
+			}
+			order = newOrder;
+			orderHead = 0;
+		}
+		order[(orderHead + orderCount) % order.length] = id;
+		orderCount++;
+	}
+	
+	private void spill(long id, V value){
+		byte[] data = codec.encode(value);
+		long offset = writePosition;
+		write(offset, data);
+		writePosition += data.length;
+		spilled.put(id, new long[]{offset, data.length});
+	}
+	
+	/**
+	 * Returns the mapped region with the given index, mapping it if needed.
+	 */
+	private MappedByteBuffer region(int index){
+		while (regions.size() <= index){
+			try {
+				regions.add(fileChannel.map(FileChannel.MapMode.READ_WRITE, (long) regions.size() * regionSize, regionSize));
+			} catch (IOException e) {
+				throw new IllegalStateException("The spill file can not be mapped. The error is: " + e.getMessage());
+			}
+		}
+		return regions.get(index);
+	}
+	
+	private void write(long position, byte[] data){
+		int done = 0;
+		while (done < data.length){
+			long current = position + done;
+			MappedByteBuffer buffer = region((int) (current / regionSize));
+			int offsetInRegion = (int) (current % regionSize);
+			int length = Math.min(data.length - done, regionSize - offsetInRegion);
+			//Use a duplicate so that the position of the shared buffer is not changed.
+			ByteBuffer view = buffer.duplicate();
+			view.position(offsetInRegion);
+			view.put(data, done, length);
+			done += length;
+		}
+	}
+	
+	private byte[] read(long position, int length){
+		byte[] data = new byte[length];
+		int done = 0;
+		while (done < length){
+			long current = position + done;
+			MappedByteBuffer buffer = region((int) (current / regionSize));
+			int offsetInRegion = (int) (current % regionSize);
+			int chunk = Math.min(length - done, regionSize - offsetInRegion);
+			ByteBuffer view = buffer.duplicate();
+			view.position(offsetInRegion);
+			view.get(data, done, chunk);
+			done += chunk;
+		}
+		return data;
+	}
+}
@@ -0,0 +1,84 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme;
+
+/**
+ * General interface of the store that keeps the values of the commitments, by their ids.<p>
+ * Committers and receivers keep a value for every commitment until it is decommitted, and usually some time after that. 
+ * The store decides how these values are kept in memory and when the values of decommitted commitments are dropped, 
+ * so long running applications that perform many commitments can bound the memory of a committer or a receiver.<p>
+ * 
+ * The committers and receivers use a {@link CmtLongKeyStateStore} by default. It keeps all the values in memory, 
+ * and can evict the values of decommitted commitments by their number or age. A {@link CmtSpillingStateStore} keeps a bounded number of values in memory 
+ * and writes the others to a file; It needs a {@link CmtStateCodec}, which the committers return from their getStateCodec function. 
+ * The commitments kept by the receivers are serializable, so their stores can use a {@link CmtSerializableStateCodec}.<p>
+ * 
+ * Stores are not required to be thread-safe. {@link CmtLongKeyStateStore} is thread-safe, like the {@code Hashtable} that the committers and receivers used before; 
+ * A committer or a receiver that uses another store should be used by one thread at a time.
+ * 
+ * @param <V> the type of the kept values.
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public interface CmtStateStore<V> {
+	
+	/**
+	 * Keeps the given value of the given commitment id. If the id already has a value, it is replaced.
+	 * @param id the commitment id.
+	 * @param value the value to keep. Should not be null.
+	 */
+	public void put(long id, V value);
+	
+	/**
+	 * Returns the value of the given commitment id.
+	 * @param id the commitment id.
+	 * @return the kept value, or null if the id has no value (or its value was evicted).
+	 */
+	public V get(long id);
+	
+	/**
+	 * Removes the value of the given commitment id.
+	 * @param id the commitment id.
+	 * @return the removed value, or null if the id had no value.
+	 */
+	public V remove(long id);
+	
+	/**
+	 * Marks that the commitment of the given id was decommitted.<p>
+	 * The value is still kept, but the store may evict it according to its policy.
+	 * @param id the commitment id.
+	 */
+	public void markDecommitted(long id);
+	
+	/**
+	 * @return the number of kept values.
+	 */
+	public int size();
+	
+	/**
+	 * Removes all the kept values.
+	 */
+	public void clear();
+}
@@ -0,0 +1,88 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal;
+
+import java.math.BigInteger;
+
+import edu.biu.scapi.interactiveMidProtocols.BigIntegerRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtByteArrayCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtGroupElementCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtSerializableStateCodec;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateCodec;
+import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.ElGamalEnc;
+import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertextSendableData;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+
+/**
+ * Converts the values of the ElGamal commitments to bytes and back.<p>
+ * The committed value and the commitment are converted using their sendable data. 
+ * The committed value is reconstructed according to the type of its sendable data and the commitment is reconstructed by the ElGamal encryption.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class CmtElGamalCommitmentPhaseValuesCodec implements CmtStateCodec<CmtElGamalCommitmentPhaseValues> {
+	
+	private DlogGroup dlog;
+	private ElGamalEnc elGamal;
+	private CmtSerializableStateCodec<Object[]> serializer = new CmtSerializableStateCodec<Object[]>(Object[].class);
+	
+	CmtElGamalCommitmentPhaseValuesCodec(DlogGroup dlog, ElGamalEnc elGamal){
+		this.dlog = dlog;
+		this.elGamal = elGamal;
+	}
+
+	@Override
+	public byte[] encode(CmtElGamalCommitmentPhaseValues value) {
+		Object[] fields = new Object[3];
+		fields[0] = value.getR().getR();
+		fields[1] = value.getX().generateSendableData();
+		fields[2] = value.getComputedCommitment().generateSendableData();
+		return serializer.encode(fields);
+	}
+
+	@Override
+	public CmtElGamalCommitmentPhaseValues decode(byte[] data) {
+		Object[] fields = serializer.decode(data);
+		if (fields.length != 3 || !(fields[0] instanceof BigInteger) || !(fields[2] instanceof AsymmetricCiphertextSendableData)){
+			throw new IllegalArgumentException("The given bytes are not encoded ElGamal commitment values");
+		}
+		CmtCommitValue x;
+		if (fields[1] instanceof GroupElementSendableData){
+			x = new CmtGroupElementCommitValue(dlog.reconstructElement(false, (GroupElementSendableData) fields[1]));
+		} else if (fields[1] instanceof byte[]){
+			x = new CmtByteArrayCommitValue((byte[]) fields[1]);
+		} else if (fields[1] instanceof BigInteger){
+			x = new CmtBigIntegerCommitValue((BigInteger) fields[1]);
+		} else {
+			throw new IllegalArgumentException("The given bytes are not encoded ElGamal commitment values");
+		}
+		return new CmtElGamalCommitmentPhaseValues(new BigIntegerRandomValue((BigInteger) fields[0]), x, 
+				elGamal.reconstructCiphertext((AsymmetricCiphertextSendableData) fields[2]));
+	}
+}
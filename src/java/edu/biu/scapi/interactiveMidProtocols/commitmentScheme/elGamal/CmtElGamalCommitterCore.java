@@ -25,13 +25,13 @@
 package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.math.BigInteger;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.KeyPair;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 
 import edu.biu.scapi.generals.Logging;
@@ -45,11 +45,15 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateCodec;
 import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.ElGamalEnc;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScElGamalPrivateKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScElGamalPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.ElGamalCiphertextSendableData;
+import edu.biu.scapi.midLayer.plaintext.Plaintext;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.securityLevel.DDH;
 
@@ -81,10 +85,11 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 	protected DlogGroup dlog;
 	protected SecureRandom random;
 	private BigInteger qMinusOne;
-	protected Map<Long, CmtElGamalCommitmentPhaseValues> commitmentMap;
+	protected CmtStateStore<CmtElGamalCommitmentPhaseValues> commitmentMap;
 	protected ElGamalEnc elGamal;
 	protected ScElGamalPublicKey publicKey;
 	private ScElGamalPrivateKey privateKey;
+	private ExecutorService executor;	//Computes the commitments of a batch. Null means that the batch is computed on the calling thread.
 
 
 	/**
@@ -122,7 +127,7 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 		this.dlog = dlog;
 		this.random = random;
 		qMinusOne =  dlog.getOrder().subtract(BigInteger.ONE);
-		commitmentMap = new Hashtable<Long, CmtElGamalCommitmentPhaseValues>();
+		commitmentMap = new CmtLongKeyStateStore<CmtElGamalCommitmentPhaseValues>();
 		this.elGamal = elGamal;
 		preProcess();
 	}
@@ -178,7 +183,7 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 		AsymmetricCiphertext c =  elGamal.encrypt(input.convertToPlaintext(), r);
 		
 		//keep the committed value in the map together with its ID.
-		commitmentMap.put(Long.valueOf(id), new CmtElGamalCommitmentPhaseValues(new BigIntegerRandomValue(r), input,c));
+		commitmentMap.put(id, new CmtElGamalCommitmentPhaseValues(new BigIntegerRandomValue(r), input,c));
 		
 		return new CmtElGamalCommitmentMessage((ElGamalCiphertextSendableData)c.generateSendableData(), id);
 	}
@@ -199,17 +204,81 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 			//Send the message by the channel.
 			channel.send(c);
 		} catch (IOException e) {
-			commitmentMap.remove(Long.valueOf(id));
+			commitmentMap.remove(id);
 			throw new IOException("failed to send the commitment. The error is: " + e.getMessage());
 		}	
 		
 	}
 	
+	/**
+	 * Sets the executor that computes the commitments of {@link #commitBatch(CmtCommitValue[], long[])}.<p>
+	 * The executor uses the underlying DlogGroup from several threads at the same time, 
+	 * so it should be set only if the DlogGroup is thread-safe.
+	 * @param executor computes the commitments of a batch. If null, the batch is computed on the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor){
+		this.executor = executor;
+	}
+	
+	/**
+	 * Computes the commitment objects of all the given values. <p>
+	 * Pseudo code, for every value x:<p>
+	 * "SAMPLE random values  r <- Zq <p>
+	 *	COMPUTE u = g^r and v = h^r * x". <p>
+	 * The encryptions of the batch are computed by the executor that was set in {@link #setExecutor(ExecutorService)}.
+	 * @param values the values to commit on.
+	 * @param ids the ids of the commitments.
+	 * @return the message that holds all the commitments.
+	 */
+	protected CmtElGamalCommitmentBatchMessage generateCommitmentMsgs(CmtCommitValue[] values, long[] ids){
+		if (values.length != ids.length){
+			throw new IllegalArgumentException("The number of ids should be equal to the number of values");
+		}
+		
+		//Sample random r <-Zq for every value.
+		Plaintext[] plaintexts = new Plaintext[values.length];
+		BigInteger[] r = new BigInteger[values.length];
+		for (int i=0; i<values.length; i++){
+			plaintexts[i] = values[i].convertToPlaintext();
+			r[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		}
+		
+		//Compute u = g^r and v = h^r * x for all the values.
+		AsymmetricCiphertext[] c = elGamal.encrypt(plaintexts, r, executor);
+		
+		//keep the committed values in the map together with their IDs.
+		ElGamalCiphertextSendableData[] cData = new ElGamalCiphertextSendableData[values.length];
+		for (int i=0; i<values.length; i++){
+			commitmentMap.put(ids[i], new CmtElGamalCommitmentPhaseValues(new BigIntegerRandomValue(r[i]), values[i], c[i]));
+			cData[i] = (ElGamalCiphertextSendableData) c[i].generateSendableData();
+		}
+		
+		return new CmtElGamalCommitmentBatchMessage(ids, cData);
+	}
+	
+	/**
+	 * Runs the commit phase of the commitment scheme on all the given values and sends all the commitments in one 
+	 * {@link CmtElGamalCommitmentBatchMessage}.
+	 */
+	public void commitBatch(CmtCommitValue[] values, long[] ids) throws IOException {
+		
+		CmtElGamalCommitmentBatchMessage msg = generateCommitmentMsgs(values, ids);
+		try {
+			//Send the message by the channel.
+			channel.send(msg);
+		} catch (IOException e) {
+			for (int i=0; i<ids.length; i++){
+				commitmentMap.remove(ids[i]);
+			}
+			throw new IOException("failed to send the commitment. The error is: " + e.getMessage());
+		}
+	}
+	
 	@Override
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
 		//fetch the commitment according to the requested ID
-		CmtElGamalCommitmentPhaseValues values = commitmentMap.get(Long.valueOf(id));
+		CmtElGamalCommitmentPhaseValues values = commitmentMap.get(id);
 		return new CmtElGamalDecommitmentMessage(values.getX().generateSendableData(),values.getR());
 	}
 
@@ -224,12 +293,46 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 		CmtCDecommitmentMessage msg = generateDecommitmentMsg(id);
 		try{
 			channel.send(msg);
+			decommitted(id);
 		}
 		catch (IOException e) {
 			throw new IOException("failed to send the message. The error is: " + e.getMessage());
 		}
 	}	
 
+	/**
+	 * Marks in the store that the commitment of the given id was decommitted, after the decommitment was sent.
+	 * @param id the id of the decommitted commitment.
+	 */
+	protected void decommitted(long id){
+		commitmentMap.markDecommitted(id);
+	}
+	
+	/**
+	 * Runs the decommit phase of the commitment scheme on all the given ids and sends all the decommitments in one 
+	 * {@link CmtElGamalDecommitmentBatchMessage}.
+	 */
+	public void decommitBatch(long[] ids) throws IOException {
+		
+		Serializable[] x = new Serializable[ids.length];
+		BigInteger[] r = new BigInteger[ids.length];
+		for (int i=0; i<ids.length; i++){
+			CmtElGamalDecommitmentMessage msg = (CmtElGamalDecommitmentMessage) generateDecommitmentMsg(ids[i]);
+			x[i] = msg.getX();
+			r[i] = msg.getR().getR();
+		}
+		
+		try{
+			channel.send(new CmtElGamalDecommitmentBatchMessage(ids, x, r));
+			for (int i=0; i<ids.length; i++){
+				decommitted(ids[i]);
+			}
+		}
+		catch (IOException e) {
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+
 	@Override
 	public Key[] getPreProcessValues() {
 		Key[] keys = new Key[2];
@@ -238,6 +341,26 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 		return keys;
 	}
 
+	/**
+	 * Sets the store that keeps the values of the commitments.<p>
+	 * The default store keeps all the values in memory and never evicts them. See {@link CmtStateStore} for stores that bound the memory.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds values.
+	 */
+	public void setCommitmentStore(CmtStateStore<CmtElGamalCommitmentPhaseValues> store){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were made");
+		}
+		commitmentMap = store;
+	}
+	
+	/**
+	 * @return a codec that converts the values of the commitments to bytes and back.
+	 */
+	public CmtStateCodec<CmtElGamalCommitmentPhaseValues> getStateCodec(){
+		return new CmtElGamalCommitmentPhaseValuesCodec(dlog, elGamal);
+	}
+	
 	@Override
 	public CmtElGamalCommitmentPhaseValues getCommitmentPhaseValues(long id) {
 		return commitmentMap.get(id);
@@ -28,17 +28,19 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.security.InvalidKeyException;
 import java.security.PublicKey;
-import java.util.Hashtable;
-import java.util.Map;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.exceptions.SecurityLevelException;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRBasicCommitPhaseOutput;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtReceiver;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
 import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.ElGamalEnc;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScElGamalPublicKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScElGamalPublicKey.ScElGamalPublicKeySendableData;
@@ -77,7 +79,7 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 	 *
 	 */
 	
-	protected Map<Long , CmtElGamalCommitmentMessage> commitmentMap;
+	protected CmtStateStore<CmtElGamalCommitmentMessage> commitmentMap;
 	protected DlogGroup dlog;
 	protected Channel channel;
 	protected ElGamalEnc elGamal;
@@ -117,7 +119,7 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 
 		this.channel = channel;
 		this.dlog = dlog;
-		commitmentMap = new Hashtable<Long, CmtElGamalCommitmentMessage>();
+		commitmentMap = new CmtLongKeyStateStore<CmtElGamalCommitmentMessage>();
 		this.elGamal = elGamal;
 		preProcess();
 		try {
@@ -174,7 +176,7 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 			throw new IOException("Failed to receive commitment. The error is: " + e.getMessage());
 		}
 
-		commitmentMap.put(Long.valueOf(msg.getId()), msg);
+		commitmentMap.put(msg.getId(), msg);
 		return new CmtRBasicCommitPhaseOutput(msg.getId());
 	}
 
@@ -209,9 +211,70 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 		if (!(message instanceof CmtElGamalDecommitmentMessage)){
 			throw new IllegalArgumentException("the received message is not an instance of CmtElGamalDecommitmentMessage");
 		}
-		CmtElGamalCommitmentMessage receivedCommitment = commitmentMap.get(Long.valueOf(id));
+		CmtElGamalCommitmentMessage receivedCommitment = commitmentMap.get(id);
 		
-		return verifyDecommitment(receivedCommitment, (CmtElGamalDecommitmentMessage) message);
+		CmtCommitValue value = verifyDecommitment(receivedCommitment, (CmtElGamalDecommitmentMessage) message);
+		commitmentMap.markDecommitted(id);
+		return value;
+	}
+	
+	/**
+	 * Waits for the committer to send a batch of commitments and saves each of them in the commitmentMap, 
+	 * as {@link #receiveCommitment()} does for a single commitment.
+	 */
+	public CmtRCommitPhaseOutput[] receiveCommitmentBatch() throws ClassNotFoundException, IOException {
+		Serializable message = null;
+		try{
+			message = channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive commitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive commitment. The error is: " + e.getMessage());
+		}
+		if (!(message instanceof CmtElGamalCommitmentBatchMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtElGamalCommitmentBatchMessage");
+		}
+		
+		CmtElGamalCommitmentBatchMessage msg = (CmtElGamalCommitmentBatchMessage) message;
+		CmtRCommitPhaseOutput[] outputs = new CmtRCommitPhaseOutput[msg.size()];
+		for (int i=0; i<outputs.length; i++){
+			commitmentMap.put(msg.getId(i), msg.getCommitmentMsg(i));
+			outputs[i] = new CmtRBasicCommitPhaseOutput(msg.getId(i));
+		}
+		return outputs;
+	}
+	
+	/**
+	 * Waits for the committer to send a batch of decommitments and verifies each of them using 
+	 * {@link #verifyDecommitment(CmtCCommitmentMsg, CmtCDecommitmentMessage)}.
+	 * @throws CheatAttemptException if the received decommitments do not belong to the given ids.
+	 */
+	public CmtCommitValue[] receiveDecommitmentBatch(long[] ids) throws ClassNotFoundException, IOException, CheatAttemptException {
+		Serializable message = null;
+		try {
+			message = channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive decommitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive decommitment. The error is: " + e.getMessage());
+		}
+		if (!(message instanceof CmtElGamalDecommitmentBatchMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtElGamalDecommitmentBatchMessage");
+		}
+		CmtElGamalDecommitmentBatchMessage msg = (CmtElGamalDecommitmentBatchMessage) message;
+		if (msg.size() != ids.length){
+			throw new CheatAttemptException("The number of decommitments is not the number of requested ids");
+		}
+		
+		CmtCommitValue[] values = new CmtCommitValue[ids.length];
+		for (int i=0; i<ids.length; i++){
+			if (msg.getId(i) != ids[i]){
+				throw new CheatAttemptException("The decommitment does not belong to the requested id " + ids[i]);
+			}
+			values[i] = verifyDecommitment(commitmentMap.get(ids[i]), msg.getDecommitmentMsg(i));
+			commitmentMap.markDecommitted(ids[i]);
+		}
+		return values;
 	}
 	
 	@Override
@@ -221,6 +284,19 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 		return keys;
 	}
 		
+	/**
+	 * Sets the store that keeps the received commitments.<p>
+	 * The default store keeps all the commitments in memory and never evicts them. See {@link CmtStateStore} for stores that bound the memory.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds commitments.
+	 */
+	public void setCommitmentStore(CmtStateStore<CmtElGamalCommitmentMessage> store){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were received");
+		}
+		commitmentMap = store;
+	}
+	
 	@Override
 	public CmtElGamalCommitmentMessage getCommitmentPhaseValues(long id){
 		return commitmentMap.get(id);
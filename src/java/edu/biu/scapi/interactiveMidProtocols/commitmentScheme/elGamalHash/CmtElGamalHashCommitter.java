@@ -26,8 +26,6 @@ package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamalHash;
 
 import java.io.IOException;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
 
 
 import edu.biu.scapi.comm.Channel;
@@ -41,7 +39,10 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMe
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtOnByteArray;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalDecommitmentMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalCommitmentBatchMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalCommitterCore;
 import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.ScElGamalOnByteArray;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
@@ -69,7 +70,7 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 	 */
 	
 	private CryptographicHash hash;
-	private Map<Long, byte[]> hashCommitmentMap;
+	private CmtStateStore<byte[]> hashCommitmentMap;
 
 	/**
 	 * This constructor receives as argument the channel and chosses default values of 
@@ -118,7 +119,7 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 			throw new IllegalArgumentException("The size in bytes of the resulting hash is bigger than the size in bytes of the order of the DlogGroup.");
 		}
 		this.hash = hash;
-		hashCommitmentMap = new Hashtable<Long, byte[]>();
+		hashCommitmentMap = new CmtLongKeyStateStore<byte[]>();
 	}
 	
 	/**
@@ -146,6 +147,21 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 		super.commit(new CmtByteArrayCommitValue(hashValArray), id);
 	}
 	
+	/**
+	 * Hashes every given value and commits to the hash values using the batch of the super class.
+	 */
+	@Override
+	protected CmtElGamalCommitmentBatchMessage generateCommitmentMsgs(CmtCommitValue[] values, long[] ids){
+		if (values.length != ids.length){
+			throw new IllegalArgumentException("The number of ids should be equal to the number of values");
+		}
+		CmtCommitValue[] hashValues = new CmtCommitValue[values.length];
+		for (int i=0; i<values.length; i++){
+			hashValues[i] = new CmtByteArrayCommitValue(getHashOfX(values[i], ids[i]));
+		}
+		return super.generateCommitmentMsgs(hashValues, ids);
+	}
+	
 	/**
 	 * Returns H(x).
 	 * @param input should be an instance of CmtByteArrayCommitValue.
@@ -159,7 +175,7 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 		//Hash the input x with the hash function
 		byte[] x  = ((CmtByteArrayCommitValue)input).getX();
 		//Keep the original commit value x and its id in the commitmentMap, needed for later (during the decommit phase).
-		hashCommitmentMap.put(Long.valueOf(id), x);
+		hashCommitmentMap.put(id, x);
 		
 		//calculate H(x) = Hash(x)
 		byte[] hashValArray = new byte[hash.getHashedMsgSize()];
@@ -172,7 +188,7 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
 		//Fetch the commitment according to the requested ID
-		byte[] x = hashCommitmentMap.get(Long.valueOf(id));
+		byte[] x = hashCommitmentMap.get(id);
 		//Get the relevant random value used in the commitment phase
 		BigIntegerRandomValue r = (commitmentMap.get(id)).getR();
 				
@@ -187,12 +203,36 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 		CmtCDecommitmentMessage msg = generateDecommitmentMsg(id);
 		try{
 			channel.send(msg);
+			decommitted(id);
 		}
 		catch (IOException e) {
 			throw new IOException("failed to send the message. The error is: " + e.getMessage());
 		}
 	}
 
+	/**
+	 * Marks in both stores that the commitment of the given id was decommitted.
+	 */
+	@Override
+	protected void decommitted(long id){
+		super.decommitted(id);
+		hashCommitmentMap.markDecommitted(id);
+	}
+	
+	/**
+	 * Sets the store that keeps the original values x, before they were hashed.<p>
+	 * The values of the underlying commitments are kept in the store that is set by {@link #setCommitmentStore(CmtStateStore)}. 
+	 * Both stores should usually have the same eviction policy.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds values.
+	 */
+	public void setHashCommitmentStore(CmtStateStore<byte[]> store){
+		if (hashCommitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were made");
+		}
+		hashCommitmentMap = store;
+	}
+	
 	/**
 	 * This function samples random commit value and returns it.
 	 * @return the sampled commit value
@@ -92,6 +92,26 @@ public class CmtEquivocalCommitter implements CmtCommitter, EquivocalCmt{
 		committer.proveCommittedValue(id);
 	}
 	
+	/**
+	 * Runs the commit phase of the protocol on all the given values.<p>
+	 * Pseudo code:<p>
+	 * "RUN any COMMIT protocol for C to commit to x".
+	 */
+	public void commitBatch(CmtCommitValue[] values, long[] ids) throws IOException {
+		//Delegate to the underlying committer.
+		committer.commitBatch(values, ids);
+	}
+	
+	/**
+	 * Runs the decommit phase of the protocol on every given id.<p>
+	 * The decommit phase of this scheme is interactive, so the decommitments are executed one after the other.
+	 */
+	public void decommitBatch(long[] ids) throws IOException, CheatAttemptException, ClassNotFoundException, CommitValueException {
+		for (int i=0; i<ids.length; i++){
+			decommit(ids[i]);
+		}
+	}
+	
 	/**
 	 * This function samples random commit value and returns it.
 	 * @return the sampled commit value
@@ -86,6 +86,26 @@ public class CmtEquivocalReceiver implements CmtReceiver, EquivocalCmt {
 		return receiver.verifyCommittedValue(id);
 	}
 	
+	/**
+	 * Runs the commit phase of the protocol on a batch of commitments.
+	 */
+	public CmtRCommitPhaseOutput[] receiveCommitmentBatch() throws ClassNotFoundException, IOException {
+		//Delegate to the underlying receiver.
+		return receiver.receiveCommitmentBatch();
+	}
+	
+	/**
+	 * Runs the decommit phase of the protocol on every given id.<p>
+	 * The decommit phase of this scheme is interactive, so the decommitments are executed one after the other.
+	 */
+	public CmtCommitValue[] receiveDecommitmentBatch(long[] ids) throws IOException, ClassNotFoundException, CheatAttemptException, CommitValueException {
+		CmtCommitValue[] values = new CmtCommitValue[ids.length];
+		for (int i=0; i<ids.length; i++){
+			values[i] = receiveDecommitment(ids[i]);
+		}
+		return values;
+	}
+	
 	@Override
 	public CmtCommitValue verifyDecommitment(CmtCCommitmentMsg commitmentMsg, CmtCDecommitmentMessage decommitmentMsg) {
 		throw new IllegalStateException("The Decommitment phase of this scheme is interactive. Thus, it can't generate a decommitment message. Call decommit function");
@@ -0,0 +1,81 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen;
+
+import java.io.Serializable;
+
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentBatchMsg;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+
+/**
+ * Concrete implementation of the batch commitment message used by Pedersen commitment scheme.
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtPedersenCommitmentBatchMessage implements CmtCCommitmentBatchMsg, Serializable {
+	
+	private static final long serialVersionUID = 3342157790617345126L;
+	
+	private long[] ids;						//The ids of the commitments.
+	private GroupElementSendableData[] c;	//The commitments.
+	
+	/**
+	 * Constructor that sets the commitments and ids.
+	 * @param ids the commitments ids.
+	 * @param c the commitments. c[i] is the commitment of ids[i].
+	 */
+	public CmtPedersenCommitmentBatchMessage(long[] ids, GroupElementSendableData[] c) {
+		if (c.length != ids.length){
+			throw new IllegalArgumentException("There should be one commitment for every id");
+		}
+		this.ids = ids;
+		this.c = c;
+	}
+
+	@Override
+	public int size() {
+		return ids.length;
+	}
+
+	@Override
+	public long getId(int i) {
+		return ids[i];
+	}
+
+	/**
+	 * Returns the commitments.
+	 */
+	public GroupElementSendableData[] getCommitments() {
+		return c;
+	}
+
+	/**
+	 * Returns the i-th commitment as CmtPedersenCommitmentMessage.
+	 */
+	@Override
+	public CmtPedersenCommitmentMessage getCommitmentMsg(int i) {
+		return new CmtPedersenCommitmentMessage(c[i], ids[i]);
+	}
+}
@@ -0,0 +1,70 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen;
+
+import java.math.BigInteger;
+
+import edu.biu.scapi.interactiveMidProtocols.BigIntegerRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtSerializableStateCodec;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateCodec;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+
+/**
+ * Converts the values of the Pedersen commitments to bytes and back.<p>
+ * The commitment is a group element, which is not serializable. It is converted using its sendable data and reconstructed by the dlog group.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class CmtPedersenCommitmentPhaseValuesCodec implements CmtStateCodec<CmtPedersenCommitmentPhaseValues> {
+	
+	private DlogGroup dlog;
+	private CmtSerializableStateCodec<Object[]> serializer = new CmtSerializableStateCodec<Object[]>(Object[].class);
+	
+	CmtPedersenCommitmentPhaseValuesCodec(DlogGroup dlog){
+		this.dlog = dlog;
+	}
+
+	@Override
+	public byte[] encode(CmtPedersenCommitmentPhaseValues value) {
+		Object[] fields = new Object[3];
+		fields[0] = value.getR().getR();
+		fields[1] = ((CmtBigIntegerCommitValue) value.getX()).getX();
+		fields[2] = value.getComputedCommitment().generateSendableData();
+		return serializer.encode(fields);
+	}
+
+	@Override
+	public CmtPedersenCommitmentPhaseValues decode(byte[] data) {
+		Object[] fields = serializer.decode(data);
+		if (fields.length != 3 || !(fields[0] instanceof BigInteger) || !(fields[1] instanceof BigInteger) || !(fields[2] instanceof GroupElementSendableData)){
+			throw new IllegalArgumentException("The given bytes are not encoded Pedersen commitment values");
+		}
+		return new CmtPedersenCommitmentPhaseValues(new BigIntegerRandomValue((BigInteger) fields[0]), new CmtBigIntegerCommitValue((BigInteger) fields[1]), 
+				dlog.reconstructElement(false, (GroupElementSendableData) fields[2]));
+	}
+}
@@ -28,8 +28,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
@@ -45,8 +44,13 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateCodec;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.ParallelDlogComputation;
 import edu.biu.scapi.securityLevel.DDH;
 import edu.biu.scapi.tools.Factories.DlogGroupFactory;
 
@@ -85,10 +89,13 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 	//Each committed value is sent together with an ID so that the receiver can keep it in some data structure. This is necessary
 	//in the cases that the same instances of committer and receiver can be used for performing various commitments utilizing the values calculated
 	//during the pre-process stage for the sake of efficiency.
-	protected Map<Long, CmtPedersenCommitmentPhaseValues> commitmentMap;		
+	protected CmtStateStore<CmtPedersenCommitmentPhaseValues> commitmentMap;		
 	
 	//The content of the message obtained from the receiver during the pre-process phase which occurs upon construction.
     protected GroupElement h; 		 
+    
+    //Computes the commitments of a batch. Null means that the batch is computed on the calling thread.
+    private ExecutorService executor;
  
     /**
 	 * Constructor that receives a connected channel (to the receiver) and chooses default dlog and random. 
@@ -139,7 +146,7 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 		this.dlog = dlog;
 		this.random = random;
 		qMinusOne =  dlog.getOrder().subtract(BigInteger.ONE);
-		commitmentMap = new Hashtable<Long, CmtPedersenCommitmentPhaseValues>();
+		commitmentMap = new CmtLongKeyStateStore<CmtPedersenCommitmentPhaseValues>();
 		//The pre-process phase is actually performed at construction
 		preProcess();
 	}
@@ -185,7 +192,7 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 		GroupElement c = dlog.multiplyGroupElements(gToR, hToX);
 		
 		//Keep the committed value in the map together with its ID.
-		commitmentMap.put(Long.valueOf(id), new CmtPedersenCommitmentPhaseValues(new BigIntegerRandomValue(r), new CmtBigIntegerCommitValue(x), c));
+		commitmentMap.put(id, new CmtPedersenCommitmentPhaseValues(new BigIntegerRandomValue(r), new CmtBigIntegerCommitValue(x), c));
 		
 		//Send c
 		return new CmtPedersenCommitmentMessage(c.generateSendableData(), id);
@@ -206,16 +213,88 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 			//Send the message by the channel.
 			channel.send(msg);
 		} catch (IOException e) {
-			commitmentMap.remove(Long.valueOf(id));
+			commitmentMap.remove(id);
 			throw new IOException("failed to send the message. The error is: " + e.getMessage());
 		}	
 		
 	}
 
+	/**
+	 * Sets the executor that computes the commitments of {@link #commitBatch(CmtCommitValue[], long[])}.<p>
+	 * The executor uses the underlying DlogGroup from several threads at the same time, 
+	 * so it should be set only if the DlogGroup is thread-safe.
+	 * @param executor computes the commitments of a batch. If null, the batch is computed on the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor){
+		this.executor = executor;
+	}
+	
+	/**
+	 * Runs the following lines of the commitment scheme on every given value: <P>
+	 * "SAMPLE a random value r <- Zq<P>
+	 * 	COMPUTE  c = g^r * h^x". <p>
+	 * The exponentiations of the batch are computed using fixed-base tables of g and h, by the executor that was set in 
+	 * {@link #setExecutor(ExecutorService)}.
+	 * @param values the values to commit on. Each one should be a CmtBigIntegerCommitValue in Zq.
+	 * @param ids the ids of the commitments.
+	 * @return the message that holds all the commitments.
+	 */
+	protected CmtPedersenCommitmentBatchMessage generateCommitmentMsgs(CmtCommitValue[] values, long[] ids){
+		if (values.length != ids.length){
+			throw new IllegalArgumentException("The number of ids should be equal to the number of values");
+		}
+		
+		BigInteger[] x = new BigInteger[values.length];
+		BigInteger[] r = new BigInteger[values.length];
+		for (int i=0; i<values.length; i++){
+			if (!(values[i] instanceof CmtBigIntegerCommitValue))
+				throw new IllegalArgumentException("The input must be of type CmtBigIntegerCommitValue");
+			
+			x[i] = ((CmtBigIntegerCommitValue)values[i]).getX();
+			//Check that the input is in Zq.
+			if ((x[i].compareTo(BigInteger.ZERO)<0) || (x[i].compareTo(dlog.getOrder())>0)){
+				throw new IllegalArgumentException("The input must be in Zq");
+			}
+			//Sample a random value r <- Zq
+			r[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		}
+		
+		//Compute  c = g^r * h^x for all the values.
+		ParallelDlogComputation parallel = new ParallelDlogComputation(dlog, executor);
+		GroupElement[] c = parallel.multiply(parallel.exponentiateGenerator(r), parallel.exponentiateFixedBase(h, x));
+		GroupElementSendableData[] cData = parallel.generateSendableData(c);
+		
+		//Keep the committed values in the map together with their IDs.
+		for (int i=0; i<values.length; i++){
+			commitmentMap.put(ids[i], new CmtPedersenCommitmentPhaseValues(new BigIntegerRandomValue(r[i]), new CmtBigIntegerCommitValue(x[i]), c[i]));
+		}
+		
+		return new CmtPedersenCommitmentBatchMessage(ids, cData);
+	}
+	
+	/**
+	 * Runs the commit phase of the commitment scheme on all the given values and sends all the commitments in one 
+	 * {@link CmtPedersenCommitmentBatchMessage}.
+	 * @see edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter#commitBatch(edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue[], long[])
+	 */
+	public void commitBatch(CmtCommitValue[] values, long[] ids) throws IOException {
+		
+		CmtPedersenCommitmentBatchMessage msg = generateCommitmentMsgs(values, ids);
+		try {
+			//Send the message by the channel.
+			channel.send(msg);
+		} catch (IOException e) {
+			for (int i=0; i<ids.length; i++){
+				commitmentMap.remove(ids[i]);
+			}
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+
 	@Override
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
-		CmtPedersenCommitmentPhaseValues values = commitmentMap.get(Long.valueOf(id));
+		CmtPedersenCommitmentPhaseValues values = commitmentMap.get(id);
 		CmtBigIntegerCommitValue xCVal = (CmtBigIntegerCommitValue)values.getX();
 		return new CmtPedersenDecommitmentMessage(xCVal.getX(),values.getR());
 		
@@ -233,12 +312,46 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 		
 		try{
 			channel.send(msg);
+			decommitted(id);
 		}
 		catch (IOException e) {
 			throw new IOException("failed to send the message. The error is: " + e.getMessage());
 		}
 	}	
 
+	/**
+	 * Marks in the store that the commitment of the given id was decommitted, after the decommitment was sent.
+	 * @param id the id of the decommitted commitment.
+	 */
+	protected void decommitted(long id){
+		commitmentMap.markDecommitted(id);
+	}
+	
+	/**
+	 * Runs the decommit phase of the commitment scheme on all the given ids and sends all the decommitments in one 
+	 * {@link CmtPedersenDecommitmentBatchMessage}.
+	 */
+	public void decommitBatch(long[] ids) throws IOException {
+		
+		BigInteger[] x = new BigInteger[ids.length];
+		BigInteger[] r = new BigInteger[ids.length];
+		for (int i=0; i<ids.length; i++){
+			CmtPedersenDecommitmentMessage msg = (CmtPedersenDecommitmentMessage) generateDecommitmentMsg(ids[i]);
+			x[i] = msg.getX();
+			r[i] = msg.getR().getR();
+		}
+		
+		try{
+			channel.send(new CmtPedersenDecommitmentBatchMessage(ids, x, r));
+			for (int i=0; i<ids.length; i++){
+				decommitted(ids[i]);
+			}
+		}
+		catch (IOException e) {
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+	
 	/**
 	 * Receives message from the receiver.
 	 * @return the received message
@@ -267,6 +380,26 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 		return values;
 	}
 
+	/**
+	 * Sets the store that keeps the values of the commitments.<p>
+	 * The default store keeps all the values in memory and never evicts them. See {@link CmtStateStore} for stores that bound the memory.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds values.
+	 */
+	public void setCommitmentStore(CmtStateStore<CmtPedersenCommitmentPhaseValues> store){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were made");
+		}
+		commitmentMap = store;
+	}
+	
+	/**
+	 * @return a codec that converts the values of the commitments to bytes and back.
+	 */
+	public CmtStateCodec<CmtPedersenCommitmentPhaseValues> getStateCodec(){
+		return new CmtPedersenCommitmentPhaseValuesCodec(dlog);
+	}
+	
 	@Override
 	public CmtPedersenCommitmentPhaseValues getCommitmentPhaseValues(long id) {
 		return commitmentMap.get(id);
@@ -29,7 +29,6 @@ import java.io.Serializable;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
-import java.util.Hashtable;
 
 import org.bouncycastle.util.BigIntegers;
 
@@ -37,6 +36,7 @@ import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.FactoriesException;
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.exceptions.SecurityLevelException;
+import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.generals.ScapiDefaultConfiguration;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
@@ -44,6 +44,9 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRBasicCommitPha
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtReceiver;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 import edu.biu.scapi.securityLevel.DDH;
@@ -88,7 +91,7 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 	//The committer may commit many values one after the other without decommitting. And only at a later time decommit some or all those values. In order to keep track
 	//of the commitments and be able to relate them afterwards to the decommitments we keep them in the commitmentMap. The key is some unique id known to the application
 	//running the committer. The exact same id has to be use later on to decommit the corresponding values, otherwise the receiver will reject the decommitment.
-	protected Hashtable<Long, CmtPedersenCommitmentMessage> commitmentMap; 
+	protected CmtStateStore<CmtPedersenCommitmentMessage> commitmentMap; 
 	
 
 	/**
@@ -138,7 +141,7 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 		this.dlog = dlog;
 		this.random = random;
 		qMinusOne =  dlog.getOrder().subtract(BigInteger.ONE);
-		commitmentMap = new Hashtable<Long, CmtPedersenCommitmentMessage>();
+		commitmentMap = new CmtLongKeyStateStore<CmtPedersenCommitmentMessage>();
 		
 		//The pre-process phase is actually performed at construction
 		preProcess();
@@ -191,7 +194,7 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 		}
 		CmtPedersenCommitmentMessage msg = (CmtPedersenCommitmentMessage) message;
 		
-		commitmentMap.put(Long.valueOf(msg.getId()), msg);
+		commitmentMap.put(msg.getId(), msg);
 		return new CmtRBasicCommitPhaseOutput(msg.getId());
 	}
 
@@ -216,8 +219,69 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 		}
 		CmtPedersenDecommitmentMessage msg = (CmtPedersenDecommitmentMessage) message;
 		
-		CmtPedersenCommitmentMessage receivedCommitment = commitmentMap.get(Long.valueOf(id));
-		return verifyDecommitment(receivedCommitment, msg);
+		CmtPedersenCommitmentMessage receivedCommitment = commitmentMap.get(id);
+		CmtCommitValue value = verifyDecommitment(receivedCommitment, msg);
+		commitmentMap.markDecommitted(id);
+		return value;
+	}
+	
+	/**
+	 * Waits for the committer to send a batch of commitments and saves each of them in the commitmentMap, 
+	 * as {@link #receiveCommitment()} does for a single commitment.
+	 */
+	public CmtRCommitPhaseOutput[] receiveCommitmentBatch() throws ClassNotFoundException, IOException {
+		Serializable message = null;
+		try{
+			message = channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive commitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive commitment. The error is: " + e.getMessage());
+		}
+		if (!(message instanceof CmtPedersenCommitmentBatchMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtPedersenCommitmentBatchMessage");
+		}
+		
+		CmtPedersenCommitmentBatchMessage msg = (CmtPedersenCommitmentBatchMessage) message;
+		CmtRCommitPhaseOutput[] outputs = new CmtRCommitPhaseOutput[msg.size()];
+		for (int i=0; i<outputs.length; i++){
+			commitmentMap.put(msg.getId(i), msg.getCommitmentMsg(i));
+			outputs[i] = new CmtRBasicCommitPhaseOutput(msg.getId(i));
+		}
+		return outputs;
+	}
+	
+	/**
+	 * Waits for the committer to send a batch of decommitments and verifies each of them using 
+	 * {@link #verifyDecommitment(CmtCCommitmentMsg, CmtCDecommitmentMessage)}.
+	 * @throws CheatAttemptException if the received decommitments do not belong to the given ids.
+	 */
+	public CmtCommitValue[] receiveDecommitmentBatch(long[] ids) throws ClassNotFoundException, IOException, CheatAttemptException {
+		Serializable message = null;
+		try {
+			message = channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive decommitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive decommitment. The error is: " + e.getMessage());
+		}
+		if (!(message instanceof CmtPedersenDecommitmentBatchMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtPedersenDecommitmentBatchMessage");
+		}
+		CmtPedersenDecommitmentBatchMessage msg = (CmtPedersenDecommitmentBatchMessage) message;
+		if (msg.size() != ids.length){
+			throw new CheatAttemptException("The number of decommitments is not the number of requested ids");
+		}
+		
+		CmtCommitValue[] values = new CmtCommitValue[ids.length];
+		for (int i=0; i<ids.length; i++){
+			if (msg.getId(i) != ids[i]){
+				throw new CheatAttemptException("The decommitment does not belong to the requested id " + ids[i]);
+			}
+			values[i] = verifyDecommitment(commitmentMap.get(ids[i]), msg.getDecommitmentMsg(i));
+			commitmentMap.markDecommitted(ids[i]);
+		}
+		return values;
 	}
 	
 	/**
@@ -256,6 +320,19 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 		return values;
 	}
 	
+	/**
+	 * Sets the store that keeps the received commitments.<p>
+	 * The default store keeps all the commitments in memory and never evicts them. See {@link CmtStateStore} for stores that bound the memory.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds commitments.
+	 */
+	public void setCommitmentStore(CmtStateStore<CmtPedersenCommitmentMessage> store){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were received");
+		}
+		commitmentMap = store;
+	}
+	
 	@Override
 	public GroupElement getCommitmentPhaseValues(long id){
 		return dlog.reconstructElement(true, commitmentMap.get(id).getCommitment());
@@ -40,6 +40,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCmtKnowledge.
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCommittedValue.SigmaPedersenCommittedValueProverComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCommittedValue.SigmaPedersenCommittedValueProverInput;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtWithProofsCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenTrapdoor.CmtPedersenTrapdoorReceiver;
 import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFromSigmaCmtPedersenProver;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 
@@ -99,8 +100,14 @@ public class CmtPedersenWithProofsCommitter extends CmtPedersenCommitter impleme
 	private void doConstruct(int t) throws IOException{
 		SigmaProverComputation pedersenCommittedValProver = new SigmaPedersenCommittedValueProverComputation(dlog, t, random);
 		SigmaProverComputation pedersenCTKnowledgeProver = new SigmaPedersenCmtKnowledgeProverComputation(dlog, t, random);
-		knowledgeProver = new  ZKPOKFromSigmaCmtPedersenProver(channel, pedersenCTKnowledgeProver);
-		committedValProver = new ZKPOKFromSigmaCmtPedersenProver(channel, pedersenCommittedValProver);
+		//The trapdoor commitments of the proofs use the Dlog group of this commitment.
+		try {
+			knowledgeProver = new  ZKPOKFromSigmaCmtPedersenProver(channel, pedersenCTKnowledgeProver, new CmtPedersenTrapdoorReceiver(channel, dlog, random));
+			committedValProver = new ZKPOKFromSigmaCmtPedersenProver(channel, pedersenCommittedValProver, new CmtPedersenTrapdoorReceiver(channel, dlog, random));
+		} catch (SecurityLevelException | InvalidDlogGroupException e) {
+			//Should not occur since the dlog was already checked by this commitment.
+			throw new IllegalStateException(e);
+		}
 		
 	}
 
@@ -42,6 +42,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCommittedValu
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCommittedValue.SigmaPedersenCommittedValueVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtWithProofsReceiver;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenTrapdoor.CmtPedersenTrapdoorCommitter;
 import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFromSigmaCmtPedersenVerifier;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
@@ -108,8 +109,14 @@ public class CmtPedersenWithProofsReceiver extends CmtPedersenReceiver implement
 	private void doConstruct(int t) throws IOException, InvalidDlogGroupException, ClassNotFoundException, CheatAttemptException{
 		SigmaVerifierComputation pedersenCommittedValVerifier = new SigmaPedersenCommittedValueVerifierComputation(dlog, t, random);
 		SigmaVerifierComputation pedersenCTKnowledgeVerifier = new SigmaPedersenCmtKnowledgeVerifierComputation(dlog, t, random);
-		knowledgeVerifier = new  ZKPOKFromSigmaCmtPedersenVerifier(channel, pedersenCTKnowledgeVerifier, random);
-		committedValVerifier = new ZKPOKFromSigmaCmtPedersenVerifier(channel, pedersenCommittedValVerifier, random);
+		//The trapdoor commitments of the proofs use the Dlog group of this commitment.
+		try {
+			knowledgeVerifier = new  ZKPOKFromSigmaCmtPedersenVerifier(channel, pedersenCTKnowledgeVerifier, new CmtPedersenTrapdoorCommitter(channel, dlog, random), random);
+			committedValVerifier = new ZKPOKFromSigmaCmtPedersenVerifier(channel, pedersenCommittedValVerifier, new CmtPedersenTrapdoorCommitter(channel, dlog, random), random);
+		} catch (SecurityLevelException e) {
+			//Should not occur since the dlog was already checked by this commitment.
+			throw new IllegalStateException(e);
+		}
 		
 	}
 
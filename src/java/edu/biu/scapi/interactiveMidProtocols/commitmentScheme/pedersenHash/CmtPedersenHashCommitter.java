@@ -28,8 +28,6 @@ package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenHash;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.CheatAttemptException;
@@ -44,7 +42,10 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMe
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtOnByteArray;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenDecommitmentMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitmentBatchMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitterCore;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.hash.CryptographicHash;
@@ -72,7 +73,7 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 	 */
 	
 	private CryptographicHash hash;
-	private Map<Long, byte[]> hashCommitmentMap;
+	private CmtStateStore<byte[]> hashCommitmentMap;
 	
 	/**
 	 * This constructor uses a default Dlog Group and default Cryptographic Hash. They keep the condition that 
@@ -86,7 +87,7 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 	public CmtPedersenHashCommitter(Channel channel) throws ClassNotFoundException, IOException, CheatAttemptException{
 		super(channel);
 		this.hash = new OpenSSLSHA224(); 	//This default hash suits the default DlogGroup of the underlying Committer.
-		hashCommitmentMap = new Hashtable<Long, byte[]>();
+		hashCommitmentMap = new CmtLongKeyStateStore<byte[]>();
 	}
 	
 	/**
@@ -112,7 +113,7 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 			throw new IllegalArgumentException("The size in bytes of the resulting hash is bigger than the size in bytes of the order of the DlogGroup.");
 		}
 		this.hash = hash;
-		hashCommitmentMap = new Hashtable<Long, byte[]>();
+		hashCommitmentMap = new CmtLongKeyStateStore<byte[]>();
 	}
 	
 	/*
@@ -132,7 +133,7 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 		//Hash the input x with the hash function
 		byte[] x  = ((CmtByteArrayCommitValue)input).getX();
 		//Keep the original commit value x and its id in the commitmentMap, needed for later (during the decommit phase).
-		hashCommitmentMap.put(Long.valueOf(id), x);
+		hashCommitmentMap.put(id, x);
 		
 		//calculate H(x) = Hash(x)
 		byte[] hashValArray = new byte[hash.getHashedMsgSize()];
@@ -144,11 +145,37 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 		return super.generateCommitmentMsg(new CmtBigIntegerCommitValue(new BigInteger(1, hashValArray)), id);
 	}
 
+	/**
+	 * Hashes every given value and commits to the hash values using the batch of the super class.
+	 */
+	@Override
+	protected CmtPedersenCommitmentBatchMessage generateCommitmentMsgs(CmtCommitValue[] values, long[] ids){
+		if (values.length != ids.length){
+			throw new IllegalArgumentException("The number of ids should be equal to the number of values");
+		}
+		CmtCommitValue[] hashValues = new CmtCommitValue[values.length];
+		for (int i=0; i<values.length; i++){
+			//Check that the input x is in the end a byte[]
+			if (!(values[i] instanceof CmtByteArrayCommitValue))
+				throw new IllegalArgumentException("The input must be of type CmtByteArrayCommitValue");
+			byte[] x  = ((CmtByteArrayCommitValue)values[i]).getX();
+			//Keep the original commit value x and its id in the commitmentMap, needed for later (during the decommit phase).
+			hashCommitmentMap.put(ids[i], x);
+			
+			//calculate H(x) = Hash(x)
+			byte[] hashValArray = new byte[hash.getHashedMsgSize()];
+			hash.update(x, 0, x.length);
+			hash.hashFinal(hashValArray, 0);
+			hashValues[i] = new CmtBigIntegerCommitValue(new BigInteger(1, hashValArray));
+		}
+		return super.generateCommitmentMsgs(hashValues, ids);
+	}
+
 	@Override
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
 		//Fetch the commitment according to the requested ID
-		byte[] x = hashCommitmentMap.get(Long.valueOf(id));
+		byte[] x = hashCommitmentMap.get(id);
 		//Get the relevant random value used in the commitment phase
 		BigIntegerRandomValue r = (commitmentMap.get(id)).getR();
 		
@@ -164,12 +191,36 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 		CmtCDecommitmentMessage msg = generateDecommitmentMsg(id);
 		try{
 			channel.send(msg);
+			decommitted(id);
 		}
 		catch (IOException e) {
 			throw new IOException("failed to send the message. The error is: " + e.getMessage());
 		}
 	}
 
+	/**
+	 * Marks in both stores that the commitment of the given id was decommitted.
+	 */
+	@Override
+	protected void decommitted(long id){
+		super.decommitted(id);
+		hashCommitmentMap.markDecommitted(id);
+	}
+	
+	/**
+	 * Sets the store that keeps the original values x, before they were hashed.<p>
+	 * The values of the underlying commitments are kept in the store that is set by {@link #setCommitmentStore(CmtStateStore)}. 
+	 * Both stores should usually have the same eviction policy.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds values.
+	 */
+	public void setHashCommitmentStore(CmtStateStore<byte[]> store){
+		if (hashCommitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were made");
+		}
+		hashCommitmentMap = store;
+	}
+	
 	/**
 	 * This function samples random commit value and returns it.
 	 * @return the sampled commit value
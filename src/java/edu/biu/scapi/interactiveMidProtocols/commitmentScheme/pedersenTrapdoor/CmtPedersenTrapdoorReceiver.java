@@ -35,6 +35,7 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRBasicCommitPha
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtReceiver;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtOnBigInteger;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRTrapdoorCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRCommitPhaseOutput;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenReceiver;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.securityLevel.PerfectlyHidingCmt;
@@ -98,4 +99,16 @@ public class CmtPedersenTrapdoorReceiver extends CmtPedersenReceiver implements
 		//Wrap the output with the trapdoor.
 		return new CmtRTrapdoorCommitPhaseOutput(trapdoor, output.getCommitmentId());
 	}
+	
+	/**
+	 * Receives the batch of commitments as the super class does and wraps every output with the trapdoor.
+	 */
+	@Override
+	public CmtRCommitPhaseOutput[] receiveCommitmentBatch() throws ClassNotFoundException, IOException {
+		CmtRCommitPhaseOutput[] outputs = super.receiveCommitmentBatch();
+		for (int i=0; i<outputs.length; i++){
+			outputs[i] = new CmtRTrapdoorCommitPhaseOutput(trapdoor, outputs[i].getCommitmentId());
+		}
+		return outputs;
+	}
 }
@@ -0,0 +1,79 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenVector;
+
+import edu.biu.scapi.interactiveMidProtocols.BigIntegerRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerVectorCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitmentPhaseValues;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+
+/**
+ * Concrete implementation of CommitmentPhaseValues.<p>
+ * This implementation is used by the vector Pedersen commitment scheme.<p>
+ * In this scheme the committed value is a vector of BigIntegers, the random value is a BigInteger and the computed commitment is a GroupElement.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtPedersenVectorCommitmentPhaseValues implements CmtCommitmentPhaseValues {
+	
+	private BigIntegerRandomValue r;				//The random value used in the computation of the commitment.
+	private CmtBigIntegerVectorCommitValue x;		//The committed vector.
+	private GroupElement c;							//The commitment.
+	
+	/**
+	 * Constructor that sets the given random value, committed vector and the commitment object.
+	 * This constructor is package private. It should only be used by the classes in the package.
+	 */
+	CmtPedersenVectorCommitmentPhaseValues(BigIntegerRandomValue r, CmtBigIntegerVectorCommitValue x, GroupElement c) {
+		this.r = r;
+		this.x = x;
+		this.c = c;
+	}
+	
+	/**
+	 * Returns the random value used for commit the value.
+	 */
+	@Override
+	public BigIntegerRandomValue getR() {
+		return r;
+	}
+	
+	/**
+	 * Returns the committed vector.
+	 */
+	@Override
+	public CmtBigIntegerVectorCommitValue getX(){
+		return x;
+	}
+	
+	/**
+	 * Returns the commitment that was computed on the vector.
+	 */
+	@Override
+	public GroupElement getComputedCommitment() {
+		return c;
+	}
+}
@@ -0,0 +1,346 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenVector;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import org.bouncycastle.util.BigIntegers;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.CommitValueException;
+import edu.biu.scapi.exceptions.InvalidDlogGroupException;
+import edu.biu.scapi.exceptions.SecurityLevelException;
+import edu.biu.scapi.interactiveMidProtocols.BigIntegerRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerVectorCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitmentBatchMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitmentMessage;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.securityLevel.DDH;
+import edu.biu.scapi.securityLevel.PerfectlyHidingCmt;
+
+/**
+ * Concrete implementation of committer that executes the vector Pedersen commitment scheme in the committer's point of view.<p>
+ * 
+ * This is a perfectly-hiding commitment to a vector of up to n values in Zq, using one group element for the whole vector. 
+ * A shorter vector is padded with zeros to length n, and the receiver accepts only decommitments of exactly n values, 
+ * so the length of the committed vector is always n. 
+ * Committing to n values with {@link edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitter} costs 
+ * n commitments, 2n exponentiations and n group elements on the wire. Here it costs one multi-exponentiation and one group element.<p>
+ * 
+ * The commitment is additively homomorphic: the product of the commitments to x and y is a commitment to x+y, 
+ * see {@link #addCommitments(long, long, long)}.<p>
+ * 
+ * The protocol:<p>
+ * "Both parties derive the generators h, g_1,...,g_n from a public seed.<p>
+ * Commit phase:<p>
+ *	SET x_{m+1},...,x_n = 0<p>
+ *	SAMPLE a random value r <- Zq<p>
+ *	COMPUTE c = h^r * g_1^x_1 * ... * g_n^x_n<p>
+ *	SEND c<p>
+ * Decommit phase:<p>
+ *	SEND (r, x_1,...,x_n) to R<p>
+ *	OUTPUT nothing."
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtPedersenVectorCommitter implements CmtCommitter, PerfectlyHidingCmt {
+	
+	private Channel channel;
+	private DlogGroup dlog;
+	private CmtPedersenVectorGenerators generators;
+	private SecureRandom random;
+	private BigInteger qMinusOne;
+	
+	//The key to the map is an ID and the value is a structure that has the committed vector, the random value and the commitment.
+	private CmtStateStore<CmtPedersenVectorCommitmentPhaseValues> commitmentMap;
+	
+	/**
+	 * Constructor that receives a connected channel (to the receiver) and the generators, and chooses a default SecureRandom.
+	 * The receiver needs to be instantiated with generators that were derived from the same seed.
+	 * @param channel
+	 * @param generators
+	 * @throws SecurityLevelException if the group of the generators is not DDH secure.
+	 * @throws InvalidDlogGroupException if the group of the generators is not valid.
+	 */
+	public CmtPedersenVectorCommitter(Channel channel, CmtPedersenVectorGenerators generators) throws SecurityLevelException, InvalidDlogGroupException {
+		this(channel, generators, new SecureRandom());
+	}
+	
+	/**
+	 * Constructor that receives a connected channel (to the receiver), the generators and a SecureRandom object.
+	 * The receiver needs to be instantiated with generators that were derived from the same seed.
+	 * @param channel
+	 * @param generators
+	 * @param random
+	 * @throws SecurityLevelException if the group of the generators is not DDH secure.
+	 * @throws InvalidDlogGroupException if the group of the generators is not valid.
+	 */
+	public CmtPedersenVectorCommitter(Channel channel, CmtPedersenVectorGenerators generators, SecureRandom random) throws SecurityLevelException, InvalidDlogGroupException {
+		DlogGroup dlog = generators.getDlog();
+		//The underlying dlog group must be DDH secure.
+		if (!(dlog instanceof DDH)){
+			throw new SecurityLevelException("DlogGroup should have DDH security level");
+		}
+		//Validate the params of the group.
+		if (!dlog.validateGroup()){
+			throw new InvalidDlogGroupException();
+		}
+		this.channel = channel;
+		this.dlog = dlog;
+		this.generators = generators;
+		this.random = random;
+		qMinusOne = dlog.getOrder().subtract(BigInteger.ONE);
+		commitmentMap = new CmtLongKeyStateStore<CmtPedersenVectorCommitmentPhaseValues>();
+		//No pre-process in vector Pedersen commitment, since the generators are derived from the seed.
+	}
+	
+	/**
+	 * Runs the following lines of the commitment scheme:<p>
+	 * "SET x_{m+1},...,x_n = 0<p>
+	 *  SAMPLE a random value r <- Zq<p>
+	 * 	COMPUTE c = h^r * g_1^x_1 * ... * g_n^x_n".
+	 * @param input should be a CmtBigIntegerVectorCommitValue of length at most n, with values in Zq. 
+	 * 		  The committed vector is the input padded with zeros to length n.
+	 * @return the commitment message.
+	 */
+	public CmtPedersenCommitmentMessage generateCommitmentMsg(CmtCommitValue input, long id){
+		BigInteger[] x = checkInput(input);
+		
+		//Sample a random value r <- Zq
+		BigInteger r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		//Compute c = h^r * g_1^x_1 * ... * g_n^x_n
+		GroupElement c = generators.commit(x, r);
+		
+		//Keep the committed vector in the map together with its ID.
+		commitmentMap.put(id, new CmtPedersenVectorCommitmentPhaseValues(new BigIntegerRandomValue(r), new CmtBigIntegerVectorCommitValue(x), c));
+		return new CmtPedersenCommitmentMessage(c.generateSendableData(), id);
+	}
+	
+	private BigInteger[] checkInput(CmtCommitValue input){
+		if (!(input instanceof CmtBigIntegerVectorCommitValue)){
+			throw new IllegalArgumentException("The input must be of type CmtBigIntegerVectorCommitValue");
+		}
+		BigInteger[] x = ((CmtBigIntegerVectorCommitValue) input).getX();
+		if (x.length > generators.getN()){
+			throw new IllegalArgumentException("The input vector should be of length at most " + generators.getN());
+		}
+		//Check that the input is in Zq.
+		for (int i = 0; i < x.length; i++){
+			if (x[i].signum() < 0 || x[i].compareTo(dlog.getOrder()) >= 0){
+				throw new IllegalArgumentException("The input must be in Zq");
+			}
+		}
+		//Pad the vector with zeros to length n, so the receiver can verify the length of the decommitted vector.
+		BigInteger[] padded = new BigInteger[generators.getN()];
+		System.arraycopy(x, 0, padded, 0, x.length);
+		Arrays.fill(padded, x.length, padded.length, BigInteger.ZERO);
+		return padded;
+	}
+	
+	/**
+	 * Runs the commit phase of the commitment scheme:<p>
+	 * "SET x_{m+1},...,x_n = 0<p>
+	 *  SAMPLE a random value r <- Zq<p>
+	 * 	COMPUTE c = h^r * g_1^x_1 * ... * g_n^x_n<p>
+	 * 	SEND c".
+	 */
+	public void commit(CmtCommitValue input, long id) throws IOException {
+		CmtPedersenCommitmentMessage msg = generateCommitmentMsg(input, id);
+		try {
+			channel.send(msg);
+		} catch (IOException e) {
+			commitmentMap.remove(id);
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Runs the commit phase of the commitment scheme on all the given vectors and sends all the commitments in one 
+	 * {@link CmtPedersenCommitmentBatchMessage}.
+	 */
+	public void commitBatch(CmtCommitValue[] values, long[] ids) throws IOException {
+		if (values.length != ids.length){
+			throw new IllegalArgumentException("The number of ids should be equal to the number of values");
+		}
+		GroupElementSendableData[] c = new GroupElementSendableData[values.length];
+		for (int i = 0; i < values.length; i++){
+			c[i] = generateCommitmentMsg(values[i], ids[i]).getCommitment();
+		}
+		try {
+			channel.send(new CmtPedersenCommitmentBatchMessage(ids, c));
+		} catch (IOException e) {
+			for (int i = 0; i < ids.length; i++){
+				commitmentMap.remove(ids[i]);
+			}
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+	
+	@Override
+	public CmtPedersenVectorDecommitmentMessage generateDecommitmentMsg(long id) {
+		CmtPedersenVectorCommitmentPhaseValues values = commitmentMap.get(id);
+		return new CmtPedersenVectorDecommitmentMessage(values.getX().getX(), values.getR());
+	}
+	
+	/**
+	 * Runs the decommit phase of the commitment scheme:<p>
+	 * "SEND (r, x_1,...,x_n) to R<p>
+	 *	OUTPUT nothing."
+	 */
+	public void decommit(long id) throws IOException {
+		CmtCDecommitmentMessage msg = generateDecommitmentMsg(id);
+		try {
+			channel.send(msg);
+			commitmentMap.markDecommitted(id);
+		} catch (IOException e) {
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Runs the decommit phase of the commitment scheme on all the given ids and sends all the decommitments in one 
+	 * {@link CmtPedersenVectorDecommitmentBatchMessage}.
+	 */
+	public void decommitBatch(long[] ids) throws IOException {
+		BigInteger[][] x = new BigInteger[ids.length][];
+		BigInteger[] r = new BigInteger[ids.length];
+		for (int i = 0; i < ids.length; i++){
+			CmtPedersenVectorCommitmentPhaseValues values = commitmentMap.get(ids[i]);
+			x[i] = values.getX().getX();
+			r[i] = values.getR().getR();
+		}
+		try {
+			channel.send(new CmtPedersenVectorDecommitmentBatchMessage(ids, x, r));
+			for (int i = 0; i < ids.length; i++){
+				commitmentMap.markDecommitted(ids[i]);
+			}
+		} catch (IOException e) {
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Computes the commitment to the sum of the vectors of two commitments, without any interaction.<p>
+	 * The new commitment is c1*c2 = h^(r1+r2) * g_1^(x_1+y_1) * ... * g_n^(x_n+y_n). It is kept with the given id 
+	 * and can be decommitted as any other commitment. The receiver computes the same commitment using 
+	 * {@link CmtPedersenVectorReceiver#addCommitments(long, long, long)}.
+	 * @param id1 the id of the first commitment.
+	 * @param id2 the id of the second commitment.
+	 * @param resultId the id of the new commitment.
+	 * @throws IllegalArgumentException if one of the ids has no commitment, or if the vectors are not of the same length.
+	 */
+	public void addCommitments(long id1, long id2, long resultId){
+		CmtPedersenVectorCommitmentPhaseValues first = commitmentMap.get(id1);
+		CmtPedersenVectorCommitmentPhaseValues second = commitmentMap.get(id2);
+		if (first == null || second == null){
+			throw new IllegalArgumentException("There is no commitment with the given id");
+		}
+		BigInteger[] x = first.getX().getX();
+		BigInteger[] y = second.getX().getX();
+		if (x.length != y.length){
+			throw new IllegalArgumentException("The committed vectors should be of the same length");
+		}
+		BigInteger q = dlog.getOrder();
+		BigInteger[] sum = new BigInteger[x.length];
+		for (int i = 0; i < x.length; i++){
+			sum[i] = x[i].add(y[i]).mod(q);
+		}
+		BigInteger r = first.getR().getR().add(second.getR().getR()).mod(q);
+		GroupElement c = dlog.multiplyGroupElements(first.getComputedCommitment(), second.getComputedCommitment());
+		commitmentMap.put(resultId, new CmtPedersenVectorCommitmentPhaseValues(new BigIntegerRandomValue(r), new CmtBigIntegerVectorCommitValue(sum), c));
+	}
+	
+	/**
+	 * Sets the store that keeps the values of the commitments.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds values.
+	 */
+	public void setCommitmentStore(CmtStateStore<CmtPedersenVectorCommitmentPhaseValues> store){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were made");
+		}
+		commitmentMap = store;
+	}
+	
+	/**
+	 * This function samples a random vector of length n and returns it.
+	 * @return the sampled commit value
+	 */
+	public CmtCommitValue sampleRandomCommitValue() {
+		BigInteger[] x = new BigInteger[generators.getN()];
+		for (int i = 0; i < x.length; i++){
+			x[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		}
+		return new CmtBigIntegerVectorCommitValue(x);
+	}
+	
+	/**
+	 * Restores a vector from bytes that were returned from {@link #generateBytesFromCommitValue(CmtCommitValue)}.
+	 */
+	public CmtCommitValue generateCommitValue(byte[] x) throws CommitValueException {
+		return CmtBigIntegerVectorCommitValue.fromByteArray(x);
+	}
+	
+	/**
+	 * This function converts the given commit value to a byte array. 
+	 * @param value should be an instance of CmtBigIntegerVectorCommitValue.
+	 * @return the generated bytes.
+	 */
+	public byte[] generateBytesFromCommitValue(CmtCommitValue value) {
+		if (!(value instanceof CmtBigIntegerVectorCommitValue)){
+			throw new IllegalArgumentException("The given value must be of type CmtBigIntegerVectorCommitValue");
+		}
+		return ((CmtBigIntegerVectorCommitValue) value).toByteArray();
+	}
+	
+	/**
+	 * Returns the generators h, g_1,...,g_n.
+	 */
+	@Override
+	public GroupElement[] getPreProcessValues() {
+		GroupElement[] values = new GroupElement[generators.getN() + 1];
+		values[0] = generators.getH();
+		for (int i = 0; i < generators.getN(); i++){
+			values[i + 1] = generators.getG(i);
+		}
+		return values;
+	}
+	
+	@Override
+	public CmtPedersenVectorCommitmentPhaseValues getCommitmentPhaseValues(long id) {
+		return commitmentMap.get(id);
+	}
+}
@@ -0,0 +1,78 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenVector;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+import edu.biu.scapi.interactiveMidProtocols.BigIntegerRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentBatchMessage;
+
+/**
+ * Concrete implementation of the batch decommitment message used by the vector Pedersen commitment scheme.
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtPedersenVectorDecommitmentBatchMessage implements CmtCDecommitmentBatchMessage, Serializable {
+	
+	private static final long serialVersionUID = -2619254937016153980L;
+	
+	private long[] ids;			//The ids of the decommitted commitments.
+	private BigInteger[][] x;	//The committed vectors.
+	private BigInteger[] r;		//The random values used for commit.
+	
+	/**
+	 * Constructor that sets the ids, committed vectors and random values of the decommitments.
+	 * @param ids the ids of the decommitted commitments.
+	 * @param x the committed vectors.
+	 * @param r the random values used for commit.
+	 */
+	public CmtPedersenVectorDecommitmentBatchMessage(long[] ids, BigInteger[][] x, BigInteger[] r) {
+		if (x.length != ids.length || r.length != ids.length){
+			throw new IllegalArgumentException("There should be one committed vector and one random value for every id");
+		}
+		this.ids = ids;
+		this.x = x;
+		this.r = r;
+	}
+
+	@Override
+	public int size() {
+		return ids.length;
+	}
+
+	@Override
+	public long getId(int i) {
+		return ids[i];
+	}
+
+	/**
+	 * Returns the i-th decommitment as CmtPedersenVectorDecommitmentMessage.
+	 */
+	@Override
+	public CmtPedersenVectorDecommitmentMessage getDecommitmentMsg(int i) {
+		return new CmtPedersenVectorDecommitmentMessage(x[i], new BigIntegerRandomValue(r[i]));
+	}
+}
@@ -0,0 +1,150 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenVector;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.hash.CryptographicHash;
+
+/**
+ * The public generators of the vector Pedersen commitment: h and g_1,...,g_n.<p>
+ * 
+ * The binding of the commitment requires that no one knows a relation between the generators. 
+ * Therefore, the generators are not chosen by one of the parties but derived deterministically from a public seed: 
+ * each generator is the encoding of H(seed || index || counter) to a group element, where the counter is increased until the encoding succeeds.
+ * Both parties derive the same generators from the same seed, so no pre-process message is needed.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtPedersenVectorGenerators {
+	
+	private static final int MAX_ATTEMPTS = 1000;
+	
+	private DlogGroup dlog;
+	private byte[] seed;
+	private GroupElement h;
+	private GroupElement[] g;
+	
+	/**
+	 * Derives n+1 generators from the given seed.
+	 * @param dlog the group of the generators.
+	 * @param n the maximal length of the committed vectors.
+	 * @param seed the public seed that both parties agreed upon.
+	 * @param hash the hash function used to derive the generators.
+	 * @throws IllegalArgumentException if n is not positive.
+	 * @throws IllegalStateException if a generator could not be derived.
+	 */
+	public CmtPedersenVectorGenerators(DlogGroup dlog, int n, byte[] seed, CryptographicHash hash){
+		if (n <= 0){
+			throw new IllegalArgumentException("The number of generators should be positive");
+		}
+		this.dlog = dlog;
+		this.seed = seed.clone();
+		//h is derived with index 0 and g_i with index i.
+		h = derive(hash, 0);
+		g = new GroupElement[n];
+		for (int i = 0; i < n; i++){
+			g[i] = derive(hash, i + 1);
+		}
+	}
+	
+	private GroupElement derive(CryptographicHash hash, int index){
+		int length = Math.min(hash.getHashedMsgSize(), dlog.getMaxLengthOfByteArrayForEncoding());
+		byte[] digest = new byte[hash.getHashedMsgSize()];
+		byte[] encoded = new byte[length];
+		for (int counter = 0; counter < MAX_ATTEMPTS; counter++){
+			hash.update(seed, 0, seed.length);
+			byte[] suffix = ByteBuffer.allocate(8).putInt(index).putInt(counter).array();
+			hash.update(suffix, 0, suffix.length);
+			hash.hashFinal(digest, 0);
+			System.arraycopy(digest, 0, encoded, 0, length);
+			
+			GroupElement element = dlog.encodeByteArrayToGroupElement(encoded);
+			if (element != null && !element.isIdentity()){
+				return element;
+			}
+		}
+		throw new IllegalStateException("Failed to derive a generator from the seed");
+	}
+	
+	/**
+	 * Returns the generator of the randomness.
+	 */
+	public GroupElement getH(){
+		return h;
+	}
+	
+	/**
+	 * Returns the generator of the i-th value, where i is between 0 and n-1.
+	 */
+	public GroupElement getG(int i){
+		return g[i];
+	}
+	
+	/**
+	 * Returns the maximal length of the committed vectors.
+	 */
+	public int getN(){
+		return g.length;
+	}
+	
+	/**
+	 * Returns the seed the generators were derived from.
+	 */
+	public byte[] getSeed(){
+		return seed.clone();
+	}
+	
+	/**
+	 * Returns the group of the generators.
+	 */
+	public DlogGroup getDlog(){
+		return dlog;
+	}
+	
+	/**
+	 * Computes h^r * g_1^x_1 * ... * g_m^x_m using one multi-exponentiation.
+	 * @param x the vector to commit on. Its length m should be at most n.
+	 * @param r the random value.
+	 * @return the commitment.
+	 * @throws IllegalArgumentException if the vector is longer than n.
+	 */
+	public GroupElement commit(BigInteger[] x, BigInteger r){
+		if (x.length > g.length){
+			throw new IllegalArgumentException("The vector should be of length at most " + g.length);
+		}
+		GroupElement[] bases = new GroupElement[x.length + 1];
+		BigInteger[] exponents = new BigInteger[x.length + 1];
+		bases[0] = h;
+		exponents[0] = r;
+		System.arraycopy(g, 0, bases, 1, x.length);
+		System.arraycopy(x, 0, exponents, 1, x.length);
+		return dlog.simultaneousMultipleExponentiations(bases, exponents);
+	}
+}
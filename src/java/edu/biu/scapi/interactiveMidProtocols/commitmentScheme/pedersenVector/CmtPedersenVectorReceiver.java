@@ -0,0 +1,288 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenVector;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigInteger;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.CheatAttemptException;
+import edu.biu.scapi.exceptions.InvalidDlogGroupException;
+import edu.biu.scapi.exceptions.SecurityLevelException;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerVectorCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRBasicCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtReceiver;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitmentBatchMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitmentMessage;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.securityLevel.DDH;
+import edu.biu.scapi.securityLevel.PerfectlyHidingCmt;
+
+/**
+ * Concrete implementation of receiver that executes the vector Pedersen commitment scheme in the receiver's point of view.<p>
+ * 
+ * The protocol:<p>
+ * "Both parties derive the generators h, g_1,...,g_n from a public seed.<p>
+ * Commit phase:<p>
+ *	WAIT for c from C<p>
+ *	STORE c<p>
+ * Decommit phase:<p>
+ *	WAIT for (r, x_1,...,x_n) from C<p>
+ *	IF  c = h^r * g_1^x_1 * ... * g_n^x_n AND each x_i <- Zq<p>
+ *		OUTPUT ACC and value (x_1,...,x_n)<p>
+ *	ELSE<p>
+ *		OUTPUT REJ".
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtPedersenVectorReceiver implements CmtReceiver, PerfectlyHidingCmt {
+	
+	private Channel channel;
+	private DlogGroup dlog;
+	private CmtPedersenVectorGenerators generators;
+	
+	//The received commitments, by their ids.
+	private CmtStateStore<CmtPedersenCommitmentMessage> commitmentMap;
+	
+	/**
+	 * Constructor that receives a connected channel (to the committer) and the generators.
+	 * The committer needs to be instantiated with generators that were derived from the same seed.
+	 * @param channel
+	 * @param generators
+	 * @throws SecurityLevelException if the group of the generators is not DDH secure.
+	 * @throws InvalidDlogGroupException if the group of the generators is not valid.
+	 */
+	public CmtPedersenVectorReceiver(Channel channel, CmtPedersenVectorGenerators generators) throws SecurityLevelException, InvalidDlogGroupException {
+		DlogGroup dlog = generators.getDlog();
+		//The underlying dlog group must be DDH secure.
+		if (!(dlog instanceof DDH)){
+			throw new SecurityLevelException("DlogGroup should have DDH security level");
+		}
+		//Validate the params of the group.
+		if (!dlog.validateGroup()){
+			throw new InvalidDlogGroupException();
+		}
+		this.channel = channel;
+		this.dlog = dlog;
+		this.generators = generators;
+		commitmentMap = new CmtLongKeyStateStore<CmtPedersenCommitmentMessage>();
+	}
+	
+	/**
+	 * Waits for the committer to send the commitment and saves it in the commitmentMap using the id also received in the message.<p>
+	 * "WAIT for c from C<p>
+	 *  STORE c".
+	 */
+	public CmtRCommitPhaseOutput receiveCommitment() throws ClassNotFoundException, IOException {
+		Serializable message = receive("commitment");
+		if (!(message instanceof CmtPedersenCommitmentMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtPedersenCommitmentMessage");
+		}
+		CmtPedersenCommitmentMessage msg = (CmtPedersenCommitmentMessage) message;
+		commitmentMap.put(msg.getId(), msg);
+		return new CmtRBasicCommitPhaseOutput(msg.getId());
+	}
+	
+	/**
+	 * Waits for the committer to send the decommitment of the given id and verifies it using 
+	 * {@link #verifyDecommitment(CmtCCommitmentMsg, CmtCDecommitmentMessage)}.
+	 * @return the committed vector if the decommit succeeded; null, otherwise.
+	 */
+	public CmtCommitValue receiveDecommitment(long id) throws ClassNotFoundException, IOException {
+		Serializable message = receive("decommitment");
+		if (!(message instanceof CmtPedersenVectorDecommitmentMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtPedersenVectorDecommitmentMessage");
+		}
+		CmtCommitValue value = verifyDecommitment(commitmentMap.get(id), (CmtPedersenVectorDecommitmentMessage) message);
+		commitmentMap.markDecommitted(id);
+		return value;
+	}
+	
+	/**
+	 * Waits for the committer to send a batch of commitments and saves each of them in the commitmentMap, 
+	 * as {@link #receiveCommitment()} does for a single commitment.
+	 */
+	public CmtRCommitPhaseOutput[] receiveCommitmentBatch() throws ClassNotFoundException, IOException {
+		Serializable message = receive("commitment");
+		if (!(message instanceof CmtPedersenCommitmentBatchMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtPedersenCommitmentBatchMessage");
+		}
+		CmtPedersenCommitmentBatchMessage msg = (CmtPedersenCommitmentBatchMessage) message;
+		CmtRCommitPhaseOutput[] outputs = new CmtRCommitPhaseOutput[msg.size()];
+		for (int i = 0; i < outputs.length; i++){
+			commitmentMap.put(msg.getId(i), msg.getCommitmentMsg(i));
+			outputs[i] = new CmtRBasicCommitPhaseOutput(msg.getId(i));
+		}
+		return outputs;
+	}
+	
+	/**
+	 * Waits for the committer to send a batch of decommitments and verifies each of them using 
+	 * {@link #verifyDecommitment(CmtCCommitmentMsg, CmtCDecommitmentMessage)}.
+	 * @throws CheatAttemptException if the received decommitments do not belong to the given ids.
+	 */
+	public CmtCommitValue[] receiveDecommitmentBatch(long[] ids) throws ClassNotFoundException, IOException, CheatAttemptException {
+		Serializable message = receive("decommitment");
+		if (!(message instanceof CmtPedersenVectorDecommitmentBatchMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtPedersenVectorDecommitmentBatchMessage");
+		}
+		CmtPedersenVectorDecommitmentBatchMessage msg = (CmtPedersenVectorDecommitmentBatchMessage) message;
+		if (msg.size() != ids.length){
+			throw new CheatAttemptException("The number of decommitments is not the number of requested ids");
+		}
+		CmtCommitValue[] values = new CmtCommitValue[ids.length];
+		for (int i = 0; i < ids.length; i++){
+			if (msg.getId(i) != ids[i]){
+				throw new CheatAttemptException("The decommitment does not belong to the requested id " + ids[i]);
+			}
+			values[i] = verifyDecommitment(commitmentMap.get(ids[i]), msg.getDecommitmentMsg(i));
+			commitmentMap.markDecommitted(ids[i]);
+		}
+		return values;
+	}
+	
+	private Serializable receive(String name) throws ClassNotFoundException, IOException {
+		try {
+			return channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive " + name + ". The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive " + name + ". The error is: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Runs the decommitment phase of the protocol:<p>
+	 * "IF  c = h^r * g_1^x_1 * ... * g_n^x_n AND each x_i <- Zq<p>
+	 *	    OUTPUT ACC and value (x_1,...,x_n)<p>
+	 *	ELSE<p>
+	 *	    OUTPUT REJ".
+	 * The committer pads the vectors to length n, so a decommitment of a vector of another length is rejected. 
+	 * Otherwise, a commitment to (x_1,...,x_m,0,...,0) could be opened to vectors of different lengths.
+	 * @return the committed vector if the decommitment is valid; null, otherwise.
+	 */
+	public CmtCommitValue verifyDecommitment(CmtCCommitmentMsg commitmentMsg, CmtCDecommitmentMessage decommitmentMsg) {
+		if (!(commitmentMsg instanceof CmtPedersenCommitmentMessage)){
+			throw new IllegalArgumentException("The commitment message should be an instance of CmtPedersenCommitmentMessage");
+		}
+		if (!(decommitmentMsg instanceof CmtPedersenVectorDecommitmentMessage)){
+			throw new IllegalArgumentException("The decommitment message should be an instance of CmtPedersenVectorDecommitmentMessage");
+		}
+		BigInteger[] x = ((CmtPedersenVectorDecommitmentMessage) decommitmentMsg).getX();
+		BigInteger r = ((CmtPedersenVectorDecommitmentMessage) decommitmentMsg).getR().getR();
+		
+		//If the vector is not of length n or one of its values is not in Zq return null.
+		if (x.length != generators.getN()){
+			return null;
+		}
+		BigInteger q = dlog.getOrder();
+		for (int i = 0; i < x.length; i++){
+			if (x[i].signum() < 0 || x[i].compareTo(q) >= 0){
+				return null;
+			}
+		}
+		
+		GroupElement commitmentElement = dlog.reconstructElement(true, ((CmtPedersenCommitmentMessage) commitmentMsg).getCommitment());
+		if (commitmentElement.equals(generators.commit(x, r))){
+			return new CmtBigIntegerVectorCommitValue(x);
+		}
+		//Null is returned as a mode of reject.
+		return null;
+	}
+	
+	/**
+	 * Computes the commitment to the sum of the vectors of two received commitments.<p>
+	 * The new commitment is c1*c2 and it is kept with the given id. 
+	 * The committer computes the same commitment using {@link CmtPedersenVectorCommitter#addCommitments(long, long, long)}, 
+	 * and can then decommit it as any other commitment.
+	 * @param id1 the id of the first commitment.
+	 * @param id2 the id of the second commitment.
+	 * @param resultId the id of the new commitment.
+	 * @throws IllegalArgumentException if one of the ids has no commitment.
+	 */
+	public void addCommitments(long id1, long id2, long resultId){
+		CmtPedersenCommitmentMessage first = commitmentMap.get(id1);
+		CmtPedersenCommitmentMessage second = commitmentMap.get(id2);
+		if (first == null || second == null){
+			throw new IllegalArgumentException("There is no commitment with the given id");
+		}
+		GroupElement c = dlog.multiplyGroupElements(dlog.reconstructElement(true, first.getCommitment()), dlog.reconstructElement(true, second.getCommitment()));
+		commitmentMap.put(resultId, new CmtPedersenCommitmentMessage(c.generateSendableData(), resultId));
+	}
+	
+	/**
+	 * Sets the store that keeps the received commitments.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds commitments.
+	 */
+	public void setCommitmentStore(CmtStateStore<CmtPedersenCommitmentMessage> store){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were received");
+		}
+		commitmentMap = store;
+	}
+	
+	/**
+	 * Returns the generators h, g_1,...,g_n.
+	 */
+	@Override
+	public Object[] getPreProcessedValues() {
+		GroupElement[] values = new GroupElement[generators.getN() + 1];
+		values[0] = generators.getH();
+		for (int i = 0; i < generators.getN(); i++){
+			values[i + 1] = generators.getG(i);
+		}
+		return values;
+	}
+	
+	/**
+	 * Returns the received commitment of the given id.
+	 */
+	@Override
+	public GroupElement getCommitmentPhaseValues(long id) {
+		return dlog.reconstructElement(true, commitmentMap.get(id).getCommitment());
+	}
+	
+	/**
+	 * This function converts the given commit value to a byte array. 
+	 * @param value should be an instance of CmtBigIntegerVectorCommitValue.
+	 * @return the generated bytes.
+	 */
+	public byte[] generateBytesFromCommitValue(CmtCommitValue value) {
+		if (!(value instanceof CmtBigIntegerVectorCommitValue)){
+			throw new IllegalArgumentException("The given value must be of type CmtBigIntegerVectorCommitValue");
+		}
+		return ((CmtBigIntegerVectorCommitValue) value).toByteArray();
+	}
+}
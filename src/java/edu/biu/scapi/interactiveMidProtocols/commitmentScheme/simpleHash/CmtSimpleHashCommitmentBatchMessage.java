@@ -0,0 +1,78 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.simpleHash;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentBatchMsg;
+
+/**
+ * Concrete implementation of the batch commitment message used by SimpleHash commitment scheme.<p>
+ * All the hash values have the same length, so they are kept concatenated in one byte array.
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtSimpleHashCommitmentBatchMessage implements CmtCCommitmentBatchMsg, Serializable {
+	
+	private static final long serialVersionUID = -2637461389478836921L;
+	
+	private long[] ids;		//The ids of the commitments.
+	private byte[] c;		//The concatenation of the commitments.
+	private int cSize;		//The size of each commitment.
+	
+	/**
+	 * Constructor that sets the commitments and ids.
+	 * @param ids the commitments ids.
+	 * @param c the concatenation of the commitments, each of them of size cSize.
+	 * @param cSize the size of a single commitment.
+	 */
+	public CmtSimpleHashCommitmentBatchMessage(long[] ids, byte[] c, int cSize) {
+		if (c.length != ids.length * cSize){
+			throw new IllegalArgumentException("The commitments length should be the number of ids multiplied by the commitment size");
+		}
+		this.ids = ids;
+		this.c = c;
+		this.cSize = cSize;
+	}
+
+	@Override
+	public int size() {
+		return ids.length;
+	}
+
+	@Override
+	public long getId(int i) {
+		return ids[i];
+	}
+
+	/**
+	 * Returns the i-th commitment as CmtSimpleHashCommitmentMessage.
+	 */
+	@Override
+	public CmtSimpleHashCommitmentMessage getCommitmentMsg(int i) {
+		return new CmtSimpleHashCommitmentMessage(Arrays.copyOfRange(c, i * cSize, (i + 1) * cSize), ids[i]);
+	}
+}
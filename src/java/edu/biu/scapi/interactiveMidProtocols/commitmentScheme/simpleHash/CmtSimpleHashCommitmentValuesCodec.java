@@ -0,0 +1,85 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.simpleHash;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import edu.biu.scapi.interactiveMidProtocols.ByteArrayRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtByteArrayCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateCodec;
+
+/**
+ * Converts the values of the SimpleHash commitments to bytes and back. 
+ * The random value, the committed value and the commitment are written one after the other, each one with its length.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class CmtSimpleHashCommitmentValuesCodec implements CmtStateCodec<CmtSimpleHashCommitmentValues> {
+
+	@Override
+	public byte[] encode(CmtSimpleHashCommitmentValues value) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			writeArray(out, value.getR().getR());
+			writeArray(out, ((CmtByteArrayCommitValue) value.getX()).getX());
+			writeArray(out, value.getComputedCommitment());
+			out.close();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			//Writing to a byte array does not throw IOException.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public CmtSimpleHashCommitmentValues decode(byte[] data) {
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+			byte[] r = readArray(in);
+			byte[] x = readArray(in);
+			byte[] c = readArray(in);
+			return new CmtSimpleHashCommitmentValues(new ByteArrayRandomValue(r), new CmtByteArrayCommitValue(x), c);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The given bytes are not encoded SimpleHash commitment values");
+		}
+	}
+	
+	private static void writeArray(DataOutputStream out, byte[] array) throws IOException{
+		out.writeInt(array.length);
+		out.write(array);
+	}
+	
+	private static byte[] readArray(DataInputStream in) throws IOException{
+		byte[] array = new byte[in.readInt()];
+		in.readFully(array);
+		return array;
+	}
+}
@@ -26,8 +26,6 @@ package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.simpleHash;
 
 import java.io.IOException;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.CommitValueException;
@@ -38,6 +36,9 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMe
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitmentPhaseValues;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateCodec;
 import edu.biu.scapi.primitives.hash.CryptographicHash;
 import edu.biu.scapi.primitives.hash.openSSL.OpenSSLSHA256;
 import edu.biu.scapi.securityLevel.SecureCommit;
@@ -72,7 +73,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 	private CryptographicHash hash;
 	private int n;
 	private SecureRandom random;
-	private  Map<Long, CmtSimpleHashCommitmentValues> commitmentMap;
+	private  CmtStateStore<CmtSimpleHashCommitmentValues> commitmentMap;
 
 	/**
 	 * Constructor that receives a connected channel (to the receiver) and chosses default 
@@ -98,7 +99,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 		this.hash = hash;
 		this.n = n;
 		this.random = random;
-		commitmentMap = new Hashtable<Long, CmtSimpleHashCommitmentValues>();
+		commitmentMap = new CmtLongKeyStateStore<CmtSimpleHashCommitmentValues>();
 		
 		//No pre-process in SimpleHash Commitment
 	}
@@ -123,7 +124,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 		byte[] hashValArray = computeCommitment(x, r);
 		
 		//After succeeding in sending the commitment, keep the committed value in the map together with its ID.
-		commitmentMap.put(Long.valueOf(id), new CmtSimpleHashCommitmentValues(new ByteArrayRandomValue(r), input, hashValArray));
+		commitmentMap.put(id, new CmtSimpleHashCommitmentValues(new ByteArrayRandomValue(r), input, hashValArray));
 		
 		return new CmtSimpleHashCommitmentMessage(hashValArray, id);
 	}
@@ -142,11 +143,40 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 			//Send the message by the channel.
 			channel.send(msg);
 		} catch (IOException e) {
-			commitmentMap.remove(Long.valueOf(id));
+			commitmentMap.remove(id);
 			throw new IOException("failed to send the message. The error is: " + e.getMessage());
 		}	
 	}
 
+	/**
+	 * Runs the commit phase of the commitment scheme on all the given values and sends all the commitments in one 
+	 * {@link CmtSimpleHashCommitmentBatchMessage}.
+	 * @see edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter#commitBatch(edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue[], long[])
+	 */
+	public void commitBatch(CmtCommitValue[] values, long[] ids) throws IOException {
+		if (values.length != ids.length){
+			throw new IllegalArgumentException("The number of ids should be equal to the number of values");
+		}
+		
+		//All the hash values have the same size, so they are concatenated into one array.
+		int cSize = hash.getHashedMsgSize();
+		byte[] c = new byte[values.length * cSize];
+		for (int i = 0; i < values.length; i++){
+			CmtSimpleHashCommitmentMessage msg = (CmtSimpleHashCommitmentMessage) generateCommitmentMsg(values[i], ids[i]);
+			System.arraycopy(msg.getCommitment(), 0, c, i * cSize, cSize);
+		}
+		
+		try {
+			//Send the message by the channel.
+			channel.send(new CmtSimpleHashCommitmentBatchMessage(ids, c, cSize));
+		} catch (IOException e) {
+			for (int i = 0; i < ids.length; i++){
+				commitmentMap.remove(ids[i]);
+			}
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}	
+	}
+	
 	/**
 	 * Computes the hash function on the concatination of the inputs.
 	 * @param x user input
@@ -169,7 +199,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
 		//fetch the commitment according to the requested ID
-		CmtSimpleHashCommitmentValues vals = commitmentMap.get(Long.valueOf(id));
+		CmtSimpleHashCommitmentValues vals = commitmentMap.get(id);
 		byte[] x = ((CmtByteArrayCommitValue)vals.getX()).getX();
 		return new CmtSimpleHashDecommitmentMessage(vals.getR(), x);
 		
@@ -185,6 +215,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 		CmtCDecommitmentMessage msg = generateDecommitmentMsg(id);
 		try{
 			channel.send(msg);
+			commitmentMap.markDecommitted(id);
 		}
 		catch (IOException e) {
 			throw new IOException("failed to send the message. The error is: " + e.getMessage());
@@ -192,6 +223,31 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 	
 	}	
 
+	/**
+	 * Runs the decommit phase of the commitment scheme on all the given ids and sends all the decommitments in one
+	 * {@link CmtSimpleHashDecommitmentBatchMessage}.
+	 */
+	public void decommitBatch(long[] ids) throws IOException {
+		
+		byte[][] r = new byte[ids.length][];
+		byte[][] x = new byte[ids.length][];
+		for (int i = 0; i < ids.length; i++){
+			CmtSimpleHashDecommitmentMessage msg = (CmtSimpleHashDecommitmentMessage) generateDecommitmentMsg(ids[i]);
+			r[i] = msg.getR().getR();
+			x[i] = msg.getX();
+		}
+		
+		try{
+			channel.send(new CmtSimpleHashDecommitmentBatchMessage(ids, r, x));
+			for (int i=0; i<ids.length; i++){
+				commitmentMap.markDecommitted(ids[i]);
+			}
+		}
+		catch (IOException e) {
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * This function samples random commit value and returns it.
 	 * @return the sampled commit value
@@ -216,6 +272,26 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 		return null;
 	}
 
+	/**
+	 * Sets the store that keeps the values of the commitments.<p>
+	 * The default store keeps all the values in memory and never evicts them. See {@link CmtStateStore} for stores that bound the memory.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds values.
+	 */
+	public void setCommitmentStore(CmtStateStore<CmtSimpleHashCommitmentValues> store){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were made");
+		}
+		commitmentMap = store;
+	}
+	
+	/**
+	 * @return a codec that converts the values of the commitments to bytes and back.
+	 */
+	public CmtStateCodec<CmtSimpleHashCommitmentValues> getStateCodec(){
+		return new CmtSimpleHashCommitmentValuesCodec();
+	}
+	
 	@Override
 	public CmtCommitmentPhaseValues getCommitmentPhaseValues(long id) {
 		return commitmentMap.get(id);
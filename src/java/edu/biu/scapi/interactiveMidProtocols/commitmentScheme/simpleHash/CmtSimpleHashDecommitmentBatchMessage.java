@@ -0,0 +1,77 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.simpleHash;
+
+import java.io.Serializable;
+
+import edu.biu.scapi.interactiveMidProtocols.ByteArrayRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentBatchMessage;
+
+/**
+ * Concrete implementation of the batch decommitment message used by SimpleHash commitment scheme.
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtSimpleHashDecommitmentBatchMessage implements CmtCDecommitmentBatchMessage, Serializable {
+	
+	private static final long serialVersionUID = 6120436717934751502L;
+	
+	private long[] ids;		//The ids of the decommitted commitments.
+	private byte[][] r;		//The random values sampled during the commitment stage.
+	private byte[][] x;		//The committed values.
+	
+	/**
+	 * Constructor that sets the ids, random values and committed values of the decommitments.
+	 * @param ids the ids of the decommitted commitments.
+	 * @param r the random values used for commit.
+	 * @param x the committed values.
+	 */
+	public CmtSimpleHashDecommitmentBatchMessage(long[] ids, byte[][] r, byte[][] x) {
+		if (r.length != ids.length || x.length != ids.length){
+			throw new IllegalArgumentException("There should be one random value and one committed value for every id");
+		}
+		this.ids = ids;
+		this.r = r;
+		this.x = x;
+	}
+
+	@Override
+	public int size() {
+		return ids.length;
+	}
+
+	@Override
+	public long getId(int i) {
+		return ids[i];
+	}
+
+	/**
+	 * Returns the i-th decommitment as CmtSimpleHashDecommitmentMessage.
+	 */
+	@Override
+	public CmtSimpleHashDecommitmentMessage getDecommitmentMsg(int i) {
+		return new CmtSimpleHashDecommitmentMessage(new ByteArrayRandomValue(r[i]), x[i]);
+	}
+}
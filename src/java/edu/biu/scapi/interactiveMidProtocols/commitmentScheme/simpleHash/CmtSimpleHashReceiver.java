@@ -27,10 +27,9 @@ package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.simpleHash;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
-import java.util.Hashtable;
-import java.util.Map;
 
 import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRBasicCommitPhaseOutput;
@@ -38,6 +37,8 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtByteArrayCommit
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtReceiver;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
 import edu.biu.scapi.primitives.hash.CryptographicHash;
 import edu.biu.scapi.primitives.hash.openSSL.OpenSSLSHA256;
 import edu.biu.scapi.securityLevel.SecureCommit;
@@ -71,7 +72,7 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 	 *		      OUTPUT ACC and value x"	 
 	 */
 	
-	private Map<Long , CmtSimpleHashCommitmentMessage> commitmentMap;
+	private CmtStateStore<CmtSimpleHashCommitmentMessage> commitmentMap;
 	private Channel channel;	
 	private CryptographicHash hash;
 	private int n; //security parameter.
@@ -99,7 +100,7 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 		this.channel = channel;
 		this.hash = hash;
 		this.n = n;
-		commitmentMap = new Hashtable<Long, CmtSimpleHashCommitmentMessage>();
+		commitmentMap = new CmtLongKeyStateStore<CmtSimpleHashCommitmentMessage>();
 		
 		//No pre-process in SimpleHash Commitment
 	}
@@ -123,7 +124,7 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 		}
 		
 		CmtSimpleHashCommitmentMessage msg = (CmtSimpleHashCommitmentMessage) message;
-		commitmentMap.put(Long.valueOf(msg.getId()), msg);
+		commitmentMap.put(msg.getId(), msg);
 		return new CmtRBasicCommitPhaseOutput(msg.getId());
 	}
 
@@ -154,12 +155,78 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 		}
 		
 		//Fetch received commitment according to ID
-		CmtSimpleHashCommitmentMessage receivedCommitment = commitmentMap.get(Long.valueOf(id));
+		CmtSimpleHashCommitmentMessage receivedCommitment = commitmentMap.get(id);
 				
-		return verifyDecommitment(receivedCommitment, (CmtCDecommitmentMessage)message);
+		CmtCommitValue value = verifyDecommitment(receivedCommitment, (CmtCDecommitmentMessage)message);
+		commitmentMap.markDecommitted(id);
+		return value;
 		
 	}
 	
+	/**
+	 * Runs the commit phase of the protocol on a batch of commitments:
+	 * "WAIT for values c_1,...,c_m
+	 *	STORE c_1,...,c_m".
+	 */
+	public CmtRCommitPhaseOutput[] receiveCommitmentBatch() throws ClassNotFoundException, IOException {
+		Serializable message = null;
+		try{
+			message = channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive commitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive commitment. The error is: " + e.getMessage());
+		}
+		if (!(message instanceof CmtSimpleHashCommitmentBatchMessage)){
+			throw new IllegalArgumentException("the received message is not an instance of CmtSimpleHashCommitmentBatchMessage");
+		}
+		
+		CmtSimpleHashCommitmentBatchMessage msg = (CmtSimpleHashCommitmentBatchMessage) message;
+		CmtRCommitPhaseOutput[] outputs = new CmtRCommitPhaseOutput[msg.size()];
+		for (int i = 0; i < outputs.length; i++){
+			commitmentMap.put(msg.getId(i), msg.getCommitmentMsg(i));
+			outputs[i] = new CmtRBasicCommitPhaseOutput(msg.getId(i));
+		}
+		return outputs;
+	}
+
+	/**
+	 * Runs the decommit phase of the protocol on a batch of decommitments. 
+	 * Each decommitment is verified as in {@link #receiveDecommitment(long)}.
+	 * @throws CheatAttemptException if the received decommitments do not belong to the given ids.
+	 */
+	public CmtCommitValue[] receiveDecommitmentBatch(long[] ids) throws ClassNotFoundException, IOException, CheatAttemptException {
+		//Receive the message from the committer.
+		Serializable message = null;
+		try {
+			message = channel.receive();
+
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive decommitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive decommitment. The error is: " + e.getMessage());
+		}
+		
+		if (!(message instanceof CmtSimpleHashDecommitmentBatchMessage)){
+			throw new IllegalArgumentException("the received message is not an instance of CmtSimpleHashDecommitmentBatchMessage");
+		}
+		CmtSimpleHashDecommitmentBatchMessage msg = (CmtSimpleHashDecommitmentBatchMessage) message;
+		if (msg.size() != ids.length){
+			throw new CheatAttemptException("the number of decommitments is not the number of requested ids");
+		}
+		
+		CmtCommitValue[] values = new CmtCommitValue[ids.length];
+		for (int i = 0; i < ids.length; i++){
+			if (msg.getId(i) != ids[i]){
+				throw new CheatAttemptException("the decommitment does not belong to the requested id " + ids[i]);
+			}
+			//Fetch received commitment according to ID
+			values[i] = verifyDecommitment(commitmentMap.get(ids[i]), msg.getDecommitmentMsg(i));
+			commitmentMap.markDecommitted(ids[i]);
+		}
+		return values;
+	}
+	
 	public CmtCommitValue verifyDecommitment(CmtCCommitmentMsg commitmentMsg, CmtCDecommitmentMessage decommitmentMsg){
 		if (!(decommitmentMsg instanceof CmtSimpleHashDecommitmentMessage)){
 			throw new IllegalArgumentException("the received message is not an instance of CmtSimpleHashDecommitmentMessage");
@@ -197,6 +264,19 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 		return null;
 	}
 
+	/**
+	 * Sets the store that keeps the received commitments.<p>
+	 * The default store keeps all the commitments in memory and never evicts them. See {@link CmtStateStore} for stores that bound the memory.
+	 * @param store the new store.
+	 * @throws IllegalStateException if the current store already holds commitments.
+	 */
+	public void setCommitmentStore(CmtStateStore<CmtSimpleHashCommitmentMessage> store){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The store can not be replaced after commitments were received");
+		}
+		commitmentMap = store;
+	}
+	
 	@Override
 	public Object getCommitmentPhaseValues(long id) {
 		return commitmentMap.get(id);
@@ -59,6 +59,17 @@ public class StatisticalHashCTCommitter implements CmtCommitter {
 
 	}
 
+	@Override
+	public void commitBatch(CmtCommitValue[] values, long[] ids) throws IOException {
+		throw new UnsupportedOperationException("The statistical hash commitment is not implemented yet, so it does not support batches");
+	}
+
+	@Override
+	public void decommitBatch(long[] ids) throws IOException, CheatAttemptException,
+			ClassNotFoundException, CommitValueException {
+		throw new UnsupportedOperationException("The statistical hash commitment is not implemented yet, so it does not support batches");
+	}
+
 	/* (non-Javadoc)
 	 * @see edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CTCommitter#generateCommitValue(byte[])
 	 */
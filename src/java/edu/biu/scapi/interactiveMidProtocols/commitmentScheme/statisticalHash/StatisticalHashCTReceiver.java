@@ -56,6 +56,16 @@ public class StatisticalHashCTReceiver implements CmtReceiver {
 		return null;
 	}
 
+	@Override
+	public CmtRCommitPhaseOutput[] receiveCommitmentBatch() throws ClassNotFoundException, IOException {
+		throw new UnsupportedOperationException("The statistical hash commitment is not implemented yet, so it does not support batches");
+	}
+
+	@Override
+	public CmtCommitValue[] receiveDecommitmentBatch(long[] ids) throws ClassNotFoundException, IOException, CommitValueException, CheatAttemptException {
+		throw new UnsupportedOperationException("The statistical hash commitment is not implemented yet, so it does not support batches");
+	}
+
 	/* (non-Javadoc)
 	 * @see edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CTReceiver#getPreProcessedValues()
 	 */
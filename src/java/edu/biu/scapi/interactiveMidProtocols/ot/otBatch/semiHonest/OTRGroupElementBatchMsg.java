@@ -25,14 +25,13 @@
 package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 
-import edu.biu.scapi.interactiveMidProtocols.ot.OTRGroupElementPairMsg;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
 
 /**
  * Concrete implementation of OT receiver message used by batch OT receivers implementations. <p>
  * This implementation is common for OT on byteArray and on GroupElement.
- * The message contains tuples of two GroupElements.
+ * The message contains two arrays of GroupElements - the i-th pair is (h0[i], h1[i]).
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
@@ -41,21 +40,30 @@ import edu.biu.scapi.interactiveMidProtocols.ot.OTRGroupElementPairMsg;
 
 	private static final long serialVersionUID = 8741959627688845620L;
 
-	private ArrayList<OTRGroupElementPairMsg> tuples;
+	private GroupElementSendableData[] h0Arr;
+	private GroupElementSendableData[] h1Arr;
 	
 	/**
-	 * Sets the array contains messages of the underlying OT.
-	 * @param tuples contains messages of the underlying OT.
+	 * Sets the h0 and h1 values of all the OTs.
+	 * @param h0Arr contains h0 of every OT.
+	 * @param h1Arr contains h1 of every OT.
 	 */
-	OTRGroupElementBatchMsg(ArrayList<OTRGroupElementPairMsg> tuples){
-		this.tuples = tuples;
+	OTRGroupElementBatchMsg(GroupElementSendableData[] h0Arr, GroupElementSendableData[] h1Arr){
+		this.h0Arr = h0Arr;
+		this.h1Arr = h1Arr;
 	}
 	
 	/**
-	 * Returns the messages array of underlying OT.
-	 * @return the messages array of underlying OT.
+	 * Returns the h0 values of all the OTs.
 	 */
-	ArrayList<OTRGroupElementPairMsg> getTuples(){
-		return tuples;
+	GroupElementSendableData[] getH0Arr(){
+		return h0Arr;
+	}
+	
+	/**
+	 * Returns the h1 values of all the OTs.
+	 */
+	GroupElementSendableData[] getH1Arr(){
+		return h1Arr;
 	}
 }
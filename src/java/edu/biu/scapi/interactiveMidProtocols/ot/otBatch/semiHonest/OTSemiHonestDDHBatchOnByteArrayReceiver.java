@@ -27,11 +27,11 @@ package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest;
 import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.exceptions.FactoriesException;
 import edu.biu.scapi.exceptions.SecurityLevelException;
 import edu.biu.scapi.interactiveMidProtocols.ot.OTSMsg;
-import edu.biu.scapi.interactiveMidProtocols.ot.semiHonest.OTSemiHonestDDHOnByteArraySenderMsg;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnByteArrayROutput;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchROutput;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
@@ -77,6 +77,20 @@ public class OTSemiHonestDDHBatchOnByteArrayReceiver extends OTSemiHonestDDHBatc
 		super(dlog, random);
 		this.kdf = kdf;
 	}
+	
+	/**
+	 * Constructor that sets the given dlogGroup, kdf, random and executor.
+	 * @param dlog must be DDH secure. Should support concurrent use if the executor is not null.
+	 * @param kdf
+	 * @param random
+	 * @param executor used to compute the exponentiations of the batch in parallel. If null, the batch is computed by the calling thread.
+	 * @throws SecurityLevelException if the given DlogGroup is not DDH secure.
+	 */
+	public OTSemiHonestDDHBatchOnByteArrayReceiver(DlogGroup dlog, KeyDerivationFunction kdf, SecureRandom random, ExecutorService executor) throws SecurityLevelException{
+		
+		super(dlog, random, executor);
+		this.kdf = kdf;
+	}
 
 	/**
 	 * Runs the following lines from the protocol:
@@ -87,7 +101,7 @@ public class OTSemiHonestDDHBatchOnByteArrayReceiver extends OTSemiHonestDDHBatc
 	 * @param message received from the sender. must be OTSemiHonestDDHBatchOnByteArraySenderMsg.
 	 * @return OTROutput contains xSigma
 	 */
-	protected OTBatchROutput computeFinalXSigma(ArrayList<Byte> sigmaArr, ArrayList<BigInteger> alphaArr, OTSMsg message) {
+	protected OTBatchROutput computeFinalXSigma(ArrayList<Byte> sigmaArr, BigInteger[] alphaArr, OTSMsg message) {
 		//If message is not instance of OTSOnByteArraySemiHonestMessage, throw Exception.
 		if(!(message instanceof OTSemiHonestDDHBatchOnByteArraySenderMsg)){
 			throw new IllegalArgumentException("message should be instance of OTSemiHonestDDHBatchOnByteArraySenderMsg");
@@ -95,23 +109,32 @@ public class OTSemiHonestDDHBatchOnByteArrayReceiver extends OTSemiHonestDDHBatc
 		
 		OTSemiHonestDDHBatchOnByteArraySenderMsg msg = (OTSemiHonestDDHBatchOnByteArraySenderMsg)message;
 		int size = sigmaArr.size();
+		byte[][] v0Arr = msg.getV0Arr();
+		byte[][] v1Arr = msg.getV1Arr();
+		if (v0Arr.length != size || v1Arr.length != size){
+			throw new IllegalArgumentException("The received message should contain a pair for every OT");
+		}
+		
+		//Compute kISigma = u^alphaI for all the OTs.
+		GroupElement u = dlog.reconstructElement(true, msg.getU());
+		GroupElement[] uArr = new GroupElement[size];
+		for (int i=0; i<size; i++){
+			uArr[i] = u;
+		}
+		GroupElement[] kSigmaArr = parallelDlog.exponentiate(uArr, alphaArr);
+		
 		ArrayList<byte[]> xSigmaArr = new ArrayList<byte[]> ();
-		GroupElement u, kSigma;
 		byte[] vSigma, xSigma;
 
 		for (int i=0; i<size; i++){
 			
-			OTSemiHonestDDHOnByteArraySenderMsg tuple = msg.getTuples().get(i);
-			//Compute kSigma:
-			u = dlog.reconstructElement(true, tuple.getU());
-			kSigma = dlog.exponentiate(u, alphaArr.get(i));
-			byte[] kBytes = dlog.mapAnyGroupElementToByteArray(kSigma);
+			byte[] kBytes = dlog.mapAnyGroupElementToByteArray(kSigmaArr[i]);
 			
 			//Get v0 or v1 according to sigma.
 			if (sigmaArr.get(i) == 0){
-				vSigma = tuple.getV0();
+				vSigma = v0Arr[i];
 			} else {
-				vSigma = tuple.getV1();
+				vSigma = v1Arr[i];
 			}
 			
 			//Compute kdf result:
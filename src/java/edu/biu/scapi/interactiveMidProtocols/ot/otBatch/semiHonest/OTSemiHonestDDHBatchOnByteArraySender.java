@@ -26,11 +26,11 @@ package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.exceptions.FactoriesException;
 import edu.biu.scapi.exceptions.SecurityLevelException;
 import edu.biu.scapi.interactiveMidProtocols.ot.OTSMsg;
-import edu.biu.scapi.interactiveMidProtocols.ot.semiHonest.OTSemiHonestDDHOnByteArraySenderMsg;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnByteArraySInput;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSInput;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
@@ -75,6 +75,19 @@ public class OTSemiHonestDDHBatchOnByteArraySender extends OTSemiHonestDDHBatchS
 		super(dlog, random);
 		this.kdf = kdf;
 	}
+	
+	/**
+	 * Constructor that sets the given dlogGroup, kdf, random and executor.
+	 * @param dlog must be DDH secure. Should support concurrent use if the executor is not null.
+	 * @param kdf
+	 * @param random
+	 * @param executor used to compute the exponentiations of the batch in parallel. If null, the batch is computed by the calling thread.
+	 * @throws SecurityLevelException if the given DlogGroup is not DDH secure.
+	 */
+	public OTSemiHonestDDHBatchOnByteArraySender(DlogGroup dlog, KeyDerivationFunction kdf, SecureRandom random, ExecutorService executor) throws SecurityLevelException{
+		super(dlog, random, executor);
+		this.kdf = kdf;
+	}
 
 	/**
 	 * Runs the following lines from the protocol:
@@ -87,7 +100,7 @@ public class OTSemiHonestDDHBatchOnByteArraySender extends OTSemiHonestDDHBatchS
 	 * @param u 
 	 * @return tuple contains (u, vi0, vi1) to send to the receiver.
 	 */
-	protected OTSMsg computeMsg(OTBatchSInput input, GroupElement u, ArrayList<GroupElement> k0Array, ArrayList<GroupElement> k1Array) {
+	protected OTSMsg computeMsg(OTBatchSInput input, GroupElement u, GroupElement[] k0Array, GroupElement[] k1Array) {
 		//If input is not instance of OTSBatchOnByteArrayInput, throw Exception.
 		if (!(input instanceof OTBatchOnByteArraySInput)){
 			throw new IllegalArgumentException("input should be an instance of OTSBatchOnByteArrayInput");
@@ -96,8 +109,12 @@ public class OTSemiHonestDDHBatchOnByteArraySender extends OTSemiHonestDDHBatchS
 		ArrayList<byte[]> x0Arr = ((OTBatchOnByteArraySInput) input).getX0Arr();
 		ArrayList<byte[]> x1Arr = ((OTBatchOnByteArraySInput) input).getX1Arr();
 		int size = x0Arr.size();
+		if (size != k0Array.length){
+			throw new IllegalArgumentException("The number of inputs should be equal to the number of the receiver's tuples");
+		}
 		
-		ArrayList<OTSemiHonestDDHOnByteArraySenderMsg> tuples = new ArrayList<OTSemiHonestDDHOnByteArraySenderMsg>();
+		byte[][] v0Arr = new byte[size][];
+		byte[][] v1Arr = new byte[size][];
 		
 		for (int i=0; i<size; i++){
 			//If x0, x1 are not of the same length, throw Exception.
@@ -108,7 +125,7 @@ public class OTSemiHonestDDHBatchOnByteArraySender extends OTSemiHonestDDHBatchS
 			
 			//Calculate v0:
 			//Get k0 bytes.
-			byte[] k0Bytes = dlog.mapAnyGroupElementToByteArray(k0Array.get(i));
+			byte[] k0Bytes = dlog.mapAnyGroupElementToByteArray(k0Array[i]);
 			//Calculate KDF(|x0|,k0).
 			byte[] v0 = kdf.deriveKey(k0Bytes, 0, k0Bytes.length, len).getEncoded();
 			
@@ -119,7 +136,7 @@ public class OTSemiHonestDDHBatchOnByteArraySender extends OTSemiHonestDDHBatchS
 			
 			//Calculate v1:
 			//Get k1 bytes.
-			byte[] k1Bytes = dlog.mapAnyGroupElementToByteArray(k1Array.get(i));
+			byte[] k1Bytes = dlog.mapAnyGroupElementToByteArray(k1Array[i]);
 			//Calculate KDF(|x1|,k1).
 			byte[] v1 = kdf.deriveKey(k1Bytes, 0, k1Bytes.length, len).getEncoded();
 			
@@ -128,10 +145,11 @@ public class OTSemiHonestDDHBatchOnByteArraySender extends OTSemiHonestDDHBatchS
 				v1[j] = (byte) (v1[j] ^ x1Arr.get(i)[j]);
 			}
 			
-			tuples.add(i, new OTSemiHonestDDHOnByteArraySenderMsg(u.generateSendableData(), v0, v1));
+			v0Arr[i] = v0;
+			v1Arr[i] = v1;
 		}
-		//Return sender message.
-		return new OTSemiHonestDDHBatchOnByteArraySenderMsg(tuples);
+		//Return sender message. u is the same for all the OTs so it is sent once.
+		return new OTSemiHonestDDHBatchOnByteArraySenderMsg(u.generateSendableData(), v0Arr, v1Arr);
 	}
 
 
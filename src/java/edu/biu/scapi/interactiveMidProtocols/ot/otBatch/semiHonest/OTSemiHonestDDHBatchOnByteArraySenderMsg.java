@@ -24,14 +24,13 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest;
 
-import java.util.ArrayList;
-
 import edu.biu.scapi.interactiveMidProtocols.ot.OTSMsg;
-import edu.biu.scapi.interactiveMidProtocols.ot.semiHonest.OTSemiHonestDDHOnByteArraySenderMsg;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
 
 /**
  * Concrete implementation of batch OT sender (on byteArray) message.<p>
- * In the byteArray scenario the sender sends tuples contain GroupElement u and two binary strings v0, v1.
+ * In the byteArray scenario the sender sends GroupElement u and two binary strings vi0, vi1 for every OT.<p>
+ * u is the same for all the OTs so it is sent once.
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
@@ -39,22 +38,32 @@ import edu.biu.scapi.interactiveMidProtocols.ot.semiHonest.OTSemiHonestDDHOnByte
 class OTSemiHonestDDHBatchOnByteArraySenderMsg implements OTSMsg{
 	
 	private static final long serialVersionUID = -3200911064233246599L;
-	private ArrayList<OTSemiHonestDDHOnByteArraySenderMsg> tuples;
+	private GroupElementSendableData u;
+	private byte[][] v0Arr;
+	private byte[][] v1Arr;
 	
 	/**
-	 * Sets the array contains messages of the underlying OT.
-	 * @param tuples contains messages of the underlying OT.
+	 * Sets the values of all the OTs.
+	 * @param u
+	 * @param v0Arr contains v0 of every OT.
+	 * @param v1Arr contains v1 of every OT.
 	 */
-	public OTSemiHonestDDHBatchOnByteArraySenderMsg(ArrayList<OTSemiHonestDDHOnByteArraySenderMsg> tuples){
-		this.tuples = tuples;
+	public OTSemiHonestDDHBatchOnByteArraySenderMsg(GroupElementSendableData u, byte[][] v0Arr, byte[][] v1Arr){
+		this.u = u;
+		this.v0Arr = v0Arr;
+		this.v1Arr = v1Arr;
 	}
 	
-	/**
-	 * Returns the array contains messages of the underlying OT.
-	 * @return array contains messages of the underlying OT.
-	 */
-	public ArrayList<OTSemiHonestDDHOnByteArraySenderMsg> getTuples(){
-		return tuples;
+	public GroupElementSendableData getU(){
+		return u;
+	}
+	
+	public byte[][] getV0Arr(){
+		return v0Arr;
+	}
+	
+	public byte[][] getV1Arr(){
+		return v1Arr;
 	}
 
 }
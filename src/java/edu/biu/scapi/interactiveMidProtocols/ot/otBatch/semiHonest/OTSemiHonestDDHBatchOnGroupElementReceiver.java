@@ -27,14 +27,16 @@ package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest;
 import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.exceptions.SecurityLevelException;
 import edu.biu.scapi.interactiveMidProtocols.ot.OTSMsg;
-import edu.biu.scapi.interactiveMidProtocols.ot.semiHonest.OTSemiHonestDDHOnGroupElementSenderMsg;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnGroupElementROutput;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchROutput;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
 import edu.biu.scapi.securityLevel.SemiHonest;
 
 /**
@@ -66,6 +68,18 @@ public class OTSemiHonestDDHBatchOnGroupElementReceiver extends OTSemiHonestDDHB
 		
 		super(dlog, random);
 	}
+	
+	/**
+	 * Constructor that sets the given dlogGroup, random and executor.
+	 * @param dlog must be DDH secure. Should support concurrent use if the executor is not null.
+	 * @param random
+	 * @param executor used to compute the exponentiations of the batch in parallel. If null, the batch is computed by the calling thread.
+	 * @throws SecurityLevelException if the given DlogGroup is not DDH secure.
+	 */
+	public OTSemiHonestDDHBatchOnGroupElementReceiver(DlogGroup dlog, SecureRandom random, ExecutorService executor) throws SecurityLevelException{
+		
+		super(dlog, random, executor);
+	}
 
 	/**
 	 * Runs the following lines from the protocol:
@@ -76,7 +90,7 @@ public class OTSemiHonestDDHBatchOnGroupElementReceiver extends OTSemiHonestDDHB
 	 * @param message received from the sender. must be OTSemiHonestDDHBatchOnGroupElementSenderMsg
 	 * @return OTROutput contains xSigma
 	 */
-	protected OTBatchROutput computeFinalXSigma(ArrayList<Byte> sigmaArr, ArrayList<BigInteger> alphaArr, OTSMsg message) {
+	protected OTBatchROutput computeFinalXSigma(ArrayList<Byte> sigmaArr, BigInteger[] alphaArr, OTSMsg message) {
 		//If message is not instance of OTSemiHonestDDHBatchOnGroupElementSenderMsg, throw Exception.
 		if(!(message instanceof OTSemiHonestDDHBatchOnGroupElementSenderMsg)){
 			throw new IllegalArgumentException("message should be instance of OTSemiHonestDDHBatchOnGroupElementSenderMsg");
@@ -84,34 +98,35 @@ public class OTSemiHonestDDHBatchOnGroupElementReceiver extends OTSemiHonestDDHB
 		
 		OTSemiHonestDDHBatchOnGroupElementSenderMsg msg = (OTSemiHonestDDHBatchOnGroupElementSenderMsg)message;
 		int size = sigmaArr.size();
-		ArrayList<GroupElement> xSigmaArr = new ArrayList<GroupElement>();
-		GroupElement u, kSigma, vSigma;
-		BigInteger beta;
-
+		if (msg.getV0Arr().length != size || msg.getV1Arr().length != size){
+			throw new IllegalArgumentException("The received message should contain a pair for every OT");
+		}
+		
+		GroupElement u = dlog.reconstructElement(true, msg.getU());	//Get u
+		GroupElement[] uArr = new GroupElement[size];
+		BigInteger[] betaArr = new BigInteger[size];
+		GroupElementSendableData[] vSigmaData = new GroupElementSendableData[size];
 		for (int i=0; i<size; i++){
-			
-			OTSemiHonestDDHOnGroupElementSenderMsg tuple = msg.getTuples().get(i);
-			//Compute (kSigma)^(-1) = u^(-alpha):
-			u = dlog.reconstructElement(true, tuple.getU());	//Get u
-			beta = dlog.getOrder().subtract(alphaArr.get(i));	//Get -alpha
-			kSigma = dlog.exponentiate(u, beta);
-			
+			uArr[i] = u;
+			betaArr[i] = dlog.getOrder().subtract(alphaArr[i]);	//Get -alpha
 			
 			//Get v0 or v1 according to sigma.
-			vSigma = null;
 			if (sigmaArr.get(i) == 0){
-				vSigma = dlog.reconstructElement(true, tuple.getV0());
+				vSigmaData[i] = msg.getV0Arr()[i];
 			} else {
-				vSigma = dlog.reconstructElement(true, tuple.getV1());
+				vSigmaData[i] = msg.getV1Arr()[i];
 			}
-			
-			//Compue xSigma
-			GroupElement xSigma = dlog.multiplyGroupElements(vSigma, kSigma);
-			
-			//Create and return the output containing xSigma
-			xSigmaArr.add(i, xSigma);
 		}
-		return new OTBatchOnGroupElementROutput(xSigmaArr);
+		
+		//Compute (kSigma)^(-1) = u^(-alpha) for all the OTs.
+		GroupElement[] kSigmaArr = parallelDlog.exponentiate(uArr, betaArr);
+		GroupElement[] vSigmaArr = parallelDlog.reconstructElements(true, vSigmaData);
+		
+		//Compute xSigma = vSigma * (kSigma)^(-1) for all the OTs.
+		GroupElement[] xSigmaArr = parallelDlog.multiply(vSigmaArr, kSigmaArr);
+		
+		//Create and return the output containing xSigma
+		return new OTBatchOnGroupElementROutput(new ArrayList<GroupElement>(Arrays.asList(xSigmaArr)));
 	
 	}
 
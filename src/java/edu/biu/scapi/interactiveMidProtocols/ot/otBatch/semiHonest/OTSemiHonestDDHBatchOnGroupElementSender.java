@@ -26,10 +26,10 @@ package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.exceptions.SecurityLevelException;
 import edu.biu.scapi.interactiveMidProtocols.ot.OTSMsg;
-import edu.biu.scapi.interactiveMidProtocols.ot.semiHonest.OTSemiHonestDDHOnGroupElementSenderMsg;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnGroupElementSInput;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSInput;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
@@ -65,6 +65,17 @@ public class OTSemiHonestDDHBatchOnGroupElementSender extends OTSemiHonestDDHBat
 		super(dlog, random);
 	}
 	
+	/**
+	 * Constructor that sets the given dlogGroup, random and executor.
+	 * @param dlog must be DDH secure. Should support concurrent use if the executor is not null.
+	 * @param random
+	 * @param executor used to compute the exponentiations of the batch in parallel. If null, the batch is computed by the calling thread.
+	 * @throws SecurityLevelException if the given DlogGroup is not DDH secure.
+	 */
+	public OTSemiHonestDDHBatchOnGroupElementSender(DlogGroup dlog, SecureRandom random, ExecutorService executor) throws SecurityLevelException{
+		super(dlog, random, executor);
+	}
+	
 	/**
 	 * Runs the following lines from the protocol:
 	 * "COMPUTE:
@@ -76,7 +87,7 @@ public class OTSemiHonestDDHBatchOnGroupElementSender extends OTSemiHonestDDHBat
 	 * @param u 
 	 * @return tuple contains (ui, vi0, vi1) to send to the receiver.
 	 */
-	protected OTSMsg computeMsg(OTBatchSInput input, GroupElement u, ArrayList<GroupElement> k0Arr, ArrayList<GroupElement> k1Arr) {
+	protected OTSMsg computeMsg(OTBatchSInput input, GroupElement u, GroupElement[] k0Arr, GroupElement[] k1Arr) {
 		//If input is not instance of OTSBatchOnGroupElementInput, throw Exception.
 		if (!(input instanceof OTBatchOnGroupElementSInput)){
 			throw new IllegalArgumentException("input should be an instance of OTSBatchOnGroupElementInput.");
@@ -85,23 +96,17 @@ public class OTSemiHonestDDHBatchOnGroupElementSender extends OTSemiHonestDDHBat
 		//Set x0, x1.
 		ArrayList<GroupElement> x0Arr = ((OTBatchOnGroupElementSInput) input).getX0Arr();
 		ArrayList<GroupElement> x1Arr = ((OTBatchOnGroupElementSInput) input).getX1Arr();
-		int size = x0Arr.size();
-		
-		ArrayList<OTSemiHonestDDHOnGroupElementSenderMsg> tuples = new ArrayList<OTSemiHonestDDHOnGroupElementSenderMsg>();
-		
-		for (int i=0; i<size; i++){
-			//Calculate v0:
-			GroupElement v0 = dlog.multiplyGroupElements(x0Arr.get(i), k0Arr.get(i));
-			
-			//Calculate v1:
-			GroupElement v1 = dlog.multiplyGroupElements(x1Arr.get(i), k1Arr.get(i));
-			
-			tuples.add(i, new OTSemiHonestDDHOnGroupElementSenderMsg(u.generateSendableData(), 
-								v0.generateSendableData(), v1.generateSendableData()));
+		if (x0Arr.size() != k0Arr.length){
+			throw new IllegalArgumentException("The number of inputs should be equal to the number of the receiver's tuples");
 		}
 		
-		//Create and return sender message.
-		return new OTSemiHonestDDHBatchOnGroupElementSenderMsg(tuples);
+		//Calculate vi0 = xi0 * ki0 and vi1 = xi1 * ki1 for all the OTs.
+		GroupElement[] v0Arr = parallelDlog.multiply(x0Arr.toArray(new GroupElement[0]), k0Arr);
+		GroupElement[] v1Arr = parallelDlog.multiply(x1Arr.toArray(new GroupElement[0]), k1Arr);
+		
+		//Create and return sender message. u is the same for all the OTs so it is sent once.
+		return new OTSemiHonestDDHBatchOnGroupElementSenderMsg(u.generateSendableData(), 
+						parallelDlog.generateSendableData(v0Arr), parallelDlog.generateSendableData(v1Arr));
 	}
 
 }
@@ -24,14 +24,13 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest;
 
-import java.util.ArrayList;
-
 import edu.biu.scapi.interactiveMidProtocols.ot.OTSMsg;
-import edu.biu.scapi.interactiveMidProtocols.ot.semiHonest.OTSemiHonestDDHOnGroupElementSenderMsg;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
 
 /**
  * Concrete implementation of batch OT sender (on group element) message.
- * In the byteArray scenario the sender sends tuples contain three GroupElements -  u, v0, v1.
+ * In the GroupElement scenario the sender sends GroupElement u and two GroupElements vi0, vi1 for every OT.<p>
+ * u is the same for all the OTs so it is sent once.
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
@@ -40,22 +39,32 @@ class OTSemiHonestDDHBatchOnGroupElementSenderMsg implements OTSMsg{
 	
 	private static final long serialVersionUID = -8537704297372436165L;
 	
-	private ArrayList<OTSemiHonestDDHOnGroupElementSenderMsg> tuples;
+	private GroupElementSendableData u;
+	private GroupElementSendableData[] v0Arr;
+	private GroupElementSendableData[] v1Arr;
 	
 	/**
-	 * Sets the array contains messages of the underlying OT.
-	 * @param tuples contains messages of the underlying OT.
+	 * Sets the values of all the OTs.
+	 * @param u
+	 * @param v0Arr contains v0 of every OT.
+	 * @param v1Arr contains v1 of every OT.
 	 */
-	public OTSemiHonestDDHBatchOnGroupElementSenderMsg(ArrayList<OTSemiHonestDDHOnGroupElementSenderMsg> tuples){
-		this.tuples = tuples;
+	public OTSemiHonestDDHBatchOnGroupElementSenderMsg(GroupElementSendableData u, GroupElementSendableData[] v0Arr, GroupElementSendableData[] v1Arr){
+		this.u = u;
+		this.v0Arr = v0Arr;
+		this.v1Arr = v1Arr;
 	}
 	
-	/**
-	 * Returns the array contains messages of the underlying OT.
-	 * @return array contains messages of the underlying OT.
-	 */
-	public ArrayList<OTSemiHonestDDHOnGroupElementSenderMsg> getTuples(){
-		return tuples;
+	public GroupElementSendableData getU(){
+		return u;
+	}
+	
+	public GroupElementSendableData[] getV0Arr(){
+		return v0Arr;
+	}
+	
+	public GroupElementSendableData[] getV1Arr(){
+		return v1Arr;
 	}
 
 }
@@ -29,6 +29,7 @@ import java.io.Serializable;
 import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
@@ -36,7 +37,6 @@ import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.FactoriesException;
 import edu.biu.scapi.exceptions.SecurityLevelException;
 import edu.biu.scapi.generals.ScapiDefaultConfiguration;
-import edu.biu.scapi.interactiveMidProtocols.ot.OTRGroupElementPairMsg;
 import edu.biu.scapi.interactiveMidProtocols.ot.OTSMsg;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchRInput;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchROutput;
@@ -44,6 +44,7 @@ import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchReceiver;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchRBasicInput;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ParallelDlogComputation;
 import edu.biu.scapi.securityLevel.DDH;
 import edu.biu.scapi.tools.Factories.DlogGroupFactory;
 
@@ -54,6 +55,10 @@ import edu.biu.scapi.tools.Factories.DlogGroupFactory;
  * 
  * In spite that, there is a common behavior for both modes which this class is implementing.<p>
  * 
+ * The exponentiations of all the OTs in the batch are independent. If an executor is given in the constructor, 
+ * they are computed in parallel by the executor's threads. In this case the given DlogGroup should support concurrent use. 
+ * The exponentiations of the generator use the fixed-base table of the DlogGroup.<p>
+ * 
  * The pseudo code of this protocol can be found in Protocol 5.1 of pseudo codes document at {@link http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf}.<p>
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
@@ -77,6 +82,7 @@ abstract class OTSemiHonestDDHBatchReceiverAbs implements OTBatchReceiver{
 	*/	
 	
 	protected DlogGroup dlog;
+	protected ParallelDlogComputation parallelDlog;	//Computes the batch operations, in parallel if an executor was given.
 	private SecureRandom random;
 	private BigInteger qMinusOne;
 	
@@ -96,7 +102,7 @@ abstract class OTSemiHonestDDHBatchReceiverAbs implements OTBatchReceiver{
 		}
 		
 		try {
-			doConstruct(dlog, new SecureRandom());
+			doConstruct(dlog, new SecureRandom(), null);
 		} catch (SecurityLevelException e1) {
 			// Should not occur since the dlog in the configuration file is as secure as needed.
 		}
@@ -110,22 +116,36 @@ abstract class OTSemiHonestDDHBatchReceiverAbs implements OTBatchReceiver{
 	 */
 	OTSemiHonestDDHBatchReceiverAbs(DlogGroup dlog, SecureRandom random) throws SecurityLevelException{
 		
-		doConstruct(dlog, random);
+		doConstruct(dlog, random, null);
+	}
+	
+	/**
+	 * Constructor that sets the given dlogGroup, random and executor.
+	 * @param dlog must be DDH secure. Should support concurrent use if the executor is not null.
+	 * @param random
+	 * @param executor used to compute the exponentiations of the batch in parallel. If null, the batch is computed by the calling thread.
+	 * @throws SecurityLevelException if the given dlog is not DDH secure.
+	 */
+	OTSemiHonestDDHBatchReceiverAbs(DlogGroup dlog, SecureRandom random, ExecutorService executor) throws SecurityLevelException{
+		
+		doConstruct(dlog, random, executor);
 	}
 	
 	/**
 	 * Sets the given members.
 	 * @param dlog must be DDH secure.
 	 * @param random
+	 * @param executor
 	 * @throws SecurityLevelException if the given dlog is not DDH secure.
 	 */
-	private void doConstruct(DlogGroup dlog, SecureRandom random) throws SecurityLevelException {
+	private void doConstruct(DlogGroup dlog, SecureRandom random, ExecutorService executor) throws SecurityLevelException {
 		//The underlying dlog group must be DDH secure.
 		if (!(dlog instanceof DDH)){
 			throw new SecurityLevelException("DlogGroup should have DDH security level");
 		}
 		
 		this.dlog = dlog;
+		this.parallelDlog = new ParallelDlogComputation(dlog, executor);
 		this.random = random;
 		qMinusOne =  dlog.getOrder().subtract(BigInteger.ONE);
 		
@@ -164,13 +184,12 @@ abstract class OTSemiHonestDDHBatchReceiverAbs implements OTBatchReceiver{
 			
 		}
 		
-		//For every i=1,...,m, SAMPLE random values alphaI <- Zq.
-		ArrayList<BigInteger> alphaArr = new ArrayList<BigInteger>();
-		ArrayList<GroupElement> hArr = new ArrayList<GroupElement>();
+		//For every i=1,...,m, SAMPLE random values alphaI <- Zq and hi <- G.
+		BigInteger[] alphaArr = new BigInteger[size];
 		for (int i=0; i<size; i++){
-			alphaArr.add(i, BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random));
-			hArr.add(i, dlog.createRandomElement());
+			alphaArr[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
 		}
+		GroupElement[] hArr = parallelDlog.createRandomElements(size);
 		
 		//Compute h0, h1
 		OTRGroupElementBatchMsg tuple = computeTuples(alphaArr, hArr, sigmaArr);
@@ -195,27 +214,25 @@ abstract class OTSemiHonestDDHBatchReceiverAbs implements OTBatchReceiver{
 	 * @param sigma input for the protocol
 	 * @return OTRSemiHonestMessage contains the tuple (h0, h1).
 	 */
-	private OTRGroupElementBatchMsg computeTuples(ArrayList<BigInteger> alphaArr, ArrayList<GroupElement> hArr, ArrayList<Byte> sigmaArr) {
-		int size = alphaArr.size();
-		GroupElement g = dlog.getGenerator();
-		ArrayList<OTRGroupElementPairMsg> tuples = new ArrayList<OTRGroupElementPairMsg>();
+	private OTRGroupElementBatchMsg computeTuples(BigInteger[] alphaArr, GroupElement[] hArr, ArrayList<Byte> sigmaArr) {
+		int size = alphaArr.length;
+		
+		//Calculate g^alphaI for all the OTs using the fixed-base table of g.
+		GroupElement[] gAlphaArr = parallelDlog.exponentiateGenerator(alphaArr);
+		
+		GroupElement[] h0Arr = new GroupElement[size];
+		GroupElement[] h1Arr = new GroupElement[size];
 		for (int i=0; i<size; i++){
-			//Calculate g^alphaI.
-			GroupElement gAlpha = dlog.exponentiate(g, alphaArr.get(i));
-					
-			GroupElement h0 = null;
-			GroupElement h1 = null;
 			//If SigmaI = 0 then hi0 = g^alphaI  and hi1=hi
 			if (sigmaArr.get(i) == 0){
-				h0 = gAlpha;
-				h1 = hArr.get(i);
+				h0Arr[i] = gAlphaArr[i];
+				h1Arr[i] = hArr[i];
 			} else{ //If SigmaI = 1 then hi0=hi and hi1 = g^alphaI
-				h0 = hArr.get(i);
-				h1 = gAlpha;
+				h0Arr[i] = hArr[i];
+				h1Arr[i] = gAlphaArr[i];
 			}
-			tuples.add(i, new OTRGroupElementPairMsg(h0.generateSendableData(), h1.generateSendableData()));
 		}
-		return new OTRGroupElementBatchMsg(tuples);
+		return new OTRGroupElementBatchMsg(parallelDlog.generateSendableData(h0Arr), parallelDlog.generateSendableData(h1Arr));
 	}
 	
 	/**
@@ -268,6 +285,6 @@ abstract class OTSemiHonestDDHBatchReceiverAbs implements OTBatchReceiver{
 	 * @param message received from the sender
 	 * @return OTROutput contains XSigma
 	 */
-	protected abstract OTBatchROutput computeFinalXSigma(ArrayList<Byte> sigma, ArrayList<BigInteger> alpha, OTSMsg message);
+	protected abstract OTBatchROutput computeFinalXSigma(ArrayList<Byte> sigma, BigInteger[] alpha, OTSMsg message);
 
 }
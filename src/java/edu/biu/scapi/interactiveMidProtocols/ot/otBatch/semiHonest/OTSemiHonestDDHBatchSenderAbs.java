@@ -28,7 +28,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.security.SecureRandom;
-import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 
 import edu.biu.scapi.generals.Logging;
@@ -38,13 +38,13 @@ import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.FactoriesException;
 import edu.biu.scapi.exceptions.SecurityLevelException;
 import edu.biu.scapi.generals.ScapiDefaultConfiguration;
-import edu.biu.scapi.interactiveMidProtocols.ot.OTRGroupElementPairMsg;
 import edu.biu.scapi.interactiveMidProtocols.ot.OTSMsg;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSInput;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSOutput;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSender;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ParallelDlogComputation;
 import edu.biu.scapi.securityLevel.DDH;
 import edu.biu.scapi.tools.Factories.DlogGroupFactory;
 
@@ -56,6 +56,9 @@ import edu.biu.scapi.tools.Factories.DlogGroupFactory;
  * 
  * The pseudo code of this protocol can be found in Protocol 5.1 of pseudo codes document at {@link http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf}.<p>
  * 
+ * The exponentiations of all the OTs in the batch are independent. If an executor is given in the constructor, 
+ * they are computed in parallel by the executor's threads. In this case the given DlogGroup should support concurrent use.<p>
+ * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
@@ -80,6 +83,7 @@ abstract class OTSemiHonestDDHBatchSenderAbs implements OTBatchSender{
 	 */	 
 
 	protected DlogGroup dlog;
+	protected ParallelDlogComputation parallelDlog;	//Computes the batch operations, in parallel if an executor was given.
 	private SecureRandom random;
 	private BigInteger qMinusOne;
 
@@ -99,7 +103,7 @@ abstract class OTSemiHonestDDHBatchSenderAbs implements OTBatchSender{
 		}
 		
 		try {
-			doConstruct(dlog, new SecureRandom());
+			doConstruct(dlog, new SecureRandom(), null);
 		} catch (SecurityLevelException e1) {
 			// Should not occur since the dlog in the configuration file is as secure as needed.
 		}
@@ -113,22 +117,36 @@ abstract class OTSemiHonestDDHBatchSenderAbs implements OTBatchSender{
 	 */
 	OTSemiHonestDDHBatchSenderAbs(DlogGroup dlog, SecureRandom random) throws SecurityLevelException{
 
-		doConstruct(dlog, random);
+		doConstruct(dlog, random, null);
+	}
+	
+	/**
+	 * Constructor that sets the given dlogGroup, random and executor.
+	 * @param dlog must be DDH secure. Should support concurrent use if the executor is not null.
+	 * @param random
+	 * @param executor used to compute the exponentiations of the batch in parallel. If null, the batch is computed by the calling thread.
+	 * @throws SecurityLevelException if the given dlog is not DDH secure
+	 */
+	OTSemiHonestDDHBatchSenderAbs(DlogGroup dlog, SecureRandom random, ExecutorService executor) throws SecurityLevelException{
+
+		doConstruct(dlog, random, executor);
 	}
 
 	/**
 	 * Sets the given members.
 	 * @param dlog must be DDH secure.
 	 * @param random
+	 * @param executor
 	 * @throws SecurityLevelException if the given dlog is not DDH secure.
 	 */
-	private void doConstruct(DlogGroup dlog, SecureRandom random) throws SecurityLevelException {
+	private void doConstruct(DlogGroup dlog, SecureRandom random, ExecutorService executor) throws SecurityLevelException {
 		//The underlying dlog group must be DDH secure.
 		if (!(dlog instanceof DDH)){
 			throw new SecurityLevelException("DlogGroup should have DDH security level");
 		}
 
 		this.dlog = dlog;
+		this.parallelDlog = new ParallelDlogComputation(dlog, executor);
 		this.random = random;
 		qMinusOne =  dlog.getOrder().subtract(BigInteger.ONE);
 
@@ -163,26 +181,18 @@ abstract class OTSemiHonestDDHBatchSenderAbs implements OTBatchSender{
 		//Calculate u = g^r.
 		GroupElement u = dlog.exponentiate(g, r);
 		
-		ArrayList<OTRGroupElementPairMsg> tuples = message.getTuples();
-		int size = tuples.size();
-		ArrayList<GroupElement> k0Array = new ArrayList<GroupElement>();
-		ArrayList<GroupElement> k1Array = new ArrayList<GroupElement>();
-		GroupElement h0, h1;
-		OTRGroupElementPairMsg tuple;
+		//Recreate h0, h1 from the data in the received message.
+		GroupElement[] h0Arr = parallelDlog.reconstructElements(true, message.getH0Arr());
+		GroupElement[] h1Arr = parallelDlog.reconstructElements(true, message.getH1Arr());
+		if (h0Arr.length != h1Arr.length){
+			throw new IllegalArgumentException("The received message should contain the same number of h0 and h1 values");
+		}
 		
 		//For every i=1,...,m, COMPUTE:
 		//	ki0 = (hi0)^r
 		//	ki1 = (hi1)^r
-		for (int i=0; i<size; i++){
-			tuple = tuples.get(i);
-			//Recreate h0 from the data in the received message.
-			h0 = dlog.reconstructElement(true, tuple.getFirstGE());
-			h1 = dlog.reconstructElement(true, tuple.getSecondGE());
-			
-			//Calculate k0 = h0^r.
-			k0Array.add(i, dlog.exponentiate(h0, r));
-			k1Array.add(i, dlog.exponentiate(h1, r));
-		}
+		GroupElement[] k0Array = parallelDlog.exponentiate(h0Arr, r);
+		GroupElement[] k1Array = parallelDlog.exponentiate(h1Arr, r);
 		
 		OTSMsg messageToSend = computeMsg(input, u, k0Array, k1Array);
 		sendTupleToReceiver(channel, messageToSend);
@@ -225,7 +235,7 @@ abstract class OTSemiHonestDDHBatchSenderAbs implements OTBatchSender{
 	 * @param u 
 	 * @return tuple contains (u, v0, v1) to send to the receiver.
 	 */
-	protected abstract OTSMsg computeMsg(OTBatchSInput input, GroupElement u, ArrayList<GroupElement> k0Array, ArrayList<GroupElement> k1Array);
+	protected abstract OTSMsg computeMsg(OTBatchSInput input, GroupElement u, GroupElement[] k0Array, GroupElement[] k1Array);
 
 	/**
 	 * Runs the following lines from the protocol:
@@ -0,0 +1,78 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol;
+
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.exceptions.CheatAttemptException;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
+
+/**
+ * This interface is implemented by sigma provers that can compute many independent proofs at once.<p>
+ * 
+ * {@link #computeFirstMsgs(SigmaProverInput[], ExecutorService)} computes the first message of each proof and keeps the 
+ * random values of the batch until {@link #computeSecondMsgs(byte[][], ExecutorService)} is called. 
+ * The batch state is separate from the state of the single proof functions.<p>
+ * 
+ * The work can be split between the threads of the given executor. In that case the underlying primitives 
+ * (for example the Dlog group) are used by several threads at the same time, so they should be thread-safe. 
+ * If the executor is null, the batch is computed on the calling thread.<p>
+ * 
+ * A prover that is built from other provers may implement this interface and support batches only for some of them, 
+ * so callers should check {@link #supportsBatch()} before using the batch functions.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public interface SigmaBatchProverComputation extends SigmaProverComputation {
+	
+	/**
+	 * Returns true if the batch functions of this prover can be used.
+	 * @return true if {@link #computeFirstMsgs(SigmaProverInput[], ExecutorService)} is supported.
+	 */
+	public boolean supportsBatch();
+	
+	/**
+	 * Computes the first messages of a batch of independent proofs.
+	 * @param inputs the input of each proof.
+	 * @param executor executes the computation. May be null.
+	 * @return the first message of each proof.
+	 * @throws IllegalArgumentException if one of the inputs does not match this protocol.
+	 * @throws UnsupportedOperationException if {@link #supportsBatch()} returns false.
+	 */
+	public SigmaProtocolMsg[] computeFirstMsgs(SigmaProverInput[] inputs, ExecutorService executor);
+	
+	/**
+	 * Computes the second messages of the batch whose first messages were computed last.
+	 * @param challenges the challenge of each proof.
+	 * @param executor executes the computation. May be null.
+	 * @return the second message of each proof.
+	 * @throws CheatAttemptException if the length of one of the challenges is not equal to the soundness parameter.
+	 * @throws IllegalArgumentException if the number of challenges is different from the number of proofs in the batch.
+	 * @throws IllegalStateException if there is no batch whose first messages were computed.
+	 */
+	public SigmaProtocolMsg[] computeSecondMsgs(byte[][] challenges, ExecutorService executor) throws CheatAttemptException;
+}
@@ -0,0 +1,70 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol;
+
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
+
+/**
+ * General interface for Sigma protocol provers that can compute the first message in advance.<p>
+ * 
+ * In many Sigma protocols the first message depends only on the random value chosen by the prover and on public parameters, 
+ * and not on the witness or the challenge. Such provers can keep a bounded pool of pre-computed pairs (r, a), 
+ * filled in the offline phase or by background threads in the idle time. {@link SigmaProverComputation#computeFirstMsg} takes a pair from the pool, 
+ * so that the online prover only computes the response. If the pool is empty, the first message is computed online as usual.<p>
+ * 
+ * Each pre-computed pair is used once.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public interface SigmaProverWithPrecomputation extends SigmaProverComputation {
+	
+	/**
+	 * Creates a pool of pre-computed first messages and starts background threads that keep it full.
+	 * A previous pool is discarded.
+	 * @param capacity the maximal number of values in the pool.
+	 * @param numOfThreads the number of background threads.
+	 * @return the metrics of the new pool.
+	 */
+	public PrecomputationPoolMetrics startPrecomputation(int capacity, int numOfThreads);
+	
+	/**
+	 * Creates a pool of pre-computed first messages and fills it on the calling thread. No background threads are used.
+	 * A previous pool is discarded.
+	 * @param capacity the number of values to pre-compute.
+	 * @return the metrics of the new pool.
+	 */
+	public PrecomputationPoolMetrics precompute(int capacity);
+	
+	/**
+	 * Stops the background threads and discards the pool. Following proofs compute the first message online.
+	 */
+	public void stopPrecomputation();
+	
+	/**
+	 * @return the metrics of the current pool, or null if there is no pool.
+	 */
+	public PrecomputationPoolMetrics getPrecomputationMetrics();
+}
@@ -27,6 +27,8 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.and;
 import java.util.ArrayList;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol input, used by the SigmaProtocolAND verifier and simulator.<p>
@@ -35,7 +37,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonIn
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaANDCommonInput implements SigmaCommonInput{
+public class SigmaANDCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 6100213822914910563L;
 	private ArrayList<SigmaCommonInput> sigmaInputs;
@@ -55,9 +57,14 @@ public class SigmaANDCommonInput implements SigmaCommonInput{
 	public ArrayList<SigmaCommonInput> getInputs(){
 		return sigmaInputs;
 	}
-
-	
-
 	
-
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(sigmaInputs.size());
+		for (SigmaCommonInput input : sigmaInputs){
+			transcript.absorb(input);
+		}
+	}
 }
@@ -26,8 +26,10 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.and;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.exceptions.CheatAttemptException;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchProverComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultipleMsg;
@@ -40,12 +42,15 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * This protocol is used for a prover to convince a verifier that the AND of any number of statements are true, 
  * where each statement can be proven by an associated Sigma protocol.<P>
  * 
+ * Many independent AND proofs can be computed at once using the {@link SigmaBatchProverComputation} functions, 
+ * if all the underlying provers implement them. Each underlying prover computes its part of all the proofs as one batch.<p>
+ * 
  * The pseudo code of this protocol can be found in Protocol 1.14 of pseudo codes document at <a href="http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf">http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf</a>.<p>
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaANDProverComputation implements SigmaProverComputation{
+public class SigmaANDProverComputation implements SigmaBatchProverComputation{
 
 	/*	
 	  This class computes the following calculations:
@@ -57,6 +62,7 @@ public class SigmaANDProverComputation implements SigmaProverComputation{
 	private int len;									// number of underlying provers.
 	private int t;										//Soundness parameter.
 	private SecureRandom random;
+	private int batchSize = -1;							// number of proofs in the current batch.
 	
 	/**
 	 * Constructor that sets the underlying provers.
@@ -151,6 +157,103 @@ public class SigmaANDProverComputation implements SigmaProverComputation{
 		
 	}
 	
+	/**
+	 * Batches are supported if all the underlying provers support them.
+	 * @return true if all the underlying provers are instances of SigmaBatchProverComputation that support batches.
+	 */
+	public boolean supportsBatch(){
+		for (int i = 0; i < len; i++){
+			SigmaProverComputation prover = provers.get(i);
+			if (!(prover instanceof SigmaBatchProverComputation) || !((SigmaBatchProverComputation) prover).supportsBatch()){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Computes the first messages of a batch of AND proofs.<p>
+	 * "COMPUTE all first prover messages a1,...,am" for each proof. Each underlying prover computes its messages of all the proofs as one batch.
+	 * @param inputs MUST be instances of SigmaANDProverInput.
+	 * @param executor executes the computations of the underlying provers. May be null.
+	 * @return SigmaMultipleMsg for each proof, that contains a1, ..., am.
+	 * @throws IllegalArgumentException if one of the inputs is not an instance of SigmaANDProverInput, 
+	 * 									or if the number of inputs in it is different from the number of underlying provers.
+	 * @throws UnsupportedOperationException if one of the underlying provers does not support batches.
+	 */
+	public SigmaProtocolMsg[] computeFirstMsgs(SigmaProverInput[] inputs, ExecutorService executor) {
+		if (!supportsBatch()){
+			throw new UnsupportedOperationException("all the underlying provers should support batches");
+		}
+		//Checks that the inputs are as expected.
+		for (int i = 0; i < inputs.length; i++){
+			checkInput(inputs[i]);
+		}
+		
+		//firstMessages[i] holds the messages of the i-th proof.
+		ArrayList<ArrayList<SigmaProtocolMsg>> firstMessages = new ArrayList<ArrayList<SigmaProtocolMsg>>();
+		for (int i = 0; i < inputs.length; i++){
+			firstMessages.add(new ArrayList<SigmaProtocolMsg>());
+		}
+		
+		//Each underlying prover computes its first messages of all the proofs.
+		SigmaProverInput[] proverInputs = new SigmaProverInput[inputs.length];
+		for (int j = 0; j < len; j++){
+			for (int i = 0; i < inputs.length; i++){
+				proverInputs[i] = ((SigmaANDProverInput) inputs[i]).getInputs().get(j);
+			}
+			SigmaProtocolMsg[] messages = ((SigmaBatchProverComputation) provers.get(j)).computeFirstMsgs(proverInputs, executor);
+			for (int i = 0; i < inputs.length; i++){
+				firstMessages.get(i).add(messages[i]);
+			}
+		}
+		batchSize = inputs.length;
+		
+		SigmaProtocolMsg[] result = new SigmaProtocolMsg[inputs.length];
+		for (int i = 0; i < inputs.length; i++){
+			result[i] = new SigmaMultipleMsg(firstMessages.get(i));
+		}
+		return result;
+	}
+	
+	/**
+	 * Computes the second messages of the current batch of AND proofs.<p>
+	 * "COMPUTE all second prover messages z1,...,zm" for each proof.
+	 * @param challenges the challenge of each proof.
+	 * @param executor executes the computations of the underlying provers. May be null.
+	 * @return SigmaMultipleMsg for each proof, that contains z1, ..., zm.
+	 * @throws CheatAttemptException if the length of one of the challenges is not equal to the soundness parameter.
+	 */
+	public SigmaProtocolMsg[] computeSecondMsgs(byte[][] challenges, ExecutorService executor) throws CheatAttemptException {
+		if (batchSize == -1){
+			throw new IllegalStateException("computeFirstMsgs should be called before computeSecondMsgs");
+		}
+		if (challenges.length != batchSize){
+			throw new IllegalArgumentException("the number of challenges is different from the number of proofs");
+		}
+		
+		//secondMessages[i] holds the messages of the i-th proof.
+		ArrayList<ArrayList<SigmaProtocolMsg>> secondMessages = new ArrayList<ArrayList<SigmaProtocolMsg>>();
+		for (int i = 0; i < challenges.length; i++){
+			secondMessages.add(new ArrayList<SigmaProtocolMsg>());
+		}
+		
+		//All the underlying provers of a proof use the same challenge.
+		for (int j = 0; j < len; j++){
+			SigmaProtocolMsg[] messages = ((SigmaBatchProverComputation) provers.get(j)).computeSecondMsgs(challenges, executor);
+			for (int i = 0; i < challenges.length; i++){
+				secondMessages.get(i).add(messages[i]);
+			}
+		}
+		batchSize = -1;
+		
+		SigmaProtocolMsg[] result = new SigmaProtocolMsg[challenges.length];
+		for (int i = 0; i < challenges.length; i++){
+			result[i] = new SigmaMultipleMsg(secondMessages.get(i));
+		}
+		return result;
+	}
+	
 	/**
 	 * Returns the simulator that matches this sigma protocol prover.
 	 * @return SigmaANDSimulator
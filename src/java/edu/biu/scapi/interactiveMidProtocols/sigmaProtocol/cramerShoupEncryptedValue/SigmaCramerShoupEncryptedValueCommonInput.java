@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.CramerShoupPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.CramerShoupOnGroupElementCiphertext;
 import edu.biu.scapi.primitives.dlog.GroupElement;
@@ -40,7 +42,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaCramerShoupEncryptedValueCommonInput implements SigmaCommonInput{
+public class SigmaCramerShoupEncryptedValueCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 6613096710529810429L;
 	
@@ -89,6 +91,21 @@ public class SigmaCramerShoupEncryptedValueCommonInput implements SigmaCommonInp
         out.writeObject(x.generateSendableData());  
         out.writeObject(publicKey.generateSendableData());
         out.writeObject(cipher.generateSendableData());
-    }  
+    }
+	
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(publicKey.getGenerator1());
+		transcript.absorb(publicKey.getGenerator2());
+		transcript.absorb(publicKey.getC());
+		transcript.absorb(publicKey.getD());
+		transcript.absorb(publicKey.getH());
+		transcript.absorb(cipher.getU1());
+		transcript.absorb(cipher.getU2());
+		transcript.absorb(cipher.getE());
+		transcript.absorb(cipher.getV());
+		transcript.absorb(x);
+	}
 }
-
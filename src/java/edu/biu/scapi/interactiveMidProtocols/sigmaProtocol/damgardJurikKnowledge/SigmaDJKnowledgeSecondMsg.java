@@ -27,6 +27,8 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.damgardJurikKnowledg
 import java.math.BigInteger;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -35,7 +37,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Eindhoven University of Technology (Meilof Veeningen)
  *
  */
-class SigmaDJKnowledgeSecondMsg implements SigmaProtocolMsg{
+class SigmaDJKnowledgeSecondMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable{
 	
 	
 	private static final long serialVersionUID = 1194972045393269648L;
@@ -54,5 +56,12 @@ class SigmaDJKnowledgeSecondMsg implements SigmaProtocolMsg{
 	BigInteger getZ2(){
 		return z2;
 	}
-
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(z1);
+		transcript.absorb(z2);
+	}
 }
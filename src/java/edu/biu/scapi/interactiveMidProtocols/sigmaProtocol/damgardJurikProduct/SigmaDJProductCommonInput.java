@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.BigIntegerCiphertext;
 
@@ -38,7 +40,7 @@ import edu.biu.scapi.midLayer.ciphertext.BigIntegerCiphertext;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDJProductCommonInput implements SigmaCommonInput{
+public class SigmaDJProductCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 2474346914281126954L;
 	
@@ -99,5 +101,15 @@ public class SigmaDJProductCommonInput implements SigmaCommonInput{
         out.writeObject(cipher1);
         out.writeObject(cipher2);
         out.writeObject(cipher3);
-    } 
+    }
+	
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(publicKey.getModulus());
+		transcript.absorb(cipher1.getCipher());
+		transcript.absorb(cipher2.getCipher());
+		transcript.absorb(cipher3.getCipher());
+	}
 }
@@ -27,6 +27,8 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.damgardJurikProduct;
 import java.math.BigInteger;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -35,7 +37,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaDJProductFirstMsg implements SigmaProtocolMsg{
+class SigmaDJProductFirstMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable{
 
 	
 	private static final long serialVersionUID = -8299363939635996180L;
@@ -54,4 +56,12 @@ class SigmaDJProductFirstMsg implements SigmaProtocolMsg{
 	BigInteger getA2(){
 		return a2;
 	}
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(a1);
+		transcript.absorb(a2);
+	}
 }
@@ -27,6 +27,8 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.damgardJurikProduct;
 import java.math.BigInteger;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -35,7 +37,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaDJProductSecondMsg implements SigmaProtocolMsg{
+class SigmaDJProductSecondMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = -8437524435815994178L;
 	
@@ -60,5 +62,13 @@ class SigmaDJProductSecondMsg implements SigmaProtocolMsg{
 	BigInteger getZ3(){
 		return z3;
 	}
-
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(z1);
+		transcript.absorb(z2);
+		transcript.absorb(z3);
+	}
 }
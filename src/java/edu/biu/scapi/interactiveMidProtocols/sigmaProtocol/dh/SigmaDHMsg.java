@@ -25,6 +25,8 @@
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
 
 /**
@@ -34,7 +36,7 @@ import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaDHMsg implements SigmaProtocolMsg {
+class SigmaDHMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable {
 
 	private static final long serialVersionUID = 1208840175220495797L;
 	
@@ -53,4 +55,12 @@ class SigmaDHMsg implements SigmaProtocolMsg {
 	GroupElementSendableData getB(){
 		return b;
 	}
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(a);
+		transcript.absorb(b);
+	}
 }
@@ -26,18 +26,24 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
-import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverWithPrecomputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaDlogPrecomputationPool;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.ParallelDlogComputation;
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation. <p>
@@ -47,10 +53,14 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * For more information see Protocol 6.2.4, page 152 of Hazay-Lindell.<p>
  * The pseudo code of this protocol can be found in Protocol 1.2 of pseudo codes document at <a href="http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf">http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf</a>.<p>
  * 
+ * The first message can be pre-computed using {@link #startPrecomputation(GroupElement, int, int)} or {@link #precompute(GroupElement, int)}. 
+ * Since h is part of the input, the pool holds (r, g^r, h^r) for a known h; for inputs with a different h, b = h^r is computed online. 
+ * The background threads use the underlying DlogGroup concurrently with the prover, so they should only be used with a thread-safe group.<p>
+ * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDHProverComputation implements SigmaProverComputation, DlogBasedSigma{
+public class SigmaDHProverComputation implements SigmaBatchProverComputation, SigmaProverWithPrecomputation, DlogBasedSigma{
 	
 	/*	
 	  This class computes the following calculations:
@@ -65,6 +75,9 @@ public class SigmaDHProverComputation implements SigmaProverComputation, DlogBas
 	private SigmaDHProverInput input;	// Contains h, u, v and w. 
 	private BigInteger r;				// The value chosen in the protocol.
 	private BigInteger qMinusOne;
+	private SigmaDHProverInput[] batchInputs;	// The inputs of the current batch.
+	private BigInteger[] batchR;				// The values chosen for the current batch.
+	private volatile SigmaDlogPrecomputationPool pool;	// Pre-computed values (r, g^r[, h^r]). Null if there is no precomputation.
 	
 	/**
 	 * Constructor that gets the underlying DlogGroup, soundness parameter and SecureRandom.
@@ -124,6 +137,23 @@ public class SigmaDHProverComputation implements SigmaProverComputation, DlogBas
 			throw new IllegalArgumentException("the given input must be an instance of SigmaDHProverInput");
 		}
 		this.input = (SigmaDHProverInput) input;
+		GroupElement h = this.input.getCommonParams().getH();
+		
+		//If the values were pre-computed, use them.
+		SigmaDlogPrecomputationPool currentPool = pool;
+		if (currentPool != null){
+			SigmaDlogPrecomputationPool.Randomness randomness = currentPool.take();
+			r = randomness.getR();
+			GroupElement a = randomness.getPower(0);
+			//h^r was pre-computed only if the input's h is the h of the pool.
+			GroupElement b;
+			if (currentPool.getNumOfBases() > 1 && currentPool.getBase(1).equals(h)){
+				b = randomness.getPower(1);
+			} else{
+				b = dlog.exponentiate(h, r);
+			}
+			return new SigmaDHMsg(a.generateSendableData(), b.generateSendableData());
+		}
 		
 		//Sample random r in Zq
 		r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
@@ -131,7 +161,7 @@ public class SigmaDHProverComputation implements SigmaProverComputation, DlogBas
 		//Compute a = g^r.
 		GroupElement a = dlog.exponentiate(dlog.getGenerator(), r);
 		//Compute b = h^r.
-		GroupElement b = dlog.exponentiate(this.input.getCommonParams().getH(), r);
+		GroupElement b = dlog.exponentiate(h, r);
 		//Create and return SigmaDHMsg with a and b.
 		return new SigmaDHMsg(a.generateSendableData(), b.generateSendableData());
 	}
@@ -172,6 +202,151 @@ public class SigmaDHProverComputation implements SigmaProverComputation, DlogBas
 		return (challenge.length == (t/8) ? true : false);
 	}
 	
+	/**
+	 * Creates a pool of pairs (r, g^r) and starts background threads that keep it full. b = h^r is computed online.<p>
+	 * The threads use the underlying DlogGroup, so this function should only be used with a thread-safe group.
+	 */
+	@Override
+	public PrecomputationPoolMetrics startPrecomputation(int capacity, int numOfThreads) {
+		return startPrecomputation(null, capacity, numOfThreads);
+	}
+	
+	/**
+	 * Creates a pool of values (r, g^r, h^r) for the given h and starts background threads that keep it full.<p>
+	 * The threads use the underlying DlogGroup, so this function should only be used with a thread-safe group.
+	 * @param h the h of the following inputs. If null, only g^r is pre-computed.
+	 * @param capacity the maximal number of values in the pool.
+	 * @param numOfThreads the number of background threads.
+	 * @return the metrics of the new pool.
+	 */
+	public PrecomputationPoolMetrics startPrecomputation(GroupElement h, int capacity, int numOfThreads) {
+		SigmaDlogPrecomputationPool newPool = createPool(h, capacity, numOfThreads);
+		newPool.start();
+		return newPool;
+	}
+	
+	/**
+	 * Creates a pool of pairs (r, g^r) and fills it on the calling thread. b = h^r is computed online.
+	 */
+	@Override
+	public PrecomputationPoolMetrics precompute(int capacity) {
+		return precompute(null, capacity);
+	}
+	
+	/**
+	 * Creates a pool of values (r, g^r, h^r) for the given h and fills it on the calling thread.
+	 * @param h the h of the following inputs. If null, only g^r is pre-computed.
+	 * @param capacity the number of values to pre-compute.
+	 * @return the metrics of the new pool.
+	 */
+	public PrecomputationPoolMetrics precompute(GroupElement h, int capacity) {
+		SigmaDlogPrecomputationPool newPool = createPool(h, capacity, 1);
+		newPool.fill();
+		return newPool;
+	}
+	
+	private synchronized SigmaDlogPrecomputationPool createPool(GroupElement h, int capacity, int numOfThreads) {
+		GroupElement[] bases = (h == null) ? new GroupElement[]{dlog.getGenerator()} : new GroupElement[]{dlog.getGenerator(), h};
+		SigmaDlogPrecomputationPool newPool = new SigmaDlogPrecomputationPool(dlog, bases, random, capacity, numOfThreads);
+		stopPrecomputation();
+		pool = newPool;
+		return newPool;
+	}
+	
+	@Override
+	public synchronized void stopPrecomputation() {
+		if (pool != null){
+			pool.stop();
+			pool = null;
+		}
+	}
+	
+	@Override
+	public PrecomputationPoolMetrics getPrecomputationMetrics() {
+		return pool;
+	}
+	
+	/**
+	 * This prover always supports batches.
+	 * @return true.
+	 */
+	public boolean supportsBatch(){
+		return true;
+	}
+	
+	/**
+	 * Computes the first messages of a batch of proofs.<p>
+	 * "SAMPLE a random r in Zq<p>
+	 *  COMPUTE a = g^r and b = h^r" for each proof. The exponentiations are split between the threads of the given executor.
+	 * @param inputs MUST be instances of SigmaDHProverInput.
+	 * @param executor executes the exponentiations. May be null.
+	 * @throws IllegalArgumentException if one of the inputs is not an instance of SigmaDHProverInput.
+	 * @return the computed messages
+	 */
+	public SigmaProtocolMsg[] computeFirstMsgs(SigmaProverInput[] inputs, ExecutorService executor) {
+		SigmaDHProverInput[] dhInputs = new SigmaDHProverInput[inputs.length];
+		BigInteger[] rArray = new BigInteger[inputs.length];
+		GroupElement[] hArray = new GroupElement[inputs.length];
+		for (int i=0; i<inputs.length; i++){
+			if (!(inputs[i] instanceof SigmaDHProverInput)){
+				throw new IllegalArgumentException("the given input must be an instance of SigmaDHProverInput");
+			}
+			dhInputs[i] = (SigmaDHProverInput) inputs[i];
+			hArray[i] = dhInputs[i].getCommonParams().getH();
+			//Sample random r in Zq
+			rArray[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		}
+		batchInputs = dhInputs;
+		batchR = rArray;
+		
+		//Compute a = g^r and b = h^r for all proofs.
+		ParallelDlogComputation parallel = new ParallelDlogComputation(dlog, executor);
+		GroupElementSendableData[] a = parallel.generateSendableData(parallel.exponentiateGenerator(rArray));
+		GroupElementSendableData[] b = parallel.generateSendableData(parallel.exponentiate(hArray, rArray));
+		
+		SigmaProtocolMsg[] messages = new SigmaProtocolMsg[inputs.length];
+		for (int i=0; i<inputs.length; i++){
+			messages[i] = new SigmaDHMsg(a[i], b[i]);
+		}
+		return messages;
+	}
+	
+	/**
+	 * Computes the second messages of the current batch.<p>
+	 * "COMPUTE z = (r + ew) mod q" for each proof.
+	 * @param challenges the challenge of each proof.
+	 * @param executor not used, since the computation is cheap.
+	 * @return the computed messages.
+	 * @throws CheatAttemptException if the length of one of the challenges is not equal to the soundness parameter.
+	 */
+	public SigmaProtocolMsg[] computeSecondMsgs(byte[][] challenges, ExecutorService executor) throws CheatAttemptException {
+		if (batchR == null){
+			throw new IllegalStateException("computeFirstMsgs should be called before computeSecondMsgs");
+		}
+		if (challenges.length != batchR.length){
+			throw new IllegalArgumentException("the number of challenges is different from the number of proofs");
+		}
+		
+		BigInteger q = dlog.getOrder();
+		SigmaProtocolMsg[] messages = new SigmaProtocolMsg[challenges.length];
+		for (int i=0; i<challenges.length; i++){
+			//check the challenge validity.
+			if (!checkChallengeLength(challenges[i])){
+				throw new CheatAttemptException("the length of the given challenge is differ from the soundness parameter");
+			}
+			//Compute z = (r+ew) mod q
+			BigInteger e = new BigInteger(1, challenges[i]);
+			BigInteger ew = (e.multiply(batchInputs[i].getW())).mod(q);
+			messages[i] = new SigmaBIMsg(batchR[i].add(ew).mod(q));
+		}
+		
+		//Delete the random values.
+		batchR = null;
+		batchInputs = null;
+		
+		return messages;
+	}
+	
 	/**
 	 * Returns the simulator that matches this sigma protocol prover.
 	 * @return SigmaDHSimulator
@@ -29,9 +29,10 @@ import java.security.SecureRandom;
 
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
-import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaDlogBatchVerifier;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
@@ -46,7 +47,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDHVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaDHVerifierComputation implements SigmaBatchVerifierComputation, DlogBasedSigma{
 	
 	/*	
 	  This class computes the following calculations:
@@ -202,4 +203,58 @@ public class SigmaDHVerifierComputation implements SigmaVerifierComputation, Dlo
 		//Return true if all checks returned true; false, otherwise.
 		return verified;
 	}
+	
+	/**
+	 * Verifies a batch of proofs using randomized batch verification (see {@link SigmaDlogBatchVerifier}).<p>
+	 * All the equations g^z = au^e and h^z = bv^e are combined into one equation.
+	 * @param inputs MUST be instances of SigmaDHCommonInput.
+	 * @param a first messages from the prover. MUST be instances of SigmaDHMsg.
+	 * @param challenges the challenge of each proof.
+	 * @param z second messages from the prover. MUST be instances of SigmaBIMsg.
+	 * @return an array that contains true in index i if proof i has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if one of the inputs or messages is not of the expected type, or if the arrays are not of the same length.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		SigmaDlogBatchVerifier.checkBatchLengths(inputs, a, challenges, z);
+		
+		SigmaDlogBatchVerifier.Equations[] equations = new SigmaDlogBatchVerifier.Equations[inputs.length];
+		for (int i=0; i<inputs.length; i++){
+			equations[i] = createEquations(inputs[i], a[i], challenges[i], z[i]);
+		}
+		return new SigmaDlogBatchVerifier(dlog, t, random).verify(equations);
+	}
+	
+	/**
+	 * Creates the equations g^z = au^e and h^z = bv^e of a single proof.
+	 * @return the equations, or null if one of h, u, v, a and b is not a member of the group.
+	 */
+	private SigmaDlogBatchVerifier.Equations createEquations(SigmaCommonInput input, SigmaProtocolMsg a, byte[] challenge, SigmaProtocolMsg z){
+		if (!(input instanceof SigmaDHCommonInput)){
+			throw new IllegalArgumentException("the given input must be an instance of SigmaDHCommonInput");
+		}
+		if (!(a instanceof SigmaDHMsg)){
+			throw new IllegalArgumentException("first message must be an instance of SigmaDHMsg");
+		}
+		if (!(z instanceof SigmaBIMsg)){
+			throw new IllegalArgumentException("second message must be an instance of SigmaBIMsg");
+		}
+		SigmaDHCommonInput dhInput = (SigmaDHCommonInput) input;
+		
+		GroupElement h = dhInput.getH();
+		SigmaDHMsg firstMsg = (SigmaDHMsg) a;
+		GroupElement aElement = SigmaDlogBatchVerifier.reconstructMember(dlog, firstMsg.getA());
+		GroupElement bElement = SigmaDlogBatchVerifier.reconstructMember(dlog, firstMsg.getB());
+		if (aElement == null || bElement == null || !SigmaDlogBatchVerifier.areMembers(dlog, h, dhInput.getU(), dhInput.getV())){
+			return null;
+		}
+		BigInteger zBI = ((SigmaBIMsg) z).getMsg();
+		BigInteger eBI = new BigInteger(1, challenge);
+		
+		SigmaDlogBatchVerifier.Equations equations = new SigmaDlogBatchVerifier.Equations();
+		equations.addEquation(new GroupElement[]{dlog.getGenerator()}, new BigInteger[]{zBI}, 
+				new GroupElement[]{aElement, dhInput.getU()}, new BigInteger[]{BigInteger.ONE, eBI});
+		equations.addEquation(new GroupElement[]{h}, new BigInteger[]{zBI}, 
+				new GroupElement[]{bElement, dhInput.getV()}, new BigInteger[]{BigInteger.ONE, eBI});
+		return equations;
+	}
 }
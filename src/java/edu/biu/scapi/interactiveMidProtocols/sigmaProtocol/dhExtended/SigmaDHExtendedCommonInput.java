@@ -29,6 +29,8 @@ import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -38,7 +40,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDHExtendedCommonInput implements SigmaCommonInput{
+public class SigmaDHExtendedCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 
 	private static final long serialVersionUID = 2595300376835152550L;
 	private ArrayList<GroupElement> gArray;
@@ -72,5 +74,13 @@ public class SigmaDHExtendedCommonInput implements SigmaCommonInput{
 		for(int i=0; i<hSize; i++){
 			out.writeObject(hArray.get(i).generateSendableData());
 		}
-    }  
+    }
+	
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorbGroupElements(gArray);
+		transcript.absorbGroupElements(hArray);
+	}
 }
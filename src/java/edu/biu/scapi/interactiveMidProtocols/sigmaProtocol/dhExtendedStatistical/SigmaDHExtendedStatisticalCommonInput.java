@@ -30,6 +30,8 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol input, used by the SigmaDHExtendedStatistical verifier and simulator.<p>
@@ -38,7 +40,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonIn
  * @author Eindhoven University of Technology (Meilof Veeningen)
  *
  */
-public class SigmaDHExtendedStatisticalCommonInput implements SigmaCommonInput{
+public class SigmaDHExtendedStatisticalCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 
 	private static final long serialVersionUID = 1908006771270405668L;
 	
@@ -80,5 +82,14 @@ public class SigmaDHExtendedStatisticalCommonInput implements SigmaCommonInput{
 		for(int i=0; i<hSize; i++){
 			out.writeObject(hArray.get(i));
 		}
-    }  
+    }
+	
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(N);
+		transcript.absorbBigIntegers(gArray);
+		transcript.absorbBigIntegers(hArray);
+	}
 }
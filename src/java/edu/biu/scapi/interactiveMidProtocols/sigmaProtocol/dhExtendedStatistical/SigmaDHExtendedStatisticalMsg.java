@@ -28,6 +28,8 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -36,7 +38,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaDHExtendedStatisticalMsg implements SigmaProtocolMsg {
+class SigmaDHExtendedStatisticalMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable {
 
 	private static final long serialVersionUID = -501270711276791758L;
 	private ArrayList<BigInteger> aArray;
@@ -47,6 +49,12 @@ class SigmaDHExtendedStatisticalMsg implements SigmaProtocolMsg {
 	
 	ArrayList<BigInteger> getArray(){
 		return aArray;
-	} 
-
+	}
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorbBigIntegers(aArray);
+	}
 }
@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -37,7 +39,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDlogCommonInput implements SigmaCommonInput{
+public class SigmaDlogCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 
 	
 	private static final long serialVersionUID = -2041812894475536801L;
@@ -62,5 +64,12 @@ public class SigmaDlogCommonInput implements SigmaCommonInput{
 	private void writeObject(ObjectOutputStream out) throws IOException {  
         
         out.writeObject(h.generateSendableData());  
-    }  
+    }
+	
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(h);
+	}
 }
@@ -26,19 +26,25 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
-import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverWithPrecomputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaDlogPrecomputationPool;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaGroupElementMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.ParallelDlogComputation;
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation.<p>
@@ -46,10 +52,13 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * This implementation is based on Schnorr's sigma protocol for Dlog Group, see reference in Protocol 6.1.1, page 148 of Hazay-Lindell.<p>
  * 
  * The pseudo code of this protocol can be found in Protocol 1.1 of pseudo codes document at <a href="http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf">http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf</a>.<p>
+ * 
+ * The first message a = g^r does not depend on the input, so pairs (r, a) can be pre-computed using {@link #startPrecomputation(int, int)} or {@link #precompute(int)}. 
+ * The background threads use the underlying DlogGroup concurrently with the prover, so they should only be used with a thread-safe group.<p>
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDlogProverComputation implements SigmaProverComputation, DlogBasedSigma{
+public class SigmaDlogProverComputation implements SigmaBatchProverComputation, SigmaProverWithPrecomputation, DlogBasedSigma{
 
 	/*	
 	  This class computes the following calculations:
@@ -64,6 +73,9 @@ public class SigmaDlogProverComputation implements SigmaProverComputation, DlogB
 	private SigmaDlogProverInput input;	// Contains h and w.
 	private BigInteger r;				// The value chosen in the protocol.
 	private BigInteger qMinusOne;
+	private SigmaDlogProverInput[] batchInputs;	// The inputs of the current batch.
+	private BigInteger[] batchR;				// The values chosen for the current batch.
+	private volatile SigmaDlogPrecomputationPool pool;	// Pre-computed pairs (r, g^r). Null if there is no precomputation.
 	
 	/**
 	 * Constructor that gets the underlying DlogGroup, soundness parameter and SecureRandom.
@@ -124,6 +136,14 @@ public class SigmaDlogProverComputation implements SigmaProverComputation, DlogB
 		}
 		this.input = (SigmaDlogProverInput) input;
 		
+		//If the pair (r, g^r) was pre-computed, use it.
+		SigmaDlogPrecomputationPool currentPool = pool;
+		if (currentPool != null){
+			SigmaDlogPrecomputationPool.Randomness randomness = currentPool.take();
+			r = randomness.getR();
+			return new SigmaGroupElementMsg(randomness.getPower(0).generateSendableData());
+		}
+		
 		//Sample random r in Zq
 		r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
 		
@@ -170,6 +190,125 @@ public class SigmaDlogProverComputation implements SigmaProverComputation, DlogB
 		return (challenge.length == (t/8) ? true : false);
 	}
 	
+	/**
+	 * Creates a pool of pairs (r, g^r) and starts background threads that keep it full.<p>
+	 * The threads use the underlying DlogGroup, so this function should only be used with a thread-safe group.
+	 */
+	@Override
+	public PrecomputationPoolMetrics startPrecomputation(int capacity, int numOfThreads) {
+		SigmaDlogPrecomputationPool newPool = createPool(capacity, numOfThreads);
+		newPool.start();
+		return newPool;
+	}
+	
+	/**
+	 * Creates a pool of pairs (r, g^r) and fills it on the calling thread.
+	 */
+	@Override
+	public PrecomputationPoolMetrics precompute(int capacity) {
+		SigmaDlogPrecomputationPool newPool = createPool(capacity, 1);
+		newPool.fill();
+		return newPool;
+	}
+	
+	private synchronized SigmaDlogPrecomputationPool createPool(int capacity, int numOfThreads) {
+		SigmaDlogPrecomputationPool newPool = new SigmaDlogPrecomputationPool(dlog, new GroupElement[]{dlog.getGenerator()}, random, capacity, numOfThreads);
+		stopPrecomputation();
+		pool = newPool;
+		return newPool;
+	}
+	
+	@Override
+	public synchronized void stopPrecomputation() {
+		if (pool != null){
+			pool.stop();
+			pool = null;
+		}
+	}
+	
+	@Override
+	public PrecomputationPoolMetrics getPrecomputationMetrics() {
+		return pool;
+	}
+	
+	/**
+	 * This prover always supports batches.
+	 * @return true.
+	 */
+	public boolean supportsBatch(){
+		return true;
+	}
+	
+	/**
+	 * Computes the first messages of a batch of proofs.<p>
+	 * "SAMPLE a random r in Zq<p>
+	 *  COMPUTE a = g^r" for each proof. The exponentiations are split between the threads of the given executor.
+	 * @param inputs MUST be instances of SigmaDlogProverInput.
+	 * @param executor executes the exponentiations. May be null.
+	 * @throws IllegalArgumentException if one of the inputs is not an instance of SigmaDlogProverInput.
+	 * @return the computed messages
+	 */
+	public SigmaProtocolMsg[] computeFirstMsgs(SigmaProverInput[] inputs, ExecutorService executor) {
+		SigmaDlogProverInput[] dlogInputs = new SigmaDlogProverInput[inputs.length];
+		BigInteger[] rArray = new BigInteger[inputs.length];
+		for (int i=0; i<inputs.length; i++){
+			if (!(inputs[i] instanceof SigmaDlogProverInput)){
+				throw new IllegalArgumentException("the given input must be an instance of SigmaDlogProverInput");
+			}
+			dlogInputs[i] = (SigmaDlogProverInput) inputs[i];
+			//Sample random r in Zq
+			rArray[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		}
+		batchInputs = dlogInputs;
+		batchR = rArray;
+		
+		//Compute a = g^r for all proofs.
+		ParallelDlogComputation parallel = new ParallelDlogComputation(dlog, executor);
+		GroupElementSendableData[] a = parallel.generateSendableData(parallel.exponentiateGenerator(rArray));
+		
+		SigmaProtocolMsg[] messages = new SigmaProtocolMsg[inputs.length];
+		for (int i=0; i<inputs.length; i++){
+			messages[i] = new SigmaGroupElementMsg(a[i]);
+		}
+		return messages;
+	}
+	
+	/**
+	 * Computes the second messages of the current batch.<p>
+	 * "COMPUTE z = (r + ew) mod q" for each proof.
+	 * @param challenges the challenge of each proof.
+	 * @param executor not used, since the computation is cheap.
+	 * @return the computed messages.
+	 * @throws CheatAttemptException if the length of one of the challenges is not equal to the soundness parameter.
+	 */
+	public SigmaProtocolMsg[] computeSecondMsgs(byte[][] challenges, ExecutorService executor) throws CheatAttemptException {
+		if (batchR == null){
+			throw new IllegalStateException("computeFirstMsgs should be called before computeSecondMsgs");
+		}
+		if (challenges.length != batchR.length){
+			throw new IllegalArgumentException("the number of challenges is different from the number of proofs");
+		}
+		
+		BigInteger q = dlog.getOrder();
+		SigmaProtocolMsg[] messages = new SigmaProtocolMsg[challenges.length];
+		for (int i=0; i<challenges.length; i++){
+			//check the challenge validity.
+			if (!checkChallengeLength(challenges[i])){
+				throw new CheatAttemptException("the length of the given challenge is differ from the soundness parameter");
+			}
+			//Compute z = (r+ew) mod q
+			BigInteger e = new BigInteger(1, challenges[i]);
+			BigInteger ew = (e.multiply(batchInputs[i].getW())).mod(q);
+			messages[i] = new SigmaBIMsg(batchR[i].add(ew).mod(q));
+		}
+		
+		//Delete the random values.
+		batchR = null;
+		batchInputs = null;
+		
+		return messages;
+	}
+	
 	/**
 	 * Returns the simulator that matches this sigma protocol prover.
 	 * @return SigmaDlogSimulator
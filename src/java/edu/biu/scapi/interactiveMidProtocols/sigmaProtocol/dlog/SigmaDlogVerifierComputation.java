@@ -29,9 +29,10 @@ import java.security.SecureRandom;
 
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
-import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaDlogBatchVerifier;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaGroupElementMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
@@ -47,7 +48,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDlogVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaDlogVerifierComputation implements SigmaBatchVerifierComputation, DlogBasedSigma{
 
 	/*	
 	  This class computes the following calculations:
@@ -194,6 +195,50 @@ public class SigmaDlogVerifierComputation implements SigmaVerifierComputation, D
 		return verified;	
 	}
 	
+	/**
+	 * Verifies a batch of proofs using randomized batch verification (see {@link SigmaDlogBatchVerifier}).<p>
+	 * All the equations g^z = ah^e are combined into one equation, so the generator is raised only once.
+	 * @param inputs MUST be instances of SigmaDlogCommonInput.
+	 * @param a first messages from the prover. MUST be instances of SigmaGroupElementMsg.
+	 * @param challenges the challenge of each proof.
+	 * @param z second messages from the prover. MUST be instances of SigmaBIMsg.
+	 * @return an array that contains true in index i if proof i has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if one of the inputs or messages is not of the expected type, or if the arrays are not of the same length.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		SigmaDlogBatchVerifier.checkBatchLengths(inputs, a, challenges, z);
+		
+		SigmaDlogBatchVerifier.Equations[] equations = new SigmaDlogBatchVerifier.Equations[inputs.length];
+		for (int i=0; i<inputs.length; i++){
+			equations[i] = createEquations(inputs[i], a[i], challenges[i], z[i]);
+		}
+		return new SigmaDlogBatchVerifier(dlog, t, random).verify(equations);
+	}
 	
-
+	/**
+	 * Creates the equation g^z = ah^e of a single proof.
+	 * @return the equation, or null if h or a is not a member of the group.
+	 */
+	private SigmaDlogBatchVerifier.Equations createEquations(SigmaCommonInput input, SigmaProtocolMsg a, byte[] challenge, SigmaProtocolMsg z){
+		if (!(input instanceof SigmaDlogCommonInput)){
+			throw new IllegalArgumentException("the given input must be an instance of SigmaDlogCommonInput");
+		}
+		if (!(a instanceof SigmaGroupElementMsg)){
+			throw new IllegalArgumentException("first message must be an instance of SigmaGroupElementMsg");
+		}
+		if (!(z instanceof SigmaBIMsg)){
+			throw new IllegalArgumentException("second message must be an instance of SigmaBIMsg");
+		}
+		
+		GroupElement h = ((SigmaDlogCommonInput) input).getH();
+		GroupElement aElement = SigmaDlogBatchVerifier.reconstructMember(dlog, ((SigmaGroupElementMsg) a).getElement());
+		if (aElement == null || !SigmaDlogBatchVerifier.areMembers(dlog, h)){
+			return null;
+		}
+		
+		SigmaDlogBatchVerifier.Equations equations = new SigmaDlogBatchVerifier.Equations();
+		equations.addEquation(new GroupElement[]{dlog.getGenerator()}, new BigInteger[]{((SigmaBIMsg) z).getMsg()}, 
+				new GroupElement[]{aElement, h}, new BigInteger[]{BigInteger.ONE, new BigInteger(1, challenge)});
+		return equations;
+	}
 }
@@ -28,7 +28,7 @@ import java.security.SecureRandom;
 
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
-import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverWithPrecomputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverInput;
@@ -36,6 +36,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverIn
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation.<p>
@@ -47,7 +48,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalCmtKnowledgeProverComputation implements SigmaProverComputation, DlogBasedSigma{
+public class SigmaElGamalCmtKnowledgeProverComputation implements SigmaProverWithPrecomputation, DlogBasedSigma{
 
 	/*	
 	  This class uses an instance of SigmaDlogProver with:
@@ -122,6 +123,35 @@ public class SigmaElGamalCmtKnowledgeProverComputation implements SigmaProverCom
 		
 	}
 	
+	/**
+	 * Creates a pool of pre-computed first messages in the underlying Dlog prover and starts background threads that keep it full.<p>
+	 * The threads use the underlying DlogGroup, so this function should only be used with a thread-safe group.
+	 */
+	@Override
+	public PrecomputationPoolMetrics startPrecomputation(int capacity, int numOfThreads) {
+		//Delegates the computation to the underlying Sigma Dlog prover.
+		return sigmaDlog.startPrecomputation(capacity, numOfThreads);
+	}
+	
+	/**
+	 * Creates a pool of pre-computed first messages in the underlying Dlog prover and fills it on the calling thread.
+	 */
+	@Override
+	public PrecomputationPoolMetrics precompute(int capacity) {
+		//Delegates the computation to the underlying Sigma Dlog prover.
+		return sigmaDlog.precompute(capacity);
+	}
+	
+	@Override
+	public void stopPrecomputation() {
+		sigmaDlog.stopPrecomputation();
+	}
+	
+	@Override
+	public PrecomputationPoolMetrics getPrecomputationMetrics() {
+		return sigmaDlog.getPrecomputationMetrics();
+	}
+	
 	/**
 	 * Returns the simulator that matches this sigma protocol prover.
 	 * @return SigmaDlogSimulator
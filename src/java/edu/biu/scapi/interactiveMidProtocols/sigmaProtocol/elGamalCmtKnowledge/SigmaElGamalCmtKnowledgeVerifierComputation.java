@@ -28,7 +28,7 @@ import java.security.SecureRandom;
 
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
-import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
@@ -46,7 +46,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalCmtKnowledgeVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaElGamalCmtKnowledgeVerifierComputation implements SigmaBatchVerifierComputation, DlogBasedSigma{
 
 	/*	
 	  This class uses an instance of SigmaDlogVerifier with:
@@ -136,5 +136,24 @@ public class SigmaElGamalCmtKnowledgeVerifierComputation implements SigmaVerifie
 		
 		return sigmaDlog.verify(input, a, z);
 	}
-
+	
+	/**
+	 * Verifies a batch of proofs.
+	 * @param inputs MUST be instances of SigmaElGamalCmtKnowledgeCommonInput.
+	 * @param a first messages from the prover. MUST be instances of SigmaGroupElementMsg.
+	 * @param challenges the challenge of each proof.
+	 * @param z second messages from the prover. MUST be instances of SigmaBIMsg.
+	 * @return an array that contains true in index i if proof i has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if one of the inputs or messages is not of the expected type, or if the arrays are not of the same length.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		//Converts the inputs to the underlying verifier.
+		SigmaCommonInput[] underlyingInputs = new SigmaCommonInput[inputs.length];
+		for (int i=0; i<inputs.length; i++){
+			underlyingInputs[i] = convertInput(inputs[i]);
+		}
+		
+		//Delegates to the underlying Sigma Dlog verifier.
+		return sigmaDlog.verifyBatch(underlyingInputs, a, challenges, z);
+	}
 }
@@ -28,8 +28,11 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.ElGamalCiphertextSendableData;
+import edu.biu.scapi.midLayer.ciphertext.ElGamalOnGroupElementCiphertext.ElGamalOnGrElSendableData;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -40,7 +43,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalCommittedValueCommonInput implements SigmaCommonInput{
+public class SigmaElGamalCommittedValueCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 7108469354272702947L;
 	private ElGamalPublicKey publicKey;
@@ -87,5 +90,19 @@ public class SigmaElGamalCommittedValueCommonInput implements SigmaCommonInput{
 		out.writeObject(publicKey.generateSendableData());  
 		out.writeObject(commitment);  
 		out.writeObject(x.generateSendableData());  
-    }  
+    }
+	
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(publicKey.getH());
+		if (commitment instanceof ElGamalOnGrElSendableData){
+			transcript.absorb(((ElGamalOnGrElSendableData) commitment).getCipher1());
+			transcript.absorb(((ElGamalOnGrElSendableData) commitment).getCipher2());
+		} else{
+			transcript.absorbSerialized(commitment);
+		}
+		transcript.absorb(x);
+	}
 }
@@ -28,15 +28,17 @@ import java.security.SecureRandom;
 
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
-import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverWithPrecomputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.midLayer.ciphertext.ElGamalOnGroupElementCiphertext.ElGamalOnGrElSendableData;
+import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPublicKey;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation.<p>
@@ -48,7 +50,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalCommittedValueProverComputation implements SigmaProverComputation, DlogBasedSigma{
+public class SigmaElGamalCommittedValueProverComputation implements SigmaProverWithPrecomputation, DlogBasedSigma{
 
 	/*	
 	  This class uses an instance of SigmaDHProver with:
@@ -139,6 +141,58 @@ public class SigmaElGamalCommittedValueProverComputation implements SigmaProverC
 		
 	}
 	
+	/**
+	 * Creates a pool of pre-computed first messages in the underlying DH prover and starts background threads that keep it full.<p>
+	 * The threads use the underlying DlogGroup, so this function should only be used with a thread-safe group.
+	 */
+	@Override
+	public PrecomputationPoolMetrics startPrecomputation(int capacity, int numOfThreads) {
+		//Delegates the computation to the underlying Sigma DH prover.
+		return sigmaDH.startPrecomputation(capacity, numOfThreads);
+	}
+	
+	/**
+	 * Creates a pool of pre-computed first messages in the underlying DH prover and fills it on the calling thread.
+	 */
+	@Override
+	public PrecomputationPoolMetrics precompute(int capacity) {
+		//Delegates the computation to the underlying Sigma DH prover.
+		return sigmaDH.precompute(capacity);
+	}
+	
+	/**
+	 * Creates a pool of pre-computed first messages for the given public key and starts background threads that keep it full.<p>
+	 * The pool holds g^r and h^r, where h is the public key.
+	 * The threads use the underlying DlogGroup, so this function should only be used with a thread-safe group.
+	 * @param publicKey the public key of the following inputs.
+	 * @param capacity the maximal number of values in the pool.
+	 * @param numOfThreads the number of background threads.
+	 * @return the metrics of the new pool.
+	 */
+	public PrecomputationPoolMetrics startPrecomputation(ElGamalPublicKey publicKey, int capacity, int numOfThreads) {
+		return sigmaDH.startPrecomputation(publicKey.getH(), capacity, numOfThreads);
+	}
+	
+	/**
+	 * Creates a pool of pre-computed first messages for the given public key and fills it on the calling thread.
+	 * @param publicKey the public key of the following inputs.
+	 * @param capacity the number of values to pre-compute.
+	 * @return the metrics of the new pool.
+	 */
+	public PrecomputationPoolMetrics precompute(ElGamalPublicKey publicKey, int capacity) {
+		return sigmaDH.precompute(publicKey.getH(), capacity);
+	}
+	
+	@Override
+	public void stopPrecomputation() {
+		sigmaDH.stopPrecomputation();
+	}
+	
+	@Override
+	public PrecomputationPoolMetrics getPrecomputationMetrics() {
+		return sigmaDH.getPrecomputationMetrics();
+	}
+	
 	/**
 	 * Returns the simulator that matches this sigma protocol prover.
 	 * @return SigmaElGamalCommittedValueSimulator
@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.ElGamalOnGroupElementCiphertext;
 import edu.biu.scapi.primitives.dlog.GroupElement;
@@ -42,7 +44,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalEncryptedValueCommonInput implements SigmaCommonInput{
+public class SigmaElGamalEncryptedValueCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 3937743510337152514L;
 	private boolean isRandomness;
@@ -103,7 +105,16 @@ public class SigmaElGamalEncryptedValueCommonInput implements SigmaCommonInput{
 		out.writeObject(x.generateSendableData());  
 		out.writeObject(publicKey.generateSendableData());
 		out.writeObject(cipher.generateSendableData());
-    }  
-
+    }
 	
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(isRandomness);
+		transcript.absorb(publicKey.getH());
+		transcript.absorb(cipher.getC1());
+		transcript.absorb(cipher.getC2());
+		transcript.absorb(x);
+	}
 }
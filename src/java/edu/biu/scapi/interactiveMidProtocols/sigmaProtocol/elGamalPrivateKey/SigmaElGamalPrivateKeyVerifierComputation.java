@@ -28,7 +28,7 @@ import java.security.SecureRandom;
 
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
-import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
@@ -45,7 +45,7 @@ import edu.biu.scapi.primitives.dlog.DlogGroup;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalPrivateKeyVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaElGamalPrivateKeyVerifierComputation implements SigmaBatchVerifierComputation, DlogBasedSigma{
 
 	/*	
 	  This class uses an instance of SigmaDlogVerifier with:
@@ -126,5 +126,26 @@ public class SigmaElGamalPrivateKeyVerifierComputation implements SigmaVerifierC
 		return sigmaDlog.verify(underlyingInput, a, z);
 	}
 	
-	
+	/**
+	 * Verifies a batch of proofs.
+	 * @param inputs MUST be instances of SigmaElGamalPrivateKeyCommonInput.
+	 * @param a first messages from the prover. MUST be instances of SigmaGroupElementMsg.
+	 * @param challenges the challenge of each proof.
+	 * @param z second messages from the prover. MUST be instances of SigmaBIMsg.
+	 * @return an array that contains true in index i if proof i has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if one of the inputs or messages is not of the expected type, or if the arrays are not of the same length.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		//Converts the inputs to the underlying verifier.
+		SigmaCommonInput[] underlyingInputs = new SigmaCommonInput[inputs.length];
+		for (int i=0; i<inputs.length; i++){
+			if (!(inputs[i] instanceof SigmaElGamalPrivateKeyCommonInput)){
+				throw new IllegalArgumentException("the given input must be an instance of SigmaElGamalPrivateKeyCommonInput");
+			}
+			underlyingInputs[i] = new SigmaDlogCommonInput(((SigmaElGamalPrivateKeyCommonInput) inputs[i]).getPublicKey().getH());
+		}
+		
+		//Delegates to the underlying Sigma Dlog verifier.
+		return sigmaDlog.verifyBatch(underlyingInputs, a, challenges, z);
+	}
 }
@@ -27,6 +27,8 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple;
 import java.util.ArrayList;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol input, used by the SigmaProtocolORMultiple verifier and simulator.<p>
@@ -36,7 +38,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonIn
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaORMultipleCommonInput implements SigmaCommonInput{
+public class SigmaORMultipleCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 8647728161639616389L;
 	private ArrayList<SigmaCommonInput> sigmaInputs;
@@ -67,5 +69,15 @@ public class SigmaORMultipleCommonInput implements SigmaCommonInput{
 	public int getK(){
 		return k;
 	}
-
+	
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(k);
+		transcript.absorb(sigmaInputs.size());
+		for (SigmaCommonInput input : sigmaInputs){
+			transcript.absorb(input);
+		}
+	}
 }
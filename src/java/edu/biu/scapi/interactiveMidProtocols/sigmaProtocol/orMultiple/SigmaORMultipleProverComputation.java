@@ -37,6 +37,8 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultiple
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaSimulatorOutput;
+import edu.biu.scapi.tools.math.GF2tField;
+import edu.biu.scapi.tools.math.GF2tLagrangeInterpolator;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation.<p>
@@ -46,6 +48,9 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaSimulato
  * 
  * The pseudo code of this protocol can be found in Protocol 1.16 of pseudo codes document at <a href="http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf">http://cryptobiu.github.io/scapi/SDK_Pseudocode.pdf</a>.<p>
  * 
+ * The field GF[2^t] and the interpolation are implemented in Java by {@link GF2tField} and {@link GF2tLagrangeInterpolator}. 
+ * The set of indexes not in I is fixed by the given provers and simulators, so the interpolation weights are computed once in the constructor.<p>
+ * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
@@ -81,26 +86,11 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 	private Hashtable<Integer, SigmaSimulatorOutput> simulatorsOutput;	// We save this because we calculate it in computeFirstMsg and using 
 																	// it after that, in computeSecondMsg
 	
-	private long[] fieldElements;								//Will hold pointers to the sampled field elements, 
-																//we save the pointers to save the creation of the elements again in computeSecondMsg function.
-	
-	//Initializes the field GF2E with a random irreducible polynomial with degree t.
-	private native void initField(int t, int seed);
-	
-	//Creates random field elements to be the challenges.
-	private native byte[][] createRandomFieldElements(int numElements, long[] fieldElements);
-	
-	//Interpolates the points to get a polynomial.
-	private native long interpolate(byte[] e, long[] fieldElements, int[] indexes);
+	private long[][] fieldElements;								//Will hold the sampled field elements, 
+																//we save them to save the conversion of the elements again in computeSecondMsg function.
 	
-	//Calculates the challenges for the statements with the witnesses.
-	private native byte[][] getRestChallenges(long polynomial, int[] indexesInI);
-	
-	//Returns the byteArray of the polynomial coefficients.
-	private native byte[][] getPolynomialBytes(long polynomial);
-	
-	//Deletes the allocated memory of the polynomial and the field elements.
-	private native void deletePointers(long polynomial, long[] fieldElements);
+	private GF2tField field;									// The field GF[2^t].
+	private GF2tLagrangeInterpolator interpolator;				// Interpolates the points (0,e) and {(j,ej)} for every j not in I.
 	
 	/**
 	 * Constructor that gets the underlying provers.
@@ -130,8 +120,19 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 		len = k + simulators.size();
 		this.t = t; 
 		this.random = random;
-		//Initialize the field GF2E with a random irreducible polynomial with degree t.
-		initField(t, random.nextInt());
+		//Initialize the field GF2E with an irreducible polynomial with degree t.
+		field = GF2tField.getInstance(t);
+		
+		//The x coordinates of the interpolation are 0 and j for every j not in I. 
+		long[][] xs = new long[len - k + 1][];
+		xs[0] = field.zero();
+		int index = 1;
+		for (int i = 0; i < len; i++){
+			if (provers.get(i) == null){
+				xs[index++] = field.fromLong(i+1); //i+1 because Q(0) = e.
+			}
+		}
+		interpolator = new GF2tLagrangeInterpolator(field, xs);
 	}
 
 	/**
@@ -164,36 +165,6 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 		
 	}
 
-	/**
-	 * Align the given array to t length. Adds zeros in the beginning.
-	 * @param array to align
-	 * @return the aligned array.
-	 */
-	private byte[] alignToT(byte[] array) {
-		byte[] alignArr = new byte[t/8];
-		int len = array.length;
-		//in case the array is not aligned, add zeros.
-		if (len < t/8){
-			int diff = t/8 - len; //Number of bytes to fill with zeros.
-			int index = 0;
-			// NTL converts byte array to polynomial in the following way:
-			// x = sum(p[i]*X^(8*i), i = 0..n-1)
-			// This means that the most left byte in the array is the first degree of the polynomial.
-			// So, copy the original array content to the left side of the new array.
-			for (int i=0; i<len; i++){
-				alignArr[index++] = array[i];
-			}
-			//Add zeros in the right side of the array
-			for (int i=0; i<diff; i++){
-				alignArr[index++] = 0;
-			}
-		} else{
-			alignArr = array;
-		}
-		return alignArr;
-		
-	}
-
 	/**
 	 * Computes the first message of the protocol.<p>
 	 * "For every j not in I, SAMPLE a random element ej <- GF[2^t]<p>
@@ -212,17 +183,15 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 		Hashtable<Integer, SigmaCommonInput> simulatorsInput = input.getSimulatorsInput();
 		
 		//Sample random values for this protocol.
-		fieldElements = new long[len - k];
-		//For every j not in I, sample a random element ej <- GF[2^t]. We sample the random elements in one native call.
-		byte[][] ejs = createRandomFieldElements(len - k, fieldElements);
+		fieldElements = new long[len - k][];
 		int index = 0;
 		challenges = new byte[len][];
 		
-		//Set the created challenges to the challenges array in the empty indexes.
+		//For every j not in I, sample a random element ej <- GF[2^t] and set it to the challenges array in the empty indexes.
 		for (int i=0; i<len; i++){
 			if (simulators.get(i) != null){
-				//in case that the sample element's length is not t, add zeros to its beginning.
-				challenges[i] = alignToT(ejs[index]);
+				fieldElements[index] = field.random(random);
+				challenges[i] = field.toBytes(fieldElements[index]);
 				index++; //increase the index of the sampled challenges array.
 			}
 		}
@@ -266,28 +235,16 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 	 * @throws CheatAttemptException if the received challenge's length is not equal to the soundness parameter.
 	 */
 	public SigmaProtocolMsg computeSecondMsg(byte[] challenge) throws CheatAttemptException {
-		//Create two arrays of indexes. These arrays used to calculate the interpolated polynomial.
-		int[] indexesNotInI= new int[len - k];
-		int[] indexesInI= new int[k];
-		int indexNotInI = 0;
-		int indexInI = 0;
-		//Fill the arrays with the indexes.
-		for (int i = 0; i < len; i++){
-			if (provers.get(i) != null){ //prover i has a witness
-				indexesInI[indexInI++] = i+1; //i+1 because Q(0) = e.
-			} else {
-				indexesNotInI[indexNotInI++] = i+1;
-			}
-		}
 		//Interpolate the points (0,e) and {(j,ej)} for every j NOT in I to obtain a degree n-k polynomial Q.
-		long polynomial = interpolate(challenge, fieldElements, indexesNotInI);
+		long[][] ys = new long[len - k + 1][];
+		ys[0] = field.fromBytes(challenge);
+		System.arraycopy(fieldElements, 0, ys, 1, len - k);
+		long[][] polynomial = interpolator.interpolate(ys);
 		
 		//Get the rest of the challenges by computing for every i in I, ei = Q(i).
-		byte[][] jsInI = getRestChallenges(polynomial, indexesInI);
-		int index = 0;
 		for(int i=0; i<len; i++){
 			if (provers.get(i) != null){
-				challenges[i] = alignToT(jsInI[index++]);
+				challenges[i] = field.toBytes(field.evaluate(polynomial, field.fromLong(i+1)));
 			}
 		}
 		
@@ -307,10 +264,8 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 		}
 		
 		//Get the byte array that represent the polynomial
-		byte[][] polynomBytes = getPolynomialBytes(polynomial);
-		
-		//Delete the allocated memory of the polynomial and the field elements.
-		deletePointers(polynomial, fieldElements);
+		byte[][] polynomBytes = SigmaORMultipleSecondMsg.polynomialToBytes(field, polynomial);
+		fieldElements = null;
 		
 		//Create a SigmaORMultipleSecondMsg with the messages array.
 		return new SigmaORMultipleSecondMsg(polynomBytes, secondMessages, challenges);
@@ -329,11 +284,5 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 		return new SigmaORMultipleSimulator(simulators, t, random);
 	}
 
-	
-	static {
-		 
-		 //load the NTL jni dll
-		 System.loadLibrary("NTLJavaInterface");
-	}
 
 }
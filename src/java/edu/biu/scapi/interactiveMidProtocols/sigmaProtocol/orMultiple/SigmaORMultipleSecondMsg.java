@@ -27,6 +27,9 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple;
 import java.util.ArrayList;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
+import edu.biu.scapi.tools.math.GF2tField;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -37,7 +40,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaORMultipleSecondMsg implements SigmaProtocolMsg {
+class SigmaORMultipleSecondMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable {
 	
 	private static final long serialVersionUID = -348217363547929670L;
 	
@@ -63,4 +66,54 @@ class SigmaORMultipleSecondMsg implements SigmaProtocolMsg {
 		return challenges;
 	}
 	
+	/**
+	 * Converts the coefficients of the given polynomial to bytes. 
+	 * The zero coefficients of the highest degrees are omitted, so the number of the returned coefficients is the degree of the polynomial plus one.
+	 * @param field the field of the coefficients.
+	 * @param polynomial the coefficients of the polynomial, where polynomial[i] is the coefficient of X^i.
+	 * @return the bytes of the coefficients.
+	 */
+	static byte[][] polynomialToBytes(GF2tField field, long[][] polynomial){
+		int numCoefficients = polynomial.length;
+		while (numCoefficients > 0 && field.isZero(polynomial[numCoefficients - 1])){
+			numCoefficients--;
+		}
+		byte[][] bytes = new byte[numCoefficients][];
+		for (int i = 0; i < numCoefficients; i++){
+			bytes[i] = field.toBytes(polynomial[i]);
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Converts the given bytes to the coefficients of a polynomial.
+	 * @param field the field of the coefficients.
+	 * @param bytes the bytes of the coefficients, as returned from {@link #polynomialToBytes(GF2tField, long[][])}.
+	 * @return the coefficients of the polynomial.
+	 */
+	static long[][] polynomialFromBytes(GF2tField field, byte[][] bytes){
+		long[][] polynomial = new long[bytes.length][];
+		for (int i = 0; i < bytes.length; i++){
+			polynomial[i] = field.fromBytes(bytes[i]);
+		}
+		return polynomial;
+	}
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(polynomial.length);
+		for (byte[] coefficient : polynomial){
+			transcript.absorb(coefficient);
+		}
+		transcript.absorb(z.size());
+		for (SigmaProtocolMsg msg : z){
+			transcript.absorb(msg);
+		}
+		transcript.absorb(challenges.length);
+		for (byte[] challenge : challenges){
+			transcript.absorb(challenge);
+		}
+	}
 }
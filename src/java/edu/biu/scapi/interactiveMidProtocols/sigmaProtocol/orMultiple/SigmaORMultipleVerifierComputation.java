@@ -31,6 +31,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputat
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultipleMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.tools.math.GF2tField;
 
 /**
  * Concrete implementation of Sigma Protocol verifier computation.<p>
@@ -60,22 +61,11 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 	private int len;										// Number of underlying verifiers.
 	private byte[] e;										// The challenge.
 	private int t;											// Soundness parameter.
-	private long challengePointer;							// Pointer to the sampled challenge element.
 	private int k;											// Number of true statements.
+	private SecureRandom random;
+	private GF2tField field;								// The field GF[2^t].
 	
 	
-	//Initializes the field GF2E with a random irreducible polynomial with degree t.
-	private native void initField(int t, int seed);
-	
-	//Samples the challenge as a field element.
-	private native byte[] sampleChallenge(long[] pointer);
-	
-	//Checks if Q is of degree n-k AND Q(i)=ei for all i=1,...,n AND Q(0)=e. This function also deletes the allocated memory.
-	private native boolean checkPolynomialValidity(byte[][] polynomial, int k, long challengePointer, byte[][] challenges);
-	
-	//Sets the given challenge in the field.
-	private native void setChallenge(long [] pointer, byte[] challenge);
-	
 	/**
 	 * Constructor that gets the underlying verifiers.
 	 * @param verifiers array of SigmaVerifierComputation, where each object represent a statement 
@@ -94,9 +84,10 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 		this.verifiers = verifiers;
 		len = verifiers.size();
 		this.t = t; 
+		this.random = random;
 		
-		//Initialize the field GF2E with a random irreducible polynomial with degree t.
-		initField(t, random.nextInt());
+		//Initialize the field GF2E with an irreducible polynomial with degree t.
+		field = GF2tField.getInstance(t);
 	}
 	
 	/**
@@ -134,12 +125,8 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 	 * 	"SAMPLE a single random challenge  e <- GF[2^t]".
 	 */
 	public void sampleChallenge(){
-		//Call the native function to sample a field element.
-		long[] pointer = new long[2];
-		//The pointer to the sampled challenge will be in the first cell of the array. We send array from technical reasons.
-		e = sampleChallenge(pointer);
-		e = alignToT(e);
-		challengePointer = pointer[0];
+		//Sample a field element.
+		e = field.toBytes(field.random(random));
 	}
 	
 	/**
@@ -178,11 +165,6 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 	 */
 	public void setChallenge(byte[] challenge){
 		e = alignToT(challenge);
-		//Call the native function to sample a field element.
-		long[] pointer = new long[2];
-		//The pointer to the sampled challenge will be in the first cell of the array. We send array from technical reasons.
-		setChallenge(pointer, challenge);
-		challengePointer = pointer[0];
 	}
 	
 	/**
@@ -227,8 +209,8 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 		byte[][] polynomial = second.getPolynomial();
 		byte[][] challenges = second.getChallenges();
 		
-		//Call native function to check the polynomial validity.
-		verified = verified && checkPolynomialValidity(polynomial, k, challengePointer, challenges);
+		//Check the polynomial validity.
+		verified = verified && checkPolynomialValidity(polynomial, challenges);
 		
 		//Compute all verifier checks.
 		for (int i = 0; i < len; i++){
@@ -240,10 +222,29 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 		return verified;	
 	}
 	
-	
-	static {
-		 
-		 //load the NTL jni dll
-		 System.loadLibrary("NTLJavaInterface");
+	/**
+	 * Checks if Q is of degree n-k AND Q(i)=ei for all i=1,...,n AND Q(0)=e.
+	 * @param polynomialBytes the coefficients of Q.
+	 * @param challenges e1,...,en.
+	 * @return true if all checks return true.
+	 */
+	private boolean checkPolynomialValidity(byte[][] polynomialBytes, byte[][] challenges){
+		long[][] polynomial = SigmaORMultipleSecondMsg.polynomialFromBytes(field, polynomialBytes);
+		
+		//Check that the degree of the polynomial is n-k, while n is the number of challenges.
+		int degree = polynomial.length - 1;
+		while (degree >= 0 && field.isZero(polynomial[degree])){
+			degree--;
+		}
+		boolean valid = (degree == challenges.length - k);
+		
+		//Check that Q(0)=e.
+		valid = valid && field.equals(field.evaluate(polynomial, field.zero()), field.fromBytes(e));
+		
+		//For each one of the challenges, check that Q(i)=ei.
+		for (int i = 0; valid && i < challenges.length; i++){
+			valid = field.equals(field.evaluate(polynomial, field.fromLong(i+1)), field.fromBytes(challenges[i]));
+		}
+		return valid;
 	}
 }
@@ -25,6 +25,8 @@
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -34,7 +36,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaORTwoFirstMsg implements SigmaProtocolMsg{
+class SigmaORTwoFirstMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable{
 
 	private static final long serialVersionUID = 5917636619476148404L;
 	
@@ -53,4 +55,12 @@ class SigmaORTwoFirstMsg implements SigmaProtocolMsg{
 	SigmaProtocolMsg getA1(){
 		return a1;
 	}
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(a0);
+		transcript.absorb(a1);
+	}
 }
@@ -27,6 +27,8 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCmtKnowledge
 import java.math.BigInteger;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -35,7 +37,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaPedersenCmtKnowledgeMsg implements SigmaProtocolMsg {
+class SigmaPedersenCmtKnowledgeMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable {
 
 	private static final long serialVersionUID = 1443613833827988336L;
 	private BigInteger u;
@@ -53,4 +55,12 @@ class SigmaPedersenCmtKnowledgeMsg implements SigmaProtocolMsg {
 	BigInteger getV(){
 		return v;
 	}
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(u);
+		transcript.absorb(v);
+	}
 }
@@ -29,8 +29,9 @@ import java.security.SecureRandom;
 
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
-import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaDlogBatchVerifier;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaGroupElementMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
@@ -46,7 +47,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaPedersenCmtKnowledgeVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaPedersenCmtKnowledgeVerifierComputation implements SigmaBatchVerifierComputation, DlogBasedSigma{
 	
 	/*	
 	  This class computes the following calculations:
@@ -201,5 +202,52 @@ public class SigmaPedersenCmtKnowledgeVerifierComputation implements SigmaVerifi
 		return verified;	
 	}
 	
-
+	/**
+	 * Verifies a batch of proofs using randomized batch verification (see {@link SigmaDlogBatchVerifier}).<p>
+	 * All the equations h^u*g^v = a*c^e are combined into one equation.
+	 * @param inputs MUST be instances of SigmaPedersenCmtKnowledgeCommonInput.
+	 * @param a first messages from the prover. MUST be instances of SigmaGroupElementMsg.
+	 * @param challenges the challenge of each proof.
+	 * @param z second messages from the prover. MUST be instances of SigmaPedersenCmtKnowledgeMsg.
+	 * @return an array that contains true in index i if proof i has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if one of the inputs or messages is not of the expected type, or if the arrays are not of the same length.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		SigmaDlogBatchVerifier.checkBatchLengths(inputs, a, challenges, z);
+		
+		SigmaDlogBatchVerifier.Equations[] equations = new SigmaDlogBatchVerifier.Equations[inputs.length];
+		for (int i=0; i<inputs.length; i++){
+			equations[i] = createEquations(inputs[i], a[i], challenges[i], z[i]);
+		}
+		return new SigmaDlogBatchVerifier(dlog, t, random).verify(equations);
+	}
+	
+	/**
+	 * Creates the equation h^u*g^v = a*c^e of a single proof.
+	 * @return the equation, or null if one of h, c and a is not a member of the group.
+	 */
+	private SigmaDlogBatchVerifier.Equations createEquations(SigmaCommonInput input, SigmaProtocolMsg a, byte[] challenge, SigmaProtocolMsg z){
+		if (!(input instanceof SigmaPedersenCmtKnowledgeCommonInput)){
+			throw new IllegalArgumentException("the given input must be an instance of SigmaPedersenCTKnowledgeCommonInput");
+		}
+		if (!(a instanceof SigmaGroupElementMsg)){
+			throw new IllegalArgumentException("first message must be an instance of SigmaGroupElementMsg");
+		}
+		if (!(z instanceof SigmaPedersenCmtKnowledgeMsg)){
+			throw new IllegalArgumentException("second message must be an instance of SigmaPedersenCTKnowledgeMsg");
+		}
+		SigmaPedersenCmtKnowledgeCommonInput params = (SigmaPedersenCmtKnowledgeCommonInput) input;
+		
+		GroupElement h = params.getH();
+		GroupElement aElement = SigmaDlogBatchVerifier.reconstructMember(dlog, ((SigmaGroupElementMsg) a).getElement());
+		if (aElement == null || !SigmaDlogBatchVerifier.areMembers(dlog, h, params.getCommitment())){
+			return null;
+		}
+		SigmaPedersenCmtKnowledgeMsg secondMsg = (SigmaPedersenCmtKnowledgeMsg) z;
+		
+		SigmaDlogBatchVerifier.Equations equations = new SigmaDlogBatchVerifier.Equations();
+		equations.addEquation(new GroupElement[]{h, dlog.getGenerator()}, new BigInteger[]{secondMsg.getU(), secondMsg.getV()}, 
+				new GroupElement[]{aElement, params.getCommitment()}, new BigInteger[]{BigInteger.ONE, new BigInteger(1, challenge)});
+		return equations;
+	}
 }
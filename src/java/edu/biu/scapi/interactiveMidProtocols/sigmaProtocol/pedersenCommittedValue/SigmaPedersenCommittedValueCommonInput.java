@@ -29,6 +29,8 @@ import java.io.ObjectOutputStream;
 import java.math.BigInteger;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -38,7 +40,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaPedersenCommittedValueCommonInput implements SigmaCommonInput{
+public class SigmaPedersenCommittedValueCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 
 	private static final long serialVersionUID = -7506409897610196712L;
 	private BigInteger x;
@@ -86,5 +88,14 @@ public class SigmaPedersenCommittedValueCommonInput implements SigmaCommonInput{
         out.writeObject(h.generateSendableData());  
         out.writeObject(commitment.generateSendableData());
         out.writeObject(x);
-    }  
+    }
+	
+	/**
+	 * Writes the canonical encoding of this input to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(h);
+		transcript.absorb(commitment);
+		transcript.absorb(x);
+	}
 }
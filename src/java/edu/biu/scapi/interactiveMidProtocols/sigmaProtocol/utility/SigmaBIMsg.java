@@ -33,7 +33,7 @@ import java.math.BigInteger;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaBIMsg implements SigmaProtocolMsg{
+public class SigmaBIMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = -7686300107301882304L;
 	private BigInteger z;
@@ -44,4 +44,11 @@ public class SigmaBIMsg implements SigmaProtocolMsg{
 	public BigInteger getMsg(){
 		return z;
 	}
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(z);
+	}
 }
@@ -0,0 +1,236 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+
+/**
+ * Randomized batch verification of the equations of DlogGroup based sigma protocols.<p>
+ * 
+ * The verification of each proof is a set of equations of the form prod(x_i^{e_i}) = prod(y_j^{f_j}). 
+ * To verify many equations together, each equation is raised to a random exponent rho of t bits and all the equations are multiplied. 
+ * The result is a single equation that is computed by two calls to {@link DlogGroup#simultaneousMultipleExponentiations}. 
+ * Bases that appear in many equations (the same object, like the generator) are combined to a single base. 
+ * If all the equations hold, the combined equation holds. If one of them does not hold, the combined equation holds with probability 2^-t.<p>
+ * 
+ * When the combined equation does not hold, the batch is split into two halves that are verified recursively, until the bad proofs are found.<p>
+ * 
+ * The combination is sound only when all the group elements in the equations are members of a prime order group: 
+ * An element with a component of small order can cancel out when raised to rho, so a wrong equation could pass with a high probability. 
+ * Therefore, every received element should be checked with {@link #areMembers} (or reconstructed with {@link #reconstructMember}) 
+ * before its equations are created, and a proof with an element that is not a member should be rejected.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SigmaDlogBatchVerifier {
+	
+	/**
+	 * The verification equations of a single proof.
+	 */
+	public static class Equations {
+		private ArrayList<GroupElement[]> leftBases = new ArrayList<GroupElement[]>();
+		private ArrayList<BigInteger[]> leftExponents = new ArrayList<BigInteger[]>();
+		private ArrayList<GroupElement[]> rightBases = new ArrayList<GroupElement[]>();
+		private ArrayList<BigInteger[]> rightExponents = new ArrayList<BigInteger[]>();
+		
+		/**
+		 * Adds the equation prod(leftBases[i]^leftExponents[i]) = prod(rightBases[j]^rightExponents[j]).
+		 * The exponents should be non negative.
+		 */
+		public void addEquation(GroupElement[] leftBases, BigInteger[] leftExponents, GroupElement[] rightBases, BigInteger[] rightExponents){
+			if (leftBases.length != leftExponents.length || rightBases.length != rightExponents.length){
+				throw new IllegalArgumentException("each base should have an exponent");
+			}
+			this.leftBases.add(leftBases);
+			this.leftExponents.add(leftExponents);
+			this.rightBases.add(rightBases);
+			this.rightExponents.add(rightExponents);
+		}
+	}
+	
+	private DlogGroup dlog;
+	private int t;					//Bit length of the random exponents.
+	private SecureRandom random;
+	
+	/**
+	 * @param dlog the group of the equations.
+	 * @param t the bit length of the random exponents. The probability to accept a batch that contains a wrong equation is 2^-t.
+	 * @param random source of randomness for the exponents.
+	 */
+	public SigmaDlogBatchVerifier(DlogGroup dlog, int t, SecureRandom random){
+		if (t <= 0){
+			throw new IllegalArgumentException("t should be positive");
+		}
+		this.dlog = dlog;
+		this.t = t;
+		this.random = random;
+	}
+	
+	/**
+	 * Checks that the arrays of a batch have the same length.
+	 * @throws IllegalArgumentException if the lengths are different.
+	 */
+	public static void checkBatchLengths(Object[] inputs, Object[] a, Object[] challenges, Object[] z){
+		if (a.length != inputs.length || challenges.length != inputs.length || z.length != inputs.length){
+			throw new IllegalArgumentException("the number of inputs, messages and challenges should be the same");
+		}
+	}
+	
+	/**
+	 * Checks that all the given elements are members of the group.
+	 * @return true if all the elements are members of the group; false, otherwise.
+	 */
+	public static boolean areMembers(DlogGroup dlog, GroupElement... elements){
+		for (GroupElement element : elements){
+			if (!dlog.isMember(element)){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Reconstructs an element that was received from the prover and checks that it is a member of the group.
+	 * @return the element, or null if it is not a member of the group.
+	 */
+	public static GroupElement reconstructMember(DlogGroup dlog, GroupElementSendableData data){
+		GroupElement element;
+		try {
+			element = dlog.reconstructElement(true, data);
+		} catch (IllegalArgumentException e) {
+			//Some groups check the membership during the reconstruction and throw an exception.
+			return null;
+		}
+		//Other groups do not check the membership during the reconstruction, so check it here.
+		return dlog.isMember(element) ? element : null;
+	}
+	
+	/**
+	 * Verifies the given proofs.
+	 * @param proofs the equations of each proof. A null value means that the proof was already rejected.
+	 * @return an array that contains true in index i if all the equations of proof i hold; false, otherwise.
+	 */
+	public boolean[] verify(Equations[] proofs){
+		boolean[] verified = new boolean[proofs.length];
+		verifyRange(proofs, 0, proofs.length, verified);
+		return verified;
+	}
+	
+	/**
+	 * Verifies the proofs in [from, to). If the combined equation does not hold, verifies each half separately.
+	 */
+	private void verifyRange(Equations[] proofs, int from, int to, boolean[] verified){
+		boolean empty = true;
+		for (int i=from; i<to && empty; i++){
+			empty = (proofs[i] == null);
+		}
+		if (empty){
+			return;
+		}
+		
+		if (verifyCombined(proofs, from, to)){
+			for (int i=from; i<to; i++){
+				verified[i] = (proofs[i] != null);
+			}
+		} else if (to - from > 1){
+			int middle = (from + to) / 2;
+			verifyRange(proofs, from, middle, verified);
+			verifyRange(proofs, middle, to, verified);
+		}
+	}
+	
+	/**
+	 * Multiplies all the equations of the proofs in [from, to), each raised to a random exponent, and checks the result.
+	 */
+	private boolean verifyCombined(Equations[] proofs, int from, int to){
+		BigInteger q = dlog.getOrder();
+		Map<GroupElement, BigInteger> left = new IdentityHashMap<GroupElement, BigInteger>();
+		Map<GroupElement, BigInteger> right = new IdentityHashMap<GroupElement, BigInteger>();
+		
+		for (int i=from; i<to; i++){
+			if (proofs[i] == null){
+				continue;
+			}
+			Equations equations = proofs[i];
+			for (int j=0; j<equations.leftBases.size(); j++){
+				BigInteger rho = sampleExponent();
+				accumulate(left, equations.leftBases.get(j), equations.leftExponents.get(j), rho, q);
+				accumulate(right, equations.rightBases.get(j), equations.rightExponents.get(j), rho, q);
+			}
+		}
+		
+		return computeProduct(left).equals(computeProduct(right));
+	}
+	
+	/**
+	 * Samples a random non zero exponent of t bits.
+	 */
+	private BigInteger sampleExponent(){
+		BigInteger rho;
+		do {
+			rho = new BigInteger(t, random);
+		} while (rho.signum() == 0);
+		return rho;
+	}
+	
+	private static void accumulate(Map<GroupElement, BigInteger> terms, GroupElement[] bases, BigInteger[] exponents, BigInteger rho, BigInteger q){
+		for (int k=0; k<bases.length; k++){
+			BigInteger exponent = exponents[k].multiply(rho);
+			BigInteger current = terms.get(bases[k]);
+			if (current != null){
+				exponent = exponent.add(current);
+			}
+			//Short exponents (like rho*e) are kept as they are, since reducing them modulo q would make them longer.
+			if (exponent.compareTo(q) >= 0){
+				exponent = exponent.mod(q);
+			}
+			terms.put(bases[k], exponent);
+		}
+	}
+	
+	private GroupElement computeProduct(Map<GroupElement, BigInteger> terms){
+		if (terms.isEmpty()){
+			return dlog.getIdentity();
+		}
+		GroupElement[] bases = new GroupElement[terms.size()];
+		BigInteger[] exponents = new BigInteger[terms.size()];
+		int i = 0;
+		for (Map.Entry<GroupElement, BigInteger> term : terms.entrySet()){
+			bases[i] = term.getKey();
+			exponents[i] = term.getValue();
+			i++;
+		}
+		return dlog.simultaneousMultipleExponentiations(bases, exponents);
+	}
+}
@@ -0,0 +1,117 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.util.BigIntegers;
+
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.tools.precomputation.PrecomputationPool;
+
+/**
+ * A pool of pre-computed random values of Dlog based Sigma provers.<p>
+ * 
+ * Each value of the pool is a random r in Zq together with the powers base^r of a fixed list of bases, 
+ * which are the parts of the first message that do not depend on the prover's input.<p>
+ * 
+ * The background threads use the given DlogGroup concurrently with the prover, 
+ * so {@link #start()} should only be used with a thread-safe group; With other groups use {@link #fill()}.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SigmaDlogPrecomputationPool extends PrecomputationPool<SigmaDlogPrecomputationPool.Randomness> {
+	
+	/**
+	 * A random value r and the powers of the pool's bases by r.
+	 */
+	public static class Randomness {
+		private final BigInteger r;
+		private final GroupElement[] powers;
+		
+		private Randomness(BigInteger r, GroupElement[] powers) {
+			this.r = r;
+			this.powers = powers;
+		}
+		
+		public BigInteger getR() {
+			return r;
+		}
+		
+		/**
+		 * @param i index of the base.
+		 * @return bases[i]^r.
+		 */
+		public GroupElement getPower(int i) {
+			return powers[i];
+		}
+	}
+	
+	private final GroupElement[] bases;
+	
+	/**
+	 * Creates an empty pool. Call {@link #start()} or {@link #fill()} to fill it.
+	 * @param dlog the underlying DlogGroup.
+	 * @param bases the bases to raise by each random value.
+	 * @param random source of randomness. Used by the background threads.
+	 * @param capacity the maximal number of values in the pool.
+	 * @param numOfThreads the number of background threads that fill the pool after start is called.
+	 */
+	public SigmaDlogPrecomputationPool(final DlogGroup dlog, final GroupElement[] bases, final SecureRandom random, int capacity, int numOfThreads) {
+		super(new Producer<Randomness>() {
+			private final BigInteger qMinusOne = dlog.getOrder().subtract(BigInteger.ONE);
+			private final GroupElement[] poolBases = bases.clone();
+			
+			public Randomness produce() {
+				//Sample random r in Zq and compute base^r for each base.
+				BigInteger r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+				GroupElement[] powers = new GroupElement[poolBases.length];
+				for (int i=0; i<poolBases.length; i++){
+					powers[i] = dlog.exponentiate(poolBases[i], r);
+				}
+				return new Randomness(r, powers);
+			}
+		}, capacity, numOfThreads);
+		this.bases = bases.clone();
+	}
+	
+	/**
+	 * @param i index of the base.
+	 * @return the i-th base of this pool.
+	 */
+	public GroupElement getBase(int i) {
+		return bases[i];
+	}
+	
+	/**
+	 * @return the number of bases of this pool.
+	 */
+	public int getNumOfBases() {
+		return bases.length;
+	}
+}
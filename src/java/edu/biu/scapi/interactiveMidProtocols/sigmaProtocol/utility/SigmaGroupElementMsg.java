@@ -33,7 +33,7 @@ import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaGroupElementMsg implements SigmaProtocolMsg {
+public class SigmaGroupElementMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable {
 
 	private static final long serialVersionUID = 103982768646661614L;
 	
@@ -46,4 +46,11 @@ public class SigmaGroupElementMsg implements SigmaProtocolMsg {
 	public GroupElementSendableData getElement(){
 		return element;
 	}
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(element);
+	}
 }
@@ -34,7 +34,7 @@ import java.util.ArrayList;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaMultipleMsg implements SigmaProtocolMsg{
+public class SigmaMultipleMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable{
 	
 	
 	private static final long serialVersionUID = -8652010933123411049L;
@@ -48,5 +48,14 @@ public class SigmaMultipleMsg implements SigmaProtocolMsg{
 	public ArrayList<SigmaProtocolMsg> getMessages(){
 		return messages;
 	}
-
+	
+	/**
+	 * Writes the canonical encoding of this message to the given transcript.
+	 */
+	public void encodeTo(SigmaTranscript transcript) {
+		transcript.absorb(messages.size());
+		for (SigmaProtocolMsg msg : messages){
+			transcript.absorb(msg);
+		}
+	}
 }
@@ -0,0 +1,241 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import edu.biu.scapi.primitives.dlog.ECElementSendableData;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.ZpElementSendableData;
+import edu.biu.scapi.primitives.dlog.ristretto.RistrettoPointSendableData;
+import edu.biu.scapi.primitives.randomOracle.RandomOracle;
+import edu.biu.scapi.primitives.randomOracle.StreamingRandomOracle;
+
+/**
+ * A transcript of a sigma protocol that is used to compute the challenge in the Fiat-Shamir transformation.<p>
+ * 
+ * The transcript absorbs the common input, the messages and other data using a canonical binary encoding: 
+ * Each value is written with a 4-byte big-endian length prefix, and each input or message is preceded by its class name, 
+ * so that different sequences of values never have the same encoding. 
+ * Inputs and messages that implement {@link SigmaTranscriptEncodable} write their own fields; 
+ * Other objects are encoded by the Java serialization mechanism.<p>
+ * 
+ * If the random oracle is a {@link StreamingRandomOracle}, the encoding is written directly into it. 
+ * Otherwise it is collected in a single buffer and the random oracle is computed on it at the end.<p>
+ * 
+ * This class is not thread-safe.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SigmaTranscript {
+	
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	
+	private RandomOracle ro;
+	private StreamingRandomOracle streamingRo;	//The random oracle, if it is a streaming one. Null otherwise.
+	private ByteArrayOutputStream buffer;		//Collects the encoding if the random oracle is not a streaming one.
+	private byte[] lengthBytes = new byte[4];
+	
+	/**
+	 * Creates an empty transcript.<p>
+	 * A streaming random oracle is reset, since a previous transcript that used it could have stopped in the middle because of an exception.
+	 * @param ro the random oracle that computes the challenge.
+	 */
+	public SigmaTranscript(RandomOracle ro){
+		this.ro = ro;
+		if (ro instanceof StreamingRandomOracle){
+			streamingRo = (StreamingRandomOracle) ro;
+			streamingRo.reset();
+		} else{
+			buffer = new ByteArrayOutputStream();
+		}
+	}
+	
+	private void write(byte[] data, int offset, int length){
+		if (streamingRo != null){
+			streamingRo.update(data, offset, length);
+		} else{
+			buffer.write(data, offset, length);
+		}
+	}
+	
+	/**
+	 * Absorbs the given int as 4 big-endian bytes.
+	 */
+	public void absorb(int value){
+		lengthBytes[0] = (byte) (value >>> 24);
+		lengthBytes[1] = (byte) (value >>> 16);
+		lengthBytes[2] = (byte) (value >>> 8);
+		lengthBytes[3] = (byte) value;
+		write(lengthBytes, 0, 4);
+	}
+	
+	/**
+	 * Absorbs the given boolean as a single byte.
+	 */
+	public void absorb(boolean value){
+		lengthBytes[0] = (byte) (value ? 1 : 0);
+		write(lengthBytes, 0, 1);
+	}
+	
+	/**
+	 * Absorbs the given bytes with their length. A null array is absorbed as the length -1.
+	 */
+	public void absorb(byte[] data){
+		if (data == null){
+			absorb(-1);
+			return;
+		}
+		absorb(data.length);
+		write(data, 0, data.length);
+	}
+	
+	/**
+	 * Absorbs the two's complement representation of the given number with its length.
+	 */
+	public void absorb(BigInteger value){
+		absorb((value == null) ? null : value.toByteArray());
+	}
+	
+	/**
+	 * Absorbs the given string as UTF-8 bytes with their length.
+	 */
+	public void absorb(String value){
+		absorb((value == null) ? null : value.getBytes(UTF8));
+	}
+	
+	/**
+	 * Absorbs the sendable data of the given group element.
+	 */
+	public void absorb(GroupElement element){
+		absorb((element == null) ? null : element.generateSendableData());
+	}
+	
+	/**
+	 * Absorbs the coordinates of the given group element data, preceded by its type.
+	 */
+	public void absorb(GroupElementSendableData data){
+		if (data == null){
+			absorb((String) null);
+			return;
+		}
+		absorb(data.getClass().getName());
+		if (data instanceof ECElementSendableData){
+			absorb(((ECElementSendableData) data).getX());
+			absorb(((ECElementSendableData) data).getY());
+		} else if (data instanceof ZpElementSendableData){
+			absorb(((ZpElementSendableData) data).getX());
+		} else if (data instanceof RistrettoPointSendableData){
+			absorb(((RistrettoPointSendableData) data).getEncoding());
+		} else{
+			absorbSerialized(data);
+		}
+	}
+	
+	/**
+	 * Absorbs the given common input, preceded by its type.
+	 */
+	public void absorb(SigmaCommonInput input){
+		absorbObject(input);
+	}
+	
+	/**
+	 * Absorbs the given message, preceded by its type.
+	 */
+	public void absorb(SigmaProtocolMsg msg){
+		absorbObject(msg);
+	}
+	
+	/**
+	 * Absorbs the number of elements in the given list and then each element.
+	 */
+	public void absorbGroupElements(List<? extends GroupElement> elements){
+		absorb(elements.size());
+		for (GroupElement element : elements){
+			absorb(element);
+		}
+	}
+	
+	/**
+	 * Absorbs the number of numbers in the given list and then each number.
+	 */
+	public void absorbBigIntegers(List<BigInteger> values){
+		absorb(values.size());
+		for (BigInteger value : values){
+			absorb(value);
+		}
+	}
+	
+	/**
+	 * Absorbs an object that has no canonical encoding, using the Java serialization mechanism.
+	 */
+	public void absorbSerialized(Serializable data){
+		try {
+			ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+			ObjectOutputStream oOut = new ObjectOutputStream(bOut);
+			oOut.writeObject(data);
+			oOut.close();
+			absorb(bOut.toByteArray());
+		} catch (IOException e) {
+			//Should not happen since the data is written to memory.
+			throw new IllegalArgumentException("failed to serialize the given data: " + e.getMessage());
+		}
+	}
+	
+	private void absorbObject(Serializable object){
+		if (object == null){
+			absorb((String) null);
+			return;
+		}
+		absorb(object.getClass().getName());
+		if (object instanceof SigmaTranscriptEncodable){
+			((SigmaTranscriptEncodable) object).encodeTo(this);
+		} else{
+			absorbSerialized(object);
+		}
+	}
+	
+	/**
+	 * Computes the random oracle on everything that was absorbed and resets the transcript.
+	 * @param outLen required output length IN BYTES.
+	 * @return the challenge.
+	 */
+	public byte[] computeChallenge(int outLen){
+		if (streamingRo != null){
+			return streamingRo.computeFinal(outLen);
+		}
+		byte[] input = buffer.toByteArray();
+		buffer.reset();
+		return ro.compute(input, 0, input.length, outLen);
+	}
+}
@@ -24,16 +24,16 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.zeroKnowledge;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.CheatAttemptException;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchProverComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
 import edu.biu.scapi.primitives.randomOracle.HKDFBasedRO;
 import edu.biu.scapi.primitives.randomOracle.RandomOracle;
 
@@ -115,25 +115,13 @@ public class ZKPOKFiatShamirFromSigmaProver implements ZKPOKProver{
 	 * @throws IOException if failed to send the message.
 	 */
 	public ZKPOKFiatShamirProof generateFiatShamirProof(ZKProverInput input) throws CheatAttemptException, IOException{
-		//The given input must be an instance of ZKPOKFiatShamirProverInput that holds input for the underlying sigma protocol 
-		//and possible context information cont, or just the input for the underlying sigma protocol
-		if (!(input instanceof ZKPOKFiatShamirProverInput) && !(input instanceof SigmaProverInput)){
-			throw new IllegalArgumentException("the given input must be an instance of ZKPOKFiatShamirProverInput or SigmaProverInput");
-		}
-		
-		ZKPOKFiatShamirProverInput fsInput;
-		//In case the input is the input for the underlying sigma protocol, create input for this protocol with no context information.
-		if (input instanceof SigmaProverInput){
-			fsInput = new ZKPOKFiatShamirProverInput((SigmaProverInput) input);
-		} else{
-			fsInput = (ZKPOKFiatShamirProverInput) input;
-		}
+		ZKPOKFiatShamirProverInput fsInput = convertInput(input);
 		
 		//Compute the first message a in sigma, using (x,w) as input and 
 		SigmaProtocolMsg a = sProver.computeFirstMsg(fsInput.getSigmaInput());
 		
 		//Compute e=H(x,a,cont)
-		byte[] e = computeChallenge(fsInput, a);
+		byte[] e = computeChallenge(new SigmaTranscript(ro), fsInput, a);
 		
 		//Compute the response z to (a,e) according to sigma
 		SigmaProtocolMsg z = sProver.computeSecondMsg(e);
@@ -142,48 +130,91 @@ public class ZKPOKFiatShamirFromSigmaProver implements ZKPOKProver{
 		return new ZKPOKFiatShamirProof(a, e, z);
 	}
 	
+	/**
+	 * Generates many proofs at once.<p>
+	 * If the underlying sigma prover is a {@link SigmaBatchProverComputation} that supports batches, all the first messages are computed in parallel 
+	 * using the given executor, then all the challenges are derived in one pass and then all the responses are computed in parallel.
+	 * Otherwise, the proofs are generated one after the other using {@link #generateFiatShamirProof(ZKProverInput)}.<p>
+	 * The returned proofs are the same as proofs generated one by one, and can be verified by any Fiat-Shamir verifier.
+	 * @param inputs each one can be an instance of ZKPOKFiatShamirInput or an input for the underlying Sigma prover.
+	 * @param executor executes the computations of the underlying prover. May be null, in which case everything is computed on the calling thread.
+	 * @return ZKPOKFiatShamirProof for each input, in the same order.
+	 * @throws CheatAttemptException if the prover suspects the verifier is trying to cheat.
+	 * @throws IOException if failed to compute the challenges.
+	 */
+	public ZKPOKFiatShamirProof[] generateFiatShamirProofs(ZKProverInput[] inputs, ExecutorService executor) throws CheatAttemptException, IOException{
+		ZKPOKFiatShamirProof[] proofs = new ZKPOKFiatShamirProof[inputs.length];
+		
+		if (!(sProver instanceof SigmaBatchProverComputation) || !((SigmaBatchProverComputation) sProver).supportsBatch()){
+			for (int i = 0; i < inputs.length; i++){
+				proofs[i] = generateFiatShamirProof(inputs[i]);
+			}
+			return proofs;
+		}
+		
+		SigmaBatchProverComputation batchProver = (SigmaBatchProverComputation) sProver;
+		ZKPOKFiatShamirProverInput[] fsInputs = new ZKPOKFiatShamirProverInput[inputs.length];
+		SigmaProverInput[] sigmaInputs = new SigmaProverInput[inputs.length];
+		for (int i = 0; i < inputs.length; i++){
+			fsInputs[i] = convertInput(inputs[i]);
+			sigmaInputs[i] = fsInputs[i].getSigmaInput();
+		}
+		
+		//Compute all first messages.
+		SigmaProtocolMsg[] a = batchProver.computeFirstMsgs(sigmaInputs, executor);
+		
+		//Compute e=H(x,a,cont) for each proof. The transcript is reset after each challenge.
+		SigmaTranscript transcript = new SigmaTranscript(ro);
+		byte[][] e = new byte[inputs.length][];
+		for (int i = 0; i < inputs.length; i++){
+			e[i] = computeChallenge(transcript, fsInputs[i], a[i]);
+		}
+		
+		//Compute all responses.
+		SigmaProtocolMsg[] z = batchProver.computeSecondMsgs(e, executor);
+		
+		for (int i = 0; i < inputs.length; i++){
+			proofs[i] = new ZKPOKFiatShamirProof(a[i], e[i], z[i]);
+		}
+		return proofs;
+	}
+	
+	/**
+	 * Converts the given input to ZKPOKFiatShamirProverInput.
+	 * @param input can be an instance of ZKPOKFiatShamirInput or an input for the underlying Sigma prover.
+	 * @throws IllegalArgumentException if the given input is not an instance of ZKPOKFiatShamirProverInput or SigmaProverInput.
+	 */
+	private ZKPOKFiatShamirProverInput convertInput(ZKProverInput input){
+		//The given input must be an instance of ZKPOKFiatShamirProverInput that holds input for the underlying sigma protocol 
+		//and possible context information cont, or just the input for the underlying sigma protocol
+		if (!(input instanceof ZKPOKFiatShamirProverInput) && !(input instanceof SigmaProverInput)){
+			throw new IllegalArgumentException("the given input must be an instance of ZKPOKFiatShamirProverInput or SigmaProverInput");
+		}
+		
+		//In case the input is the input for the underlying sigma protocol, create input for this protocol with no context information.
+		if (input instanceof SigmaProverInput){
+			return new ZKPOKFiatShamirProverInput((SigmaProverInput) input);
+		} 
+		return (ZKPOKFiatShamirProverInput) input;
+	}
+	
 	/**
 	 * Run the following line from the protocol:
 	 * "COMPUTE e=H(x,a,cont)".
+	 * @param transcript an empty transcript to compute the challenge with.
 	 * @param input 
 	 * @param a first message of the sigma protocol.
 	 * @return the computed challenge
 	 * @throws IOException 
 	 */
-	private byte[] computeChallenge(ZKPOKFiatShamirProverInput input, SigmaProtocolMsg a) throws IOException {
+	private byte[] computeChallenge(SigmaTranscript transcript, ZKPOKFiatShamirProverInput input, SigmaProtocolMsg a) throws IOException {
 		//The input to the random oracle should include the common data of the prover 
 		//and verifier, and not the prover's private input.
-		byte[] inputArray = convertToBytes(((SigmaProverInput) input.getSigmaInput()).getCommonParams());
-		byte[] messageArray = convertToBytes(a);
-		byte[] cont = input.getContext();
-
-		byte[] inputToRO = null;
-		
-		if (cont != null){
-			inputToRO = new byte[inputArray.length + messageArray.length + cont.length];
-			System.arraycopy(cont, 0, inputToRO, inputArray.length + messageArray.length, cont.length);
-		} else{
-			inputToRO = new byte[inputArray.length + messageArray.length];
-		}
-		System.arraycopy(inputArray, 0, inputToRO, 0, inputArray.length);
-		System.arraycopy(messageArray, 0, inputToRO, inputArray.length, messageArray.length);
-		
-		return ro.compute(inputToRO, 0, inputToRO.length, sProver.getSoundnessParam()/8);
-	}
-	
-	/**
-	 * Converts the given data to byte array using serialization mechanism.
-	 * @param data to convert.
-	 * @return the converted bytes.
-	 * @throws IOException
-	 */
-	private byte[] convertToBytes(Serializable data) throws IOException{
-		ByteArrayOutputStream bOut = new ByteArrayOutputStream();  
-	    ObjectOutputStream oOut  = new ObjectOutputStream(bOut);
-		oOut.writeObject(data);  
-		oOut.close();
+		transcript.absorb(input.getSigmaInput().getCommonParams());
+		transcript.absorb(a);
+		transcript.absorb(input.getContext());
 		
-		return bOut.toByteArray();
+		return transcript.computeChallenge(sProver.getSoundnessParam()/8);
 	}
 	
 	/**
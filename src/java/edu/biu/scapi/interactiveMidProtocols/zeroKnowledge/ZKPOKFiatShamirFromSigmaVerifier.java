@@ -24,15 +24,15 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.zeroKnowledge;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
 import edu.biu.scapi.primitives.randomOracle.HKDFBasedRO;
 import edu.biu.scapi.primitives.randomOracle.RandomOracle;
 
@@ -118,19 +118,7 @@ public class ZKPOKFiatShamirFromSigmaVerifier implements ZKPOKVerifier{
 	 * @throws IllegalArgumentException if the given input is not an instance of ZKPOKFiatShamirInput or SigmaCommonInput.
 	 */
 	public boolean verifyFiatShamirProof(ZKCommonInput input, ZKPOKFiatShamirProof msg) throws IOException{
-		//The given input can be an instance of ZKPOKFiatShamirInput that holds input for the underlying sigma protocol and 
-		//possible context information cont, or just the input for the underlying sigma protocol.
-		if (!(input instanceof ZKPOKFiatShamirCommonInput) && !(input instanceof SigmaCommonInput)){
-			throw new IllegalArgumentException("the given input must be an instance of ZKPOKFiatShamirInput or SigmaCommonInput");
-		}
-		
-		ZKPOKFiatShamirCommonInput fsInput;
-		//In case the input is the input for the underlying sigma protocol, create input for this protocol with no context information.
-		if (input instanceof SigmaCommonInput){
-			fsInput = new ZKPOKFiatShamirCommonInput((SigmaCommonInput) input);
-		} else{
-			fsInput = (ZKPOKFiatShamirCommonInput) input;
-		}
+		ZKPOKFiatShamirCommonInput fsInput = convertInput(input);
 		
 		//get the given a
 		SigmaProtocolMsg a = msg.getA();
@@ -138,14 +126,103 @@ public class ZKPOKFiatShamirFromSigmaVerifier implements ZKPOKVerifier{
 		//Compute e=H(x,a,cont)
 		byte[] computedE = computeChallenge(fsInput, a);
 		
-		//get the given challenge.
-		byte[] receivedE = msg.getE();
-		
 		//check that e=H(x,a,cont):
+		boolean valid = isChallengeValid(computedE, msg.getE());
+			
+		//get the received z
+		SigmaProtocolMsg z = msg.getZ();
+		
+		//If transcript (a, e, z) is accepting in sigma on input x, output ACC
+		//Else outupt REJ
+		valid = valid && proccessVerify(fsInput.getSigmaInput(), a, computedE, z);
+		
+		return valid;
+	}
+	
+	/**
+	 * Verifies a batch of Fiat Shamir proofs.<p>
+	 * The challenge of each proof is checked separately. If the underlying sigma verifier is a {@link SigmaBatchVerifierComputation}, 
+	 * the transcripts with valid challenges are verified together; Otherwise, they are verified one by one.
+	 * @param inputs the input of each proof. Each one can be an instance of ZKPOKFiatShamirInput or SigmaCommonInput, as in {@link #verifyFiatShamirProof(ZKCommonInput, ZKPOKFiatShamirProof)}.
+	 * @param proofs Fiat Shamir proofs received from the prover.
+	 * @return an array that contains true in index i if proof i is valid; false, otherwise.
+	 * @throws IOException if there was problem with the serialization of the data on order to achieve a challenge.
+	 * @throws IllegalArgumentException if one of the given inputs is not an instance of ZKPOKFiatShamirInput or SigmaCommonInput, 
+	 * 									or if the number of inputs and proofs is not the same.
+	 */
+	public boolean[] verifyFiatShamirProofs(ZKCommonInput[] inputs, ZKPOKFiatShamirProof[] proofs) throws IOException{
+		if (inputs.length != proofs.length){
+			throw new IllegalArgumentException("the number of inputs and proofs should be the same");
+		}
+		
+		//Check the challenges and collect the transcripts that should be verified by the sigma verifier.
+		int n = proofs.length;
+		boolean[] valid = new boolean[n];
+		int[] indices = new int[n];
+		int count = 0;
+		for (int i=0; i<n; i++){
+			ZKPOKFiatShamirCommonInput fsInput = convertInput(inputs[i]);
+			byte[] computedE = computeChallenge(fsInput, proofs[i].getA());
+			if (isChallengeValid(computedE, proofs[i].getE())){
+				indices[count++] = i;
+			}
+		}
+		
+		SigmaCommonInput[] sigmaInputs = new SigmaCommonInput[count];
+		SigmaProtocolMsg[] a = new SigmaProtocolMsg[count];
+		byte[][] e = new byte[count][];
+		SigmaProtocolMsg[] z = new SigmaProtocolMsg[count];
+		for (int j=0; j<count; j++){
+			int i = indices[j];
+			sigmaInputs[j] = convertInput(inputs[i]).getSigmaInput();
+			a[j] = proofs[i].getA();
+			e[j] = proofs[i].getE();
+			z[j] = proofs[i].getZ();
+		}
+		
+		boolean[] verified;
+		if (sVerifier instanceof SigmaBatchVerifierComputation){
+			verified = ((SigmaBatchVerifierComputation) sVerifier).verifyBatch(sigmaInputs, a, e, z);
+		} else{
+			verified = new boolean[count];
+			for (int j=0; j<count; j++){
+				verified[j] = proccessVerify(sigmaInputs[j], a[j], e[j], z[j]);
+			}
+		}
+		
+		for (int j=0; j<count; j++){
+			valid[indices[j]] = verified[j];
+		}
+		return valid;
+	}
+	
+	/**
+	 * Converts the given input to the input of this protocol.
+	 * @param input can be an instance of ZKPOKFiatShamirInput or SigmaCommonInput.
+	 * @throws IllegalArgumentException if the given input is not an instance of ZKPOKFiatShamirInput or SigmaCommonInput.
+	 */
+	private ZKPOKFiatShamirCommonInput convertInput(ZKCommonInput input){
+		//The given input can be an instance of ZKPOKFiatShamirInput that holds input for the underlying sigma protocol and 
+		//possible context information cont, or just the input for the underlying sigma protocol.
+		if (!(input instanceof ZKPOKFiatShamirCommonInput) && !(input instanceof SigmaCommonInput)){
+			throw new IllegalArgumentException("the given input must be an instance of ZKPOKFiatShamirInput or SigmaCommonInput");
+		}
+		
+		//In case the input is the input for the underlying sigma protocol, create input for this protocol with no context information.
+		if (input instanceof SigmaCommonInput){
+			return new ZKPOKFiatShamirCommonInput((SigmaCommonInput) input);
+		} 
+		return (ZKPOKFiatShamirCommonInput) input;
+	}
+	
+	/**
+	 * Checks that the received challenge is equal to the computed one.
+	 */
+	private boolean isChallengeValid(byte[] computedE, byte[] receivedE){
 		boolean valid = true;
 		//In case that lengths of computed e and received e are not the same, set valid to false.
 		if (computedE.length != receivedE.length){
-			valid = false;
+			return false;
 		}
 		
 		//In case that  computed e and received e are not the same, set valid to false.
@@ -154,14 +231,6 @@ public class ZKPOKFiatShamirFromSigmaVerifier implements ZKPOKVerifier{
 				valid = false;
 			}
 		}
-			
-		//get the received z
-		SigmaProtocolMsg z = msg.getZ();
-		
-		//If transcript (a, e, z) is accepting in sigma on input x, output ACC
-		//Else outupt REJ
-		valid = valid && proccessVerify(fsInput.getSigmaInput(), a, computedE, z);
-		
 		return valid;
 	}
 	
@@ -196,37 +265,12 @@ public class ZKPOKFiatShamirFromSigmaVerifier implements ZKPOKVerifier{
 	 * @throws IOException 
 	 */
 	private byte[] computeChallenge(ZKPOKFiatShamirCommonInput input, SigmaProtocolMsg a) throws IOException {
-		byte[] inputArray = convertToBytes(input.getSigmaInput());
-		byte[] messageArray = convertToBytes(a);
-		byte[] cont = input.getContext();
-		
-		byte[] inputToRO = null;
-		
-		if (cont != null){
-			inputToRO = new byte[inputArray.length + messageArray.length + cont.length];
-			System.arraycopy(cont, 0, inputToRO, inputArray.length + messageArray.length, cont.length);
-		} else{
-			inputToRO = new byte[inputArray.length + messageArray.length];
-		}
-		System.arraycopy(inputArray, 0, inputToRO, 0, inputArray.length);
-		System.arraycopy(messageArray, 0, inputToRO, inputArray.length, messageArray.length);
-		
-		return ro.compute(inputToRO, 0, inputToRO.length, sVerifier.getSoundnessParam()/8);
-	}
-	
-	/**
-	 * Converts the given data to byte array using serialization mechanism.
-	 * @param data to convert.
-	 * @return the converted bytes.
-	 * @throws IOException
-	 */
-	private byte[] convertToBytes(Serializable data) throws IOException{
-		ByteArrayOutputStream bOut = new ByteArrayOutputStream();  
-	    ObjectOutputStream oOut  = new ObjectOutputStream(bOut);
-		oOut.writeObject(data);  
-		oOut.close();
+		SigmaTranscript transcript = new SigmaTranscript(ro);
+		transcript.absorb(input.getSigmaInput());
+		transcript.absorb(a);
+		transcript.absorb(input.getContext());
 		
-		return bOut.toByteArray();
+		return transcript.computeChallenge(sVerifier.getSoundnessParam()/8);
 	}
 	
 	/**
@@ -70,6 +70,19 @@ public class ZKPOKFromSigmaCmtPedersenProver implements ZKPOKProver{
 		this.channel = channel;
 	}
 	
+	/**
+	 * Constructor that accepts the underlying channel, sigma protocol's prover and the commitment receiver to use.
+	 * @param channel used for communication
+	 * @param sProver underlying sigma prover to use.
+	 * @param receiver underlying commitment receiver. The verifier should use a committer with the same Dlog group.
+	 */
+	public ZKPOKFromSigmaCmtPedersenProver(Channel channel, SigmaProverComputation sProver, CmtPedersenTrapdoorReceiver receiver){
+		
+		this.sProver = sProver;
+		this.receiver = receiver;
+		this.channel = channel;
+	}
+	
 	/**
 	 * Runs the prover side of the Zero Knowledge proof.<p>
 	 * Let (a,e,z) denote the prover1, verifier challenge and prover2 messages of the sigma protocol.<p>
@@ -75,6 +75,21 @@ public class ZKPOKFromSigmaCmtPedersenVerifier implements ZKPOKVerifier{
 		this.random = random;
 	}
 	
+	/**
+	 * Constructor that accepts the underlying channel, sigma protocol's verifier and the commitment committer to use.
+	 * @param channel used for communication
+	 * @param sVerifier underlying sigma verifier to use.
+	 * @param committer underlying commitment committer. The prover should use a receiver with the same Dlog group.
+	 * @param random
+	 */
+	public ZKPOKFromSigmaCmtPedersenVerifier(Channel channel, SigmaVerifierComputation sVerifier, CmtPedersenTrapdoorCommitter committer, SecureRandom random){
+	
+		this.channel = channel;
+		this.sVerifier = sVerifier;
+		this.committer = committer;
+		this.random = random;
+	}
+	
 	/**
 	 * Runs the verifier side of the Zero Knowledge proof.<p>
 	 * Let (a,e,z) denote the prover1, verifier challenge and prover2 messages of the sigma protocol.<p>
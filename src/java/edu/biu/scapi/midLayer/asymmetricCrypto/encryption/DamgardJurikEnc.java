@@ -27,8 +27,10 @@
 package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
 
 import java.math.BigInteger;
+import java.security.KeyException;
 
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
+import edu.biu.scapi.midLayer.plaintext.Plaintext;
 
 /**
  * General interface for DamgardJurik encryption scheme. Every concrete implementation of DamgardJurik encryption should implement this interface.
@@ -59,4 +61,23 @@ public interface DamgardJurikEnc extends AsymAdditiveHomomorphicEnc {
 	 * @throws IllegalArgumentException if the given ciphertext does not match this asymmetric encryption.
 	 */
 	public AsymmetricCiphertext reRandomize(AsymmetricCiphertext cipher, BigInteger r);
+	
+	/**
+	 * Encrypts a batch of plaintexts. All the plaintexts are encrypted with the same length parameter, 
+	 * so the values that depend only on the key and on the length parameter are computed once.
+	 * @param plaintexts the plaintexts to encrypt. Each one should be an instance of BigIntegerPlainText.
+	 * @return the ciphertexts, in the order of the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if one of the plaintexts does not match this asymmetric encryption.
+	 */
+	public AsymmetricCiphertext[] encrypt(Plaintext[] plaintexts);
+	
+	/**
+	 * Decrypts a batch of ciphertexts.
+	 * @param ciphers the ciphertexts to decrypt. Each one should be an instance of BigIntegerCiphertext.
+	 * @return the plaintexts, in the order of the ciphertexts.
+	 * @throws KeyException if the Private Key has not been set for this object.
+	 * @throws IllegalArgumentException if one of the ciphertexts does not match this asymmetric encryption.
+	 */
+	public Plaintext[] decrypt(AsymmetricCiphertext[] ciphers) throws KeyException;
 }
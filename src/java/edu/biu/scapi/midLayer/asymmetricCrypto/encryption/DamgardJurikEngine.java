@@ -0,0 +1,315 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
+
+import java.math.BigInteger;
+
+import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPrivateKey;
+import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPublicKey;
+import edu.biu.scapi.tools.math.MathAlgorithms;
+
+/**
+ * This class performs the arithmetic of the Damgard-Jurik encryption scheme for a fixed key and a fixed length parameter s.<p>
+ * 
+ * All the values that depend only on the key and on s are computed once, upon construction:
+ * the powers n^j, the inverses of k! modulo n^j that are used in decryption, and the values needed for working modulo p^(s+1) and q^(s+1).
+ * As a result, encrypting or decrypting many values with the same key and length is much faster than using {@link ScDamgardJurikEnc} 
+ * methods that compute everything from scratch:
+ * <ul>
+ * <li> (1+n)^x is computed using the binomial expansion, which has only s+1 terms modulo n^(s+1). No exponentiation is needed.
+ * <li> If the private key holds the factors p and q, decryption and r^N are computed modulo p^(s+1) and q^(s+1) 
+ * 		and combined using the Chinese Remainder Theorem.
+ * <li> The discrete logarithm of the decryption uses the pre-computed powers of n and inverses of the factorials.
+ * </ul>
+ * 
+ * The exponentiations themselves are computed by BigInteger.modPow, which already uses Montgomery multiplication for odd moduli.<p>
+ * 
+ * Objects of this class are immutable, so an engine can be used by several threads at the same time.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class DamgardJurikEngine {
+	
+	private final int s;				//The length parameter.
+	private final BigInteger n;			//The modulus of the public key.
+	private final BigInteger N;			//n^s.
+	private final BigInteger Ntag;		//n^(s+1).
+	private final BigInteger[] nPow;	//nPow[j] = n^j, for 0 <= j <= s+1.
+	//factorialInv[k][j] = (k!)^(-1) mod n^j, for 1 <= k, j <= s.
+	private final BigInteger[][] factorialInv;
+	
+	//Decryption values, null if there is no private key.
+	private final BigInteger d;			//d = 1 mod N and d = 0 mod t. Used only if p and q are not known.
+	private final boolean useCRT;		//true if p and q are known.
+	private final BigInteger pPow;		//p^(s+1).
+	private final BigInteger qPow;		//q^(s+1).
+	private final BigInteger dModPhiP;	//d mod phi(p^(s+1)).
+	private final BigInteger dModPhiQ;	//d mod phi(q^(s+1)).
+	private final BigInteger NModPhiP;	//N mod phi(p^(s+1)).
+	private final BigInteger NModPhiQ;	//N mod phi(q^(s+1)).
+	private final BigInteger qPowInv;	//(q^(s+1))^(-1) mod p^(s+1).
+	private final BigInteger p;
+	private final BigInteger q;
+	
+	/**
+	 * Creates an engine that can only encrypt.
+	 * @param publicKey the public key to use.
+	 * @param s the length parameter. Should be at least 1.
+	 */
+	public DamgardJurikEngine(DamgardJurikPublicKey publicKey, int s){
+		this(publicKey, null, s);
+	}
+	
+	/**
+	 * Creates an engine that can encrypt and, if the private key is not null, also decrypt.
+	 * @param publicKey the public key to use.
+	 * @param privateKey the private key to use. May be null.
+	 * @param s the length parameter. Should be at least 1.
+	 */
+	public DamgardJurikEngine(DamgardJurikPublicKey publicKey, DamgardJurikPrivateKey privateKey, int s){
+		if (s < 1){
+			throw new IllegalArgumentException("The length parameter should be at least 1");
+		}
+		this.s = s;
+		n = publicKey.getModulus();
+		
+		nPow = new BigInteger[s + 2];
+		nPow[0] = BigInteger.ONE;
+		for (int j=1; j<=s+1; j++){
+			nPow[j] = nPow[j-1].multiply(n);
+		}
+		N = nPow[s];
+		Ntag = nPow[s+1];
+		
+		factorialInv = new BigInteger[s + 1][s + 1];
+		for (int k=1; k<=s; k++){
+			BigInteger factorial = MathAlgorithms.factorialBI(k);
+			for (int j=1; j<=s; j++){
+				factorialInv[k][j] = factorial.modInverse(nPow[j]);
+			}
+		}
+		
+		if (privateKey == null){
+			d = null;
+		} else if (s == 1 && privateKey.getDForS1() != null){
+			d = privateKey.getDForS1();
+		} else {
+			//d = 1 mod N and d = 0 mod t. Since N and t are co-prime, d = t * (t^(-1) mod N).
+			BigInteger t = privateKey.getT();
+			d = t.multiply(t.modInverse(N));
+		}
+		
+		useCRT = (privateKey != null && privateKey.getP() != null && privateKey.getQ() != null);
+		if (useCRT){
+			p = privateKey.getP();
+			q = privateKey.getQ();
+			pPow = p.pow(s + 1);
+			qPow = q.pow(s + 1);
+			BigInteger phiP = p.pow(s).multiply(p.subtract(BigInteger.ONE));
+			BigInteger phiQ = q.pow(s).multiply(q.subtract(BigInteger.ONE));
+			dModPhiP = d.mod(phiP);
+			dModPhiQ = d.mod(phiQ);
+			NModPhiP = N.mod(phiP);
+			NModPhiQ = N.mod(phiQ);
+			qPowInv = qPow.modInverse(pPow);
+		} else {
+			p = q = pPow = qPow = dModPhiP = dModPhiQ = NModPhiP = NModPhiQ = qPowInv = null;
+		}
+	}
+	
+	/**
+	 * @return the length parameter s of this engine.
+	 */
+	public int getLengthParameter(){
+		return s;
+	}
+	
+	/**
+	 * @return N = n^s, the size of the plaintext space.
+	 */
+	public BigInteger getN(){
+		return N;
+	}
+	
+	/**
+	 * @return N' = n^(s+1), the modulus of the ciphertexts.
+	 */
+	public BigInteger getNtag(){
+		return Ntag;
+	}
+	
+	/**
+	 * @return true if this engine has a private key and can decrypt; false otherwise.
+	 */
+	public boolean canDecrypt(){
+		return d != null;
+	}
+	
+	/**
+	 * Computes (1+n)^x mod N'. 
+	 * Since n^(s+1) = 0 mod N', (1+n)^x = sum_{i=0..s} C(x, i) * n^i mod N', where C(x, i) is needed only modulo n^(s+1-i).
+	 * @param x the exponent. Should be in ZN.
+	 * @return (1+n)^x mod N'.
+	 */
+	public BigInteger powOnePlusN(BigInteger x){
+		BigInteger result = BigInteger.ONE;
+		BigInteger fallingFactorial = BigInteger.ONE;	//x(x-1)...(x-i+1)
+		for (int i=1; i<=s; i++){
+			BigInteger modulus = nPow[s + 1 - i];
+			fallingFactorial = fallingFactorial.multiply(x.subtract(BigInteger.valueOf(i - 1))).mod(modulus);
+			BigInteger binomial = fallingFactorial.multiply(factorialInv[i][s + 1 - i]).mod(modulus);
+			result = result.add(binomial.multiply(nPow[i]));
+		}
+		return result.mod(Ntag);
+	}
+	
+	/**
+	 * Computes r^N mod N', the random part of an encryption.<p>
+	 * If the private key is known, the computation is done modulo p^(s+1) and q^(s+1).
+	 * @param r random value in ZN'*.
+	 * @return r^N mod N'.
+	 */
+	public BigInteger randomizer(BigInteger r){
+		if (useCRT && r.mod(p).signum() != 0 && r.mod(q).signum() != 0){
+			return crt(r.modPow(NModPhiP, pPow), r.modPow(NModPhiQ, qPow));
+		}
+		return r.modPow(N, Ntag);
+	}
+	
+	/**
+	 * Computes the encryption c = (1+n)^x * r^N mod N'.
+	 * @param x the plaintext. Should be in ZN.
+	 * @param r random value in ZN'*.
+	 * @return the ciphertext.
+	 */
+	public BigInteger encrypt(BigInteger x, BigInteger r){
+		return encryptWithRandomizer(x, randomizer(r));
+	}
+	
+	/**
+	 * Computes the encryption c = (1+n)^x * randomizer mod N', given a randomizer that was already computed by {@link #randomizer(BigInteger)}.
+	 * @param x the plaintext. Should be in ZN.
+	 * @param randomizer r^N mod N'.
+	 * @return the ciphertext.
+	 */
+	public BigInteger encryptWithRandomizer(BigInteger x, BigInteger randomizer){
+		return powOnePlusN(x).multiply(randomizer).mod(Ntag);
+	}
+	
+	/**
+	 * Encrypts a batch of plaintexts.
+	 * @param x the plaintexts. Each one should be in ZN.
+	 * @param r the random values, one for each plaintext.
+	 * @return the ciphertexts.
+	 */
+	public BigInteger[] encrypt(BigInteger[] x, BigInteger[] r){
+		if (x.length != r.length){
+			throw new IllegalArgumentException("the number of plaintexts and random values should be equal");
+		}
+		BigInteger[] c = new BigInteger[x.length];
+		for (int i=0; i<x.length; i++){
+			c[i] = encrypt(x[i], r[i]);
+		}
+		return c;
+	}
+	
+	/**
+	 * Decrypts the given ciphertext.
+	 * @param c the ciphertext. Should be in ZN'.
+	 * @return the plaintext.
+	 * @throws IllegalStateException if this engine has no private key.
+	 */
+	public BigInteger decrypt(BigInteger c){
+		if (d == null){
+			throw new IllegalStateException("in order to decrypt a message, this engine must be initialized with private key");
+		}
+		
+		//Computes a = c^d mod N' = (1+n)^x mod N'.
+		BigInteger a;
+		if (useCRT){
+			a = crt(c.modPow(dModPhiP, pPow), c.modPow(dModPhiQ, qPow));
+		} else {
+			a = c.modPow(d, Ntag);
+		}
+		
+		return discreteLog(a);
+	}
+	
+	/**
+	 * Decrypts a batch of ciphertexts.
+	 * @param c the ciphertexts. Each one should be in ZN'.
+	 * @return the plaintexts.
+	 * @throws IllegalStateException if this engine has no private key.
+	 */
+	public BigInteger[] decrypt(BigInteger[] c){
+		BigInteger[] x = new BigInteger[c.length];
+		for (int i=0; i<c.length; i++){
+			x[i] = decrypt(c[i]);
+		}
+		return x;
+	}
+	
+	/*
+	 * Computes x as the discrete logarithm of a to the base (1+n) modulo N', using the algorithm of Damgard and Jurik:
+	 *		x=0
+	 *		for j = 1 to s do
+	 *		begin
+	 *		   t1= ((a mod n^(j+1)) -  1) / n
+	 *		   t2 = x
+	 *		   for k = 2 to j do
+	 *		   begin
+	 *		      x = x - 1
+	 *		      t2 = t2 * x mod n^j
+	 *		      t1 =  (t1 - t2 * n^(k-1) * (k!)^(-1))  mod n^j
+	 *		  end
+	 *		  x = t1
+	 *		end
+	 */
+	private BigInteger discreteLog(BigInteger a){
+		BigInteger x = BigInteger.ZERO;
+		for (int j=1; j<=s; j++){
+			BigInteger nPowJ = nPow[j];
+			BigInteger t1 = a.mod(nPow[j + 1]).subtract(BigInteger.ONE).divide(n);
+			BigInteger t2 = x;
+			for (int k=2; k<=j; k++){
+				x = x.subtract(BigInteger.ONE);
+				t2 = t2.multiply(x).mod(nPowJ);
+				BigInteger temp = t2.multiply(nPow[k - 1]).multiply(factorialInv[k][j]);
+				t1 = t1.subtract(temp).mod(nPowJ);
+			}
+			x = t1;
+		}
+		return x;
+	}
+	
+	/*
+	 * Returns the value modulo N' that equals aP modulo p^(s+1) and aQ modulo q^(s+1).
+	 */
+	private BigInteger crt(BigInteger aP, BigInteger aQ){
+		BigInteger h = aP.subtract(aQ).multiply(qPowInv).mod(pPow);
+		return aQ.add(h.multiply(qPow));
+	}
+}
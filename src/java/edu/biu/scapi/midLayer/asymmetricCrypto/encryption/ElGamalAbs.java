@@ -36,6 +36,7 @@ import java.security.PublicKey;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
@@ -51,18 +52,25 @@ import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
 import edu.biu.scapi.midLayer.plaintext.Plaintext;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ParallelDlogComputation;
 import edu.biu.scapi.primitives.dlog.cryptopp.CryptoPpDlogZpSafePrime;
 import edu.biu.scapi.primitives.dlog.miracl.MiraclDlogECFp;
 import edu.biu.scapi.securityLevel.DDH;
 import edu.biu.scapi.tools.Factories.DlogGroupFactory;
+import edu.biu.scapi.tools.precomputation.PrecomputationPool;
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
 
 /**
- * Abstract class that implements some common functionality to all ElGamal types.
+ * Abstract class that implements some common functionality to all ElGamal types.<p>
+ * 
+ * The pairs (g^y, h^y) can be pre-computed, so that {@link #encrypt(Plaintext)} only completes the encryption with the plaintext. 
+ * The background threads of {@link #startPrecomputation(int, int)} use the underlying DlogGroup concurrently with the caller, 
+ * so they should only be used with a thread-safe group; With other groups use {@link #precompute(int)}.
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public abstract class ElGamalAbs implements ElGamalEnc{
+public abstract class ElGamalAbs implements ElGamalEnc, AsymmetricEncWithPrecomputation{
 
 	protected DlogGroup dlog;						//The underlying DlogGroup
 	protected ElGamalPrivateKey privateKey;		//ElGamal private key (contains x)
@@ -70,6 +78,7 @@ public abstract class ElGamalAbs implements ElGamalEnc{
 	protected SecureRandom random;				//Source of randomness
 	private boolean isKeySet;
 	protected BigInteger qMinusOne;				//We keep this value to save unnecessary calculations.
+	private volatile PrecomputationPool<GroupElement[]> pairs;	//Pre-computed pairs (g^y, h^y) of the current key. Null if there is no precomputation.
 	
 	
 	/**
@@ -154,7 +163,7 @@ public abstract class ElGamalAbs implements ElGamalEnc{
 	 * @param privateKey should be ElGamalPrivateKey.
 	 * @throws InvalidKeyException if the given keys are not instances of ElGamal keys.
 	 */
-	public void setKey(PublicKey publicKey, PrivateKey privateKey) throws InvalidKeyException{
+	public synchronized void setKey(PublicKey publicKey, PrivateKey privateKey) throws InvalidKeyException{
 		//Key should be ElGamalPublicKey.
 		if(!(publicKey instanceof ElGamalPublicKey)){
 			throw new InvalidKeyException("keys should be instances of ElGamal keys");
@@ -165,6 +174,10 @@ public abstract class ElGamalAbs implements ElGamalEnc{
 			throw new InvalidKeyException("keys should be instances of ElGamal keys");
 		}
 		
+		//The pre-computed pairs of the previous key are no longer valid. They are discarded before the new key is set, 
+		//while holding the lock of createPairsPool, so no pool of the previous key is left after the key is replaced.
+		stopPrecomputation();
+		
 		//Sets the keys.
 		this.publicKey = (ElGamalPublicKey) publicKey;
 		
@@ -287,12 +300,74 @@ public abstract class ElGamalAbs implements ElGamalEnc{
 		 *		Calculate c2 = h^y * plaintext.getElement() mod p // For ElGamal on a GroupElement.
 		 *					OR KDF(h^y) XOR plaintext.getBytes()  // For ElGamal on a ByteArray.
 		 */
+		//If the pair (g^y, h^y) was pre-computed, only the completion of the encryption is left.
+		PrecomputationPool<GroupElement[]> pool = pairs;
+		if (pool != null){
+			GroupElement[] pair = pool.take();
+			return completeEncryption(pair[0], pair[1], plaintext);
+		}
+		
 		//Chooses a random value y<-Zq.
 		BigInteger y = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
 		
 		return encrypt(plaintext, y);	
 	}
 	
+	/**
+	 * Creates a pool of pairs (g^y, h^y) for the current public key and starts background threads that keep it full.<p>
+	 * The threads use the underlying DlogGroup, so this function should only be used with a thread-safe group.
+	 * @throws IllegalStateException if no public key was set.
+	 */
+	@Override
+	public PrecomputationPoolMetrics startPrecomputation(int capacity, int numOfThreads) {
+		PrecomputationPool<GroupElement[]> pool = createPairsPool(capacity, numOfThreads);
+		pool.start();
+		return pool;
+	}
+	
+	/**
+	 * Creates a pool of pairs (g^y, h^y) for the current public key and fills it on the calling thread.
+	 * @throws IllegalStateException if no public key was set.
+	 */
+	@Override
+	public PrecomputationPoolMetrics precompute(int capacity) {
+		PrecomputationPool<GroupElement[]> pool = createPairsPool(capacity, 1);
+		pool.fill();
+		return pool;
+	}
+	
+	private synchronized PrecomputationPool<GroupElement[]> createPairsPool(int capacity, int numOfThreads) {
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to precompute this object must be initialized with public key");
+		}
+		final GroupElement generator = dlog.getGenerator();
+		final GroupElement h = publicKey.getH();
+		PrecomputationPool<GroupElement[]> pool = new PrecomputationPool<GroupElement[]>(new PrecomputationPool.Producer<GroupElement[]>() {
+			public GroupElement[] produce() {
+				//Chooses a random value y<-Zq and calculates g^y and h^y.
+				BigInteger y = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+				return new GroupElement[]{dlog.exponentiate(generator, y), dlog.exponentiate(h, y)};
+			}
+		}, capacity, numOfThreads);
+		stopPrecomputation();
+		pairs = pool;
+		return pool;
+	}
+	
+	@Override
+	public synchronized void stopPrecomputation() {
+		if (pairs != null){
+			pairs.stop();
+			pairs.clear();
+			pairs = null;
+		}
+	}
+	
+	@Override
+	public PrecomputationPoolMetrics getPrecomputationMetrics() {
+		return pairs;
+	}
+	
 	/**
 	 * Encrypts the given plaintext using this asymmetric encryption scheme and using the given random value.<p>
 	 * There are cases when the random value is used after the encryption, for example, in sigma protocol. 
@@ -333,6 +408,41 @@ public abstract class ElGamalAbs implements ElGamalEnc{
 		return completeEncryption(c1, hy, plaintext);
 	}
 	
+	/**
+	 * Encrypts every given plaintext with the random value in the same index.<p>
+	 * The pairs (g^r, h^r) are computed using the fixed-base tables of g and h, split between the threads of the given executor. 
+	 * The encryptions are then completed with the plaintexts on the calling thread.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the number of random values is not the number of plaintexts, 
+	 * or if one of the plaintexts does not match this ElGamal type.
+	 */
+	public AsymmetricCiphertext[] encrypt(Plaintext[] plaintexts, BigInteger[] r, ExecutorService executor) {
+		// If there is no public key can not encrypt, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		if (plaintexts.length != r.length){
+			throw new IllegalArgumentException("The number of random values should be equal to the number of plaintexts");
+		}
+		//Check that the random values are in Zq.
+		for (int i=0; i<r.length; i++){
+			if (r[i].signum() < 0 || r[i].compareTo(qMinusOne) > 0){
+				throw new IllegalArgumentException("r must be in Zq");
+			}
+		}
+		
+		//Calculates c1 = g^r and h^r for all the random values.
+		ParallelDlogComputation parallel = new ParallelDlogComputation(dlog, executor);
+		GroupElement[] c1 = parallel.exponentiateGenerator(r);
+		GroupElement[] hr = parallel.exponentiateFixedBase(publicKey.getH(), r);
+		
+		AsymmetricCiphertext[] ciphertexts = new AsymmetricCiphertext[plaintexts.length];
+		for (int i=0; i<plaintexts.length; i++){
+			ciphertexts[i] = completeEncryption(c1[i], hr[i], plaintexts[i]);
+		}
+		return ciphertexts;
+	}
+	
 	protected abstract AsymmetricCiphertext completeEncryption(GroupElement c1, GroupElement hy, Plaintext plaintext);
 	
 	
@@ -26,6 +26,12 @@
 
 package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
 
+import java.math.BigInteger;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
+import edu.biu.scapi.midLayer.plaintext.Plaintext;
+
 /**
  * General interface for El Gamal encryption scheme. Every concrete implementation of ElGamal should implement this interface.
  * By definition, this encryption scheme is CPA-secure and Indistinguishable.
@@ -35,4 +41,17 @@ package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
  */
 public interface ElGamalEnc extends AsymmetricEnc{
 
+	/**
+	 * Encrypts every given plaintext with the random value in the same index.<p>
+	 * This is equivalent to calling {@link #encrypt(Plaintext, BigInteger)} on every plaintext, but the exponentiations 
+	 * of the batch are computed by the given executor. The executor should be given only if the underlying DlogGroup is thread-safe.
+	 * @param plaintexts the messages to encrypt. Each one must match this ElGamal type.
+	 * @param r the random values to use in the encryptions. Each one should be in Zq.
+	 * @param executor computes the exponentiations of the batch. If null, the batch is computed on the calling thread.
+	 * @return array that holds in place i the encryption of plaintexts[i].
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the number of random values is not the number of plaintexts, 
+	 * or if one of the plaintexts does not match this ElGamal type.
+	 */
+	public AsymmetricCiphertext[] encrypt(Plaintext[] plaintexts, BigInteger[] r, ExecutorService executor);
 }
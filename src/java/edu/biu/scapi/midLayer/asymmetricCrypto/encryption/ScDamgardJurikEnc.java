@@ -36,7 +36,7 @@ import java.security.PublicKey;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
-import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bouncycastle.util.BigIntegers;
 
@@ -53,16 +53,22 @@ import edu.biu.scapi.midLayer.plaintext.BigIntegerPlainText;
 import edu.biu.scapi.midLayer.plaintext.Plaintext;
 import edu.biu.scapi.primitives.trapdoorPermutation.RSAModulus;
 import edu.biu.scapi.primitives.trapdoorPermutation.ScRSAPermutation;
-import edu.biu.scapi.tools.math.MathAlgorithms;
+import edu.biu.scapi.tools.precomputation.PrecomputationPool;
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
 
 /**
  * Damgard Jurik is an asymmetric encryption scheme based on the Paillier encryption scheme.
- * This encryption scheme is CPA-secure and Indistinguishable.
+ * This encryption scheme is CPA-secure and Indistinguishable.<p>
+ * 
+ * The arithmetic is done by a {@link DamgardJurikEngine} that is created once for each length parameter and kept until the key is changed.<p>
+ * 
+ * The randomizers r^N mod N' can be pre-computed for the fixed length parameter (see {@link #setLengthParameter(int)}). 
+ * Then, {@link #encrypt(Plaintext)} and {@link #reRandomize(AsymmetricCiphertext)} cost a single multiplication modulo N'.
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Yael Ejgenberg)
  *
  */
-public class ScDamgardJurikEnc implements DamgardJurikEnc {
+public class ScDamgardJurikEnc implements DamgardJurikEnc, AsymmetricEncWithPrecomputation {
 	
 	private DamgardJurikPublicKey publicKey;
 	private DamgardJurikPrivateKey privateKey;
@@ -70,6 +76,12 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 	private boolean isKeySet;
 	
 	private int consts = -1;
+	
+	//The engines of the current key, one for each length parameter that was used.
+	private ConcurrentHashMap<Integer, DamgardJurikEngine> engines = new ConcurrentHashMap<Integer, DamgardJurikEngine>();
+	
+	//Pre-computed randomizers of the current key and the fixed length parameter. Null if there is no precomputation.
+	private volatile RandomizerPool randomizers;
 
 
 	/**
@@ -104,25 +116,28 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 	 * @throws InvalidKeyException if the given keys are not instances of DamgardJurik keys.
 	 */
 	@Override
-	public void setKey(PublicKey publicKey, PrivateKey privateKey) throws InvalidKeyException{
+	public synchronized void setKey(PublicKey publicKey, PrivateKey privateKey) throws InvalidKeyException{
 		//Public key should be Damgard Jurik public key.
 		if(!(publicKey instanceof DamgardJurikPublicKey)){
 			throw new InvalidKeyException("The public key must be of type DamgardJurikPublicKey");
 		}
+		//Private key should be Damgard Jurik private key or null if we are only setting the public key.	
+		if(privateKey != null && !(privateKey instanceof DamgardJurikPrivateKey)){
+			throw new InvalidKeyException("The private key must be of type DamgardJurikPrivateKey");
+		}
+		
+		//The randomizers and the engines of the previous key are no longer valid. They are discarded before the new key is set, 
+		//while holding the lock of createRandomizerPool, so no pool of the previous key is left after the key is replaced.
+		stopPrecomputation();
+		engines.clear();
+		
 		//Sets the public key
 		this.publicKey = (DamgardJurikPublicKey) publicKey;
-
-		//Private key should be Damgard Jurik private key or null if we are only setting the public key.	
 		if(privateKey != null){
-			
-			if(!(privateKey instanceof DamgardJurikPrivateKey)){
-				throw new InvalidKeyException("The private key must be of type DamgardJurikPrivateKey");
-			}
 			//Sets the private key
 			this.privateKey = (DamgardJurikPrivateKey) privateKey;
 		}
 		isKeySet = true;
-
 	}
 
 	/**
@@ -225,6 +240,112 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 	 */
 	public void setLengthParameter(int s) {
 		this.consts = s;
+		//Randomizers of a different length parameter can not be used.
+		RandomizerPool pool = randomizers;
+		if (pool != null && pool.s != s){
+			stopPrecomputation();
+		}
+	}
+	
+	/**
+	 * A pool of randomizers r^N mod N' for a specific length parameter.
+	 */
+	private static class RandomizerPool extends PrecomputationPool<BigInteger> {
+		private final int s;
+		
+		private RandomizerPool(final DamgardJurikEngine engine, final SecureRandom random, int capacity, int numOfThreads) {
+			super(new Producer<BigInteger>() {
+				private final BigInteger NtagMinus1 = engine.getNtag().subtract(BigInteger.ONE);
+				
+				public BigInteger produce() {
+					//The engine is immutable and SecureRandom is thread-safe, so the randomizers can be computed by several threads.
+					BigInteger r = BigIntegers.createRandomInRange(BigInteger.ONE, NtagMinus1, random);
+					return engine.randomizer(r);
+				}
+			}, capacity, numOfThreads);
+			s = engine.getLengthParameter();
+		}
+	}
+	
+	/**
+	 * Creates a pool of randomizers r^N mod N' for the current key and the fixed length parameter, 
+	 * and starts background threads that keep it full.
+	 * @throws IllegalStateException if no public key was set or if the length parameter was not set.
+	 */
+	@Override
+	public PrecomputationPoolMetrics startPrecomputation(int capacity, int numOfThreads) {
+		RandomizerPool pool = createRandomizerPool(capacity, numOfThreads);
+		pool.start();
+		return pool;
+	}
+	
+	/**
+	 * Creates a pool of randomizers r^N mod N' for the current key and the fixed length parameter, and fills it on the calling thread.
+	 * @throws IllegalStateException if no public key was set or if the length parameter was not set.
+	 */
+	@Override
+	public PrecomputationPoolMetrics precompute(int capacity) {
+		RandomizerPool pool = createRandomizerPool(capacity, 1);
+		pool.fill();
+		return pool;
+	}
+	
+	private synchronized RandomizerPool createRandomizerPool(int capacity, int numOfThreads) {
+		if (consts == -1){
+			throw new IllegalStateException("in order to precompute randomizers the length parameter should be set");
+		}
+		RandomizerPool pool = new RandomizerPool(getEngine(consts), random, capacity, numOfThreads);
+		stopPrecomputation();
+		randomizers = pool;
+		return pool;
+	}
+	
+	@Override
+	public synchronized void stopPrecomputation() {
+		if (randomizers != null){
+			randomizers.stop();
+			randomizers.clear();
+			randomizers = null;
+		}
+	}
+	
+	@Override
+	public PrecomputationPoolMetrics getPrecomputationMetrics() {
+		return randomizers;
+	}
+	
+	/**
+	 * Returns a pre-computed randomizer if there is a pool for the given length parameter.
+	 * @return r^N mod N' for a fresh random r, or null if there is no matching pool.
+	 */
+	private BigInteger takeRandomizer(int s) {
+		RandomizerPool pool = randomizers;
+		if (pool == null || pool.s != s){
+			return null;
+		}
+		return pool.take();
+	}
+	
+	/**
+	 * Returns the engine that performs the arithmetic of this encryption scheme for the given length parameter. 
+	 * The engine is created upon the first call with this length parameter and kept until the key is changed.
+	 * @param s the length parameter.
+	 * @return the engine of the current key and the given length parameter.
+	 * @throws IllegalStateException if no public key was set.
+	 */
+	public DamgardJurikEngine getEngine(int s) {
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to get an engine this object must be initialized with public key");
+		}
+		DamgardJurikEngine engine = engines.get(s);
+		if (engine == null){
+			engine = new DamgardJurikEngine(publicKey, privateKey, s);
+			DamgardJurikEngine existing = engines.putIfAbsent(s, engine);
+			if (existing != null){
+				engine = existing;
+			}
+		}
+		return engine;
 	}
 	
 	/** 
@@ -253,6 +374,16 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		//Calculates the length parameter s.
 		int s = (consts!=-1)?consts:((x.bitLength()/(publicKey.getModulus().bitLength() - 1)) + 1);
 		
+		//If the randomizer was pre-computed, only the multiplication by (1+n)^x is left.
+		BigInteger randomizer = takeRandomizer(s);
+		if (randomizer != null){
+			DamgardJurikEngine engine = getEngine(s);
+			//Makes sure the x belongs to ZN
+			if(x.compareTo(BigInteger.ZERO) < 0 || x.compareTo(engine.getN()) >= 0)
+				throw new IllegalArgumentException("Message too big for encryption");
+			return new BigIntegerCiphertext(engine.encryptWithRandomizer(x, randomizer));
+		}
+		
 		BigInteger Ntag = publicKey.getModulus().pow(s+1);
 		BigInteger NtagMinus1 = Ntag.subtract(BigInteger.ONE);
 		
@@ -313,13 +444,14 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		//Calculates the length parameter s.
 		int s = (consts!=-1)?consts:((x.bitLength()/(publicKey.getModulus().bitLength() - 1)) + 1);
 		
-		BigInteger N = publicKey.getModulus().pow(s);
+		DamgardJurikEngine engine = getEngine(s);
+		BigInteger N = engine.getN();
 		
 		//Makes sure the x belongs to ZN
 		if(x.compareTo(BigInteger.ZERO) < 0 || x.compareTo(N) >= 0)
 			throw new IllegalArgumentException("Message too big for encryption");
 		
-		BigInteger Ntag = publicKey.getModulus().pow(s+1);
+		BigInteger Ntag = engine.getNtag();
 		BigInteger NtagMinus1 = Ntag.subtract(BigInteger.ONE);
 		
 		//Check that the random value passed to this function is in Zq.
@@ -328,9 +460,7 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		}
 		
 		//Computes c = ((1 + n) ^x) * r ^N mod N'.
-		BigInteger  mult1= (publicKey.getModulus().add(BigInteger.ONE)).modPow(x, Ntag);
-		BigInteger mult2 = r.modPow(N, Ntag);
-		BigInteger c = (mult1.multiply(mult2)).mod(Ntag);
+		BigInteger c = engine.encrypt(x, r);
 		
 		//Wraps the BigInteger c with BigIntegerCiphertext and returns it.
 		return new BigIntegerCiphertext(c);
@@ -384,49 +514,89 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		//Calculates s = |cipher| / |n|
 		int s = (consts!=-1)?consts:((djCipher).getCipher().bitLength() / publicKey.getModulus().bitLength());
 
-		//Calculates N and N' based on s: N = n^s, N' = n^(s+1)
-		BigInteger n = publicKey.getModulus();
-		BigInteger N = n.pow(s);
-		BigInteger Ntag = n.pow(s+1);
+		//Gets the engine of s. It holds N = n^s, N' = n^(s+1) and the pre-computed values of the private key.
+		DamgardJurikEngine engine = getEngine(s);
+		BigInteger Ntag = engine.getNtag();
 		
 		//Makes sure the cipher belongs to ZN'
 		if(djCipher.getCipher().compareTo(BigInteger.ZERO) < 0 || djCipher.getCipher().compareTo(Ntag) >= 0)
 			throw new IllegalArgumentException("The cipher is not in ZN'");
 		
-		BigInteger d;
-		//Optimization for the calculation of d:
-		//If s == 1 used the pre-computed d which we have in the private key
-		//else, compute d using the Chinese Remainder Theorem, such that d = 1 mod N, and d = 0 mod t.
-		if(s==1){
-			d = privateKey.getDForS1();
-		}else{
-			d = generateD(N, privateKey.getT());
-		}
-		
-		//Computes (cipher ^ d) mod N'
-		BigInteger a = djCipher.getCipher().modPow(d, Ntag);
-		
-		//Computes x as the discrete logarithm of c^d to the base (1+n) modulo N'. This is done by the algorithm shown above.
-		BigInteger x = BigInteger.ZERO;
-		BigInteger t1, t2;
-		BigInteger nPowJ, factorialK, temp;
-		for(int j = 1; j <= s; j++){
-			t1 = (a.mod(n.pow(j+1)).subtract(BigInteger.ONE)).divide(n);
-			t2 = x;
-			nPowJ = n.pow(j);
-			for(int k = 2; k <=j; k++){
-				x = x.subtract(BigInteger.ONE);
-				t2 = (t2.multiply(x)).mod(nPowJ);
-				factorialK = MathAlgorithms.factorialBI(k);
-				temp = (t2.multiply(n.pow(k-1))).divide(factorialK);
-				t1 = t1.subtract(temp).mod(nPowJ);
-			}
-			x = t1;
-		}
+		//Computes (cipher ^ d) mod N' using the Chinese Remainder Theorem, and x as its discrete logarithm to the base (1+n). 
+		//The division by k! in the algorithm shown above is done by multiplying by the inverse of k! modulo n^j.
+		BigInteger x = engine.decrypt(djCipher.getCipher());
 		
 		return new BigIntegerPlainText(x);
 	}
 
+	/**
+	 * Encrypts a batch of plaintexts, using a fresh random value for each one.<p>
+	 * All the plaintexts are encrypted with the same length parameter: the one that was set by setLengthParameter, 
+	 * or the one that fits the longest plaintext if no length parameter was set.
+	 * @param plaintexts MUST be instances of BigIntegerPlainText.
+	 * @return an array of BigIntegerCiphertext objects holding the encryptions of the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException in the following cases:
+	 * 		1. If one of the given plaintexts is not instance of BigIntegerPlainText.
+	 * 		2. If the BigInteger value in one of the given plaintexts is not in ZN.
+	 */
+	@Override
+	public AsymmetricCiphertext[] encrypt(Plaintext[] plaintexts) {
+		// If there is no public key can not encrypt, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		
+		BigInteger[] x = new BigInteger[plaintexts.length];
+		int maxBitLength = 0;
+		for (int i=0; i<plaintexts.length; i++){
+			if(!(plaintexts[i] instanceof BigIntegerPlainText)){
+				throw new IllegalArgumentException("The plaintext has to be of type BigIntegerPlainText");
+			}
+			x[i] = ((BigIntegerPlainText) plaintexts[i]).getX();
+			maxBitLength = Math.max(maxBitLength, x[i].bitLength());
+		}
+		
+		//Calculates the length parameter s.
+		int s = (consts!=-1)?consts:((maxBitLength/(publicKey.getModulus().bitLength() - 1)) + 1);
+		DamgardJurikEngine engine = getEngine(s);
+		BigInteger N = engine.getN();
+		BigInteger NtagMinus1 = engine.getNtag().subtract(BigInteger.ONE);
+		
+		AsymmetricCiphertext[] ciphers = new AsymmetricCiphertext[plaintexts.length];
+		for (int i=0; i<plaintexts.length; i++){
+			//Makes sure the x belongs to ZN
+			if(x[i].compareTo(BigInteger.ZERO) < 0 || x[i].compareTo(N) >= 0)
+				throw new IllegalArgumentException("Message too big for encryption");
+			
+			BigInteger randomizer = takeRandomizer(s);
+			if (randomizer != null){
+				ciphers[i] = new BigIntegerCiphertext(engine.encryptWithRandomizer(x[i], randomizer));
+			} else{
+				BigInteger r = BigIntegers.createRandomInRange(BigInteger.ONE, NtagMinus1, random);
+				ciphers[i] = new BigIntegerCiphertext(engine.encrypt(x[i], r));
+			}
+		}
+		return ciphers;
+	}
+	
+	/**
+	 * Decrypts a batch of ciphertexts using DamgardJurik encryption scheme.
+	 * @param ciphers have to be instances of BigIntegerCiphertext.
+	 * @return an array of BigIntegerPlainText objects holding the decryptions of the ciphertexts.
+	 * @throws KeyException if the Private Key has not been set for this object.
+	 * @throws IllegalArgumentException if one of the ciphertexts is not an instance of BigIntegerCiphertext.
+	 */
+	@Override
+	public Plaintext[] decrypt(AsymmetricCiphertext[] ciphers) throws KeyException {
+		//Each decryption uses the engine of its length parameter, so all the values that depend on the key are computed once.
+		Plaintext[] plaintexts = new Plaintext[ciphers.length];
+		for (int i=0; i<ciphers.length; i++){
+			plaintexts[i] = decrypt(ciphers[i]);
+		}
+		return plaintexts;
+	}
+	
 	/**
 	 * Generates a byte array from the given plaintext. 
 	 * This function should be used when the user does not know the specific type of the Asymmetric encryption he has, 
@@ -469,6 +639,16 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		//Calculates s = |cipher| / |n|.
 		int s = (consts!=-1)?consts:((djCipher).getCipher().bitLength() / publicKey.getModulus().bitLength());
 
+		//If the randomizer was pre-computed, only the multiplication is left.
+		BigInteger randomizer = takeRandomizer(s);
+		if (randomizer != null){
+			BigInteger Ntag = getEngine(s).getNtag();
+			//Makes sure the cipher belongs to ZN'.
+			if(djCipher.getCipher().compareTo(BigInteger.ZERO) < 0 || djCipher.getCipher().compareTo(Ntag) >= 0)
+				throw new IllegalArgumentException("The cipher is not in ZN'");
+			return new BigIntegerCiphertext(djCipher.getCipher().multiply(randomizer).mod(Ntag));
+		}
+		
 		//Calculates N and N' based on s: N = n^s, N' = n^(s+1).
 		BigInteger n = publicKey.getModulus();
 		BigInteger Ntag = n.pow(s+1);
@@ -508,9 +688,8 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		int s = (consts!=-1)?consts:((djCipher).getCipher().bitLength() / publicKey.getModulus().bitLength());
 
 		//Calculates N and N' based on s: N = n^s, N' = n^(s+1).
-		BigInteger n = publicKey.getModulus();
-		BigInteger N = n.pow(s);
-		BigInteger Ntag = n.pow(s+1);
+		DamgardJurikEngine engine = getEngine(s);
+		BigInteger Ntag = engine.getNtag();
 		
 		//Makes sure the cipher belongs to ZN'.
 		if(djCipher.getCipher().compareTo(BigInteger.ZERO) < 0 || djCipher.getCipher().compareTo(Ntag) >= 0)
@@ -522,7 +701,7 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 			throw new IllegalArgumentException("r must be in Zq");
 		}
 				
-		BigInteger c = djCipher.getCipher().multiply(r.modPow(N, Ntag)).mod(Ntag);
+		BigInteger c = djCipher.getCipher().multiply(engine.randomizer(r)).mod(Ntag);
 		
 		return new BigIntegerCiphertext(c);
 	}
@@ -609,9 +788,8 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		}
 		
 		//Calculates N and N' based on s: N = n^s, N' = n^(s+1).
-		BigInteger n = publicKey.getModulus();
-		BigInteger N = n.pow(s1);
-		BigInteger Ntag = n.pow(s1+1);
+		DamgardJurikEngine engine = getEngine(s1);
+		BigInteger Ntag = engine.getNtag();
 		BigInteger NtagMinus1 = Ntag.subtract(BigInteger.ONE);
 		
 		//Check that the r random value passed to this function is in Zntag*.
@@ -627,7 +805,7 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		
 		BigInteger c = c1.multiply(c2).mod(Ntag);
 		
-		c = c.multiply(r.modPow(N, Ntag)).mod(Ntag);
+		c = c.multiply(engine.randomizer(r)).mod(Ntag);
 		
 		//Call the other function that computes the addition.
 		return new BigIntegerCiphertext(c);
@@ -711,9 +889,9 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		int s = (consts!=-1)?consts:((djCipher).getCipher().bitLength() / publicKey.getModulus().bitLength());
 
 		//Calculates N and N' based on s: N = n^s, N' = n^(s+1).
-		BigInteger n = publicKey.getModulus();
-		BigInteger N = n.pow(s);
-		BigInteger Ntag = n.pow(s+1);
+		DamgardJurikEngine engine = getEngine(s);
+		BigInteger N = engine.getN();
+		BigInteger Ntag = engine.getNtag();
 		BigInteger NtagMinus1 = Ntag.subtract(BigInteger.ONE);
 		
 		//Check that the r random value passed to this function is in Zntag*.
@@ -731,25 +909,11 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 	
 		BigInteger c = djCipher.getCipher().modPow(constNumber, Ntag);
 		
-		c = c.multiply(r.modPow(N, Ntag)).mod(Ntag);
+		c = c.multiply(engine.randomizer(r)).mod(Ntag);
 		
 		return new BigIntegerCiphertext(c);
 	}
 	
-	/**
-	 * This function generates a value d such that d = 1 mod N and d = 0 mod t, using the Chinese Remainder Theorem.
-	 */
-	private BigInteger generateD(BigInteger N, BigInteger t){
-		Vector<BigInteger> congruences = new Vector<BigInteger>();
-		congruences.add(BigInteger.ONE);
-		congruences.add(BigInteger.ZERO);
-		Vector<BigInteger> moduli = new Vector<BigInteger>();
-		moduli.add(N);
-		moduli.add(t);
-		BigInteger d = MathAlgorithms.chineseRemainderTheorem(congruences, moduli);
-		return d;
-	}
-
 	/** 
 	 * @see edu.biu.scapi.midLayer.asymmetricCrypto.encryption.AsymmetricEnc#generateCiphertext(edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertextSendableData)
 	 @deprecated As of SCAPI-V1-0-2-2 use reconstructCiphertext(AsymmetricCiphertextSendableData data)
@@ -47,7 +47,12 @@ import edu.biu.scapi.primitives.dlog.groupParams.GroupParams;
 *  - {@code decodeGroupElementToByteArray(GroupElement element) : byte[]}<p>
 *  - {@code mapAnyGroupElementToByteArray(GroupElement element) : byte[]}<p>
 *  
-*  The first two work as a pair and decodeGroupElementToByteArray is the inverse of encodeByteArrayToGroupElement, whereas the last one works alone and does not have an inverse. 
+*  The first two work as a pair and decodeGroupElementToByteArray is the inverse of encodeByteArrayToGroupElement, whereas the last one works alone and does not have an inverse. <p>
+*  
+*  Thread safety: The groups implemented in Java (the Bouncy Castle elliptic curves and Ristretto255) are thread-safe, so one instance 
+*  can be shared by all the threads of an application, including its pre-computed exponentiations. 
+*  The groups that use a native library (Miracl, OpenSSL and Crypto++) keep a native state in each instance that is changed by 
+*  every operation; Such an instance should be used by one thread at a time.
 
 * 
 * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
@@ -27,16 +27,21 @@
 package edu.biu.scapi.primitives.dlog;
 
 import java.math.BigInteger;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.HashMap;
-import java.util.Vector;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bouncycastle.util.BigIntegers;
 
 import edu.biu.scapi.primitives.dlog.groupParams.GroupParams;
 
 /**
- * DlogGroupAbs is an abstract class that implements common functionality of the Dlog group.
+ * DlogGroupAbs is an abstract class that implements common functionality of the Dlog group.<p>
+ * 
+ * The functionality implemented here is safe for concurrent use: The pre-computed exponentiations are kept in a concurrent map 
+ * whose reads do not lock, and random elements are created using a different SecureRandom in each thread, seeded from the given one.
+ * Thus, a concrete group whose own operations are thread-safe can be shared by all the threads of an application.
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
@@ -45,8 +50,16 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 	protected GroupParams groupParams;			//group parameters
 	protected GroupElement generator;			//generator of the group
 	//map for multExponentiationsWithSameBase calculations
-	private HashMap<GroupElement, GroupElementsExponentiations> exponentiationsMap = new HashMap<GroupElement, GroupElementsExponentiations>();
+	private ConcurrentHashMap<GroupElement, GroupElementsExponentiations> exponentiationsMap = new ConcurrentHashMap<GroupElement, GroupElementsExponentiations>();
 	protected SecureRandom random;				//Source of randomness to use.
+	private final Thread creatingThread = Thread.currentThread();	//The thread that created this group uses the given random.
+	//The other threads use their own SecureRandom objects that are seeded from the given one, so they do not wait for each other.
+	private final ThreadLocal<SecureRandom> threadRandom = new ThreadLocal<SecureRandom>(){
+		@Override
+		protected SecureRandom initialValue(){
+			return createThreadRandom();
+		}
+	};
 	//k is the maximum length of a string to be converted to a Group Element of this group. If a string exceeds the k length it cannot be converted.
  	protected int k;
 	
@@ -104,6 +117,33 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 		else return false;
 	}
 	
+	/**
+	 * Returns the source of randomness of the calling thread.<p>
+	 * The thread that created this group gets the SecureRandom given upon construction. Any other thread gets its own SecureRandom 
+	 * of the same algorithm, so that threads that share this group do not contend on a single source of randomness. 
+	 * The SecureRandom of each thread is seeded from the given SecureRandom, so all the randomness of the group comes from the given source. 
+	 * @return the SecureRandom to use in the calling thread.
+	 */
+	protected SecureRandom getRandom(){
+		return threadRandom.get();
+	}
+	
+	private SecureRandom createThreadRandom(){
+		if (Thread.currentThread() == creatingThread || random == null){
+			return random;
+		}
+		byte[] seed = new byte[32];
+		random.nextBytes(seed);
+		SecureRandom threadRandom;
+		try {
+			threadRandom = SecureRandom.getInstance(random.getAlgorithm());
+		} catch (NoSuchAlgorithmException e) {
+			threadRandom = new SecureRandom();
+		}
+		threadRandom.setSeed(seed);
+		return threadRandom;
+	}
+	
 	/**
 	 * Creates a random member of this Dlog group.
 	 * 
@@ -117,7 +157,7 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 		BigInteger qMinusOne = groupParams.getQ().subtract(one);
 
 		// choose a random number x in Zq*
-		BigInteger randNum = BigIntegers.createRandomInRange(one, qMinusOne, random);
+		BigInteger randNum = BigIntegers.createRandomInRange(one, qMinusOne, getRandom());
 
 		// compute g^x to get a new element
 		return exponentiate(generator, randNum);
@@ -315,7 +355,8 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 	 * keeping in memory the result of h1, h2, h4,h8,... and using it in the
 	 * calculation.<p> Note that if we want a one-time exponentiation of h it is
 	 * preferable to use the basic exponentiation function since there is no
-	 * point to keep anything in memory if we have no intention to use it.
+	 * point to keep anything in memory if we have no intention to use it.<p>
+	 * This function may be called by several threads at the same time. Exponentiations that were already computed are read without locking.
 	 * 
 	 * @param groupElement
 	 * @param exponent
@@ -325,10 +366,14 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 		//extracts from the map the GroupElementsExponentiations object corresponding to the accepted base
 		GroupElementsExponentiations exponentiations = exponentiationsMap.get(groupElement);
 	
-		// if there is no object that matches this base - create it and add it to the map
+		// if there is no object that matches this base - create it and add it to the map.
+		// if another thread added an object in the meantime, use that object.
 		if (exponentiations == null) {
 			exponentiations = new GroupElementsExponentiations(groupElement);
-			exponentiationsMap.put(groupElement, exponentiations);
+			GroupElementsExponentiations existing = exponentiationsMap.putIfAbsent(groupElement, exponentiations);
+			if (existing != null) {
+				exponentiations = existing;
+			}
 		}
 		// calculates the required exponent
 		return exponentiations.getExponentiation(exponent);
@@ -347,11 +392,13 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 	 * The class GroupElementExponentiations is a nested class of DlogGroupAbs.<p>
 	 * It performs the actual work of pre-computation of the exponentiations for one base.
 	 * It is composed of two main elements. The group element for which the optimized computations 
-	 * are built for, called the base and a vector of group elements that are the result of 
-	 * exponentiations of order 1,2,4,8,
+	 * are built for, called the base and an array of group elements that are the result of 
+	 * exponentiations of order 1,2,4,8,<p>
+	 * The array is never changed after it is published. When more exponentiations are needed, a longer array is 
+	 * created under a lock and replaces the old one, so reading the exponentiations does not need a lock.
 	 */
 	private class GroupElementsExponentiations {
-		private Vector<GroupElement> exponentiations; //vector of group elements that are the result of exponentiations
+		private volatile GroupElement[] exponentiations; //array of group elements that are the result of exponentiations
 		private GroupElement base;  //group element for which the optimized computations are built for
 		
 		/**
@@ -362,35 +409,40 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 		 */
 		public GroupElementsExponentiations(GroupElement base) {
 			this.base = base;
-			// build new vector of exponentiations
-			exponentiations = new Vector<GroupElement>();
-			exponentiations.add(0, this.base); // add the base - base^1
+			// build new array of exponentiations
+			GroupElement[] initial = new GroupElement[4];
+			initial[0] = this.base; // add the base - base^1
 			
 			BigInteger two = new BigInteger("2");
 			for (int i=1; i<4; i++) {
-				GroupElement multI;
-				multI = exponentiate(exponentiations.get(i-1), two);
-					
-				exponentiations.add(i, multI);
+				initial[i] = exponentiate(initial[i-1], two);
 			}
+			exponentiations = initial;
 		}
 		
 		/**
-		 * Calculates the necessary additional exponentiations and fills the exponentiations vector with them.
+		 * Calculates the necessary additional exponentiations and publishes a longer array that contains them.
 		 * @param size - the required exponent
+		 * @return the array of exponentiations, which contains the exponentiation of the required size.
 		 * @throws IllegalArgumentException
 		 */
-		private void prepareExponentiations(BigInteger size) {
+		private synchronized GroupElement[] prepareExponentiations(BigInteger size) {
 			//find log of the number - this is the index of the size-exponent in the exponentiation array 
 			int index = size.bitLength()-1; 
 			
-			/* calculates the necessary exponentiations and put them in the exponentiations vector */
-			for (int i=exponentiations.size(); i<=index; i++){
-				GroupElement multI;
-				multI = exponentiate(exponentiations.get(i-1), new BigInteger("2"));
-					
-				exponentiations.add(i, multI);	
+			//another thread may have already calculated the exponentiations
+			GroupElement[] current = exponentiations;
+			if (current.length > index) {
+				return current;
+			}
+			
+			/* calculates the necessary exponentiations and put them in the new exponentiations array */
+			GroupElement[] extended = Arrays.copyOf(current, index + 1);
+			for (int i=current.length; i<=index; i++){
+				extended[i] = exponentiate(extended[i-1], new BigInteger("2"));
 			}
+			exponentiations = extended;
+			return extended;
 		}
 		
 		
@@ -410,11 +462,12 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 			int index = size.bitLength()-1;
 			
 			GroupElement exponent = null;
-			/* if the requested index out of the vector bounds, the exponents have not been calculated yet, so calculates them.*/
-			if (exponentiations.size() <= index)
-				prepareExponentiations(size);
+			GroupElement[] current = exponentiations;
+			/* if the requested index out of the array bounds, the exponents have not been calculated yet, so calculates them.*/
+			if (current.length <= index)
+				current = prepareExponentiations(size);
 			
-			exponent = exponentiations.get(index); //get the closest exponent in the exponentiations vector
+			exponent = current[index]; //get the closest exponent in the exponentiations array
 			/* if size is not power 2, calculates the additional multiplications */
 			BigInteger lastExp = new BigInteger("2").pow(index);
 			BigInteger difference = size.subtract(lastExp);
@@ -0,0 +1,326 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.primitives.dlog;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * This class performs many independent operations of a Dlog group at once.<p>
+ * Protocols that work on batches (such as batch OT) need to compute the same operation on many inputs, 
+ * for example raise m different bases to the same exponent. This class splits such a batch into ranges and computes 
+ * every range on a different thread of the given executor. If no executor was given, the batch is computed on the 
+ * calling thread, exactly as a simple loop would do.<p>
+ * 
+ * Exponentiations of the group generator are computed using the fixed-base tables of 
+ * {@link DlogGroup#exponentiateWithPreComputedValues(GroupElement, BigInteger)}. 
+ * The table is filled on the calling thread before the batch is split, so the worker threads only read it.<p>
+ * 
+ * NOTE: The parallel computation calls the underlying Dlog group from several threads at the same time. 
+ * Thus, an executor should be given only if the Dlog group is thread-safe (see {@link DlogGroup}). 
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ParallelDlogComputation {
+	
+	private DlogGroup dlog;
+	private ExecutorService executor;	//Executes the ranges of a batch. Null means that the batch is computed on the calling thread.
+	private int numOfTasks;				//Number of ranges to split each batch into.
+	
+	/**
+	 * Constructor that sets the given dlog group and computes all batches on the calling thread.
+	 * @param dlog
+	 */
+	public ParallelDlogComputation(DlogGroup dlog){
+		this(dlog, null, 1);
+	}
+	
+	/**
+	 * Constructor that sets the given dlog group and executor.<p>
+	 * Each batch is split into numOfTasks ranges, each one of them is executed by the executor.
+	 * @param dlog the Dlog group to use. Should support concurrent use if the executor is not null.
+	 * @param executor executes the ranges of each batch. If null, all batches are computed on the calling thread.
+	 * @param numOfTasks number of ranges to split each batch into. Usually the number of threads in the executor.
+	 */
+	public ParallelDlogComputation(DlogGroup dlog, ExecutorService executor, int numOfTasks){
+		if (numOfTasks < 1){
+			throw new IllegalArgumentException("The number of tasks should be positive");
+		}
+		this.dlog = dlog;
+		this.executor = executor;
+		this.numOfTasks = numOfTasks;
+	}
+	
+	/**
+	 * Constructor that sets the given dlog group and executor. 
+	 * Each batch is split into as many ranges as the number of available processors.
+	 * @param dlog the Dlog group to use. Should support concurrent use if the executor is not null.
+	 * @param executor executes the ranges of each batch. If null, all batches are computed on the calling thread.
+	 */
+	public ParallelDlogComputation(DlogGroup dlog, ExecutorService executor){
+		this(dlog, executor, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * @return the underlying Dlog group.
+	 */
+	public DlogGroup getDlogGroup(){
+		return dlog;
+	}
+	
+	/**
+	 * Computes bases[i]^exponent for every i.
+	 * @param bases 
+	 * @param exponent
+	 * @return array of the exponentiations results.
+	 */
+	public GroupElement[] exponentiate(final GroupElement[] bases, final BigInteger exponent){
+		final GroupElement[] results = new GroupElement[bases.length];
+		run(bases.length, new RangeTask(){
+			public void compute(int from, int to){
+				for (int i=from; i<to; i++){
+					results[i] = dlog.exponentiate(bases[i], exponent);
+				}
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Computes bases[i]^exponents[i] for every i.
+	 * @param bases 
+	 * @param exponents should be of the same length as bases.
+	 * @return array of the exponentiations results.
+	 */
+	public GroupElement[] exponentiate(final GroupElement[] bases, final BigInteger[] exponents){
+		if (bases.length != exponents.length){
+			throw new IllegalArgumentException("The number of bases and exponents should be equal");
+		}
+		final GroupElement[] results = new GroupElement[bases.length];
+		run(bases.length, new RangeTask(){
+			public void compute(int from, int to){
+				for (int i=from; i<to; i++){
+					results[i] = dlog.exponentiate(bases[i], exponents[i]);
+				}
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Computes base^exponents[i] for every i.<p>
+	 * The computation uses the fixed-base table of the given base.
+	 * The table is kept in the Dlog group for further calls; In order to delete it call 
+	 * {@link DlogGroup#endExponentiateWithPreComputedValues(GroupElement)}.
+	 * @param base the fixed base.
+	 * @param exponents the exponents to raise the base to. Should be non negative.
+	 * @return array of the exponentiations results.
+	 */
+	public GroupElement[] exponentiateFixedBase(final GroupElement base, final BigInteger[] exponents){
+		//Fill the table on this thread, so the threads of the executor only read from it.
+		prepareFixedBaseTable(base, exponents);
+		
+		final GroupElement[] results = new GroupElement[exponents.length];
+		run(exponents.length, new RangeTask(){
+			public void compute(int from, int to){
+				for (int i=from; i<to; i++){
+					//The fixed-base tables do not handle a zero exponent.
+					if (exponents[i].signum() == 0){
+						results[i] = dlog.getIdentity();
+					} else {
+						results[i] = dlog.exponentiateWithPreComputedValues(base, exponents[i]);
+					}
+				}
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Computes g^exponents[i] for every i, where g is the generator of the group.<p>
+	 * The computation uses the fixed-base table of the generator.
+	 * @param exponents the exponents to raise the generator to. Should be non negative.
+	 * @return array of the exponentiations results.
+	 */
+	public GroupElement[] exponentiateGenerator(BigInteger[] exponents){
+		return exponentiateFixedBase(dlog.getGenerator(), exponents);
+	}
+	
+	/**
+	 * Computes first[i] * second[i] for every i.
+	 * @param first
+	 * @param second should be of the same length as first.
+	 * @return array of the multiplications results.
+	 */
+	public GroupElement[] multiply(final GroupElement[] first, final GroupElement[] second){
+		if (first.length != second.length){
+			throw new IllegalArgumentException("The arrays should be of the same length");
+		}
+		final GroupElement[] results = new GroupElement[first.length];
+		run(first.length, new RangeTask(){
+			public void compute(int from, int to){
+				for (int i=from; i<to; i++){
+					results[i] = dlog.multiplyGroupElements(first[i], second[i]);
+				}
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Creates the given number of random elements.
+	 * @param size number of elements to create.
+	 * @return array of random elements.
+	 */
+	public GroupElement[] createRandomElements(int size){
+		final GroupElement[] results = new GroupElement[size];
+		run(size, new RangeTask(){
+			public void compute(int from, int to){
+				for (int i=from; i<to; i++){
+					results[i] = dlog.createRandomElement();
+				}
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Reconstructs a group element from every given sendable data. 
+	 * This is usually the place were the received elements are checked to be members of the group, which is an expensive operation.
+	 * @param bCheckMembership whether to check that the reconstructed elements are members of the group.
+	 * @param data the sendable data of the elements.
+	 * @return array of the reconstructed elements.
+	 * @throws IllegalArgumentException if bCheckMembership is true and one of the elements is not a member of the group.
+	 */
+	public GroupElement[] reconstructElements(final boolean bCheckMembership, final GroupElementSendableData[] data){
+		final GroupElement[] results = new GroupElement[data.length];
+		run(data.length, new RangeTask(){
+			public void compute(int from, int to){
+				for (int i=from; i<to; i++){
+					results[i] = dlog.reconstructElement(bCheckMembership, data[i]);
+				}
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Generates the sendable data of every given element.<p>
+	 * For elliptic curve groups this is where the points are converted to their affine coordinates, 
+	 * so it is computed in parallel as well.
+	 * @param elements
+	 * @return array of the sendable data of the elements.
+	 */
+	public GroupElementSendableData[] generateSendableData(final GroupElement[] elements){
+		final GroupElementSendableData[] results = new GroupElementSendableData[elements.length];
+		run(elements.length, new RangeTask(){
+			public void compute(int from, int to){
+				for (int i=from; i<to; i++){
+					results[i] = elements[i].generateSendableData();
+				}
+			}
+		});
+		return results;
+	}
+	
+	/*
+	 * Fills the fixed-base table of the given base up to the maximal bit length of the given exponents.
+	 */
+	private synchronized void prepareFixedBaseTable(GroupElement base, BigInteger[] exponents){
+		int maxBits = 0;
+		for (int i=0; i<exponents.length; i++){
+			if (exponents[i].signum() < 0){
+				throw new IllegalArgumentException("The exponents should be non negative");
+			}
+			maxBits = Math.max(maxBits, exponents[i].bitLength());
+		}
+		//Asking for 2^(maxBits-1) makes the table contain all the values needed for the given exponents. 
+		//If the table is already filled, this is a cheap lookup.
+		if (maxBits > 0){
+			dlog.exponentiateWithPreComputedValues(base, BigInteger.ONE.shiftLeft(maxBits - 1));
+		}
+	}
+	
+	/*
+	 * Splits the range [0, size) to numOfTasks ranges and computes each one of them using the executor.
+	 * Returns after all the ranges were computed.
+	 */
+	private void run(int size, final RangeTask task){
+		//If there is no executor or the batch is too small, compute on this thread.
+		if (executor == null || numOfTasks == 1 || size < 2){
+			task.compute(0, size);
+			return;
+		}
+		
+		int tasks = Math.min(numOfTasks, size);
+		int rangeSize = size / tasks;
+		int remain = size % tasks;
+		
+		ArrayList<Future<?>> futures = new ArrayList<Future<?>>(tasks);
+		int from = 0;
+		for (int j=0; j<tasks; j++){
+			//The first ranges get the remainder, one element each.
+			final int start = from;
+			final int end = from + rangeSize + ((j < remain) ? 1 : 0);
+			futures.add(executor.submit(new Runnable(){
+				public void run(){
+					task.compute(start, end);
+				}
+			}));
+			from = end;
+		}
+		
+		//Wait for all the ranges to be computed.
+		for (Future<?> future : futures){
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("The computation was interrupted");
+			} catch (ExecutionException e) {
+				//Throw the original exception so that the caller gets the same exception as in the sequential computation.
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException){
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error){
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+	
+	/*
+	 * A computation over a range of indices of a batch.
+	 */
+	private interface RangeTask{
+		void compute(int from, int to);
+	}
+}
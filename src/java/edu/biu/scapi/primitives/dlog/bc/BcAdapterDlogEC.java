@@ -39,6 +39,8 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /*
  * This class is the adapter to Bouncy Castle implementation of elliptic curves.
+ * Bouncy Castle caches pre-computed points inside a point the first time it is multiplied, without synchronization. 
+ * Thus, the multiplications of the same point are synchronized on that point, and one instance of this group can be shared by several threads.
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
@@ -131,8 +133,12 @@ public abstract class BcAdapterDlogEC extends DlogGroupEC
 		/* 
 		 * BC treats EC as additive group while we treat that as multiplicative group. 
 		 * Therefore, exponentiate point is multiply.
+		 * The multiplication reads and updates the pre-computed points cached in the point, so it is synchronized on the point.
 		 */
-		ECPoint result = point.multiply(exponent);
+		ECPoint result;
+		synchronized (point) {
+			result = point.multiply(exponent);
+		}
 		
 		//creates GroupElement from the result
 		return createPoint(result);
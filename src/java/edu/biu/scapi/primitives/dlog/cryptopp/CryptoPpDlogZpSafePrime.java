@@ -43,7 +43,8 @@ import edu.biu.scapi.tools.math.MathAlgorithms;
 
 /**
  * This class implements a Dlog group over Zp* utilizing Crypto++'s implementation.<p>
- * It uses JNI technology to call Crypto++'s native code.
+ * It uses JNI technology to call Crypto++'s native code.<p>
+ * The native Crypto++ objects are not guaranteed to be thread-safe, so an instance should not be used by several threads at the same time.
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  */
@@ -232,7 +233,7 @@ public class CryptoPpDlogZpSafePrime extends DlogGroupAbs implements DlogZpSafeP
 	public GroupElement createRandomElement() {
 		//This function overrides the basic implementation of DlogGroupAbs. For the case of Zp Safe Prime this is a more efficient implementation.
 		//It calls the package private constructor of ZpSafePrimeElementCryptoPp, which randomly creates an element in Zp.
-		return new ZpSafePrimeElementCryptoPp(((ZpGroupParams) groupParams).getP(), random);
+		return new ZpSafePrimeElementCryptoPp(((ZpGroupParams) groupParams).getP(), getRandom());
 
 	}
 
@@ -36,6 +36,13 @@ import edu.biu.scapi.primitives.dlog.DlogEllipticCurve;
 import edu.biu.scapi.primitives.dlog.DlogGroupEC;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
+/**
+ * This class is the adapter to Miracl implementation of elliptic curves.<p>
+ * All the operations of the group use the Miracl state (mip) of this instance, so an instance should not be used by several threads at the same time.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
 public abstract class MiraclAdapterDlogEC extends DlogGroupEC 
 										  implements DlogEllipticCurve{
 	
@@ -32,7 +32,8 @@ import edu.biu.scapi.primitives.dlog.DlogGroupEC;
 import edu.biu.scapi.primitives.dlog.ECElement;
 
 /**
- * An abstract class that implements some common functionalities for both elliptic curve types, Fp and F2m.
+ * An abstract class that implements some common functionalities for both elliptic curve types, Fp and F2m.<p>
+ * The native group keeps a single OpenSSL context that is used by all the operations, so an instance should not be used by several threads at the same time.
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
@@ -41,7 +41,8 @@ import edu.biu.scapi.tools.math.MathAlgorithms;
 
 /**
  * This class implements a Dlog group over Zp* utilizing OpenSSL's implementation.<p>
- * It uses JNI technology to call OpenSSL native code.
+ * It uses JNI technology to call OpenSSL native code.<p>
+ * The native group keeps a single OpenSSL context that is used by all the operations, so an instance should not be used by several threads at the same time.
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  */
@@ -239,7 +240,7 @@ public class OpenSSLDlogZpSafePrime extends DlogGroupAbs implements DlogZpSafePr
 	public GroupElement createRandomElement() {
 		//This function overrides the basic implementation of DlogGroupAbs. For the case of Zp Safe Prime this is a more efficient implementation.
 		//It calls the package private constructor of OpenSSLZpSafePrimeElement, which randomly creates an element in Zp.
-		return new OpenSSLZpSafePrimeElement(((ZpGroupParams) groupParams).getP(), random);
+		return new OpenSSLZpSafePrimeElement(((ZpGroupParams) groupParams).getP(), getRandom());
 
 	}
 
@@ -0,0 +1,374 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.primitives.dlog.ristretto;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic in the prime field GF(2^255 - 19).<p>
+ * 
+ * A field element is an array of ten signed limbs h[0..9] representing the value 
+ * h[0] + h[1]*2^26 + h[2]*2^51 + h[3]*2^77 + ... + h[9]*2^230, i.e. radix 2^25.5 (even limbs have 26 bits, odd limbs have 25 bits).
+ * This representation lets every limb product fit in a Java long, since Java has no 64x64->128 bit multiplication.<p>
+ * 
+ * All the functions run in constant time, they do not branch on the values of the field elements.
+ * The functions that return a field element always return a new array and never change their arguments, 
+ * except the conditional move functions that are documented so.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+final class Curve25519Field {
+	
+	static final BigInteger P = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19));
+	
+	static final long[] ZERO = new long[10];
+	static final long[] ONE = fromLong(1);
+	
+	private Curve25519Field(){}
+	
+	/*
+	 * The number of bits of the i-th limb.
+	 */
+	private static int width(int i){
+		return ((i & 1) == 0) ? 26 : 25;
+	}
+	
+	static long[] fromLong(long value){
+		long[] h = new long[10];
+		h[0] = value;
+		carry(h);
+		return h;
+	}
+	
+	static long[] fromBigInteger(BigInteger value){
+		byte[] be = value.mod(P).toByteArray();
+		byte[] le = new byte[32];
+		for (int i=0; i<be.length && i<32; i++){
+			le[i] = be[be.length - 1 - i];
+		}
+		return fromBytes(le);
+	}
+	
+	static BigInteger toBigInteger(long[] f){
+		byte[] le = toBytes(f);
+		byte[] be = new byte[33];
+		for (int i=0; i<32; i++){
+			be[32 - i] = le[i];
+		}
+		return new BigInteger(be);
+	}
+	
+	/**
+	 * Loads a field element from 32 bytes in little-endian order. The most significant bit is ignored.<p>
+	 * Values between p and 2^255-1 are accepted and reduced; Callers that need a canonical encoding should compare the result of toBytes with the input.
+	 */
+	static long[] fromBytes(byte[] s){
+		long[] h = new long[10];
+		long acc = 0;
+		int accBits = 0;
+		int pos = 0;
+		for (int i=0; i<10; i++){
+			int w = width(i);
+			while (accBits < w){
+				acc |= ((long) (s[pos++] & 0xff)) << accBits;
+				accBits += 8;
+			}
+			h[i] = acc & ((1L << w) - 1);
+			acc >>>= w;
+			accBits -= w;
+		}
+		return h;
+	}
+	
+	/**
+	 * Returns the canonical encoding of the given element: 32 bytes in little-endian order of the value in [0, p).
+	 */
+	static byte[] toBytes(long[] f){
+		long[] h = f.clone();
+		carry(h);
+		
+		//Compute q = floor(h / 2^255), which is 0 or 1 for carried limbs.
+		long q = (19 * h[9] + (1L << 24)) >> 25;
+		for (int i=0; i<10; i++){
+			q = (h[i] + q) >> width(i);
+		}
+		//h - q*p is in [0, p). Subtract q*p = q*2^255 - 19q by adding 19q and dropping the last carry.
+		h[0] += 19 * q;
+		for (int i=0; i<9; i++){
+			long c = h[i] >> width(i);
+			h[i+1] += c;
+			h[i] -= c << width(i);
+		}
+		h[9] &= (1L << 25) - 1;
+		
+		byte[] s = new byte[32];
+		long acc = 0;
+		int accBits = 0;
+		int pos = 0;
+		for (int i=0; i<10; i++){
+			acc |= h[i] << accBits;
+			accBits += width(i);
+			while (accBits >= 8){
+				s[pos++] = (byte) acc;
+				acc >>>= 8;
+				accBits -= 8;
+			}
+		}
+		s[pos] = (byte) acc;
+		return s;
+	}
+	
+	/*
+	 * Carries the limbs so that every limb is in its range, centered around zero.
+	 * Accepts limbs of up to 2^62 in absolute value.
+	 */
+	private static void carry(long[] h){
+		long c;
+		for (int i=0; i<9; i++){
+			int w = width(i);
+			c = (h[i] + (1L << (w - 1))) >> w;
+			h[i+1] += c;
+			h[i] -= c << w;
+		}
+		c = (h[9] + (1L << 24)) >> 25;
+		h[0] += 19 * c;
+		h[9] -= c << 25;
+		c = (h[0] + (1L << 25)) >> 26;
+		h[1] += c;
+		h[0] -= c << 26;
+	}
+	
+	static long[] add(long[] f, long[] g){
+		long[] h = new long[10];
+		for (int i=0; i<10; i++){
+			h[i] = f[i] + g[i];
+		}
+		carry(h);
+		return h;
+	}
+	
+	static long[] sub(long[] f, long[] g){
+		long[] h = new long[10];
+		for (int i=0; i<10; i++){
+			h[i] = f[i] - g[i];
+		}
+		carry(h);
+		return h;
+	}
+	
+	static long[] neg(long[] f){
+		long[] h = new long[10];
+		for (int i=0; i<10; i++){
+			h[i] = -f[i];
+		}
+		return h;
+	}
+	
+	static long[] mul(long[] f, long[] g){
+		//2^(e_i + e_j) equals 2^(e_(i+j)) unless both i and j are odd, in which case it is twice that.
+		//Limbs that pass 2^255 are reduced using 2^255 = 19 (mod p).
+		long f0 = f[0], f1 = f[1], f2 = f[2], f3 = f[3], f4 = f[4], f5 = f[5], f6 = f[6], f7 = f[7], f8 = f[8], f9 = f[9];
+		long g0 = g[0], g1 = g[1], g2 = g[2], g3 = g[3], g4 = g[4], g5 = g[5], g6 = g[6], g7 = g[7], g8 = g[8], g9 = g[9];
+		long f1_2 = 2 * f1, f3_2 = 2 * f3, f5_2 = 2 * f5, f7_2 = 2 * f7, f9_2 = 2 * f9;
+		long g1_19 = 19 * g1, g2_19 = 19 * g2, g3_19 = 19 * g3, g4_19 = 19 * g4, g5_19 = 19 * g5, g6_19 = 19 * g6, g7_19 = 19 * g7, g8_19 = 19 * g8, g9_19 = 19 * g9;
+		
+		long[] h = new long[10];
+		h[0] = f0 * g0 + f1_2 * g9_19 + f2 * g8_19 + f3_2 * g7_19 + f4 * g6_19 + f5_2 * g5_19 + f6 * g4_19 + f7_2 * g3_19 + f8 * g2_19 + f9_2 * g1_19;
+		h[1] = f0 * g1 + f1 * g0 + f2 * g9_19 + f3 * g8_19 + f4 * g7_19 + f5 * g6_19 + f6 * g5_19 + f7 * g4_19 + f8 * g3_19 + f9 * g2_19;
+		h[2] = f0 * g2 + f1_2 * g1 + f2 * g0 + f3_2 * g9_19 + f4 * g8_19 + f5_2 * g7_19 + f6 * g6_19 + f7_2 * g5_19 + f8 * g4_19 + f9_2 * g3_19;
+		h[3] = f0 * g3 + f1 * g2 + f2 * g1 + f3 * g0 + f4 * g9_19 + f5 * g8_19 + f6 * g7_19 + f7 * g6_19 + f8 * g5_19 + f9 * g4_19;
+		h[4] = f0 * g4 + f1_2 * g3 + f2 * g2 + f3_2 * g1 + f4 * g0 + f5_2 * g9_19 + f6 * g8_19 + f7_2 * g7_19 + f8 * g6_19 + f9_2 * g5_19;
+		h[5] = f0 * g5 + f1 * g4 + f2 * g3 + f3 * g2 + f4 * g1 + f5 * g0 + f6 * g9_19 + f7 * g8_19 + f8 * g7_19 + f9 * g6_19;
+		h[6] = f0 * g6 + f1_2 * g5 + f2 * g4 + f3_2 * g3 + f4 * g2 + f5_2 * g1 + f6 * g0 + f7_2 * g9_19 + f8 * g8_19 + f9_2 * g7_19;
+		h[7] = f0 * g7 + f1 * g6 + f2 * g5 + f3 * g4 + f4 * g3 + f5 * g2 + f6 * g1 + f7 * g0 + f8 * g9_19 + f9 * g8_19;
+		h[8] = f0 * g8 + f1_2 * g7 + f2 * g6 + f3_2 * g5 + f4 * g4 + f5_2 * g3 + f6 * g2 + f7_2 * g1 + f8 * g0 + f9_2 * g9_19;
+		h[9] = f0 * g9 + f1 * g8 + f2 * g7 + f3 * g6 + f4 * g5 + f5 * g4 + f6 * g3 + f7 * g2 + f8 * g1 + f9 * g0;
+		carry(h);
+		return h;
+	}
+	
+	static long[] square(long[] f){
+		//Same as mul(f, f), but each cross product f_i*f_j is computed once.
+		long f0 = f[0], f1 = f[1], f2 = f[2], f3 = f[3], f4 = f[4], f5 = f[5], f6 = f[6], f7 = f[7], f8 = f[8], f9 = f[9];
+		long f0_2 = 2 * f0, f1_2 = 2 * f1, f2_2 = 2 * f2, f3_2 = 2 * f3, f4_2 = 2 * f4, f5_2 = 2 * f5, f6_2 = 2 * f6, f7_2 = 2 * f7, f8_2 = 2 * f8, f9_2 = 2 * f9;
+		long f1_19 = 19 * f1, f2_19 = 19 * f2, f3_19 = 19 * f3, f4_19 = 19 * f4, f5_19 = 19 * f5, f6_19 = 19 * f6, f7_19 = 19 * f7, f8_19 = 19 * f8, f9_19 = 19 * f9;
+		
+		long[] h = new long[10];
+		h[0] = f0 * f0 + 2 * f1_2 * f9_19 + f2_2 * f8_19 + 2 * f3_2 * f7_19 + f4_2 * f6_19 + f5_2 * f5_19;
+		h[1] = f0_2 * f1 + f2_2 * f9_19 + f3_2 * f8_19 + f4_2 * f7_19 + f5_2 * f6_19;
+		h[2] = f0_2 * f2 + f1_2 * f1 + 2 * f3_2 * f9_19 + f4_2 * f8_19 + 2 * f5_2 * f7_19 + f6 * f6_19;
+		h[3] = f0_2 * f3 + f1_2 * f2 + f4_2 * f9_19 + f5_2 * f8_19 + f6_2 * f7_19;
+		h[4] = f0_2 * f4 + f1_2 * f3_2 + f2 * f2 + 2 * f5_2 * f9_19 + f6_2 * f8_19 + f7_2 * f7_19;
+		h[5] = f0_2 * f5 + f1_2 * f4 + f2_2 * f3 + f6_2 * f9_19 + f7_2 * f8_19;
+		h[6] = f0_2 * f6 + f1_2 * f5_2 + f2_2 * f4 + f3_2 * f3 + 2 * f7_2 * f9_19 + f8 * f8_19;
+		h[7] = f0_2 * f7 + f1_2 * f6 + f2_2 * f5 + f3_2 * f4 + f8_2 * f9_19;
+		h[8] = f0_2 * f8 + f1_2 * f7_2 + f2_2 * f6 + f3_2 * f5_2 + f4 * f4 + f9_2 * f9_19;
+		h[9] = f0_2 * f9 + f1_2 * f8 + f2_2 * f7 + f3_2 * f6 + f4_2 * f5;
+		carry(h);
+		return h;
+	}
+	
+	/*
+	 * Computes f^(2^n).
+	 */
+	private static long[] squareTimes(long[] f, int n){
+		long[] h = f;
+		for (int i=0; i<n; i++){
+			h = square(h);
+		}
+		return h;
+	}
+	
+	/*
+	 * Computes z^(2^250 - 1) and z^11, the common part of invert and pow22523.
+	 * Returns {z^(2^250 - 1), z^11}.
+	 */
+	private static long[][] pow2250(long[] z){
+		long[] t0 = square(z);							//z^2
+		long[] t1 = squareTimes(t0, 2);					//z^8
+		t1 = mul(z, t1);								//z^9
+		t0 = mul(t0, t1);								//z^11
+		long[] t2 = square(t0);							//z^22
+		t1 = mul(t1, t2);								//z^(2^5 - 1)
+		t2 = squareTimes(t1, 5);
+		t1 = mul(t2, t1);								//z^(2^10 - 1)
+		t2 = squareTimes(t1, 10);
+		t2 = mul(t2, t1);								//z^(2^20 - 1)
+		long[] t3 = squareTimes(t2, 20);
+		t2 = mul(t3, t2);								//z^(2^40 - 1)
+		t2 = squareTimes(t2, 10);
+		t1 = mul(t2, t1);								//z^(2^50 - 1)
+		t2 = squareTimes(t1, 50);
+		t2 = mul(t2, t1);								//z^(2^100 - 1)
+		t3 = squareTimes(t2, 100);
+		t2 = mul(t3, t2);								//z^(2^200 - 1)
+		t2 = squareTimes(t2, 50);
+		t1 = mul(t2, t1);								//z^(2^250 - 1)
+		return new long[][]{t1, t0};
+	}
+	
+	/**
+	 * Computes 1/z = z^(p-2). Returns zero for z = 0.
+	 */
+	static long[] invert(long[] z){
+		long[][] t = pow2250(z);
+		long[] t1 = squareTimes(t[0], 5);				//z^(2^255 - 2^5)
+		return mul(t1, t[1]);							//z^(2^255 - 21)
+	}
+	
+	/**
+	 * Computes z^((p-5)/8) = z^(2^252 - 3).
+	 */
+	static long[] pow22523(long[] z){
+		long[][] t = pow2250(z);
+		long[] t1 = squareTimes(t[0], 2);				//z^(2^252 - 4)
+		return mul(t1, z);								//z^(2^252 - 3)
+	}
+	
+	/**
+	 * Inverts all the given elements using one field inversion (Montgomery's trick).
+	 * None of the elements may be zero.
+	 */
+	static long[][] batchInvert(long[][] z){
+		int n = z.length;
+		long[][] results = new long[n][];
+		if (n == 0){
+			return results;
+		}
+		//prefix[i] = z[0]*...*z[i]
+		long[][] prefix = new long[n][];
+		prefix[0] = z[0];
+		for (int i=1; i<n; i++){
+			prefix[i] = mul(prefix[i-1], z[i]);
+		}
+		long[] inv = invert(prefix[n-1]);
+		for (int i=n-1; i>0; i--){
+			results[i] = mul(inv, prefix[i-1]);
+			inv = mul(inv, z[i]);
+		}
+		results[0] = inv;
+		return results;
+	}
+	
+	/**
+	 * Returns 1 if the canonical encoding of f is odd ("negative"), 0 otherwise.
+	 */
+	static int isNegative(long[] f){
+		return toBytes(f)[0] & 1;
+	}
+	
+	/**
+	 * Returns 1 if f = 0, 0 otherwise.
+	 */
+	static int isZero(long[] f){
+		byte[] s = toBytes(f);
+		int acc = 0;
+		for (int i=0; i<32; i++){
+			acc |= s[i];
+		}
+		return ((acc & 0xff) - 1) >>> 31;
+	}
+	
+	/**
+	 * Returns 1 if f = g, 0 otherwise.
+	 */
+	static int equal(long[] f, long[] g){
+		return isZero(sub(f, g));
+	}
+	
+	/**
+	 * Replaces f with g if b = 1. Does nothing if b = 0. Changes f in place.
+	 */
+	static void cmov(long[] f, long[] g, int b){
+		long mask = -((long) b);
+		for (int i=0; i<10; i++){
+			f[i] ^= mask & (f[i] ^ g[i]);
+		}
+	}
+	
+	/**
+	 * Returns g if b = 1 and f if b = 0.
+	 */
+	static long[] select(long[] f, long[] g, int b){
+		long[] h = f.clone();
+		cmov(h, g, b);
+		return h;
+	}
+	
+	/**
+	 * Returns -f if b = 1 and f if b = 0.
+	 */
+	static long[] condNeg(long[] f, int b){
+		return select(f, neg(f), b);
+	}
+	
+	/**
+	 * Returns the non-negative one of f and -f.
+	 */
+	static long[] abs(long[] f){
+		return condNeg(f, isNegative(f));
+	}
+}
@@ -0,0 +1,349 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.primitives.dlog.ristretto;
+
+import static edu.biu.scapi.primitives.dlog.ristretto.Curve25519Field.*;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+
+/**
+ * This class represents an element of the Ristretto255 group.<p>
+ * 
+ * The element is kept as a point of the twisted Edwards curve -x^2 + y^2 = 1 + d*x^2*y^2 over GF(2^255-19) in extended 
+ * coordinates (X:Y:Z:T), where x = X/Z, y = Y/Z and x*y = T/Z. 
+ * Several curve points represent the same Ristretto element; Equality and the 32-byte encoding do not depend on the chosen point.<p>
+ * 
+ * Objects of this class are immutable.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class RistrettoPoint implements GroupElement{
+	
+	//Curve constants, see RFC 9496.
+	static final long[] D = fromBigInteger(new BigInteger("-121665").multiply(new BigInteger("121666").modInverse(P)));
+	static final long[] D2 = Curve25519Field.add(D, D);
+	static final long[] SQRT_M1 = fromBigInteger(new BigInteger("19681161376707505956807079304988542015446066515923890162744021073123829784752"));
+	static final long[] INVSQRT_A_MINUS_D = fromBigInteger(new BigInteger("54469307008909316920995813868745141605393597292927456921205312896311721017578"));
+	
+	static final RistrettoPoint IDENTITY = new RistrettoPoint(ZERO, ONE, ONE, ZERO);
+	
+	final long[] X;
+	final long[] Y;
+	final long[] Z;
+	final long[] T;
+	
+	private volatile byte[] encoding;	//Cached encoding of this element. 
+	
+	RistrettoPoint(long[] X, long[] Y, long[] Z, long[] T){
+		this.X = X;
+		this.Y = Y;
+		this.Z = Z;
+		this.T = T;
+	}
+	
+	/**
+	 * Checks if this element is the identity of the group.
+	 * @return true if this element is the identity; false otherwise.
+	 */
+	public boolean isIdentity(){
+		return (isZero(X) | isZero(Y)) == 1;
+	}
+	
+	/**
+	 * Returns the 32-byte canonical encoding of this element.
+	 * @return a copy of the encoding.
+	 */
+	public byte[] getEncoded(){
+		return encode().clone();
+	}
+	
+	/**
+	 * @see edu.biu.scapi.primitives.dlog.GroupElement#generateSendableData()
+	 */
+	@Override
+	public GroupElementSendableData generateSendableData() {
+		return new RistrettoPointSendableData(encode());
+	}
+	
+	/**
+	 * Two elements are equal if they represent the same Ristretto element, even if they are kept as different curve points.
+	 */
+	@Override
+	public boolean equals(Object elementToCompare){
+		if (elementToCompare == null || elementToCompare.getClass() != this.getClass()) 
+			return false;
+		
+		RistrettoPoint other = (RistrettoPoint) elementToCompare;
+		//(x1, y1) and (x2, y2) represent the same element if x1*y2 = y1*x2 or y1*y2 = x1*x2.
+		int eq1 = equal(mul(X, other.Y), mul(Y, other.X));
+		int eq2 = equal(mul(Y, other.Y), mul(X, other.X));
+		return (eq1 | eq2) == 1;
+	}
+	
+	@Override
+	public int hashCode(){
+		return Arrays.hashCode(encode());
+	}
+	
+	@Override
+	public String toString() {
+		return "RistrettoPoint [" + new BigInteger(1, reverse(encode())).toString(16) + "]";
+	}
+	
+	/*
+	 * Computes the canonical encoding of this element, as specified in RFC 9496 section 4.3.2.
+	 */
+	byte[] encode(){
+		byte[] result = encoding;
+		if (result != null){
+			return result;
+		}
+		
+		long[] u1 = mul(Curve25519Field.add(Z, Y), sub(Z, Y));
+		long[] u2 = mul(X, Y);
+		long[] invsqrt = sqrtRatioM1(ONE, mul(u1, square(u2)))[1];
+		long[] den1 = mul(invsqrt, u1);
+		long[] den2 = mul(invsqrt, u2);
+		long[] zInv = mul(mul(den1, den2), T);
+		long[] ix = mul(X, SQRT_M1);
+		long[] iy = mul(Y, SQRT_M1);
+		long[] enchantedDenominator = mul(den1, INVSQRT_A_MINUS_D);
+		int rotate = isNegative(mul(T, zInv));
+		
+		long[] x = select(X, iy, rotate);
+		long[] y = select(Y, ix, rotate);
+		long[] denInv = select(den2, enchantedDenominator, rotate);
+		
+		y = condNeg(y, isNegative(mul(x, zInv)));
+		long[] s = abs(mul(denInv, sub(Z, y)));
+		
+		result = toBytes(s);
+		encoding = result;
+		return result;
+	}
+	
+	/*
+	 * Decodes the given encoding, as specified in RFC 9496 section 4.3.1.
+	 * Returns null if the given bytes are not a valid encoding.
+	 */
+	static RistrettoPoint decode(byte[] bytes){
+		if (bytes == null || bytes.length != 32){
+			return null;
+		}
+		long[] s = fromBytes(bytes);
+		//The encoding should be canonical and non negative.
+		byte[] canonical = toBytes(s);
+		int diff = 0;
+		for (int i=0; i<32; i++){
+			diff |= canonical[i] ^ bytes[i];
+		}
+		if (diff != 0 || isNegative(s) == 1){
+			return null;
+		}
+		
+		long[] ss = square(s);
+		long[] u1 = sub(ONE, ss);
+		long[] u2 = Curve25519Field.add(ONE, ss);
+		long[] u2Sqr = square(u2);
+		long[] v = sub(neg(mul(D, square(u1))), u2Sqr);
+		
+		long[][] sqrt = sqrtRatioM1(ONE, mul(v, u2Sqr));
+		int wasSquare = (int) sqrt[0][0];
+		long[] invsqrt = sqrt[1];
+		
+		long[] denX = mul(invsqrt, u2);
+		long[] denY = mul(mul(invsqrt, denX), v);
+		long[] x = abs(mul(Curve25519Field.add(s, s), denX));
+		long[] y = mul(u1, denY);
+		long[] t = mul(x, y);
+		
+		if ((wasSquare == 0) | (isNegative(t) == 1) | (isZero(y) == 1)){
+			return null;
+		}
+		RistrettoPoint point = new RistrettoPoint(x, y, ONE, t);
+		point.encoding = bytes.clone();
+		return point;
+	}
+	
+	/*
+	 * Computes the square root of u/v, as specified in RFC 9496 section 4.2.
+	 * Returns {{wasSquare}, r} where r is the non negative square root of u/v if it exists, 
+	 * and the non negative square root of SQRT_M1*u/v otherwise.
+	 */
+	static long[][] sqrtRatioM1(long[] u, long[] v){
+		long[] v3 = mul(square(v), v);
+		long[] v7 = mul(square(v3), v);
+		long[] r = mul(mul(u, v3), pow22523(mul(u, v7)));
+		long[] check = mul(v, square(r));
+		
+		long[] uNeg = neg(u);
+		int correctSignSqrt = equal(check, u);
+		int flippedSignSqrt = equal(check, uNeg);
+		int flippedSignSqrtI = equal(check, mul(uNeg, SQRT_M1));
+		
+		r = select(r, mul(SQRT_M1, r), flippedSignSqrt | flippedSignSqrtI);
+		r = abs(r);
+		
+		return new long[][]{new long[]{correctSignSqrt | flippedSignSqrt}, r};
+	}
+	
+	/*
+	 * Returns -P.
+	 */
+	RistrettoPoint negate(){
+		return new RistrettoPoint(neg(X), Y, Z, neg(T));
+	}
+	
+	/*
+	 * Returns P + Q, using the formulas add-2008-hwcd-3 for a = -1.
+	 */
+	RistrettoPoint add(RistrettoPoint q){
+		long[] a = mul(sub(Y, X), sub(q.Y, q.X));
+		long[] b = mul(Curve25519Field.add(Y, X), Curve25519Field.add(q.Y, q.X));
+		long[] c = mul(mul(T, D2), q.T);
+		long[] d = mul(Curve25519Field.add(Z, Z), q.Z);
+		return completeAddition(a, b, c, d);
+	}
+	
+	/*
+	 * Returns P + Q where Q is given in its cached form.
+	 */
+	RistrettoPoint add(CachedPoint q){
+		long[] a = mul(sub(Y, X), q.yMinusX);
+		long[] b = mul(Curve25519Field.add(Y, X), q.yPlusX);
+		long[] c = mul(T, q.t2d);
+		long[] d = (q.z2 == null) ? Curve25519Field.add(Z, Z) : mul(Z, q.z2);
+		return completeAddition(a, b, c, d);
+	}
+	
+	private static RistrettoPoint completeAddition(long[] a, long[] b, long[] c, long[] d){
+		long[] e = sub(b, a);
+		long[] f = sub(d, c);
+		long[] g = Curve25519Field.add(d, c);
+		long[] h = Curve25519Field.add(b, a);
+		return new RistrettoPoint(mul(e, f), mul(g, h), mul(f, g), mul(e, h));
+	}
+	
+	/*
+	 * Returns 2P, using the formulas dbl-2008-hwcd for a = -1.
+	 */
+	RistrettoPoint dbl(){
+		long[] a = square(X);
+		long[] b = square(Y);
+		long[] c = square(Z);
+		c = Curve25519Field.add(c, c);
+		long[] e = sub(sub(square(Curve25519Field.add(X, Y)), a), b);
+		long[] g = sub(b, a);
+		long[] f = sub(g, c);
+		long[] h = neg(Curve25519Field.add(a, b));
+		return new RistrettoPoint(mul(e, f), mul(g, h), mul(f, g), mul(e, h));
+	}
+	
+	/*
+	 * Returns 2^n * P.
+	 */
+	RistrettoPoint dbl(int n){
+		RistrettoPoint result = this;
+		for (int i=0; i<n; i++){
+			result = result.dbl();
+		}
+		return result;
+	}
+	
+	/*
+	 * Returns the cached form of this point, used as the second operand of additions.
+	 */
+	CachedPoint toCached(){
+		return new CachedPoint(Curve25519Field.add(Y, X), sub(Y, X), mul(T, D2), Curve25519Field.add(Z, Z));
+	}
+	
+	private static byte[] reverse(byte[] bytes){
+		byte[] reversed = new byte[bytes.length];
+		for (int i=0; i<bytes.length; i++){
+			reversed[i] = bytes[bytes.length - 1 - i];
+		}
+		return reversed;
+	}
+	
+	/**
+	 * A curve point in the form (Y+X, Y-X, 2d*T, 2Z) that saves work when it is added to another point.<p>
+	 * If z2 is null the point is affine, that is Z = 1.
+	 */
+	static final class CachedPoint{
+		final long[] yPlusX;
+		final long[] yMinusX;
+		final long[] t2d;
+		final long[] z2;
+		
+		static final CachedPoint IDENTITY = new CachedPoint(ONE, ONE, ZERO, null);
+		
+		CachedPoint(long[] yPlusX, long[] yMinusX, long[] t2d, long[] z2){
+			this.yPlusX = yPlusX;
+			this.yMinusX = yMinusX;
+			this.t2d = t2d;
+			this.z2 = z2;
+		}
+		
+		/*
+		 * Returns -Q if b = 1 and Q if b = 0, in constant time.
+		 */
+		CachedPoint condNegate(int b){
+			return new CachedPoint(select(yPlusX, yMinusX, b), select(yMinusX, yPlusX, b), condNeg(t2d, b), z2);
+		}
+		
+		/*
+		 * Selects, in constant time, the entry with the absolute value of the given digit from a table that contains 
+		 * the multiples 1Q, ..., 8Q, and negates it if the digit is negative. Digit 0 returns the identity.
+		 * All the entries of the table should have the same form (affine or not).
+		 */
+		static CachedPoint lookup(CachedPoint[] table, int digit){
+			int negative = (digit >>> 31);
+			int abs = digit - ((-negative & digit) << 1);
+			
+			boolean affine = (table[0].z2 == null);
+			long[] yPlusX = ONE.clone();
+			long[] yMinusX = ONE.clone();
+			long[] t2d = ZERO.clone();
+			long[] z2 = affine ? null : fromLong(2);
+			for (int j=1; j<=8; j++){
+				//b = 1 iff abs == j
+				int b = ((abs ^ j) - 1) >>> 31;
+				CachedPoint entry = table[j-1];
+				cmov(yPlusX, entry.yPlusX, b);
+				cmov(yMinusX, entry.yMinusX, b);
+				cmov(t2d, entry.t2d, b);
+				if (!affine){
+					cmov(z2, entry.z2, b);
+				}
+			}
+			return new CachedPoint(yPlusX, yMinusX, t2d, z2).condNegate(negative);
+		}
+	}
+}
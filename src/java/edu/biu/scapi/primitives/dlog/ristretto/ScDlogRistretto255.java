@@ -0,0 +1,467 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.primitives.dlog.ristretto;
+
+import java.math.BigInteger;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.biu.scapi.primitives.dlog.DlogGroupAbs;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.groupParams.Ristretto255GroupParams;
+import edu.biu.scapi.primitives.dlog.ristretto.RistrettoPoint.CachedPoint;
+import edu.biu.scapi.securityLevel.DDH;
+
+/**
+ * This class implements the Ristretto255 Dlog group (RFC 9496) in pure Java.<p>
+ * 
+ * Ristretto255 is a prime order group of order 2^252 + 27742317777372353535851937790883648493 built on top of Curve25519. 
+ * It offers about 128 bits of security and, unlike the other elliptic curve groups in SCAPI, it does not need any native library. 
+ * Therefore, it can be used as a JVM-only alternative to the Miracl and OpenSSL elliptic curves.<p>
+ * 
+ * Elements are sent and mapped to byte arrays using their canonical 32-byte encoding.
+ * Exponentiations use a constant time signed radix-16 ladder; Exponentiations of the generator use a precomputed table 
+ * of 64*8 multiples of the generator and require no doublings at all.<p>
+ * 
+ * This group is thread-safe. Elements are immutable and the tables are kept in concurrent maps, 
+ * so a single instance can be shared by all the threads of an application.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ScDlogRistretto255 extends DlogGroupAbs implements DDH {
+	
+	//Number of signed radix-16 digits of a scalar.
+	private static final int DIGITS = 64;
+	//Maximal number of attempts to encode a byte array.
+	private static final int ENCODING_ATTEMPTS = 128;
+	
+	//The canonical encoding of the generator, taken from RFC 9496.
+	private static final byte[] GENERATOR_ENCODING = {
+		(byte) 0xe2, (byte) 0xf2, (byte) 0xae, (byte) 0x0a, (byte) 0x6a, (byte) 0xbc, (byte) 0x4e, (byte) 0x71, 
+		(byte) 0xa8, (byte) 0x84, (byte) 0xa9, (byte) 0x61, (byte) 0xc5, (byte) 0x00, (byte) 0x51, (byte) 0x5f, 
+		(byte) 0x58, (byte) 0xe3, (byte) 0x0b, (byte) 0x6a, (byte) 0xa5, (byte) 0x82, (byte) 0xdd, (byte) 0x8d, 
+		(byte) 0xb6, (byte) 0xa6, (byte) 0x59, (byte) 0x45, (byte) 0xe0, (byte) 0x8d, (byte) 0x2d, (byte) 0x76};
+	
+	/*
+	 * Holds the table of the generator. 
+	 * The table is created once, when it is first needed, and shared by all the instances of this group.
+	 */
+	private static class GeneratorTable{
+		static final RistrettoPoint GENERATOR = RistrettoPoint.decode(GENERATOR_ENCODING);
+		static final CachedPoint[][] TABLE = createFixedBaseTable(GENERATOR);
+	}
+	
+	//Holds the tables of the bases used in exponentiateWithPreComputedValues.
+	private ConcurrentHashMap<GroupElement, CachedPoint[][]> fixedBaseTables = new ConcurrentHashMap<GroupElement, CachedPoint[][]>();
+	
+	/**
+	 * Default constructor. Initializes this group with a new SecureRandom object.
+	 */
+	public ScDlogRistretto255(){
+		this(new SecureRandom());
+	}
+	
+	/**
+	 * Initializes this group with the given source of randomness.
+	 * @param random The source of randomness to use.
+	 */
+	public ScDlogRistretto255(SecureRandom random){
+		this.random = random;
+		groupParams = new Ristretto255GroupParams();
+		generator = GeneratorTable.GENERATOR;
+		//Byte 0 of an encoded array holds a counter, byte 1 holds the length of the array and byte 31 is zero.
+		k = 29;
+	}
+	
+	/**
+	 * Initializes this group with a SecureRandom object of the given algorithm.
+	 * @param randNumGenAlg The name of the random number generation algorithm to use.
+	 * @throws NoSuchAlgorithmException
+	 */
+	public ScDlogRistretto255(String randNumGenAlg) throws NoSuchAlgorithmException{
+		this(SecureRandom.getInstance(randNumGenAlg));
+	}
+	
+	/**
+	 * @return the type of the group - Ristretto255
+	 */
+	public String getGroupType(){
+		return "Ristretto255";
+	}
+	
+	/**
+	 * @return the identity of this Dlog group
+	 */
+	public GroupElement getIdentity(){
+		return RistrettoPoint.IDENTITY;
+	}
+	
+	/**
+	 * Checks if the given element is a member of this Dlog group.<p>
+	 * Ristretto points can only be created by this group, either as the result of a group operation or by decoding a 
+	 * valid encoding, so every RistrettoPoint is a member of the group.
+	 * @param element 
+	 * @return true if the given element is member of this group; false, otherwise.
+	 * @throws IllegalArgumentException if the given element is not a RistrettoPoint
+	 */
+	public boolean isMember(GroupElement element) throws IllegalArgumentException{
+		checkInstance(element);
+		return true;
+	}
+	
+	/**
+	 * The generator is a fixed constant of the group, so this function always returns true.
+	 * @return true
+	 */
+	public boolean isGenerator(){
+		return true;
+	}
+	
+	/**
+	 * The group has no parameters other than the fixed constants of RFC 9496, so this function always returns true.
+	 * @return true
+	 */
+	public boolean validateGroup(){
+		return true;
+	}
+	
+	/**
+	 * Calculates the inverse of the given GroupElement.
+	 * @param groupElement to invert
+	 * @return the inverse element of the given GroupElement
+	 * @throws IllegalArgumentException
+	 */
+	public GroupElement getInverse(GroupElement groupElement) throws IllegalArgumentException{
+		return checkInstance(groupElement).negate();
+	}
+	
+	/**
+	 * Multiplies two GroupElements.
+	 * @param groupElement1
+	 * @param groupElement2
+	 * @return the multiplication result
+	 * @throws IllegalArgumentException
+	 */
+	public GroupElement multiplyGroupElements(GroupElement groupElement1, GroupElement groupElement2) throws IllegalArgumentException{
+		return checkInstance(groupElement1).add(checkInstance(groupElement2));
+	}
+	
+	/**
+	 * Raises the base GroupElement to the exponent. 
+	 * The exponent is reduced modulo the group order, so negative exponents are allowed. 
+	 * @param base
+	 * @param exponent
+	 * @return the result of the exponentiation
+	 * @throws IllegalArgumentException
+	 */
+	public GroupElement exponentiate(GroupElement base, BigInteger exponent) throws IllegalArgumentException{
+		RistrettoPoint point = checkInstance(base);
+		int[] digits = toRadix16(exponent);
+		
+		if (point.equals(generator)){
+			return fixedBaseExponentiate(GeneratorTable.TABLE, digits);
+		}
+		
+		CachedPoint[] table = createTable(point);
+		RistrettoPoint result = RistrettoPoint.IDENTITY.add(CachedPoint.lookup(table, digits[DIGITS-1]));
+		for (int i=DIGITS-2; i>=0; i--){
+			result = result.dbl(4).add(CachedPoint.lookup(table, digits[i]));
+		}
+		return result;
+	}
+	
+	/**
+	 * Computes the product of several exponentiations with distinct bases and distinct exponents.<p>
+	 * The exponentiations are computed simultaneously using the interleaving method, that is, the doublings are shared by all the bases.
+	 * @param groupElements
+	 * @param exponentiations
+	 * @return the exponentiation result
+	 */
+	public GroupElement simultaneousMultipleExponentiations(GroupElement[] groupElements, BigInteger[] exponentiations){
+		if (groupElements.length != exponentiations.length){
+			throw new IllegalArgumentException("the number of bases and exponents should be equal");
+		}
+		int n = groupElements.length;
+		CachedPoint[][] tables = new CachedPoint[n][];
+		int[][] digits = new int[n][];
+		for (int j=0; j<n; j++){
+			tables[j] = createTable(checkInstance(groupElements[j]));
+			digits[j] = toRadix16(exponentiations[j]);
+		}
+		
+		RistrettoPoint result = RistrettoPoint.IDENTITY;
+		for (int i=DIGITS-1; i>=0; i--){
+			if (i != DIGITS-1){
+				result = result.dbl(4);
+			}
+			for (int j=0; j<n; j++){
+				result = result.add(CachedPoint.lookup(tables[j], digits[j][i]));
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Computes the exponentiation of a base that is expected to be raised to many exponents.<p>
+	 * Upon the first call with a given base, a table of 64*8 multiples of the base is computed and kept in memory.
+	 * Every following exponentiation of that base requires only 64 additions and no doublings.
+	 * Call endExponentiateWithPreComputedValues to release the table.
+	 * @param groupElement
+	 * @param exponent
+	 * @return the exponentiation result
+	 */
+	@Override
+	public GroupElement exponentiateWithPreComputedValues(GroupElement groupElement, BigInteger exponent){
+		RistrettoPoint base = checkInstance(groupElement);
+		if (base.equals(generator)){
+			return fixedBaseExponentiate(GeneratorTable.TABLE, toRadix16(exponent));
+		}
+		
+		CachedPoint[][] table = fixedBaseTables.get(base);
+		if (table == null){
+			table = createFixedBaseTable(base);
+			CachedPoint[][] existing = fixedBaseTables.putIfAbsent(base, table);
+			if (existing != null){
+				table = existing;
+			}
+		}
+		return fixedBaseExponentiate(table, toRadix16(exponent));
+	}
+	
+	/**
+	 * @see edu.biu.scapi.primitives.dlog.DlogGroup#endExponentiateWithPreComputedValues(edu.biu.scapi.primitives.dlog.GroupElement)
+	 */
+	@Override
+	public void endExponentiateWithPreComputedValues(GroupElement base){
+		fixedBaseTables.remove(base);
+	}
+	
+	/**
+	 * Generates a group element from its canonical encoding.<p>
+	 * The encoding is given as a single BigInteger, which is the little-endian integer of the 32 bytes of the encoding. 
+	 * Since decoding always verifies the encoding, the element is checked even if bCheckMembership is false.
+	 * @param bCheckMembership
+	 * @param values a single BigInteger that holds the encoding
+	 * @return the generated GroupElement
+	 * @throws IllegalArgumentException if the given value is not a valid encoding
+	 */
+	@Override
+	public GroupElement generateElement(boolean bCheckMembership, BigInteger... values) throws IllegalArgumentException{
+		if (values.length != 1){
+			throw new IllegalArgumentException("To generate a RistrettoPoint you should pass the encoding of the point");
+		}
+		BigInteger value = values[0];
+		if (value.signum() < 0 || value.bitLength() > 256){
+			throw new IllegalArgumentException("The given value is not an encoding of a RistrettoPoint");
+		}
+		byte[] encoding = toLittleEndian(value);
+		return decode(encoding);
+	}
+	
+	/**
+	 * @deprecated As of SCAPI-V2_0_0 use reconstructElement(boolean bCheckMembership, GroupElementSendableData data)
+	 */
+	@Deprecated public GroupElement generateElement(boolean bCheckMembership, GroupElementSendableData data){
+		return reconstructElement(bCheckMembership, data);
+	}
+	
+	/**
+	 * @see edu.biu.scapi.primitives.dlog.DlogGroup#reconstructElement(boolean, edu.biu.scapi.primitives.dlog.GroupElementSendableData)
+	 */
+	@Override
+	public GroupElement reconstructElement(boolean bCheckMembership, GroupElementSendableData data){
+		if (!(data instanceof RistrettoPointSendableData)){
+			throw new IllegalArgumentException("data type doesn't match the group type");
+		}
+		return decode(((RistrettoPointSendableData) data).getEncoding());
+	}
+	
+	/**
+	 * This function takes any string of length up to k bytes and encodes it to a Group Element.<p> 
+	 * The encoding of the returned element holds a counter in its first byte, the length of the string in its second byte 
+	 * and the string itself in the following bytes. The counter is incremented until the bytes are a valid encoding.
+	 * 
+	 * @param binaryString the byte array to encode
+	 * @throws IndexOutOfBoundsException if the length of the binary array to encode is longer than k
+	 * @return the encoded group Element or null if element could not be encoded
+	 */
+	public GroupElement encodeByteArrayToGroupElement(byte[] binaryString){
+		if (binaryString.length > k){
+			throw new IndexOutOfBoundsException("The binary array to encode is too long.");
+		}
+		
+		byte[] encoding = new byte[32];
+		encoding[1] = (byte) binaryString.length;
+		System.arraycopy(binaryString, 0, encoding, 2, binaryString.length);
+		//The first byte should be even, since the encoding of a point is non negative.
+		for (int counter=0; counter<ENCODING_ATTEMPTS; counter++){
+			encoding[0] = (byte) (counter << 1);
+			RistrettoPoint point = RistrettoPoint.decode(encoding);
+			if (point != null){
+				return point;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * This function decodes a group element to a byte array. This function is guaranteed to work properly ONLY if the group element was obtained as a result of 
+	 * encoding a binary string of length in bytes up to k.
+	 * 
+	 * @param groupElement the element to decode
+	 * @return the decoded byte array
+	 */
+	public byte[] decodeGroupElementToByteArray(GroupElement groupElement){
+		byte[] encoding = checkInstance(groupElement).encode();
+		int length = encoding[1] & 0xff;
+		if (length > k){
+			throw new IllegalArgumentException("The given element is not an encoding of a byte array");
+		}
+		byte[] result = new byte[length];
+		System.arraycopy(encoding, 2, result, 0, length);
+		return result;
+	}
+	
+	/**
+	 * This function maps a group element of this dlog group to a byte array, which is the canonical 32-byte encoding of the element.
+	 * @return a byte array representation of the given group element
+	 */
+	public byte[] mapAnyGroupElementToByteArray(GroupElement groupElement){
+		return checkInstance(groupElement).getEncoded();
+	}
+	
+	private RistrettoPoint checkInstance(GroupElement element){
+		if (!(element instanceof RistrettoPoint)){
+			throw new IllegalArgumentException("groupElement doesn't match the DlogGroup");
+		}
+		return (RistrettoPoint) element;
+	}
+	
+	private RistrettoPoint decode(byte[] encoding){
+		RistrettoPoint point = RistrettoPoint.decode(encoding);
+		if (point == null){
+			throw new IllegalArgumentException("The given value is not an encoding of a RistrettoPoint");
+		}
+		return point;
+	}
+	
+	/*
+	 * Computes base^exponent given the fixed base table of the base. 
+	 * Digit i of the exponent is multiplied by 16^i*base, which is taken from the table.
+	 */
+	private static RistrettoPoint fixedBaseExponentiate(CachedPoint[][] table, int[] digits){
+		RistrettoPoint result = RistrettoPoint.IDENTITY;
+		for (int i=0; i<DIGITS; i++){
+			result = result.add(CachedPoint.lookup(table[i], digits[i]));
+		}
+		return result;
+	}
+	
+	/*
+	 * Returns the multiples 1*P, ..., 8*P in their cached form.
+	 */
+	private static CachedPoint[] createTable(RistrettoPoint point){
+		CachedPoint[] table = new CachedPoint[8];
+		CachedPoint cached = point.toCached();
+		table[0] = cached;
+		RistrettoPoint multiple = point;
+		for (int j=1; j<8; j++){
+			multiple = multiple.add(cached);
+			table[j] = multiple.toCached();
+		}
+		return table;
+	}
+	
+	/*
+	 * Returns the table of the multiples j*16^i*P for 0<=i<64 and 1<=j<=8, in their affine cached form.
+	 */
+	private static CachedPoint[][] createFixedBaseTable(RistrettoPoint point){
+		RistrettoPoint[] multiples = new RistrettoPoint[DIGITS * 8];
+		RistrettoPoint base = point;
+		for (int i=0; i<DIGITS; i++){
+			CachedPoint cached = base.toCached();
+			RistrettoPoint multiple = base;
+			multiples[i * 8] = base;
+			for (int j=1; j<8; j++){
+				multiple = multiple.add(cached);
+				multiples[i * 8 + j] = multiple;
+			}
+			base = base.dbl(4);
+		}
+		
+		//Convert all the multiples to affine coordinates using a single inversion.
+		long[][] z = new long[multiples.length][];
+		for (int i=0; i<multiples.length; i++){
+			z[i] = multiples[i].Z;
+		}
+		long[][] zInv = Curve25519Field.batchInvert(z);
+		
+		CachedPoint[][] table = new CachedPoint[DIGITS][8];
+		for (int i=0; i<multiples.length; i++){
+			long[] x = Curve25519Field.mul(multiples[i].X, zInv[i]);
+			long[] y = Curve25519Field.mul(multiples[i].Y, zInv[i]);
+			long[] t2d = Curve25519Field.mul(Curve25519Field.mul(x, y), RistrettoPoint.D2);
+			table[i / 8][i % 8] = new CachedPoint(Curve25519Field.add(y, x), Curve25519Field.sub(y, x), t2d, null);
+		}
+		return table;
+	}
+	
+	/*
+	 * Converts the given exponent to 64 signed radix-16 digits in the range [-8, 8), where digit i is the coefficient of 16^i. 
+	 * The exponent is reduced modulo the group order first.
+	 */
+	private int[] toRadix16(BigInteger exponent){
+		byte[] bytes = toLittleEndian(exponent.mod(getOrder()));
+		int[] digits = new int[DIGITS];
+		for (int i=0; i<32; i++){
+			digits[2 * i] = bytes[i] & 15;
+			digits[2 * i + 1] = (bytes[i] >> 4) & 15;
+		}
+		int carry = 0;
+		for (int i=0; i<DIGITS-1; i++){
+			digits[i] += carry;
+			carry = (digits[i] + 8) >> 4;
+			digits[i] -= carry << 4;
+		}
+		//Since the exponent is smaller than 2^253, the last digit is at most 8.
+		digits[DIGITS-1] += carry;
+		return digits;
+	}
+	
+	/*
+	 * Returns the 32-byte little-endian representation of the given non negative number.
+	 */
+	private static byte[] toLittleEndian(BigInteger value){
+		byte[] bigEndian = value.toByteArray();
+		byte[] result = new byte[32];
+		for (int i=0; i<bigEndian.length && i<32; i++){
+			result[i] = bigEndian[bigEndian.length - 1 - i];
+		}
+		return result;
+	}
+}
@@ -30,14 +30,16 @@ import edu.biu.scapi.primitives.hash.cryptopp.CryptoPpSHA1;
 import edu.biu.scapi.tools.Factories.CryptographicHashFactory;
 
 /**
- * Concrete class of random oracle based on CryptographicHash.
+ * Concrete class of random oracle based on CryptographicHash.<p>
+ * The input can also be given in parts, using the {@link StreamingRandomOracle} functions.
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class HashBasedRO implements RandomOracle{
+public class HashBasedRO implements StreamingRandomOracle{
 	
 	private CryptographicHash hash; //The underlying object used to compute the random oracle function.
+	private boolean hasInput;		//Indicates whether bytes were added to the hash since the last computation.
 	
 	/**
 	 * default constructor that sets default values to the underlying cryptographic hash.
@@ -76,14 +78,44 @@ public class HashBasedRO implements RandomOracle{
 		if (outLen>hash.getHashedMsgSize()){
 			throw new IllegalArgumentException("The given output length is greater then the output length of the hash function");
 		}
+		//Discard the input of a streaming computation that did not finish.
+		reset();
+		
 		//Call the hash function with the input.
+		update(input, inOffset, inLen);
+		
+		return computeFinal(outLen);
+	}
+	
+	/**
+	 * Adds the given bytes to the input of the hash function.
+	 * @param input the bytes to add.
+	 * @param inOffset offset within the input to take the bytes from.
+	 * @param inLen number of bytes to add.
+	 */
+	public void update(byte[] input, int inOffset, int inLen){
+		hasInput = true;
 		hash.update(input, inOffset, inLen);
+	}
+	
+	/**
+	 * Computes the hash function on all the bytes that were added and returns the first outLen bytes.
+	 * @param outLen required output length IN BYTES.
+	 * @return a string with the required length.
+	 */
+	public byte[] computeFinal(int outLen){
+		if (outLen>hash.getHashedMsgSize()){
+			//The added bytes should not be part of the next computation.
+			reset();
+			throw new IllegalArgumentException("The given output length is greater then the output length of the hash function");
+		}
 		
 		//Create output array in the required size.
 		byte[] out = new byte[hash.getHashedMsgSize()];
 		
 		//Compute the hash function.
 		hash.hashFinal(out, 0);
+		hasInput = false;
 		
 		byte[] output = new byte[outLen];
 		if (out.length > outLen){
@@ -95,6 +127,17 @@ public class HashBasedRO implements RandomOracle{
 	}
 
 
+	/**
+	 * Discards the bytes that were added since the last computation.
+	 * The hash function does not have a reset function, but computing the hash resets it, so the result is simply ignored.
+	 */
+	public void reset(){
+		if (hasInput){
+			hash.hashFinal(new byte[hash.getHashedMsgSize()], 0);
+			hasInput = false;
+		}
+	}
+
 	@Override
 	public String getAlgorithmName() {
 		
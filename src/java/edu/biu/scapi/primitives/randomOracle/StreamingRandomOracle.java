@@ -0,0 +1,58 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.primitives.randomOracle;
+
+/**
+ * A random oracle that can get its input in parts, without concatenating them to one array first.<p>
+ * 
+ * Calling {@link #update(byte[], int, int)} on each part and then {@link #computeFinal(int)} gives the same result as calling 
+ * {@link #compute(byte[], int, int, int)} on the concatenation of the parts.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public interface StreamingRandomOracle extends RandomOracle {
+	
+	/**
+	 * Adds the given bytes to the input of the random oracle.
+	 * @param input the bytes to add.
+	 * @param inOffset offset within the input to take the bytes from.
+	 * @param inLen number of bytes to add.
+	 */
+	public void update(byte[] input, int inOffset, int inLen);
+	
+	/**
+	 * Computes the random oracle function on all the bytes that were added since the last call to this function, and resets the input.
+	 * @param outLen required output length IN BYTES.
+	 * @return a string with the required length.
+	 */
+	public byte[] computeFinal(int outLen);
+	
+	/**
+	 * Discards the bytes that were added since the last computation. 
+	 * Should be called before a new computation if the previous one could have stopped in the middle, for example because of an exception.
+	 */
+	public void reset();
+}
@@ -0,0 +1,273 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.primitives.universalHash;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.InvalidKeyException;
+import java.security.InvalidParameterException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.InvalidParameterSpecException;
+
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import edu.biu.scapi.exceptions.FactoriesException;
+import edu.biu.scapi.paddings.BitPadding;
+import edu.biu.scapi.paddings.NoPadding;
+import edu.biu.scapi.paddings.PaddingScheme;
+import edu.biu.scapi.tools.Factories.PaddingFactory;
+
+/** 
+ * Pure-Java implementation of the evaluation hash function over GF(2^64).<p>
+ * 
+ * The field is GF(2)[X]/(X^64 + X^4 + X^3 + X + 1) and the key k is a field element. The padded input is split to 8 byte blocks M_0,...,M_(n-1), 
+ * each one is a field element, and the output is M(k)*k where M(X) = M_0 + M_1*X + ... + M_(n-1)*X^(n-1). 
+ * Bytes are converted to field elements as in NTL (the first byte holds the coefficients of the lowest degrees), 
+ * so the output is the same as the output of {@link EvaluationHashFunction}, that computes the same function using NTL.<p>
+ * 
+ * The only multiplications are by the fixed key, so when the key is set this class precomputes eight tables of 256 entries, 
+ * where the j-th table holds b*X^(8j)*k for every byte b. A multiplication by k is then eight table lookups. 
+ * The input is read as little endian longs, one block per step, without copying it. Only the last block is padded.<p>
+ * 
+ * The padding scheme should append bytes to the input, as all the padding schemes of SCAPI do.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ */
+public final class ScEvaluationHashFunction implements UniversalHash{
+	
+	//X^64 = X^4 + X^3 + X + 1 in the field.
+	private static final long REDUCTION = 0x1BL;
+	
+	private SecureRandom random;
+	private SecretKey secretKey = null;
+	private boolean isKeySet = false;
+	private long[][] keyTables;		// keyTables[j][b] = b*X^(8j)*k.
+	private PaddingScheme padding;
+	
+	/**
+	 * Default constructor. uses Bit padding.
+	 */
+	public ScEvaluationHashFunction(){
+		this(new BitPadding(), new SecureRandom());
+	}
+	
+	/**
+	 * Constructor that receives the names of the required padding scheme and randomness algorithm.
+	 * @param paddingName - name of padding scheme to use.
+	 * @param randNumGenAlg name of random algorithm to use.
+	 * @throws FactoriesException
+	 * @throws NoSuchAlgorithmException 
+	 */
+	public ScEvaluationHashFunction(String paddingName, String randNumGenAlg) throws FactoriesException, NoSuchAlgorithmException{
+		//creates padding scheme and random, then call the other constructor
+		this(PaddingFactory.getInstance().getObject(paddingName), SecureRandom.getInstance(randNumGenAlg));
+	}
+	
+	/**
+	 * Constructor that receives the padding scheme and random to use.
+	 * @param padding
+	 * @param random
+	 */
+	public ScEvaluationHashFunction(PaddingScheme padding, SecureRandom random){
+		this.padding = padding;
+		this.random = random;
+	}
+	
+	/**
+	 * Sets the key and precomputes the multiplication tables of the key.
+	 * @param secretKey the first 8 bytes of the key are the key element.
+	 * @throws InvalidKeyException if the key is shorter than 8 bytes.
+	 */
+	public void setKey(SecretKey secretKey) throws InvalidKeyException {
+		byte[] keyBytes = secretKey.getEncoded();
+		if (keyBytes.length < 8){
+			throw new InvalidKeyException("the key should be at least 8 bytes long");
+		}
+		long k = ByteBuffer.wrap(keyBytes, 0, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+		
+		long[][] tables = new long[8][256];
+		long power = k;	// k*X^i for the current i.
+		for (int j = 0; j < 8; j++){
+			for (int bit = 1; bit < 256; bit <<= 1){
+				tables[j][bit] = power;
+				power = multiplyByX(power);
+			}
+			//Every other entry is the sum of the entries of its bits.
+			for (int b = 3; b < 256; b++){
+				int lowBit = b & -b;
+				if (b != lowBit){
+					tables[j][b] = tables[j][b ^ lowBit] ^ tables[j][lowBit];
+				}
+			}
+		}
+		keyTables = tables;
+		
+		//sets the key
+		this.secretKey = secretKey;
+		
+		isKeySet = true; //marks this object as initialized
+	}
+	
+	public boolean isKeySet() {
+		return isKeySet; 
+	}
+	
+	/**
+	 * Evaluation hash function can get any input size which is between 0 to 64t bits. while t = 2^24.
+	 * @return the upper bound of the input size - 64t
+	 */
+	public int getInputSize() {
+		//limit = t = 2^24
+		int limit = (int) Math.pow(2, 24);
+		//limit = 8t, which is 64t bits in bytes
+		limit = limit * 8;
+		//save maximum 8 byte to the padding
+		limit = limit - 8;
+		return limit;
+	}
+
+	/** 
+	 * @return the output size of evaluation hash function - 8 bytes.
+	 */
+	public int getOutputSize() {
+		
+		//64 bits long
+		return 8;
+	}
+
+	/**
+	 * @return the algorithm name - Evaluation Hash Function
+	 */
+	public String getAlgorithmName() {
+		
+		return "Evaluation Hash Function";
+	}
+
+	/**
+	 * Generates a secret key to initialize this UH object.
+	 * @param keyParams algorithmParameterSpec contains the required secret key size in bits 
+	 * @return the generated secret key
+	 * @throws InvalidParameterSpecException 
+	 */
+	public SecretKey generateKey(AlgorithmParameterSpec keyParams) throws InvalidParameterSpecException{
+		throw new UnsupportedOperationException("To generate a key for this univarsal hash object use the generateKey(int keySize) function");
+	}
+	
+	/**
+	 * Generates a secret key to initialize this UH object.
+	 * @param keySize is the required secret key size in bits (it has to be greater than 0 a multiple of 8) 
+	 * @return the generated secret key 
+	 */
+	public SecretKey generateKey(int keySize){
+		//if the key size is zero or less - throw exception
+		if (keySize <= 0){
+			throw new NegativeArraySizeException("Key size must be greater than 0");
+		}
+		//the key size has to be a multiple of 8 so that we can obtain an array of random bytes which we use
+		//to create the SecretKey.
+		if ((keySize % 8) != 0)  {
+			throw new InvalidParameterException("Wrong key size: must be a multiple of 8");
+		}
+		//creates a byte array of size keySize
+		byte[] genBytes = new byte[keySize/8];
+
+		//generates the bytes using the random
+		random.nextBytes(genBytes);
+		//creates a secretKey from the generated bytes
+		return new SecretKeySpec(genBytes, "");
+	}
+	
+	public void compute(byte[] in, int inOffset, int inLen, byte[] out,
+			int outOffset) throws IllegalBlockSizeException {
+		if (!isKeySet()){
+			throw new IllegalStateException("secret key isn't set");
+		}
+		//checks that the offset and length are correct
+		if ((inOffset > in.length) || (inOffset+inLen> in.length)){
+			throw new ArrayIndexOutOfBoundsException("wrong offset for the given input buffer");
+		}
+		if ((outOffset > out.length) || (outOffset+getOutputSize() > out.length)){
+			throw new ArrayIndexOutOfBoundsException("wrong offset for the given output buffer");
+		}
+		
+		//checks that the input length is not greater than the upper limit
+		if(inLen > getInputSize()){
+			throw new IllegalBlockSizeException("input length must be less than 64*(2^24-1) bits long");
+		}
+		
+		int remainder = inLen % 8;
+		if (remainder != 0 && padding instanceof NoPadding){
+			throw new IllegalArgumentException("input is not aligned to blockSize");
+		}
+		int alignedLen = inLen - remainder;
+		
+		//Pad only the last bytes of the input, that are not a whole block. 
+		//The input is padded by 8 bytes if it is aligned, as in EvaluationHashFunction.
+		byte[] lastBytes = new byte[remainder];
+		System.arraycopy(in, inOffset + alignedLen, lastBytes, 0, remainder);
+		byte[] paddedTail = padding.pad(lastBytes, (remainder == 0) ? 8 : 8 - remainder);
+		if (paddedTail.length % 8 != 0){
+			throw new IllegalArgumentException("the padding scheme should align the input to 8 bytes");
+		}
+		
+		//Compute M(k)*k using Horner's rule from the highest coefficient: acc = (acc + M_i)*k for i = n-1,...,0.
+		long[][] tables = keyTables;
+		long acc = 0;
+		ByteBuffer tail = ByteBuffer.wrap(paddedTail).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = paddedTail.length - 8; i >= 0; i -= 8){
+			acc = multiplyByKey(tables, acc ^ tail.getLong(i));
+		}
+		ByteBuffer body = ByteBuffer.wrap(in).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = inOffset + alignedLen - 8; i >= inOffset; i -= 8){
+			acc = multiplyByKey(tables, acc ^ body.getLong(i));
+		}
+		
+		//Write the result as 8 little endian bytes.
+		for (int i = 0; i < 8; i++){
+			out[outOffset + i] = (byte) (acc >>> (8 * i));
+		}
+	}
+	
+	/**
+	 * Computes a*k using the precomputed tables of k.
+	 */
+	private static long multiplyByKey(long[][] tables, long a) {
+		return tables[0][(int) a & 0xFF] ^ tables[1][(int) (a >>> 8) & 0xFF] 
+				^ tables[2][(int) (a >>> 16) & 0xFF] ^ tables[3][(int) (a >>> 24) & 0xFF] 
+				^ tables[4][(int) (a >>> 32) & 0xFF] ^ tables[5][(int) (a >>> 40) & 0xFF] 
+				^ tables[6][(int) (a >>> 48) & 0xFF] ^ tables[7][(int) (a >>> 56)];
+	}
+	
+	/**
+	 * Computes a*X in the field.
+	 */
+	private static long multiplyByX(long a) {
+		return (a << 1) ^ ((a >> 63) & REDUCTION);
+	}
+}
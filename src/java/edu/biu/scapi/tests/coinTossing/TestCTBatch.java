@@ -0,0 +1,235 @@
+package edu.biu.scapi.tests.coinTossing;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.FactoriesException;
+import edu.biu.scapi.generals.ScapiDefaultConfiguration;
+import edu.biu.scapi.interactiveMidProtocols.coinTossing.CTBatchPartyOne;
+import edu.biu.scapi.interactiveMidProtocols.coinTossing.CTBatchPartyTwo;
+import edu.biu.scapi.interactiveMidProtocols.coinTossing.CTOutput;
+import edu.biu.scapi.interactiveMidProtocols.coinTossing.CTPartyOne;
+import edu.biu.scapi.interactiveMidProtocols.coinTossing.CTPartyTwo;
+import edu.biu.scapi.interactiveMidProtocols.coinTossing.CTRandomStream;
+import edu.biu.scapi.interactiveMidProtocols.coinTossing.CTStringOutput;
+import edu.biu.scapi.interactiveMidProtocols.coinTossing.CTStringPartyOne;
+import edu.biu.scapi.interactiveMidProtocols.coinTossing.CTStringPartyTwo;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenWithProofsCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenWithProofsReceiver;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.primitives.kdf.HKDF;
+import edu.biu.scapi.primitives.prf.bc.BcHMAC;
+import edu.biu.scapi.primitives.prg.ScPrgFromPrf;
+import edu.biu.scapi.tests.comm.InMemoryChannel;
+import edu.biu.scapi.tools.Factories.DlogGroupFactory;
+
+public class TestCTBatch {
+	
+	private static final int TOSSES = 20;
+	private static final int L = 256;
+	
+	/**
+	 * Seed toss that only exchanges random shares and outputs their XOR. 
+	 * It is not secure against a malicious party, but the batching does not depend on the way the seed is tossed. 
+	 * The tests of the secure seed toss below use {@link CTStringPartyOne} and {@link CTStringPartyTwo}.
+	 */
+	private static class ExchangeToss implements CTPartyOne, CTPartyTwo {
+		private Channel channel;
+		
+		ExchangeToss(Channel channel){
+			this.channel = channel;
+		}
+		
+		public CTOutput toss() throws IOException, ClassNotFoundException {
+			byte[] share = new byte[16];
+			new SecureRandom().nextBytes(share);
+			channel.send(share.clone());
+			byte[] other = (byte[]) channel.receive();
+			for (int i = 0; i < share.length; i++){
+				share[i] ^= other[i];
+			}
+			return new CTStringOutput(share);
+		}
+	}
+	
+	@Test
+	public void testBothPartiesGetTheSameStream() throws Exception {
+		InMemoryChannel[] channels = InMemoryChannel.createPair();
+		final InMemoryChannel channelOne = channels[0];
+		final InMemoryChannel channelTwo = channels[1];
+		
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<byte[][]> one = executor.submit(new Callable<byte[][]>() {
+				public byte[][] call() throws Exception {
+					CTBatchPartyOne party = new CTBatchPartyOne(new ExchangeToss(channelOne), new ScPrgFromPrf(), L);
+					byte[][] outputs = new byte[TOSSES + 1][];
+					for (int i = 0; i < TOSSES; i++){
+						outputs[i] = ((CTStringOutput) party.toss()).getOutput();
+					}
+					//Read the stream in pieces of different sizes.
+					CTRandomStream stream = party.getStream();
+					outputs[TOSSES] = new byte[100];
+					stream.nextBytes(outputs[TOSSES], 0, 30);
+					stream.nextBytes(outputs[TOSSES], 30, 70);
+					return outputs;
+				}
+			});
+			Future<byte[][]> two = executor.submit(new Callable<byte[][]>() {
+				public byte[][] call() throws Exception {
+					CTBatchPartyTwo party = new CTBatchPartyTwo(new ExchangeToss(channelTwo), new ScPrgFromPrf(), L);
+					byte[][] outputs = new byte[TOSSES + 1][];
+					for (int i = 0; i < TOSSES; i++){
+						outputs[i] = ((CTStringOutput) party.toss()).getOutput();
+					}
+					outputs[TOSSES] = party.getStream().nextBytes(100);
+					return outputs;
+				}
+			});
+			
+			byte[][] outputsOne = one.get();
+			byte[][] outputsTwo = two.get();
+			for (int i = 0; i <= TOSSES; i++){
+				assertArrayEquals(outputsOne[i], outputsTwo[i]);
+			}
+			assertEquals(L / 8, outputsOne[0].length);
+			assertFalse(Arrays.equals(outputsOne[0], outputsOne[1]));
+			
+			//Only the seed toss communicates.
+			assertEquals(1, channelOne.getSentMessages());
+			assertEquals(1, channelTwo.getSentMessages());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Creates each party on its own thread, since the constructors of the commitments communicate, 
+	 * and checks that both parties get the same tosses and that only the first toss communicates.
+	 */
+	private void checkSecureSeedToss(final Callable<CTPartyOne> createOne, final InMemoryChannel channelOne, 
+			final Callable<CTPartyTwo> createTwo, final InMemoryChannel channelTwo) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<byte[][]> one = executor.submit(new Callable<byte[][]>() {
+				public byte[][] call() throws Exception {
+					CTPartyOne party = createOne.call();
+					byte[][] outputs = new byte[TOSSES][];
+					outputs[0] = ((CTStringOutput) party.toss()).getOutput();
+					int sent = channelOne.getSentMessages();
+					for (int i = 1; i < TOSSES; i++){
+						outputs[i] = ((CTStringOutput) party.toss()).getOutput();
+					}
+					assertEquals(sent, channelOne.getSentMessages());
+					return outputs;
+				}
+			});
+			Future<byte[][]> two = executor.submit(new Callable<byte[][]>() {
+				public byte[][] call() throws Exception {
+					CTPartyTwo party = createTwo.call();
+					byte[][] outputs = new byte[TOSSES][];
+					outputs[0] = ((CTStringOutput) party.toss()).getOutput();
+					int sent = channelTwo.getSentMessages();
+					for (int i = 1; i < TOSSES; i++){
+						outputs[i] = ((CTStringOutput) party.toss()).getOutput();
+					}
+					assertEquals(sent, channelTwo.getSentMessages());
+					return outputs;
+				}
+			});
+			
+			byte[][] outputsOne = one.get();
+			byte[][] outputsTwo = two.get();
+			for (int i = 0; i < TOSSES; i++){
+				assertArrayEquals(outputsOne[i], outputsTwo[i]);
+			}
+			assertEquals(L / 8, outputsOne[0].length);
+			assertFalse(Arrays.equals(outputsOne[0], outputsOne[1]));
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test(timeout = 60000)
+	public void testSeedTossedWithCommitmentsAndProofs() throws Exception {
+		InMemoryChannel[] channels = InMemoryChannel.createPair();
+		final InMemoryChannel channelOne = channels[0];
+		final InMemoryChannel channelTwo = channels[1];
+		final SecureRandom random = new SecureRandom();
+		checkSecureSeedToss(new Callable<CTPartyOne>() {
+			public CTPartyOne call() throws Exception {
+				CmtPedersenWithProofsCommitter committer = new CmtPedersenWithProofsCommitter(channelOne, new ScDlogRistretto255(), 40, random);
+				return new CTBatchPartyOne(new CTStringPartyOne(channelOne, committer, new HKDF(new BcHMAC()), 128, random), new ScPrgFromPrf(), L);
+			}
+		}, channelOne, new Callable<CTPartyTwo>() {
+			public CTPartyTwo call() throws Exception {
+				CmtPedersenWithProofsReceiver receiver = new CmtPedersenWithProofsReceiver(channelTwo, new ScDlogRistretto255(), 40, random);
+				return new CTBatchPartyTwo(new CTStringPartyTwo(channelTwo, receiver, new HKDF(new BcHMAC()), 128, random), new ScPrgFromPrf(), L);
+			}
+		}, channelTwo);
+	}
+	
+	/**
+	 * Runs the default constructors, that toss the seed with CTStringPartyOne and CTStringPartyTwo over the default DDH group 
+	 * of the configuration file. This group is implemented in native code, so the test is skipped if it can not be loaded.
+	 */
+	@Test(timeout = 60000)
+	public void testDefaultConstructors() throws Exception {
+		try {
+			DlogGroupFactory.getInstance().getObject(ScapiDefaultConfiguration.getInstance().getProperty("DDHDlogGroup"));
+		} catch (FactoriesException | LinkageError e) {
+			Assume.assumeNoException(e);
+		}
+		
+		InMemoryChannel[] channels = InMemoryChannel.createPair();
+		final InMemoryChannel channelOne = channels[0];
+		final InMemoryChannel channelTwo = channels[1];
+		checkSecureSeedToss(new Callable<CTPartyOne>() {
+			public CTPartyOne call() throws Exception {
+				return new CTBatchPartyOne(channelOne, L);
+			}
+		}, channelOne, new Callable<CTPartyTwo>() {
+			public CTPartyTwo call() throws Exception {
+				return new CTBatchPartyTwo(channelTwo, L);
+			}
+		}, channelTwo);
+	}
+	
+	@Test
+	public void testStreamDoesNotDependOnReadSizes() throws Exception {
+		byte[] seed = new byte[16];
+		new SecureRandom().nextBytes(seed);
+		CTRandomStream whole = new CTRandomStream(new ScPrgFromPrf(), seed);
+		CTRandomStream pieces = new CTRandomStream(new ScPrgFromPrf(), seed);
+		
+		byte[] expected = whole.nextBytes(5000);
+		byte[] actual = new byte[5000];
+		int offset = 0;
+		for (int length = 1; offset < actual.length; length = length * 3 + 1){
+			int chunk = Math.min(length, actual.length - offset);
+			pieces.nextBytes(actual, offset, chunk);
+			offset += chunk;
+		}
+		assertArrayEquals(expected, actual);
+		assertEquals(5000, pieces.getPosition());
+		
+		BigInteger bound = BigInteger.valueOf(1000003);
+		for (int i = 0; i < 100; i++){
+			BigInteger value = whole.nextBigInteger(bound);
+			assertEquals(value, pieces.nextBigInteger(bound));
+			assertTrue(value.signum() >= 0 && value.compareTo(bound) < 0);
+		}
+	}
+}
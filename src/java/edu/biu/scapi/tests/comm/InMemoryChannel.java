@@ -0,0 +1,83 @@
+package edu.biu.scapi.tests.comm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.biu.scapi.comm.PlainChannel;
+
+/**
+ * Ready channel that passes the messages in memory, for the tests of protocols that run both parties in the same JVM. <p>
+ * Every message is serialized when it is sent, as it would be by a real channel, so the receiver gets a copy of the sent object.
+ * The channels are created in connected pairs by {@link #createPair()}. Both parties may run in the same thread as long as each
+ * message is sent before it is received.
+ */
+public class InMemoryChannel extends PlainChannel {
+
+	private LinkedBlockingQueue<byte[]> out;
+	private LinkedBlockingQueue<byte[]> in;
+	private AtomicInteger sentMessages = new AtomicInteger();
+	private volatile boolean isClosed;
+
+	private InMemoryChannel(LinkedBlockingQueue<byte[]> out, LinkedBlockingQueue<byte[]> in){
+		this.out = out;
+		this.in = in;
+		setState(State.READY);
+	}
+
+	/**
+	 * @return two connected channels; the messages sent on each one are received by the other.
+	 */
+	public static InMemoryChannel[] createPair(){
+		LinkedBlockingQueue<byte[]> firstToSecond = new LinkedBlockingQueue<byte[]>();
+		LinkedBlockingQueue<byte[]> secondToFirst = new LinkedBlockingQueue<byte[]>();
+		return new InMemoryChannel[]{new InMemoryChannel(firstToSecond, secondToFirst), new InMemoryChannel(secondToFirst, firstToSecond)};
+	}
+
+	/**
+	 * @return the number of messages sent on this channel.
+	 */
+	public int getSentMessages(){
+		return sentMessages.get();
+	}
+
+	public void send(Serializable data) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream stream = new ObjectOutputStream(bytes);
+		stream.writeObject(data);
+		stream.close();
+		sentMessages.incrementAndGet();
+		out.add(bytes.toByteArray());
+	}
+
+	public Serializable receive() throws ClassNotFoundException, IOException {
+		byte[] message;
+		try {
+			message = in.take();
+		} catch (InterruptedException e) {
+			throw new IOException(e);
+		}
+		return (Serializable) new ObjectInputStream(new ByteArrayInputStream(message)).readObject();
+	}
+
+	public void close() {
+		isClosed = true;
+	}
+
+	public boolean isClosed() {
+		return isClosed;
+	}
+
+	protected boolean connect() {
+		return true;
+	}
+
+	protected boolean isConnected() {
+		return true;
+	}
+}
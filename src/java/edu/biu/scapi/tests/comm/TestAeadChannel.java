@@ -0,0 +1,156 @@
+package edu.biu.scapi.tests.comm;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import edu.biu.scapi.comm.AeadChannel;
+
+public class TestAeadChannel {
+
+	private static final SecretKey KEY = new SecretKeySpec(new byte[]{-61, -19, 106, -97, 106, 40, 52, -64, -115, -19, -87, -67, 98, 102, 16, 21}, "AES");
+
+	@Test
+	public void testSendAndReceiveInBothDirections() throws Exception {
+		InMemoryChannel[] plain = InMemoryChannel.createPair();
+		AeadChannel a = new AeadChannel(plain[0], KEY, true);
+		AeadChannel b = new AeadChannel(plain[1], KEY, false);
+
+		for (int i = 0; i < 5; i++){
+			a.send("message " + i);
+			b.send(new int[]{i, i + 1});
+		}
+		for (int i = 0; i < 5; i++){
+			assertEquals("message " + i, b.receive());
+			assertArrayEquals(new int[]{i, i + 1}, (int[]) a.receive());
+		}
+	}
+
+	@Test
+	public void testSentFrameIsSerializedMessageAndTag() throws Exception {
+		InMemoryChannel[] plain = InMemoryChannel.createPair();
+		AeadChannel a = new AeadChannel(plain[0], KEY, true);
+		String msg = "a message that is sent once";
+		a.send(msg);
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(msg);
+		oos.close();
+		//The first frame starts with the prefix of the nonces.
+		byte[] frame = (byte[]) plain[1].receive();
+		assertEquals(7 + bos.size() + 16, frame.length);
+		//The message is not sent in the clear.
+		assertFalse(Arrays.equals(bos.toByteArray(), Arrays.copyOfRange(frame, 7, 7 + bos.size())));
+
+		a.send(msg);
+		assertEquals(bos.size() + 16, ((byte[]) plain[1].receive()).length);
+	}
+
+	@Test
+	public void testChannelsWithTheSameKeyUseDifferentNonces() throws Exception {
+		InMemoryChannel[] first = InMemoryChannel.createPair();
+		InMemoryChannel[] second = InMemoryChannel.createPair();
+		new AeadChannel(first[0], KEY, true).send("the same message");
+		new AeadChannel(second[0], KEY, true).send("the same message");
+		byte[] firstFrame = (byte[]) first[1].receive();
+		byte[] secondFrame = (byte[]) second[1].receive();
+		assertFalse(Arrays.equals(firstFrame, secondFrame));
+
+		//A frame of one channel does not verify on the other.
+		AeadChannel b = new AeadChannel(second[1], KEY, false);
+		second[0].send(firstFrame);
+		second[0].send(secondFrame);
+		assertEquals("the same message", b.receive());
+		assertNull(b.receive());
+	}
+
+	@Test
+	public void testNewKey() throws Exception {
+		InMemoryChannel[] plain = InMemoryChannel.createPair();
+		AeadChannel a = new AeadChannel(plain[0], KEY, true);
+		AeadChannel b = new AeadChannel(plain[1], KEY, false);
+		a.send("old key");
+		assertEquals("old key", b.receive());
+
+		try {
+			a.setKey(new SecretKeySpec(KEY.getEncoded(), "AES"));
+			fail("the same key should be rejected");
+		} catch (IllegalArgumentException e) {
+		}
+
+		SecretKey newKey = new SecretKeySpec(new byte[16], "AES");
+		a.setKey(newKey);
+		b.setKey(newKey);
+		a.send("new key");
+		b.send("answer");
+		assertEquals("new key", b.receive());
+		assertEquals("answer", a.receive());
+	}
+
+	@Test
+	public void testModifiedOrReplayedMessageDoesNotVerify() throws Exception {
+		InMemoryChannel[] plain = InMemoryChannel.createPair();
+		AeadChannel a = new AeadChannel(plain[0], KEY, true);
+		AeadChannel b = new AeadChannel(plain[1], KEY, false);
+
+		a.send("first");
+		byte[] first = (byte[]) plain[1].receive();
+		plain[0].send(first);
+		assertEquals("first", b.receive());
+
+		//Replaying the first frame fails, since the receiver expects the next nonce.
+		plain[0].send(first);
+		assertNull(b.receive());
+
+		a.send("third");
+		byte[] frame = (byte[]) plain[1].receive();
+		frame[3] ^= 1;
+		plain[0].send(frame);
+		assertNull(b.receive());
+	}
+
+	@Test
+	public void testForgedFirstFrameDoesNotReplaceThePrefix() throws Exception {
+		InMemoryChannel[] plain = InMemoryChannel.createPair();
+		AeadChannel a = new AeadChannel(plain[0], KEY, true);
+		AeadChannel b = new AeadChannel(plain[1], KEY, false);
+
+		a.send("first");
+		byte[] first = (byte[]) plain[1].receive();
+
+		//A frame with another prefix does not verify, and the receiver still expects the first frame.
+		byte[] forged = first.clone();
+		forged[0] ^= 1;
+		plain[0].send(forged);
+		assertNull(b.receive());
+
+		plain[0].send(first);
+		assertEquals("first", b.receive());
+		a.send("second");
+		assertEquals("second", b.receive());
+	}
+
+	@Test
+	public void testReflectedMessageDoesNotVerify() throws Exception {
+		InMemoryChannel[] plain = InMemoryChannel.createPair();
+		AeadChannel a = new AeadChannel(plain[0], KEY, true);
+
+		//A message of the initiator that is sent back to it uses the nonce of the other direction.
+		a.send("to the other party");
+		plain[1].send(plain[1].receive());
+		assertNull(a.receive());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testSendWithoutKey() throws Exception {
+		new AeadChannel(InMemoryChannel.createPair()[0], true).send("no key");
+	}
+}
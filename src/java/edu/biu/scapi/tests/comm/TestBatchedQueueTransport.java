@@ -0,0 +1,114 @@
+package edu.biu.scapi.tests.comm;
+
+import static org.junit.Assert.*;
+
+import java.io.Flushable;
+import java.util.Map;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.twoPartyComm.ActiveMQCommunicationSetup;
+import edu.biu.scapi.comm.twoPartyComm.BatchedQueueTransport;
+import edu.biu.scapi.comm.twoPartyComm.QueuePartyData;
+
+public class TestBatchedQueueTransport {
+
+	private BrokerService broker;
+	private ActiveMQCommunicationSetup[] setups = new ActiveMQCommunicationSetup[2];
+
+	@Before
+	public void startBroker() throws Exception {
+		broker = new BrokerService();
+		broker.setBrokerName("scapi-test");
+		broker.setPersistent(false);
+		broker.setUseJmx(false);
+		broker.start();
+		broker.waitUntilStarted();
+	}
+
+	@After
+	public void stopBroker() throws Exception {
+		for (ActiveMQCommunicationSetup setup : setups){
+			if (setup != null){
+				setup.close();
+			}
+		}
+		broker.stop();
+		broker.waitUntilStopped();
+	}
+
+	/**
+	 * Creates the channel of each party on the in-VM broker.
+	 */
+	private Channel[] createChannels(BatchedQueueTransport transport) throws Exception {
+		QueuePartyData first = new QueuePartyData(1);
+		QueuePartyData second = new QueuePartyData(2);
+		setups[0] = new ActiveMQCommunicationSetup(new ActiveMQConnectionFactory("vm://scapi-test?create=false"), first, second, transport);
+		setups[1] = new ActiveMQCommunicationSetup(new ActiveMQConnectionFactory("vm://scapi-test?create=false"), second, first, transport);
+		Map<String, Channel> p1 = setups[0].prepareForCommunication(1, 10000);
+		Map<String, Channel> p2 = setups[1].prepareForCommunication(1, 10000);
+		return new Channel[]{p1.get("0"), p2.get("0")};
+	}
+
+	private long enqueued(String queue) throws Exception {
+		return broker.getDestination(new ActiveMQQueue(queue)).getDestinationStatistics().getEnqueues().getCount();
+	}
+
+	@Test
+	public void testRoundIsSentAsOneMessage() throws Exception {
+		Channel[] channels = createChannels(BatchedQueueTransport.DEFAULT);
+		channels[0].send("commitment");
+		channels[0].send(null);
+		channels[0].send(new byte[]{1, 2, 3});
+		((Flushable) channels[0]).flush();
+
+		assertEquals("commitment", channels[1].receive());
+		assertNull(channels[1].receive());
+		assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) channels[1].receive());
+		//The queue from party 1 to party 2 of connection "0".
+		assertEquals(1, enqueued("0 1 2"));
+
+		channels[1].send("answer");
+		channels[1].send(new byte[0]);
+		((Flushable) channels[1]).flush();
+		assertEquals("answer", channels[0].receive());
+		assertArrayEquals(new byte[0], (byte[]) channels[0].receive());
+		assertEquals(1, enqueued("0 2 1"));
+	}
+
+	@Test
+	public void testMaximalBatchSize() throws Exception {
+		Channel[] channels = createChannels(new BatchedQueueTransport(1000, 64 * 1024, 10));
+		channels[0].send(new byte[400]);
+		channels[0].send(new byte[400]);
+		//The third message fills the batch, which is sent without a flush.
+		channels[0].send(new byte[400]);
+		for (int i = 0; i < 3; i++){
+			assertEquals(400, ((byte[]) channels[1].receive()).length);
+		}
+		assertEquals(1, enqueued("0 1 2"));
+
+		//A message that is smaller than the batch is not sent until the channel is flushed.
+		channels[0].send(new byte[400]);
+		assertEquals(1, enqueued("0 1 2"));
+		((Flushable) channels[0]).flush();
+		assertEquals(400, ((byte[]) channels[1].receive()).length);
+		assertEquals(2, enqueued("0 1 2"));
+	}
+
+	@Test
+	public void testObjectMessagesWithoutTransport() throws Exception {
+		Channel[] channels = createChannels(null);
+		channels[0].send("hello");
+		assertEquals("hello", channels[1].receive());
+		channels[1].send(new byte[]{4, 5});
+		assertArrayEquals(new byte[]{4, 5}, (byte[]) channels[0].receive());
+		assertFalse(channels[0] instanceof Flushable);
+	}
+}
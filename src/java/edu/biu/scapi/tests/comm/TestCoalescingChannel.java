@@ -0,0 +1,123 @@
+package edu.biu.scapi.tests.comm;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.CoalescingChannel;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackChannel;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackCommunicationSetup;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackProfile;
+
+public class TestCoalescingChannel {
+
+	/**
+	 * Creates a pair of connected loopback channels.
+	 */
+	private LoopbackChannel[] createChannels() throws Exception {
+		LoopbackCommunicationSetup first = new LoopbackCommunicationSetup(LoopbackProfile.UNLIMITED);
+		final LoopbackCommunicationSetup second = new LoopbackCommunicationSetup(first);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Map<String, Channel>> future = executor.submit(new Callable<Map<String, Channel>>() {
+				public Map<String, Channel> call() throws Exception {
+					return second.prepareForCommunication(1, 5000);
+				}
+			});
+			Channel channel = first.prepareForCommunication(1, 5000).get("0");
+			return new LoopbackChannel[]{(LoopbackChannel) channel, (LoopbackChannel) future.get().get("0")};
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRoundIsSentAsOneMessage() throws Exception {
+		final LoopbackChannel[] plain = createChannels();
+		final CoalescingChannel p1 = new CoalescingChannel(plain[0]);
+		CoalescingChannel p2 = new CoalescingChannel(plain[1]);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			//The first party sends a round of three messages and waits for the answer. Receiving sends the buffered messages first.
+			Future<Object> answer = executor.submit(new Callable<Object>() {
+				public Object call() throws Exception {
+					p1.send("commitment");
+					p1.send(null);
+					p1.send(new byte[]{1, 2, 3});
+					assertEquals(0, plain[0].getSentMessages());
+					return p1.receive();
+				}
+			});
+
+			assertEquals("commitment", p2.receive());
+			assertNull(p2.receive());
+			assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) p2.receive());
+
+			p2.send("answer");
+			p2.flush();
+			assertEquals("answer", answer.get());
+			//The counter of the first party is read after its thread completed.
+			assertEquals(1, plain[0].getSentMessages());
+			assertEquals(1, plain[1].getSentMessages());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFlushAndMaximalBuffer() throws Exception {
+		LoopbackChannel[] plain = createChannels();
+		CoalescingChannel p1 = new CoalescingChannel(plain[0], 1000);
+		CoalescingChannel p2 = new CoalescingChannel(plain[1]);
+
+		p1.send("small");
+		p1.flush();
+		p1.flush();
+		assertEquals(1, plain[0].getSentMessages());
+
+		//A message that exceeds the buffer is sent immediately.
+		p1.send(new byte[2000]);
+		assertEquals(2, plain[0].getSentMessages());
+
+		assertEquals("small", p2.receive());
+		assertEquals(2000, ((byte[]) p2.receive()).length);
+	}
+
+	/**
+	 * An object that is changed and sent again in the same frame is received with its new content, as a different object.
+	 */
+	@Test
+	public void testMutatedObjectIsSentAgain() throws Exception {
+		LoopbackChannel[] plain = createChannels();
+		CoalescingChannel p1 = new CoalescingChannel(plain[0]);
+		CoalescingChannel p2 = new CoalescingChannel(plain[1]);
+
+		byte[] message = new byte[]{1};
+		byte[][] nested = new byte[][]{message};
+		p1.send(message);
+		p1.send(nested);
+		message[0] = 2;
+		p1.send(message);
+		p1.send(nested);
+		p1.flush();
+		assertEquals(1, plain[0].getSentMessages());
+
+		byte[] first = (byte[]) p2.receive();
+		byte[][] firstNested = (byte[][]) p2.receive();
+		byte[] second = (byte[]) p2.receive();
+		byte[][] secondNested = (byte[][]) p2.receive();
+		assertArrayEquals(new byte[]{1}, first);
+		assertArrayEquals(new byte[]{1}, firstNested[0]);
+		assertArrayEquals(new byte[]{2}, second);
+		assertArrayEquals(new byte[]{2}, secondNested[0]);
+		assertNotSame(first, second);
+	}
+}
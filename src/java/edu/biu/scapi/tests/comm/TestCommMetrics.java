@@ -0,0 +1,171 @@
+package edu.biu.scapi.tests.comm;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.SerializedMessageChannel;
+import edu.biu.scapi.comm.metrics.CommMetrics;
+import edu.biu.scapi.comm.metrics.CommSpan;
+import edu.biu.scapi.comm.metrics.CommStats;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackCommunicationSetup;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackProfile;
+
+public class TestCommMetrics {
+
+	@After
+	public void disable(){
+		CommMetrics.setEnabled(false);
+		CommMetrics.reset();
+	}
+
+	/**
+	 * Creates a pair of connected loopback channels.
+	 */
+	private Channel[] createChannels() throws Exception {
+		LoopbackCommunicationSetup first = new LoopbackCommunicationSetup(LoopbackProfile.UNLIMITED);
+		final LoopbackCommunicationSetup second = new LoopbackCommunicationSetup(first);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Map<String, Channel>> future = executor.submit(new Callable<Map<String, Channel>>() {
+				public Map<String, Channel> call() throws Exception {
+					return second.prepareForCommunication(1, 5000);
+				}
+			});
+			Channel channel = first.prepareForCommunication(1, 5000).get("0");
+			return new Channel[]{channel, future.get().get("0")};
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testDisabledMetricsDoNotWrap() throws Exception {
+		Channel[] channels = createChannels();
+		assertSame(channels[0], CommMetrics.meter(channels[0], "p1"));
+		CommSpan span = CommMetrics.startSpan("phase");
+		span.close();
+		assertTrue(CommMetrics.getSpans().isEmpty());
+	}
+
+	@Test
+	public void testChannelAndSpanCounters() throws Exception {
+		CommMetrics.setEnabled(true);
+		Channel[] channels = createChannels();
+		Channel sender = CommMetrics.meter(channels[0], "p1");
+		Channel receiver = CommMetrics.meter(channels[1], "p2");
+		assertTrue(sender instanceof SerializedMessageChannel);
+
+		CommSpan protocol = CommMetrics.startSpan("protocol");
+		CommSpan phase = CommMetrics.startSpan("first phase");
+		sender.send(new byte[1000]);
+		receiver.receive();
+		phase.close();
+		phase = CommMetrics.startSpan("second phase");
+		sender.send("x");
+		sender.send("y");
+		receiver.receive();
+		receiver.receive();
+		phase.close();
+		protocol.close();
+
+		CommStats p1 = CommMetrics.getChannelStats().get("p1");
+		assertEquals(3, p1.getSentMessages());
+		assertTrue(p1.getSentBytes() > 1000);
+		assertEquals(3, CommMetrics.getChannelStats().get("p2").getReceivedMessages());
+
+		assertEquals(1, CommMetrics.getSpans().size());
+		CommSpan root = CommMetrics.getSpans().get(0);
+		assertEquals(3, root.getStats().getSentMessages());
+		assertEquals(2, root.getChildren().size());
+		assertEquals(1, root.getChildren().get(0).getStats().getSentMessages());
+		assertEquals(2, root.getChildren().get(1).getStats().getReceivedMessages());
+
+		String json = CommMetrics.toJson();
+		assertTrue(json, json.startsWith("{\"total\":{\"sentMessages\":3,"));
+		assertTrue(json, json.contains("\"name\":\"second phase\""));
+	}
+
+	/**
+	 * Message that counts the times it was serialized.
+	 */
+	private static class CountedMessage implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private static final AtomicInteger serializations = new AtomicInteger();
+
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			serializations.incrementAndGet();
+			out.defaultWriteObject();
+		}
+	}
+
+	@Test
+	public void testPlainChannelIsNotSerializedTwice() throws Exception {
+		CommMetrics.setEnabled(true);
+		//A channel that serializes the messages itself and does not accept serialized messages.
+		Channel plain = new Channel() {
+			public void send(Serializable data) throws IOException {
+				ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream());
+				out.writeObject(data);
+				out.close();
+			}
+
+			public Serializable receive() {
+				return null;
+			}
+
+			public void close() {}
+
+			public boolean isClosed() {
+				return false;
+			}
+		};
+		Channel metered = CommMetrics.meter(plain, "plain");
+		assertFalse(metered instanceof SerializedMessageChannel);
+
+		CountedMessage.serializations.set(0);
+		metered.send(new CountedMessage());
+		assertEquals(1, CountedMessage.serializations.get());
+		assertEquals(1, CommMetrics.getChannelStats().get("plain").getSentMessages());
+	}
+
+	@Test
+	public void testUnclosedChildIsClosedWithParent() throws Exception {
+		CommMetrics.setEnabled(true);
+		CommSpan parent = CommMetrics.startSpan("parent");
+		CommMetrics.startSpan("child that was not closed");
+		parent.close();
+		CommMetrics.startSpan("next").close();
+		assertEquals(2, CommMetrics.getSpans().size());
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		CommMetrics.setEnabled(true);
+		CommMetrics.registerMBean();
+		Channel[] channels = createChannels();
+		CommMetrics.meter(channels[0], "p1").send("hello");
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(CommMetrics.OBJECT_NAME);
+		assertEquals(1L, server.getAttribute(name, "SentMessages"));
+		assertTrue(((String) server.getAttribute(name, "Json")).contains("\"p1\""));
+	}
+}
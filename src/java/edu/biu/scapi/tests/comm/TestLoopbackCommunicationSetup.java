@@ -0,0 +1,139 @@
+package edu.biu.scapi.tests.comm;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackChannel;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackCommunicationSetup;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackProfile;
+
+public class TestLoopbackCommunicationSetup {
+
+	private static final int MESSAGES = 10000;
+
+	/**
+	 * Connects the second party in another thread and returns its channels.
+	 */
+	private static Future<Map<String, Channel>> connectSecond(ExecutorService executor, final LoopbackCommunicationSetup second, final String[] ids){
+		return executor.submit(new Callable<Map<String, Channel>>() {
+			public Map<String, Channel> call() throws Exception {
+				return second.prepareForCommunication(ids, 5000);
+			}
+		});
+	}
+
+	@Test
+	public void testMessagesArriveInOrder() throws Exception {
+		LoopbackCommunicationSetup first = new LoopbackCommunicationSetup(LoopbackProfile.UNLIMITED, 16);
+		LoopbackCommunicationSetup second = new LoopbackCommunicationSetup(first);
+		String[] ids = {"a", "b"};
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Map<String, Channel>> future = connectSecond(executor, second, ids);
+			Map<String, Channel> firstChannels = first.prepareForCommunication(ids, 5000);
+			final Map<String, Channel> secondChannels = future.get();
+			assertEquals(2, firstChannels.size());
+
+			//More messages than the capacity of the channel, so the sender waits for the receiver.
+			final Channel sender = firstChannels.get("b");
+			Future<Void> sending = executor.submit(new Callable<Void>() {
+				public Void call() throws Exception {
+					for (int i = 0; i < MESSAGES; i++){
+						sender.send(i);
+					}
+					return null;
+				}
+			});
+			for (int i = 0; i < MESSAGES; i++){
+				assertEquals(i, secondChannels.get("b").receive());
+			}
+			sending.get();
+			assertEquals(MESSAGES, ((LoopbackChannel) sender).getSentMessages());
+
+			secondChannels.get("a").send("reply");
+			assertEquals("reply", firstChannels.get("a").receive());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testLatencyAndBandwidth() throws Exception {
+		//20 milliseconds latency and 1 MB/s.
+		LoopbackCommunicationSetup first = new LoopbackCommunicationSetup(new LoopbackProfile(20000, 1000000));
+		LoopbackCommunicationSetup second = new LoopbackCommunicationSetup(first);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Map<String, Channel>> future = connectSecond(executor, second, new String[]{"0"});
+			Channel firstChannel = first.prepareForCommunication(1, 5000).get("0");
+			Channel secondChannel = future.get().get("0");
+
+			long start = System.nanoTime();
+			firstChannel.send(1);
+			secondChannel.receive();
+			long millis = (System.nanoTime() - start) / 1000000;
+			assertTrue("message took " + millis + " ms", millis >= 20);
+
+			//Two messages of 50000 bytes take 100 milliseconds to transmit.
+			start = System.nanoTime();
+			firstChannel.send(new byte[50000]);
+			firstChannel.send(new byte[50000]);
+			secondChannel.receive();
+			secondChannel.receive();
+			millis = (System.nanoTime() - start) / 1000000;
+			assertTrue("messages took " + millis + " ms", millis >= 120);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = TimeoutException.class)
+	public void testTimeoutWhenOtherPartyDoesNotConnect() throws Exception {
+		LoopbackCommunicationSetup first = new LoopbackCommunicationSetup(LoopbackProfile.LAN);
+		new LoopbackCommunicationSetup(first);
+		first.prepareForCommunication(1, 100);
+	}
+
+	@Test
+	public void testRetryAfterTimeoutWaitsForTheOtherParty() throws Exception {
+		LoopbackCommunicationSetup first = new LoopbackCommunicationSetup(LoopbackProfile.UNLIMITED);
+		LoopbackCommunicationSetup second = new LoopbackCommunicationSetup(first);
+		String[] ids = {"retried"};
+		//The second request of the same party is not counted as the request of the other party.
+		for (int i = 0; i < 2; i++){
+			try {
+				first.prepareForCommunication(ids, 50);
+				fail("the other party did not request the connection");
+			} catch (TimeoutException e) {
+			}
+		}
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Map<String, Channel>> future = connectSecond(executor, second, ids);
+			Channel channel = first.prepareForCommunication(ids, 5000).get("retried");
+			channel.send("after the retries");
+			assertEquals("after the retries", future.get().get("retried").receive());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testOnlyOneSecondParty() {
+		LoopbackCommunicationSetup first = new LoopbackCommunicationSetup(LoopbackProfile.LAN);
+		new LoopbackCommunicationSetup(first);
+		new LoopbackCommunicationSetup(first);
+	}
+}
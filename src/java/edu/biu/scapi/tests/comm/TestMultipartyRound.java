@@ -0,0 +1,239 @@
+package edu.biu.scapi.tests.comm;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.SerializedMessageChannel;
+import edu.biu.scapi.comm.multiPartyComm.MultipartyRound;
+import edu.biu.scapi.comm.twoPartyComm.PartyData;
+import edu.biu.scapi.comm.twoPartyComm.SocketPartyData;
+
+public class TestMultipartyRound {
+
+	private static final int PARTIES = 4;
+	private static final AtomicInteger serializations = new AtomicInteger();
+
+	/**
+	 * Message that counts the number of times it was serialized.
+	 */
+	private static class CountedMessage implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private String text;
+
+		CountedMessage(String text){
+			this.text = text;
+		}
+
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			serializations.incrementAndGet();
+			out.defaultWriteObject();
+		}
+	}
+
+	/**
+	 * In memory channel that passes serialized messages, and waits the given delay on every send.
+	 */
+	private static class SerializingChannel implements SerializedMessageChannel {
+		private LinkedBlockingQueue<byte[]> out;
+		private LinkedBlockingQueue<byte[]> in;
+		private long delay;
+
+		SerializingChannel(LinkedBlockingQueue<byte[]> out, LinkedBlockingQueue<byte[]> in, long delay){
+			this.out = out;
+			this.in = in;
+			this.delay = delay;
+		}
+
+		public void send(Serializable data) throws IOException {
+			fail("the round should send serialized messages");
+		}
+
+		public void sendSerialized(byte[] serialized) throws IOException {
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			out.add(serialized);
+		}
+
+		public Serializable receive() throws ClassNotFoundException, IOException {
+			try {
+				return (Serializable) new ObjectInputStream(new ByteArrayInputStream(in.take())).readObject();
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+		}
+
+		public void close() {}
+
+		public boolean isClosed() {
+			return false;
+		}
+	}
+
+	private static List<PartyData> createParties() throws Exception {
+		List<PartyData> parties = new ArrayList<PartyData>();
+		for (int i = 0; i < PARTIES; i++){
+			parties.add(new SocketPartyData(InetAddress.getLoopbackAddress(), 8000 + i));
+		}
+		return parties;
+	}
+
+	/**
+	 * Creates the rounds of all the parties, connected by in memory channels.
+	 */
+	private static MultipartyRound[] createRounds(List<PartyData> parties, long delay){
+		List<Map<PartyData, Channel>> channels = new ArrayList<Map<PartyData, Channel>>();
+		for (int i = 0; i < PARTIES; i++){
+			channels.add(new LinkedHashMap<PartyData, Channel>());
+		}
+		for (int i = 0; i < PARTIES; i++){
+			for (int j = i + 1; j < PARTIES; j++){
+				LinkedBlockingQueue<byte[]> iToJ = new LinkedBlockingQueue<byte[]>();
+				LinkedBlockingQueue<byte[]> jToI = new LinkedBlockingQueue<byte[]>();
+				channels.get(i).put(parties.get(j), new SerializingChannel(iToJ, jToI, delay));
+				channels.get(j).put(parties.get(i), new SerializingChannel(jToI, iToJ, delay));
+			}
+		}
+		MultipartyRound[] rounds = new MultipartyRound[PARTIES];
+		for (int i = 0; i < PARTIES; i++){
+			rounds[i] = new MultipartyRound(channels.get(i));
+		}
+		return rounds;
+	}
+
+	@Test
+	public void testExchangeAllSerializesOnce() throws Exception {
+		final List<PartyData> parties = createParties();
+		final MultipartyRound[] rounds = createRounds(parties, 0);
+		serializations.set(0);
+
+		ExecutorService executor = Executors.newFixedThreadPool(PARTIES);
+		try {
+			List<Future<Map<PartyData, Serializable>>> futures = new ArrayList<Future<Map<PartyData, Serializable>>>();
+			for (int i = 0; i < PARTIES; i++){
+				final int party = i;
+				futures.add(executor.submit(new Callable<Map<PartyData, Serializable>>() {
+					public Map<PartyData, Serializable> call() throws Exception {
+						return rounds[party].exchangeAll(new CountedMessage("from " + party));
+					}
+				}));
+			}
+			for (int i = 0; i < PARTIES; i++){
+				Map<PartyData, Serializable> received = futures.get(i).get();
+				assertEquals(PARTIES - 1, received.size());
+				for (int j = 0; j < PARTIES; j++){
+					if (j != i){
+						assertEquals("from " + j, ((CountedMessage) received.get(parties.get(j))).text);
+					}
+				}
+			}
+			assertEquals(PARTIES, serializations.get());
+		} finally {
+			executor.shutdown();
+			for (MultipartyRound round : rounds){
+				round.close();
+			}
+		}
+	}
+
+	@Test
+	public void testExchangeAllSendsEachPartyItsMessage() throws Exception {
+		final List<PartyData> parties = createParties();
+		final MultipartyRound[] rounds = createRounds(parties, 0);
+
+		ExecutorService executor = Executors.newFixedThreadPool(PARTIES);
+		try {
+			List<Future<Map<PartyData, Serializable>>> futures = new ArrayList<Future<Map<PartyData, Serializable>>>();
+			for (int i = 0; i < PARTIES; i++){
+				final int party = i;
+				futures.add(executor.submit(new Callable<Map<PartyData, Serializable>>() {
+					public Map<PartyData, Serializable> call() throws Exception {
+						Map<PartyData, Serializable> messages = new HashMap<PartyData, Serializable>();
+						for (int j = 0; j < PARTIES; j++){
+							if (j != party){
+								messages.put(parties.get(j), party + "->" + j);
+							}
+						}
+						return rounds[party].exchangeAll(messages);
+					}
+				}));
+			}
+			for (int i = 0; i < PARTIES; i++){
+				Map<PartyData, Serializable> received = futures.get(i).get();
+				for (int j = 0; j < PARTIES; j++){
+					if (j != i){
+						assertEquals(j + "->" + i, received.get(parties.get(j)));
+					}
+				}
+			}
+		} finally {
+			executor.shutdown();
+			for (MultipartyRound round : rounds){
+				round.close();
+			}
+		}
+	}
+
+	@Test
+	public void testBroadcastSendsInParallel() throws Exception {
+		List<PartyData> parties = createParties();
+		long delay = 300;
+		MultipartyRound[] rounds = createRounds(parties, delay);
+		try {
+			long start = System.currentTimeMillis();
+			rounds[0].broadcast("hello");
+			long time = System.currentTimeMillis() - start;
+			//Sending one after the other would take (PARTIES - 1) * delay.
+			assertTrue("broadcast took " + time + " millis", time < 2 * delay);
+
+			rounds[2].broadcast("two");
+			rounds[3].broadcast("three");
+			Map<PartyData, Serializable> received = rounds[1].receiveAll();
+			assertEquals("hello", received.get(parties.get(0)));
+			assertEquals("two", received.get(parties.get(2)));
+			assertEquals("three", received.get(parties.get(3)));
+		} finally {
+			for (MultipartyRound round : rounds){
+				round.close();
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExecutorWithTooFewThreadsIsRejected() throws Exception {
+		List<PartyData> parties = createParties();
+		Map<PartyData, Channel> channels = new LinkedHashMap<PartyData, Channel>();
+		for (int i = 1; i < PARTIES; i++){
+			channels.put(parties.get(i), new SerializingChannel(new LinkedBlockingQueue<byte[]>(), new LinkedBlockingQueue<byte[]>(), 0));
+		}
+		//The round has PARTIES - 1 tasks and runs one of them on the calling thread, so it needs PARTIES - 2 threads.
+		ExecutorService executor = Executors.newFixedThreadPool(PARTIES - 3);
+		try {
+			new MultipartyRound(channels, executor);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package edu.biu.scapi.tests.comm;
+
+import static org.junit.Assert.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.ChannelReconnector;
+import edu.biu.scapi.comm.ResumableChannel;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackCommunicationSetup;
+import edu.biu.scapi.comm.twoPartyComm.LoopbackProfile;
+import edu.biu.scapi.comm.twoPartyComm.SetupChannelReconnector;
+
+public class TestResumableChannel {
+
+	private static final int MESSAGES = 200;
+	private static final int BUFFER = 1024;		//The size of the replay buffer in bytes, about a dozen small messages.
+
+	/**
+	 * Channel that loses the message of the given send and breaks the connection, as when a socket fails with unsent data in its buffer.
+	 */
+	private static class FailingChannel implements Channel {
+		private Channel channel;
+		private int failAt;
+		private int sent;
+
+		FailingChannel(Channel channel, int failAt){
+			this.channel = channel;
+			this.failAt = failAt;
+		}
+
+		public void send(Serializable data) throws IOException {
+			if (++sent == failAt){
+				channel.close();
+				return;
+			}
+			channel.send(data);
+		}
+
+		public Serializable receive() throws ClassNotFoundException, IOException {
+			return channel.receive();
+		}
+
+		public void close() {
+			channel.close();
+		}
+
+		public boolean isClosed() {
+			return channel.isClosed();
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void testMessagesSurviveAFailure() throws Exception {
+		LoopbackCommunicationSetup firstSetup = new LoopbackCommunicationSetup(LoopbackProfile.UNLIMITED);
+		final LoopbackCommunicationSetup secondSetup = new LoopbackCommunicationSetup(firstSetup);
+		final String[] ids = {"offline"};
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			//The second party receives all the messages and answers.
+			Future<Integer> other = executor.submit(new Callable<Integer>() {
+				public Integer call() throws Exception {
+					Channel plain = secondSetup.prepareForCommunication(ids, 10000).get("offline");
+					ResumableChannel channel = new ResumableChannel(plain, new SetupChannelReconnector(secondSetup, "offline", 10000), BUFFER);
+					for (int i = 0; i < MESSAGES; i++){
+						assertEquals(i, channel.receive());
+					}
+					channel.send("done");
+					return channel.getReconnections();
+				}
+			});
+
+			Channel plain = firstSetup.prepareForCommunication(ids, 10000).get("offline");
+			//The first connection fails in the middle of the messages.
+			ResumableChannel channel = new ResumableChannel(new FailingChannel(plain, 50), new SetupChannelReconnector(firstSetup, "offline", 10000), BUFFER);
+			for (int i = 0; i < MESSAGES; i++){
+				channel.send(i);
+			}
+			assertEquals("done", channel.receive());
+			assertEquals(1, channel.getReconnections());
+			assertEquals(Integer.valueOf(1), other.get());
+			channel.close();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The sender reuses one buffer for all its messages. The replayed messages should have the content they had when they were sent.
+	 */
+	@Test(timeout = 30000)
+	public void testReplayedMessagesKeepTheirContent() throws Exception {
+		LoopbackCommunicationSetup firstSetup = new LoopbackCommunicationSetup(LoopbackProfile.UNLIMITED);
+		final LoopbackCommunicationSetup secondSetup = new LoopbackCommunicationSetup(firstSetup);
+		final String[] ids = {"offline"};
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Integer> other = executor.submit(new Callable<Integer>() {
+				public Integer call() throws Exception {
+					Channel plain = secondSetup.prepareForCommunication(ids, 10000).get("offline");
+					ResumableChannel channel = new ResumableChannel(plain, new SetupChannelReconnector(secondSetup, "offline", 10000), BUFFER);
+					for (int i = 0; i < MESSAGES; i++){
+						byte[] message = (byte[]) channel.receive();
+						assertEquals((byte) i, message[0]);
+						assertEquals((byte) i, message[message.length - 1]);
+					}
+					channel.send("done");
+					return channel.getReconnections();
+				}
+			});
+
+			Channel plain = firstSetup.prepareForCommunication(ids, 10000).get("offline");
+			ResumableChannel channel = new ResumableChannel(new FailingChannel(plain, 50), new SetupChannelReconnector(firstSetup, "offline", 10000), BUFFER);
+			byte[] buffer = new byte[100];
+			for (int i = 0; i < MESSAGES; i++){
+				Arrays.fill(buffer, (byte) i);
+				channel.send(buffer);
+			}
+			assertEquals("done", channel.receive());
+			assertEquals(1, channel.getReconnections());
+			assertEquals(Integer.valueOf(1), other.get());
+			channel.close();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * When the other party closes the channel, receiving fails at once instead of trying to reconnect.
+	 */
+	@Test(timeout = 30000)
+	public void testCloseOfTheOtherPartyIsNotRetried() throws Exception {
+		LoopbackCommunicationSetup firstSetup = new LoopbackCommunicationSetup(LoopbackProfile.UNLIMITED);
+		final LoopbackCommunicationSetup secondSetup = new LoopbackCommunicationSetup(firstSetup);
+		final String[] ids = {"offline"};
+		final AtomicInteger reconnects = new AtomicInteger();
+		ChannelReconnector reconnector = new ChannelReconnector() {
+			public Channel reconnect() throws IOException {
+				reconnects.incrementAndGet();
+				throw new IOException("refused");
+			}
+		};
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Map<String, Channel>> other = executor.submit(new Callable<Map<String, Channel>>() {
+				public Map<String, Channel> call() throws Exception {
+					return secondSetup.prepareForCommunication(ids, 10000);
+				}
+			});
+			ResumableChannel first = new ResumableChannel(firstSetup.prepareForCommunication(ids, 10000).get("offline"), reconnector);
+			ResumableChannel second = new ResumableChannel(other.get().get("offline"), reconnector);
+
+			first.send("last");
+			first.close();
+			assertEquals("last", second.receive());
+			try {
+				second.receive();
+				fail("the other party closed the channel");
+			} catch (EOFException e) {
+				assertEquals(0, reconnects.get());
+			}
+			second.close();
+			assertEquals(0, reconnects.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testFailsWhenTheConnectionCanNotBeResumed() throws Exception {
+		Channel broken = new Channel() {
+			public void send(Serializable data) throws IOException {
+				throw new IOException("broken");
+			}
+
+			public Serializable receive() throws IOException {
+				throw new IOException("broken");
+			}
+
+			public void close() {}
+
+			public boolean isClosed() {
+				return false;
+			}
+		};
+		ResumableChannel channel = new ResumableChannel(broken, new ChannelReconnector() {
+			public Channel reconnect() throws IOException {
+				throw new IOException("refused");
+			}
+		});
+		channel.setMaxAttempts(2);
+		try {
+			channel.send("message");
+			fail("the connection can not be resumed");
+		} catch (IOException e) {
+			assertEquals("refused", e.getCause().getMessage());
+		}
+		assertEquals(0, channel.getReconnections());
+	}
+}
@@ -0,0 +1,143 @@
+package edu.biu.scapi.tests.comm;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.twoPartyComm.PartyData;
+import edu.biu.scapi.comm.twoPartyComm.SSLEngineChannel;
+import edu.biu.scapi.comm.twoPartyComm.SSLEngineCommunicationSetup;
+import edu.biu.scapi.comm.twoPartyComm.SocketPartyData;
+
+public class TestSSLEngineCommunicationSetup {
+
+	private static final int CHANNELS = 12;
+
+	private static final String STORE_PASS = "scapitest";
+
+	/**
+	 * Copies a key store of the test resources (src/test/resources) to a temporary file, since the setup loads its key stores from files.
+	 * Both stores hold the same self signed RSA certificate, which is used by both parties.
+	 */
+	private static String copyStore(String name) throws IOException {
+		File file = File.createTempFile("scapiTest", ".jks");
+		file.deleteOnExit();
+		InputStream in = TestSSLEngineCommunicationSetup.class.getResourceAsStream(name);
+		assertNotNull("missing test resource " + name, in);
+		try {
+			OutputStream out = new FileOutputStream(file);
+			try {
+				byte[] buffer = new byte[4096];
+				int read;
+				while ((read = in.read(buffer)) != -1){
+					out.write(buffer, 0, read);
+				}
+			} finally {
+				out.close();
+			}
+		} finally {
+			in.close();
+		}
+		return file.getAbsolutePath();
+	}
+
+	@Test(timeout = 60000)
+	public void testChannelsResumeTheFirstSession() throws Exception {
+		final PartyData first = new SocketPartyData(InetAddress.getLoopbackAddress(), 23270);
+		final PartyData second = new SocketPartyData(InetAddress.getLoopbackAddress(), 23271);
+		final String keyStore = copyStore("scapiTestKeystore.jks");
+		final String trustStore = copyStore("scapiTestCacerts.jks");
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Map<String, Channel>> other = executor.submit(new Callable<Map<String, Channel>>() {
+				public Map<String, Channel> call() throws Exception {
+					SSLEngineCommunicationSetup setup = new SSLEngineCommunicationSetup(second, first, keyStore, trustStore, STORE_PASS);
+					try {
+						Map<String, Channel> channels = setup.prepareForCommunication(CHANNELS, 20000);
+						//Echo a message on each channel.
+						for (Channel channel : channels.values()){
+							channel.send(channel.receive());
+						}
+						return channels;
+					} finally {
+						setup.close();
+					}
+				}
+			});
+
+			SSLEngineCommunicationSetup setup = new SSLEngineCommunicationSetup(first, second, keyStore, trustStore, STORE_PASS);
+			Map<String, Channel> channels;
+			try {
+				channels = setup.prepareForCommunication(CHANNELS, 20000);
+			} finally {
+				setup.close();
+			}
+			assertEquals(CHANNELS, channels.size());
+
+			byte[] sessionId = ((SSLEngineChannel) channels.get("0")).getSession().getId();
+			assertTrue(((SSLEngineChannel) channels.get("0")).getSession().getCipherSuite().contains("GCM"));
+			//Messages that are bigger than a TLS record. All the messages are sent before receiving, since the other party echoes them in any order.
+			byte[][] messages = new byte[CHANNELS][];
+			for (int i = 0; i < CHANNELS; i++){
+				SSLEngineChannel channel = (SSLEngineChannel) channels.get(Integer.toString(i));
+				assertArrayEquals(sessionId, channel.getSession().getId());
+				messages[i] = new byte[100000 + i];
+				new SecureRandom().nextBytes(messages[i]);
+				channel.send(messages[i]);
+			}
+			for (int i = 0; i < CHANNELS; i++){
+				assertArrayEquals(messages[i], (byte[]) channels.get(Integer.toString(i)).receive());
+			}
+
+			for (Channel channel : other.get().values()){
+				channel.close();
+			}
+			for (Channel channel : channels.values()){
+				channel.close();
+				assertTrue(channel.isClosed());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The other party accepts the connection but never answers the handshake. The setup must give up at its timeout 
+	 * instead of blocking on the handshake.
+	 */
+	@Test(timeout = 30000)
+	public void testSilentPartyTimesOut() throws Exception {
+		PartyData first = new SocketPartyData(InetAddress.getLoopbackAddress(), 23272);
+		PartyData second = new SocketPartyData(InetAddress.getLoopbackAddress(), 23273);
+		ServerSocket silent = new ServerSocket(23273, 50, InetAddress.getLoopbackAddress());
+		SSLEngineCommunicationSetup setup = new SSLEngineCommunicationSetup(first, second, 
+				copyStore("scapiTestKeystore.jks"), copyStore("scapiTestCacerts.jks"), STORE_PASS);
+		long start = System.currentTimeMillis();
+		try {
+			setup.prepareForCommunication(1, 2000);
+			fail("the setup should time out");
+		} catch (TimeoutException e) {
+			assertTrue(System.currentTimeMillis() - start < 10000);
+		} finally {
+			setup.close();
+			silent.close();
+		}
+	}
+}
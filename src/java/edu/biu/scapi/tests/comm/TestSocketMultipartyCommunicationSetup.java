@@ -0,0 +1,129 @@
+package edu.biu.scapi.tests.comm;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.comm.multiPartyComm.SocketMultipartyCommunicationSetup;
+import edu.biu.scapi.comm.twoPartyComm.PartyData;
+import edu.biu.scapi.comm.twoPartyComm.SocketPartyData;
+
+public class TestSocketMultipartyCommunicationSetup {
+
+	private static final int PARTIES = 3;
+	private static final int FIRST_PORT = 23170;
+
+	/**
+	 * Connects to all the other parties, checks the channels by sending messages on them,
+	 * and then requests the same connections again.
+	 */
+	private static class PartyTask implements Callable<Void> {
+		private int id;
+		private List<PartyData> parties;
+
+		PartyTask(int id, List<PartyData> parties){
+			this.id = id;
+			this.parties = parties;
+		}
+
+		public Void call() throws Exception {
+			//The current party should be the first in the list of the setup.
+			List<PartyData> ordered = new ArrayList<PartyData>();
+			ordered.add(parties.get(id));
+			for (int i = 0; i < PARTIES; i++){
+				if (i != id){
+					ordered.add(parties.get(i));
+				}
+			}
+			SocketMultipartyCommunicationSetup setup = new SocketMultipartyCommunicationSetup(ordered);
+			try {
+				Map<PartyData, Object> request = new HashMap<PartyData, Object>();
+				for (int i = 1; i < PARTIES; i++){
+					request.put(ordered.get(i), 2);
+				}
+				Map<PartyData, Map<String, Channel>> first = setup.prepareForCommunication(request, 20000);
+				assertEquals(PARTIES - 1, setup.getConnectLatencies().size());
+				exchange(first);
+
+				//The same request again is answered by the established connections.
+				Map<PartyData, Map<String, Channel>> second = setup.prepareForCommunication(request, 20000);
+				for (int i = 1; i < PARTIES; i++){
+					PartyData party = ordered.get(i);
+					assertEquals(first.get(party), second.get(party));
+					assertEquals(Long.valueOf(0), setup.getConnectLatencies().get(party));
+				}
+
+				//A bigger request reuses the established connections and creates only the missing one.
+				for (int i = 1; i < PARTIES; i++){
+					request.put(ordered.get(i), 3);
+				}
+				Map<PartyData, Map<String, Channel>> third = setup.prepareForCommunication(request, 20000);
+				for (int i = 1; i < PARTIES; i++){
+					PartyData party = ordered.get(i);
+					assertEquals(3, third.get(party).size());
+					assertTrue(third.get(party).entrySet().containsAll(first.get(party).entrySet()));
+				}
+				exchange(third);
+
+				for (Map<String, Channel> channels : third.values()){
+					for (Channel channel : channels.values()){
+						channel.close();
+					}
+				}
+			} finally {
+				setup.close();
+			}
+			return null;
+		}
+
+		/**
+		 * Sends the name of each channel on it and checks that the other side received the same name on the channel with this name.
+		 */
+		private void exchange(Map<PartyData, Map<String, Channel>> connections) throws Exception {
+			for (Map<String, Channel> channels : connections.values()){
+				for (Map.Entry<String, Channel> entry : channels.entrySet()){
+					entry.getValue().send(entry.getKey());
+				}
+			}
+			for (Map<String, Channel> channels : connections.values()){
+				for (Map.Entry<String, Channel> entry : channels.entrySet()){
+					assertEquals(entry.getKey(), entry.getValue().receive());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testConnectAndReuse() throws Exception {
+		List<PartyData> parties = new ArrayList<PartyData>();
+		for (int i = 0; i < PARTIES; i++){
+			parties.add(new SocketPartyData(InetAddress.getLoopbackAddress(), FIRST_PORT + i));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(PARTIES);
+		try {
+			//The results are checked in the order of completion, so a failure of one party is reported instead of waiting for the others.
+			CompletionService<Void> completion = new ExecutorCompletionService<Void>(executor);
+			for (int i = 0; i < PARTIES; i++){
+				completion.submit(new PartyTask(i, parties));
+			}
+			for (int i = 0; i < PARTIES; i++){
+				completion.take().get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
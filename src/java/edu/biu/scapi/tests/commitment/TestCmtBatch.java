@@ -0,0 +1,141 @@
+package edu.biu.scapi.tests.commitment;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import edu.biu.scapi.exceptions.CheatAttemptException;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtByteArrayCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtGroupElementCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtReceiver;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalOnGroupElementCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalOnGroupElementReceiver;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenReceiver;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.simpleHash.CmtSimpleHashCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.simpleHash.CmtSimpleHashReceiver;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.primitives.hash.bc.BcSHA256;
+import edu.biu.scapi.tests.comm.InMemoryChannel;
+
+public class TestCmtBatch {
+	
+	private static final int BATCH = 50;
+	private SecureRandom random = new SecureRandom();
+	
+	private InMemoryChannel[] channels = InMemoryChannel.createPair();
+	private InMemoryChannel committerChannel = channels[0];
+	private InMemoryChannel receiverChannel = channels[1];
+	
+	private long[] ids(){
+		long[] ids = new long[BATCH];
+		for (int i = 0; i < BATCH; i++){
+			ids[i] = 1000 + i;
+		}
+		return ids;
+	}
+	
+	private void runBatch(CmtCommitter committer, CmtReceiver receiver, CmtCommitValue[] values) throws Exception {
+		long[] ids = ids();
+		int before = committerChannel.getSentMessages();
+		committer.commitBatch(values, ids);
+		assertEquals(before + 1, committerChannel.getSentMessages());
+		
+		CmtRCommitPhaseOutput[] outputs = receiver.receiveCommitmentBatch();
+		assertEquals(BATCH, outputs.length);
+		for (int i = 0; i < BATCH; i++){
+			assertEquals(ids[i], outputs[i].getCommitmentId());
+		}
+		
+		committer.decommitBatch(ids);
+		assertEquals(before + 2, committerChannel.getSentMessages());
+		CmtCommitValue[] opened = receiver.receiveDecommitmentBatch(ids);
+		for (int i = 0; i < BATCH; i++){
+			assertNotNull(opened[i]);
+			assertArrayEquals(committer.generateBytesFromCommitValue(values[i]), receiver.generateBytesFromCommitValue(opened[i]));
+		}
+		
+		//A single decommitment of a batch commitment is accepted as well.
+		committer.decommit(ids[3]);
+		assertNotNull(receiver.receiveDecommitment(ids[3]));
+	}
+	
+	@Test
+	public void testSimpleHash() throws Exception {
+		CmtSimpleHashCommitter committer = new CmtSimpleHashCommitter(committerChannel, new BcSHA256(), random, 32);
+		CmtSimpleHashReceiver receiver = new CmtSimpleHashReceiver(receiverChannel, new BcSHA256(), 32);
+		CmtCommitValue[] values = new CmtCommitValue[BATCH];
+		for (int i = 0; i < BATCH; i++){
+			byte[] x = new byte[i + 1];
+			random.nextBytes(x);
+			values[i] = new CmtByteArrayCommitValue(x);
+		}
+		runBatch(committer, receiver, values);
+	}
+	
+	@Test
+	public void testPedersen() throws Exception {
+		DlogGroup dlog = new ScDlogRistretto255();
+		CmtPedersenReceiver receiver = new CmtPedersenReceiver(receiverChannel, dlog, random);
+		CmtPedersenCommitter committer = new CmtPedersenCommitter(committerChannel, dlog, random);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			committer.setExecutor(executor);
+			CmtCommitValue[] values = new CmtCommitValue[BATCH];
+			for (int i = 0; i < BATCH; i++){
+				values[i] = new CmtBigIntegerCommitValue(new BigInteger(200, random));
+			}
+			runBatch(committer, receiver, values);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test(expected = CheatAttemptException.class)
+	public void testPedersenWrongOrder() throws Exception {
+		DlogGroup dlog = new ScDlogRistretto255();
+		CmtPedersenReceiver receiver = new CmtPedersenReceiver(receiverChannel, dlog, random);
+		CmtPedersenCommitter committer = new CmtPedersenCommitter(committerChannel, dlog, random);
+		long[] ids = ids();
+		CmtCommitValue[] values = new CmtCommitValue[BATCH];
+		for (int i = 0; i < BATCH; i++){
+			values[i] = new CmtBigIntegerCommitValue(BigInteger.valueOf(i));
+		}
+		committer.commitBatch(values, ids);
+		receiver.receiveCommitmentBatch();
+		
+		//Decommit the first two values in the opposite order.
+		committer.decommitBatch(new long[]{ids[1], ids[0]});
+		receiver.receiveDecommitmentBatch(new long[]{ids[0], ids[1]});
+	}
+	
+	@Test
+	public void testElGamal() throws Exception {
+		DlogGroup dlog = new ScDlogRistretto255();
+		CmtElGamalOnGroupElementCommitter committer = new CmtElGamalOnGroupElementCommitter(committerChannel, dlog, random);
+		CmtElGamalOnGroupElementReceiver receiver = new CmtElGamalOnGroupElementReceiver(receiverChannel, dlog);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			committer.setExecutor(executor);
+			CmtCommitValue[] values = new CmtCommitValue[BATCH];
+			for (int i = 0; i < BATCH; i++){
+				GroupElement x = dlog.createRandomElement();
+				values[i] = new CmtGroupElementCommitValue(x);
+			}
+			runBatch(committer, receiver, values);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
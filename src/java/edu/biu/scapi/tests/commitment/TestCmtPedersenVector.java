@@ -0,0 +1,139 @@
+package edu.biu.scapi.tests.commitment;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.biu.scapi.interactiveMidProtocols.BigIntegerRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerVectorCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitmentMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenVector.CmtPedersenVectorCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenVector.CmtPedersenVectorDecommitmentMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenVector.CmtPedersenVectorGenerators;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenVector.CmtPedersenVectorReceiver;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.primitives.hash.bc.BcSHA256;
+import edu.biu.scapi.tests.comm.InMemoryChannel;
+
+public class TestCmtPedersenVector {
+	
+	private static final int N = 64;
+	private static final byte[] SEED = "vector pedersen test seed".getBytes();
+	
+	private SecureRandom random = new SecureRandom();
+	private DlogGroup dlog;
+	private CmtPedersenVectorCommitter committer;
+	private CmtPedersenVectorReceiver receiver;
+	
+	@Before
+	public void setUp() throws Exception {
+		dlog = new ScDlogRistretto255();
+		InMemoryChannel[] channels = InMemoryChannel.createPair();
+		//Each party derives the generators by itself.
+		committer = new CmtPedersenVectorCommitter(channels[0], new CmtPedersenVectorGenerators(dlog, N, SEED, new BcSHA256()), random);
+		receiver = new CmtPedersenVectorReceiver(channels[1], new CmtPedersenVectorGenerators(dlog, N, SEED, new BcSHA256()));
+	}
+	
+	private CmtBigIntegerVectorCommitValue randomVector(int length){
+		BigInteger[] x = new BigInteger[length];
+		for (int i = 0; i < length; i++){
+			x[i] = new BigInteger(dlog.getOrder().bitLength() - 1, random);
+		}
+		return new CmtBigIntegerVectorCommitValue(x);
+	}
+	
+	@Test
+	public void testGeneratorsAreDeterministic() {
+		CmtPedersenVectorGenerators first = new CmtPedersenVectorGenerators(dlog, 4, SEED, new BcSHA256());
+		CmtPedersenVectorGenerators second = new CmtPedersenVectorGenerators(dlog, 4, SEED, new BcSHA256());
+		CmtPedersenVectorGenerators other = new CmtPedersenVectorGenerators(dlog, 4, "other seed".getBytes(), new BcSHA256());
+		assertEquals(first.getH(), second.getH());
+		for (int i = 0; i < 4; i++){
+			assertEquals(first.getG(i), second.getG(i));
+			assertFalse(first.getG(i).equals(other.getG(i)));
+			assertFalse(first.getG(i).equals(first.getH()));
+		}
+	}
+	
+	@Test
+	public void testCommitAndDecommit() throws Exception {
+		CmtBigIntegerVectorCommitValue x = randomVector(N);
+		committer.commit(x, 1);
+		receiver.receiveCommitment();
+		committer.decommit(1);
+		CmtCommitValue opened = receiver.receiveDecommitment(1);
+		assertNotNull(opened);
+		assertArrayEquals(x.getX(), ((CmtBigIntegerVectorCommitValue) opened).getX());
+		
+		//A shorter vector is padded with zeros to length n.
+		CmtBigIntegerVectorCommitValue y = randomVector(3);
+		committer.commit(y, 2);
+		receiver.receiveCommitment();
+		committer.decommit(2);
+		BigInteger[] padded = ((CmtBigIntegerVectorCommitValue) receiver.receiveDecommitment(2)).getX();
+		assertEquals(N, padded.length);
+		for (int i = 0; i < N; i++){
+			assertEquals(i < 3 ? y.getX()[i] : BigInteger.ZERO, padded[i]);
+		}
+	}
+	
+	@Test
+	public void testShorterDecommitmentIsRejected() throws Exception {
+		CmtBigIntegerVectorCommitValue x = randomVector(3);
+		CmtPedersenCommitmentMessage commitment = committer.generateCommitmentMsg(x, 1);
+		CmtPedersenVectorDecommitmentMessage decommitment = committer.generateDecommitmentMsg(1);
+		assertNotNull(receiver.verifyDecommitment(commitment, decommitment));
+		
+		//The commitment to the padded vector is also a commitment to its prefix, but the length is bound to n.
+		assertNull(receiver.verifyDecommitment(commitment, new CmtPedersenVectorDecommitmentMessage(x.getX(), decommitment.getR())));
+		BigInteger[] longer = new BigInteger[N + 1];
+		System.arraycopy(decommitment.getX(), 0, longer, 0, N);
+		longer[N] = BigInteger.ZERO;
+		assertNull(receiver.verifyDecommitment(commitment, new CmtPedersenVectorDecommitmentMessage(longer, decommitment.getR())));
+	}
+	
+	@Test
+	public void testWrongDecommitmentIsRejected() throws Exception {
+		CmtBigIntegerVectorCommitValue x = randomVector(8);
+		CmtPedersenCommitmentMessage commitment = committer.generateCommitmentMsg(x, 1);
+		CmtPedersenVectorDecommitmentMessage decommitment = committer.generateDecommitmentMsg(1);
+		assertNotNull(receiver.verifyDecommitment(commitment, decommitment));
+		
+		BigInteger[] changed = decommitment.getX().clone();
+		changed[5] = changed[5].add(BigInteger.ONE);
+		assertNull(receiver.verifyDecommitment(commitment, new CmtPedersenVectorDecommitmentMessage(changed, decommitment.getR())));
+		
+		BigInteger r = decommitment.getR().getR().add(BigInteger.ONE);
+		assertNull(receiver.verifyDecommitment(commitment, new CmtPedersenVectorDecommitmentMessage(decommitment.getX(), new BigIntegerRandomValue(r))));
+	}
+	
+	@Test
+	public void testAddCommitments() throws Exception {
+		CmtBigIntegerVectorCommitValue x = randomVector(N);
+		CmtBigIntegerVectorCommitValue y = randomVector(N);
+		committer.commitBatch(new CmtCommitValue[]{x, y}, new long[]{1, 2});
+		receiver.receiveCommitmentBatch();
+		
+		committer.addCommitments(1, 2, 3);
+		receiver.addCommitments(1, 2, 3);
+		committer.decommit(3);
+		BigInteger[] sum = ((CmtBigIntegerVectorCommitValue) receiver.receiveDecommitment(3)).getX();
+		for (int i = 0; i < N; i++){
+			assertEquals(x.getX()[i].add(y.getX()[i]).mod(dlog.getOrder()), sum[i]);
+		}
+	}
+	
+	@Test
+	public void testBytesConversion() throws Exception {
+		CmtBigIntegerVectorCommitValue x = randomVector(5);
+		byte[] bytes = committer.generateBytesFromCommitValue(x);
+		assertArrayEquals(x.getX(), ((CmtBigIntegerVectorCommitValue) committer.generateCommitValue(bytes)).getX());
+		assertArrayEquals(bytes, receiver.generateBytesFromCommitValue(x));
+	}
+}
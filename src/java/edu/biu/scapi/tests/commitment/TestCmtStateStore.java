@@ -0,0 +1,178 @@
+package edu.biu.scapi.tests.commitment;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtGroupElementCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtLongKeyStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtSerializableStateCodec;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtSpillingStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalCommitmentPhaseValues;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalOnGroupElementCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalOnGroupElementReceiver;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitmentPhaseValues;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenReceiver;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.tests.comm.InMemoryChannel;
+
+public class TestCmtStateStore {
+	
+	private SecureRandom random = new SecureRandom();
+	
+	private InMemoryChannel[] channels = InMemoryChannel.createPair();
+	private Channel committerChannel = channels[0];
+	private Channel receiverChannel = channels[1];
+	
+	@Test
+	public void testAgainstHashMap() {
+		CmtLongKeyStateStore<Long> store = new CmtLongKeyStateStore<Long>();
+		Map<Long, Long> expected = new HashMap<Long, Long>();
+		Random rand = new Random(7);
+		for (int i = 0; i < 100000; i++){
+			//A small key range causes many collisions, replacements and removals.
+			long id = rand.nextInt(5000) * 1024L;
+			if (rand.nextInt(3) == 0){
+				assertEquals(expected.remove(id), store.remove(id));
+			} else {
+				Long value = Long.valueOf(rand.nextLong());
+				expected.put(id, value);
+				store.put(id, value);
+			}
+		}
+		assertEquals(expected.size(), store.size());
+		for (Map.Entry<Long, Long> entry : expected.entrySet()){
+			assertEquals(entry.getValue(), store.get(entry.getKey()));
+		}
+		assertNull(store.get(-1));
+	}
+	
+	@Test
+	public void testEvictByCount() {
+		CmtLongKeyStateStore<String> store = new CmtLongKeyStateStore<String>(2, 0);
+		for (long id = 0; id < 10; id++){
+			store.put(id, "v" + id);
+		}
+		store.markDecommitted(3);
+		store.markDecommitted(5);
+		assertEquals(10, store.size());
+		store.markDecommitted(7);
+		//The value that was decommitted first is evicted.
+		assertNull(store.get(3));
+		assertEquals("v5", store.get(5));
+		assertEquals("v7", store.get(7));
+		
+		//A new commitment with the id of a decommitted one is not evicted.
+		store.put(5, "new");
+		store.markDecommitted(8);
+		store.markDecommitted(9);
+		assertEquals("new", store.get(5));
+		assertNull(store.get(7));
+		assertEquals(8, store.size());
+	}
+	
+	@Test
+	public void testEvictByTime() throws InterruptedException {
+		CmtLongKeyStateStore<String> store = new CmtLongKeyStateStore<String>(Integer.MAX_VALUE, 20);
+		store.put(1, "a");
+		store.put(2, "b");
+		store.markDecommitted(1);
+		Thread.sleep(50);
+		store.evictExpired();
+		assertNull(store.get(1));
+		assertEquals("b", store.get(2));
+	}
+	
+	@Test
+	public void testSpill() throws IOException {
+		File file = File.createTempFile("cmtStore", ".spill");
+		//Small regions check the values that cross the border between two regions.
+		CmtSpillingStateStore<String> store = new CmtSpillingStateStore<String>(file, 10, new CmtSerializableStateCodec<String>(String.class), Integer.MAX_VALUE, 0, 100);
+		try {
+			for (long id = 0; id < 100; id++){
+				store.put(id, "value number " + id);
+			}
+			assertEquals(100, store.size());
+			assertEquals(90, store.spilledSize());
+			for (long id = 0; id < 100; id++){
+				assertEquals("value number " + id, store.get(id));
+			}
+			assertEquals("value number 4", store.remove(4));
+			assertNull(store.get(4));
+			assertEquals(99, store.size());
+		} finally {
+			store.close();
+		}
+		assertFalse(file.exists());
+	}
+	
+	@Test
+	public void testPedersenWithSpill() throws Exception {
+		DlogGroup dlog = new ScDlogRistretto255();
+		CmtPedersenReceiver receiver = new CmtPedersenReceiver(receiverChannel, dlog, random);
+		CmtPedersenCommitter committer = new CmtPedersenCommitter(committerChannel, dlog, random);
+		File file = File.createTempFile("cmtPedersen", ".spill");
+		CmtSpillingStateStore<CmtPedersenCommitmentPhaseValues> store = 
+				new CmtSpillingStateStore<CmtPedersenCommitmentPhaseValues>(file, 5, committer.getStateCodec(), 0, 0, 1024);
+		committer.setCommitmentStore(store);
+		try {
+			long[] ids = new long[30];
+			CmtCommitValue[] values = new CmtCommitValue[ids.length];
+			for (int i = 0; i < ids.length; i++){
+				ids[i] = i;
+				values[i] = new CmtBigIntegerCommitValue(new BigInteger(200, random));
+			}
+			committer.commitBatch(values, ids);
+			receiver.receiveCommitmentBatch();
+			assertEquals(25, store.spilledSize());
+			
+			committer.decommitBatch(ids);
+			CmtCommitValue[] opened = receiver.receiveDecommitmentBatch(ids);
+			for (int i = 0; i < ids.length; i++){
+				assertEquals(((CmtBigIntegerCommitValue) values[i]).getX(), ((CmtBigIntegerCommitValue) opened[i]).getX());
+			}
+			//No decommitted value is kept.
+			assertEquals(0, store.size());
+		} finally {
+			store.close();
+		}
+	}
+	
+	@Test
+	public void testElGamalCodec() throws Exception {
+		DlogGroup dlog = new ScDlogRistretto255();
+		CmtElGamalOnGroupElementCommitter committer = new CmtElGamalOnGroupElementCommitter(committerChannel, dlog, random);
+		CmtElGamalOnGroupElementReceiver receiver = new CmtElGamalOnGroupElementReceiver(receiverChannel, dlog);
+		File file = File.createTempFile("cmtElGamal", ".spill");
+		CmtSpillingStateStore<CmtElGamalCommitmentPhaseValues> store = 
+				new CmtSpillingStateStore<CmtElGamalCommitmentPhaseValues>(file, 1, committer.getStateCodec());
+		committer.setCommitmentStore(store);
+		try {
+			CmtCommitValue x = new CmtGroupElementCommitValue(dlog.createRandomElement());
+			committer.commit(x, 1);
+			committer.commit(new CmtGroupElementCommitValue(dlog.createRandomElement()), 2);
+			receiver.receiveCommitment();
+			receiver.receiveCommitment();
+			assertEquals(1, store.spilledSize());
+			
+			committer.decommit(1);
+			CmtCommitValue opened = receiver.receiveDecommitment(1);
+			assertArrayEquals(committer.generateBytesFromCommitValue(x), receiver.generateBytesFromCommitValue(opened));
+		} finally {
+			store.close();
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package edu.biu.scapi.tests.dlog;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import edu.biu.scapi.primitives.dlog.DlogGroupAbs;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.ZpElementSendableData;
+import edu.biu.scapi.primitives.dlog.ZpSafePrimeElement;
+import edu.biu.scapi.primitives.dlog.groupParams.ZpGroupParams;
+
+/**
+ * A pure Java subgroup of quadratic residues of Zp*, where p = 2q+1 is a safe prime.<p>
+ *
+ * The native Zp groups cannot be loaded in all the test environments, so the tests that need a group with elements of small order
+ * (outside of the subgroup, like p-1 whose order is 2) use this group. It is slow and should be used only in tests.
+ */
+public class BigIntegerDlogZpSafePrime extends DlogGroupAbs {
+
+	/**
+	 * An element of Zp*. Only the quadratic residues are members of the group.
+	 */
+	public static class Element implements ZpSafePrimeElement {
+		private final BigInteger x;
+
+		Element(BigInteger x) {
+			this.x = x;
+		}
+
+		@Override
+		public BigInteger getElementValue() {
+			return x;
+		}
+
+		@Override
+		public boolean isIdentity() {
+			return x.equals(BigInteger.ONE);
+		}
+
+		@Override
+		public GroupElementSendableData generateSendableData() {
+			return new ZpElementSendableData(x);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (other instanceof Element) && x.equals(((Element) other).x);
+		}
+
+		@Override
+		public int hashCode() {
+			return x.hashCode();
+		}
+	}
+
+	private final BigInteger p;
+
+	/**
+	 * Creates a group with a random safe prime of the given bit length.
+	 */
+	public BigIntegerDlogZpSafePrime(int numBits, SecureRandom random) {
+		BigInteger q;
+		BigInteger p;
+		do {
+			q = BigInteger.probablePrime(numBits - 1, random);
+			p = q.shiftLeft(1).add(BigInteger.ONE);
+		} while (!p.isProbablePrime(40));
+		this.p = p;
+		this.random = random;
+		//4 = 2^2 is a quadratic residue different from 1, so it generates the subgroup of order q.
+		BigInteger g = BigInteger.valueOf(4);
+		groupParams = new ZpGroupParams(q, g, p);
+		generator = new Element(g);
+	}
+
+	/**
+	 * Returns p-1, the element of order 2 in Zp*. It is not a member of the group.
+	 */
+	public GroupElement getMinusOne() {
+		return new Element(p.subtract(BigInteger.ONE));
+	}
+
+	private BigInteger value(GroupElement element) {
+		if (!(element instanceof Element)) {
+			throw new IllegalArgumentException("element type doesn't match the group type");
+		}
+		return ((Element) element).x;
+	}
+
+	@Override
+	public String getGroupType() {
+		return "Zp*";
+	}
+
+	@Override
+	public GroupElement getIdentity() {
+		return new Element(BigInteger.ONE);
+	}
+
+	@Override
+	public boolean isMember(GroupElement element) {
+		BigInteger x = value(element);
+		return x.signum() > 0 && x.compareTo(p) < 0 && x.modPow(getOrder(), p).equals(BigInteger.ONE);
+	}
+
+	@Override
+	public boolean isGenerator() {
+		return isMember(generator) && !generator.isIdentity();
+	}
+
+	@Override
+	public boolean validateGroup() {
+		return getOrder().isProbablePrime(40) && p.isProbablePrime(40) && isGenerator();
+	}
+
+	@Override
+	public GroupElement getInverse(GroupElement groupElement) {
+		return new Element(value(groupElement).modInverse(p));
+	}
+
+	@Override
+	public GroupElement exponentiate(GroupElement base, BigInteger exponent) {
+		return new Element(value(base).modPow(exponent, p));
+	}
+
+	@Override
+	public GroupElement multiplyGroupElements(GroupElement groupElement1, GroupElement groupElement2) {
+		return new Element(value(groupElement1).multiply(value(groupElement2)).mod(p));
+	}
+
+	@Override
+	public GroupElement generateElement(boolean bCheckMembership, BigInteger... values) {
+		if (values.length != 1) {
+			throw new IllegalArgumentException("To generate an element of Zp* one value is needed");
+		}
+		Element element = new Element(values[0]);
+		if (bCheckMembership && !isMember(element)) {
+			throw new IllegalArgumentException("The given value is not a member of this group");
+		}
+		return element;
+	}
+
+	@Override
+	@Deprecated
+	public GroupElement generateElement(boolean bCheckMembership, GroupElementSendableData data) {
+		return reconstructElement(bCheckMembership, data);
+	}
+
+	@Override
+	public GroupElement reconstructElement(boolean bCheckMembership, GroupElementSendableData data) {
+		if (!(data instanceof ZpElementSendableData)) {
+			throw new IllegalArgumentException("data type doesn't match the group type");
+		}
+		return generateElement(bCheckMembership, ((ZpElementSendableData) data).getX());
+	}
+
+	@Override
+	public GroupElement simultaneousMultipleExponentiations(GroupElement[] groupElements, BigInteger[] exponentiations) {
+		return computeNaive(groupElements, exponentiations);
+	}
+
+	@Override
+	public GroupElement encodeByteArrayToGroupElement(byte[] binaryString) {
+		throw new UnsupportedOperationException("encoding is not needed by the tests");
+	}
+
+	@Override
+	public byte[] decodeGroupElementToByteArray(GroupElement groupElement) {
+		throw new UnsupportedOperationException("encoding is not needed by the tests");
+	}
+
+	@Override
+	public byte[] mapAnyGroupElementToByteArray(GroupElement groupElement) {
+		return value(groupElement).toByteArray();
+	}
+}
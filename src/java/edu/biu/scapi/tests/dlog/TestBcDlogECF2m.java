@@ -22,5 +22,9 @@ public class TestBcDlogECF2m extends TestDlogGroupInterface{
 		return "ECF2m";
 	}
 	
+	public boolean isThreadSafe(){
+		return true;
+	}
+	
 }
 
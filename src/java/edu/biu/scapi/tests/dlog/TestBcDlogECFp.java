@@ -3,6 +3,10 @@ package edu.biu.scapi.tests.dlog;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
 
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.bc.BcDlogECFp;
@@ -22,5 +26,32 @@ public class TestBcDlogECFp  extends TestDlogGroupInterface{
 		return "ECFp";
 	}
 	
-}
+	public boolean isThreadSafe(){
+		return true;
+	}
+	
+	@Test
+	public void TestOtherThreadsSeededFromGivenRandom() throws Exception{
+		final AtomicInteger calls = new AtomicInteger();
+		SecureRandom random = new SecureRandom(){
+			private static final long serialVersionUID = 1L;
 
+			@Override
+			public void nextBytes(byte[] bytes){
+				calls.incrementAndGet();
+				super.nextBytes(bytes);
+			}
+		};
+		final DlogGroup group = new BcDlogECFp("P-192", random);
+		Thread other = new Thread(new Runnable() {
+			public void run() {
+				group.createRandomElement();
+			}
+		});
+		other.start();
+		other.join();
+		//The SecureRandom of the other thread was seeded from the given one.
+		assertTrue(calls.get() > 0);
+	}
+	
+}
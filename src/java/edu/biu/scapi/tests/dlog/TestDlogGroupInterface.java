@@ -4,7 +4,13 @@ import static org.junit.Assert.*;
 
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
@@ -17,6 +23,13 @@ public abstract class TestDlogGroupInterface {
 	public abstract String getGroupType();
 	protected DlogGroup dlog = createInstance();
 	
+	/**
+	 * Groups that are documented as thread-safe should override this function and return true.
+	 */
+	public boolean isThreadSafe(){
+		return false;
+	}
+	
 
 	@Test
 	public void TestGetGroupType() {
@@ -87,4 +100,40 @@ public abstract class TestDlogGroupInterface {
 		assertEquals(new String(bytes), new String(res_bytes));
 	}
 
+	@Test
+	public void TestSharedByThreads() throws Exception{
+		if (!isThreadSafe())
+			return;
+		
+		final GroupElement base = dlog.createRandomElement();
+		final int numThreads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int t=0; t<numThreads; t++){
+				final long seed = t;
+				results.add(executor.submit(new Callable<Boolean>() {
+					public Boolean call() {
+						Random rand = new Random(seed);
+						boolean ok = true;
+						for (int i=0; i<20; i++){
+							//All the threads use the same pre-computed exponentiations of the shared base.
+							BigInteger exponent = new BigInteger(dlog.getOrder().bitLength() - 1, rand);
+							GroupElement res = dlog.exponentiateWithPreComputedValues(base, exponent);
+							ok &= res.equals(dlog.exponentiate(base, exponent));
+							ok &= dlog.isMember(dlog.createRandomElement());
+						}
+						return ok;
+					}
+				}));
+			}
+			for (Future<Boolean> result : results){
+				assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		dlog.endExponentiateWithPreComputedValues(base);
+	}
+
 }
@@ -0,0 +1,103 @@
+package edu.biu.scapi.tests.dlog;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.ParallelDlogComputation;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+
+public class TestParallelDlogComputation {
+
+	//Not a multiple of the number of tasks, so the last range is shorter.
+	private static final int BATCH = 103;
+
+	private SecureRandom random = new SecureRandom();
+	private DlogGroup dlog;
+	private ExecutorService executor;
+	private ParallelDlogComputation sequential;
+	private ParallelDlogComputation parallel;
+	private GroupElement[] bases;
+	private BigInteger[] exponents;
+
+	@Before
+	public void setUp() {
+		dlog = new ScDlogRistretto255();
+		executor = Executors.newFixedThreadPool(4);
+		sequential = new ParallelDlogComputation(dlog);
+		parallel = new ParallelDlogComputation(dlog, executor, 4);
+		bases = new GroupElement[BATCH];
+		exponents = new BigInteger[BATCH];
+		for (int i = 0; i < BATCH; i++){
+			bases[i] = dlog.createRandomElement();
+			exponents[i] = new BigInteger(dlog.getOrder().bitLength() - 1, random);
+		}
+		//The fixed-base tables do not handle a zero exponent.
+		exponents[7] = BigInteger.ZERO;
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testExponentiate() {
+		GroupElement[] expected = sequential.exponentiate(bases, exponents);
+		assertArrayEquals(expected, parallel.exponentiate(bases, exponents));
+		for (int i = 0; i < BATCH; i++){
+			assertEquals(dlog.exponentiate(bases[i], exponents[i]), expected[i]);
+		}
+
+		GroupElement[] sameExponent = parallel.exponentiate(bases, exponents[0]);
+		assertArrayEquals(sequential.exponentiate(bases, exponents[0]), sameExponent);
+		assertEquals(dlog.exponentiate(bases[BATCH - 1], exponents[0]), sameExponent[BATCH - 1]);
+	}
+
+	@Test
+	public void testExponentiateFixedBase() {
+		GroupElement[] expected = sequential.exponentiateGenerator(exponents);
+		assertArrayEquals(expected, parallel.exponentiateGenerator(exponents));
+		assertTrue(expected[7].isIdentity());
+		for (int i = 0; i < BATCH; i++){
+			assertEquals(dlog.exponentiate(dlog.getGenerator(), exponents[i]), expected[i]);
+		}
+
+		assertArrayEquals(sequential.exponentiateFixedBase(bases[0], exponents), parallel.exponentiateFixedBase(bases[0], exponents));
+		dlog.endExponentiateWithPreComputedValues(bases[0]);
+	}
+
+	@Test
+	public void testMultiplyAndSendableData() throws Exception {
+		GroupElement[] others = parallel.createRandomElements(BATCH);
+		assertEquals(BATCH, others.length);
+		GroupElement[] products = parallel.multiply(bases, others);
+		assertArrayEquals(sequential.multiply(bases, others), products);
+		assertEquals(dlog.multiplyGroupElements(bases[BATCH - 1], others[BATCH - 1]), products[BATCH - 1]);
+
+		GroupElementSendableData[] data = parallel.generateSendableData(products);
+		assertArrayEquals(products, parallel.reconstructElements(true, data));
+		assertArrayEquals(products, sequential.reconstructElements(true, sequential.generateSendableData(products)));
+	}
+
+	@Test
+	public void testEmptyBatch() {
+		assertEquals(0, parallel.exponentiate(new GroupElement[0], new BigInteger[0]).length);
+		assertEquals(0, parallel.exponentiateGenerator(new BigInteger[0]).length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoTasks() {
+		new ParallelDlogComputation(dlog, executor, 0);
+	}
+}
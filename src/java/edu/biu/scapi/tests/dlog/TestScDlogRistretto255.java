@@ -0,0 +1,88 @@
+package edu.biu.scapi.tests.dlog;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+
+public class TestScDlogRistretto255 extends TestDlogGroupInterface{
+
+	//Encodings of the small multiples of the generator, taken from RFC 9496 appendix A.1.
+	private static final String[] GENERATOR_MULTIPLES = {
+		"0000000000000000000000000000000000000000000000000000000000000000",
+		"e2f2ae0a6abc4e71a884a961c500515f58e30b6aa582dd8db6a65945e08d2d76",
+		"6a493210f7499cd17fecb510ae0cea23a110e8d5b901f8acadd3095c73a3b919",
+		"94741f5d5d52755ece4f23f044ee27d5d1ea1e2bd196b462166b16152a9d0259",
+		"da80862773358b466ffadfe0b3293ab3d9fd53c5ea6c955358f568322daf6a57",
+		"e882b131016b52c1d3337080187cf768423efccbb517bb495ab812c4160ff44e"};
+	
+	public DlogGroup createInstance(){
+		return new ScDlogRistretto255();
+	}
+	
+	public String getGroupType(){
+		return "Ristretto255";
+	}
+	
+	public boolean isThreadSafe(){
+		return true;
+	}
+	
+	@Test
+	public void TestGeneratorMultiples(){
+		GroupElement sum = dlog.getIdentity();
+		for (int i=0; i<GENERATOR_MULTIPLES.length; i++){
+			byte[] expected = hexToBytes(GENERATOR_MULTIPLES[i]);
+			assertArrayEquals(expected, dlog.mapAnyGroupElementToByteArray(dlog.exponentiate(dlog.getGenerator(), BigInteger.valueOf(i))));
+			assertArrayEquals(expected, dlog.mapAnyGroupElementToByteArray(sum));
+			sum = dlog.multiplyGroupElements(sum, dlog.getGenerator());
+		}
+	}
+	
+	@Test
+	public void TestOrder(){
+		GroupElement ge = dlog.createRandomElement();
+		assertTrue(dlog.exponentiate(ge, dlog.getOrder()).isIdentity());
+		assertEquals(dlog.getInverse(ge), dlog.exponentiate(ge, BigInteger.ONE.negate()));
+	}
+	
+	@Test
+	public void TestFixedBaseExponentiate(){
+		GroupElement base = dlog.createRandomElement();
+		BigInteger exponent = new BigInteger(256, new java.util.Random());
+		
+		GroupElement expected = dlog.exponentiate(base, exponent);
+		assertEquals(expected, dlog.exponentiateWithPreComputedValues(base, exponent));
+		dlog.endExponentiateWithPreComputedValues(base);
+		
+		GroupElement doubled = dlog.multiplyGroupElements(dlog.getGenerator(), dlog.getGenerator());
+		assertEquals(dlog.exponentiate(doubled, exponent), dlog.exponentiate(dlog.getGenerator(), exponent.shiftLeft(1)));
+	}
+	
+	@Test
+	public void TestSendableData(){
+		GroupElement ge = dlog.createRandomElement();
+		GroupElement reconstructed = dlog.reconstructElement(true, ge.generateSendableData());
+		assertEquals(ge, reconstructed);
+		assertEquals(ge.hashCode(), reconstructed.hashCode());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void TestInvalidEncoding(){
+		//The encoding of a negative field element is invalid.
+		dlog.generateElement(true, BigInteger.ONE);
+	}
+	
+	private static byte[] hexToBytes(String hex){
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i=0; i<bytes.length; i++){
+			bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+		}
+		return bytes;
+	}
+}
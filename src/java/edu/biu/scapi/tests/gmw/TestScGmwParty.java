@@ -0,0 +1,201 @@
+package edu.biu.scapi.tests.gmw;
+
+import static org.junit.Assert.*;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import edu.biu.SCProtocols.gmw.GmwProtocolOutput;
+import edu.biu.SCProtocols.gmw.ScGmwParty;
+import edu.biu.SCProtocols.gmw.ScGmwProtocolInput;
+import edu.biu.scapi.circuits.circuit.BooleanCircuit;
+import edu.biu.scapi.circuits.circuit.Wire;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest.OTSemiHonestDDHBatchOnByteArrayReceiver;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest.OTSemiHonestDDHBatchOnByteArraySender;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.primitives.kdf.HKDF;
+import edu.biu.scapi.primitives.prf.bc.BcHMAC;
+import edu.biu.scapi.tests.comm.InMemoryChannel;
+
+public class TestScGmwParty {
+
+	private static final String[] TWO_INPUT_TABLES = {"0001", "0110", "0111", "1110", "1001", "0010"};
+
+	/**
+	 * Runs the protocol with all the parties and returns the outputs of each party.
+	 * messagesPerChannel gets the number of messages each party sent on each channel in the online phase.
+	 */
+	private byte[][] runParties(final BooleanCircuit circuit, final byte[][] inputs, final int[] messagesPerChannel) throws Exception {
+		final int n = circuit.getNumberOfParties();
+		final InMemoryChannel[][] channels = new InMemoryChannel[n][n];
+		for (int i = 0; i < n; i++){
+			for (int j = i + 1; j < n; j++){
+				InMemoryChannel[] pair = InMemoryChannel.createPair();
+				channels[i][j] = pair[0];
+				channels[j][i] = pair[1];
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(n);
+		try {
+			List<Future<byte[]>> futures = new ArrayList<Future<byte[]>>();
+			for (int i = 0; i < n; i++){
+				final int party = i;
+				futures.add(executor.submit(new Callable<byte[]>() {
+					public byte[] call() throws Exception {
+						SecureRandom random = new SecureRandom();
+						ScDlogRistretto255 dlog = new ScDlogRistretto255();
+						ScGmwParty gmw = new ScGmwParty(party + 1, circuit, channels[party],
+								new OTSemiHonestDDHBatchOnByteArraySender(dlog, new HKDF(new BcHMAC()), random),
+								new OTSemiHonestDDHBatchOnByteArrayReceiver(dlog, new HKDF(new BcHMAC()), random), random);
+						gmw.start(new ScGmwProtocolInput(inputs[party]));
+						gmw.runOffline();
+						int[] offline = new int[n];
+						for (int j = 0; j < n; j++){
+							if (channels[party][j] != null){
+								offline[j] = channels[party][j].getSentMessages();
+							}
+						}
+						gmw.runOnline();
+						int sent = -1;
+						for (int j = 0; j < n; j++){
+							if (channels[party][j] != null){
+								int online = channels[party][j].getSentMessages() - offline[j];
+								if (sent != -1){
+									assertEquals(sent, online);
+								}
+								sent = online;
+							}
+						}
+						messagesPerChannel[party] = sent;
+						return ((GmwProtocolOutput) gmw.getOutput()).getOutput();
+					}
+				}));
+			}
+			byte[][] outputs = new byte[n][];
+			for (int i = 0; i < n; i++){
+				outputs[i] = futures.get(i).get();
+			}
+			return outputs;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static Map<Integer, Wire> toWires(ArrayList<Integer> indices, byte[] values){
+		Map<Integer, Wire> wires = new HashMap<Integer, Wire>();
+		for (int i = 0; i < values.length; i++){
+			wires.put(indices.get(i), new Wire(values[i]));
+		}
+		return wires;
+	}
+
+	@Test
+	public void testRandomThreePartyCircuit() throws Exception {
+		Random random = new Random(17);
+		int parties = 3;
+		int inputsPerParty = 8;
+		int numberOfGates = 120;
+		int outputsPerParty = 6;
+
+		StringBuilder text = new StringBuilder();
+		text.append(numberOfGates).append(' ').append(parties).append('\n');
+		for (int p = 0; p < parties; p++){
+			text.append(p + 1).append(' ').append(inputsPerParty).append('\n');
+			for (int i = 0; i < inputsPerParty; i++){
+				text.append(p * inputsPerParty + i).append('\n');
+			}
+		}
+		int firstGateWire = parties * inputsPerParty;
+		int lastWire = firstGateWire + numberOfGates - 1;
+		for (int p = 0; p < parties; p++){
+			text.append(p + 1).append(' ').append(outputsPerParty).append('\n');
+			for (int i = 0; i < outputsPerParty; i++){
+				text.append(lastWire - p * outputsPerParty - i).append('\n');
+			}
+		}
+		for (int g = 0; g < numberOfGates; g++){
+			int out = firstGateWire + g;
+			int x = random.nextInt(out);
+			if (random.nextInt(8) == 0){
+				text.append("1 1 ").append(x).append(' ').append(out).append(" 10\n");
+			} else {
+				int y = random.nextInt(out);
+				String table = TWO_INPUT_TABLES[random.nextInt(TWO_INPUT_TABLES.length)];
+				text.append("2 1 ").append(x).append(' ').append(y).append(' ').append(out).append(' ').append(table).append('\n');
+			}
+		}
+
+		BooleanCircuit circuit = new BooleanCircuit(new Scanner(text.toString()));
+		byte[][] inputs = new byte[parties][inputsPerParty];
+		for (int p = 0; p < parties; p++){
+			for (int i = 0; i < inputsPerParty; i++){
+				inputs[p][i] = (byte) random.nextInt(2);
+			}
+			circuit.setInputs(toWires(circuit.getInputWireIndices(p + 1), inputs[p]), p + 1);
+		}
+		Map<Integer, Wire> expected = circuit.compute();
+
+		byte[][] outputs = runParties(circuit, inputs, new int[parties]);
+		for (int p = 0; p < parties; p++){
+			ArrayList<Integer> wires = circuit.getOutputWireIndices(p + 1);
+			assertEquals(wires.size(), outputs[p].length);
+			for (int i = 0; i < wires.size(); i++){
+				assertEquals(expected.get(wires.get(i)).getValue(), outputs[p][i]);
+			}
+		}
+	}
+
+	@Test
+	public void testOneMessagePerLayer() throws Exception {
+		//Two party circuit with multiplicative depth 4: the AND gates of the same depth share a round and the XOR and NOT gates are free.
+		String text =
+				"8 2\n" +
+				"1 4 0 1 2 3\n" +
+				"2 4 4 5 6 7\n" +
+				"2 14 15\n" +
+				"2 1 0 4 8 0001\n" +
+				"2 1 1 5 9 0001\n" +
+				"2 1 8 9 10 0110\n" +
+				"2 1 10 2 11 0001\n" +
+				"1 1 11 12 10\n" +
+				"2 1 12 6 13 0001\n" +
+				"2 1 13 3 14 0110\n" +
+				"2 1 7 14 15 0111\n";
+		BooleanCircuit circuit = new BooleanCircuit(new Scanner(text));
+		Random random = new Random(5);
+		byte[][] inputs = new byte[2][4];
+		for (int p = 0; p < 2; p++){
+			for (int i = 0; i < 4; i++){
+				inputs[p][i] = (byte) random.nextInt(2);
+			}
+		}
+		//BooleanCircuit.compute expects an output list per party, so the expected output is computed directly.
+		byte[] w = new byte[8];
+		System.arraycopy(inputs[0], 0, w, 0, 4);
+		System.arraycopy(inputs[1], 0, w, 4, 4);
+		int w13 = (1 ^ ((((w[0] & w[4]) ^ (w[1] & w[5])) & w[2]))) & w[6];
+		int w14 = w13 ^ w[3];
+		int w15 = w[7] | w14;
+
+		int[] messages = new int[2];
+		byte[][] outputs = runParties(circuit, inputs, messages);
+		for (int p = 0; p < 2; p++){
+			assertEquals(w14, outputs[p][0]);
+			assertEquals(w15, outputs[p][1]);
+			//Inputs, four layers and outputs.
+			assertEquals(6, messages[p]);
+		}
+	}
+}
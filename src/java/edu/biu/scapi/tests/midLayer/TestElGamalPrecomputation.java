@@ -0,0 +1,83 @@
+package edu.biu.scapi.tests.midLayer;
+
+import static org.junit.Assert.*;
+
+import java.security.KeyPair;
+import java.security.SecureRandom;
+
+import org.junit.Test;
+
+import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.ScElGamalOnGroupElement;
+import edu.biu.scapi.midLayer.plaintext.GroupElementPlaintext;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
+
+public class TestElGamalPrecomputation {
+
+	private DlogGroup dlog = new ScDlogRistretto255();
+	private ScElGamalOnGroupElement enc;
+
+	public TestElGamalPrecomputation() throws Exception{
+		enc = new ScElGamalOnGroupElement(dlog, new SecureRandom());
+		KeyPair pair = enc.generateKey();
+		enc.setKey(pair.getPublic(), pair.getPrivate());
+	}
+
+	private void checkEncryptDecrypt() throws Exception{
+		GroupElement x = dlog.createRandomElement();
+		assertEquals(x, ((GroupElementPlaintext) enc.decrypt(enc.encrypt(new GroupElementPlaintext(x)))).getElement());
+	}
+
+	@Test
+	public void TestPrecomputedPairs() throws Exception{
+		PrecomputationPoolMetrics metrics = enc.precompute(5);
+		assertEquals(5, metrics.getFillLevel());
+
+		//The first five encryptions use the pool and the sixth one is computed online.
+		for (int i=0; i<6; i++){
+			checkEncryptDecrypt();
+		}
+		assertEquals(0, metrics.getFillLevel());
+		assertEquals(5, metrics.getHits());
+		assertEquals(1, metrics.getMisses());
+	}
+
+	@Test
+	public void TestBackgroundPrecomputation() throws Exception{
+		PrecomputationPoolMetrics metrics = enc.startPrecomputation(4, 2);
+		try {
+			for (int i=0; i<50 && metrics.getFillLevel() < 4; i++){
+				Thread.sleep(20);
+			}
+			assertEquals(4, metrics.getFillLevel());
+			checkEncryptDecrypt();
+			assertEquals(1, metrics.getHits());
+		} finally {
+			enc.stopPrecomputation();
+		}
+		assertNull(enc.getPrecomputationMetrics());
+	}
+
+	@Test
+	public void TestNewKeyDiscardsThePool() throws Exception{
+		PrecomputationPoolMetrics metrics = enc.precompute(5);
+
+		KeyPair newPair = enc.generateKey();
+		enc.setKey(newPair.getPublic(), newPair.getPrivate());
+		//The pairs of the previous key are removed, so they can not be used with the new key.
+		assertNull(enc.getPrecomputationMetrics());
+		assertEquals(0, metrics.getFillLevel());
+
+		for (int i=0; i<3; i++){
+			checkEncryptDecrypt();
+		}
+		assertEquals(0, metrics.getHits());
+
+		//A new pool is computed for the new key.
+		metrics = enc.precompute(2);
+		checkEncryptDecrypt();
+		assertEquals(1, metrics.getHits());
+	}
+}
@@ -0,0 +1,94 @@
+package edu.biu.scapi.tests.midLayer;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+
+import org.junit.Test;
+
+import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.DJKeyGenParameterSpec;
+import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.DamgardJurikEngine;
+import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.ScDamgardJurikEnc;
+import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPublicKey;
+import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
+import edu.biu.scapi.midLayer.plaintext.BigIntegerPlainText;
+import edu.biu.scapi.midLayer.plaintext.Plaintext;
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
+
+public class TestScDamgardJurikEnc {
+	
+	private SecureRandom random = new SecureRandom();
+	private ScDamgardJurikEnc enc = new ScDamgardJurikEnc(random);
+	private KeyPair pair;
+	
+	public TestScDamgardJurikEnc() throws Exception{
+		pair = enc.generateKey(new DJKeyGenParameterSpec(512, 40));
+		enc.setKey(pair.getPublic(), pair.getPrivate());
+	}
+	
+	@Test
+	public void TestEngineMatchesDefinition(){
+		BigInteger n = ((DamgardJurikPublicKey) pair.getPublic()).getModulus();
+		for (int s=1; s<=3; s++){
+			DamgardJurikEngine engine = enc.getEngine(s);
+			BigInteger x = new BigInteger(engine.getN().bitLength() - 1, random);
+			BigInteger r = new BigInteger(engine.getNtag().bitLength() - 1, random);
+			
+			//c = (1+n)^x * r^N mod N'
+			BigInteger expected = n.add(BigInteger.ONE).modPow(x, engine.getNtag()).multiply(r.modPow(engine.getN(), engine.getNtag())).mod(engine.getNtag());
+			BigInteger c = engine.encrypt(x, r);
+			assertEquals(expected, c);
+			assertEquals(x, engine.decrypt(c));
+		}
+	}
+	
+	@Test
+	public void TestBatchEncryptDecrypt() throws Exception{
+		for (int s=1; s<=3; s++){
+			enc.setLengthParameter(s);
+			BigInteger N = enc.getEngine(s).getN();
+			Plaintext[] plaintexts = new Plaintext[10];
+			for (int i=0; i<plaintexts.length; i++){
+				plaintexts[i] = new BigIntegerPlainText(new BigInteger(N.bitLength() - 1, random));
+			}
+			AsymmetricCiphertext[] ciphers = enc.encrypt(plaintexts);
+			Plaintext[] decrypted = enc.decrypt(ciphers);
+			for (int i=0; i<plaintexts.length; i++){
+				assertEquals(((BigIntegerPlainText) plaintexts[i]).getX(), ((BigIntegerPlainText) decrypted[i]).getX());
+			}
+		}
+	}
+	
+	@Test
+	public void TestHomomorphicAddition() throws Exception{
+		enc.setLengthParameter(2);
+		BigInteger x1 = BigInteger.valueOf(1234567);
+		BigInteger x2 = BigInteger.valueOf(7654321);
+		AsymmetricCiphertext c1 = enc.encrypt(new BigIntegerPlainText(x1));
+		AsymmetricCiphertext c2 = enc.reRandomize(enc.encrypt(new BigIntegerPlainText(x2)));
+		BigIntegerPlainText sum = (BigIntegerPlainText) enc.decrypt(enc.add(c1, c2));
+		assertEquals(x1.add(x2), sum.getX());
+	}
+	
+	@Test
+	public void TestPrecomputedRandomizers() throws Exception{
+		enc.setLengthParameter(2);
+		PrecomputationPoolMetrics metrics = enc.precompute(5);
+		assertEquals(5, metrics.getFillLevel());
+		
+		//The first five encryptions use the pool and the sixth one is computed online.
+		for (int i=0; i<6; i++){
+			BigInteger x = BigInteger.valueOf(1000 + i);
+			assertEquals(x, ((BigIntegerPlainText) enc.decrypt(enc.encrypt(new BigIntegerPlainText(x)))).getX());
+		}
+		assertEquals(0, metrics.getFillLevel());
+		assertEquals(5, metrics.getHits());
+		assertEquals(1, metrics.getMisses());
+		
+		//Changing the length parameter discards the pool.
+		enc.setLengthParameter(1);
+		assertNull(enc.getPrecomputationMetrics());
+	}
+}
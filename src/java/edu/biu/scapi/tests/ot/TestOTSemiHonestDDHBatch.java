@@ -0,0 +1,144 @@
+package edu.biu.scapi.tests.ot;
+
+import static org.junit.Assert.*;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnByteArrayROutput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnByteArraySInput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnGroupElementROutput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchOnGroupElementSInput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchRBasicInput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchROutput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchReceiver;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSInput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSender;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest.OTSemiHonestDDHBatchOnByteArrayReceiver;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest.OTSemiHonestDDHBatchOnByteArraySender;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest.OTSemiHonestDDHBatchOnGroupElementReceiver;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.semiHonest.OTSemiHonestDDHBatchOnGroupElementSender;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.primitives.kdf.HKDF;
+import edu.biu.scapi.primitives.prf.bc.BcHMAC;
+import edu.biu.scapi.tests.comm.InMemoryChannel;
+
+public class TestOTSemiHonestDDHBatch {
+
+	private static final int BATCH = 37;
+
+	private SecureRandom random = new SecureRandom();
+	private DlogGroup dlog = new ScDlogRistretto255();
+	private InMemoryChannel[] channels = InMemoryChannel.createPair();
+	private ExecutorService parties;
+	private ExecutorService workers;
+	private ArrayList<Byte> sigmaArr;
+
+	@Before
+	public void setUp() {
+		parties = Executors.newFixedThreadPool(2);
+		workers = Executors.newFixedThreadPool(4);
+		sigmaArr = new ArrayList<Byte>();
+		for (int i = 0; i < BATCH; i++){
+			sigmaArr.add((byte) random.nextInt(2));
+		}
+	}
+
+	@After
+	public void tearDown() {
+		parties.shutdown();
+		workers.shutdown();
+	}
+
+	/**
+	 * Runs the sender and the receiver in two threads, and returns the output of the receiver.
+	 */
+	private OTBatchROutput transfer(final OTBatchSender sender, final OTBatchSInput sInput, final OTBatchReceiver receiver) throws Exception {
+		Future<?> senderResult = parties.submit(new Callable<Void>() {
+			public Void call() throws Exception {
+				sender.transfer(channels[0], sInput);
+				return null;
+			}
+		});
+		Future<OTBatchROutput> receiverResult = parties.submit(new Callable<OTBatchROutput>() {
+			public OTBatchROutput call() throws Exception {
+				return receiver.transfer(channels[1], new OTBatchRBasicInput(sigmaArr));
+			}
+		});
+		senderResult.get();
+		OTBatchROutput output = receiverResult.get();
+
+		//The whole batch is transferred in one message in each direction.
+		assertEquals(1, channels[0].getSentMessages());
+		assertEquals(1, channels[1].getSentMessages());
+		return output;
+	}
+
+	private void checkByteArrayTransfer(ExecutorService senderExecutor, ExecutorService receiverExecutor) throws Exception {
+		ArrayList<byte[]> x0Arr = new ArrayList<byte[]>();
+		ArrayList<byte[]> x1Arr = new ArrayList<byte[]>();
+		for (int i = 0; i < BATCH; i++){
+			byte[] x0 = new byte[16 + i];
+			byte[] x1 = new byte[16 + i];
+			random.nextBytes(x0);
+			random.nextBytes(x1);
+			x0Arr.add(x0);
+			x1Arr.add(x1);
+		}
+		OTBatchSender sender = new OTSemiHonestDDHBatchOnByteArraySender(dlog, new HKDF(new BcHMAC()), random, senderExecutor);
+		OTBatchReceiver receiver = new OTSemiHonestDDHBatchOnByteArrayReceiver(dlog, new HKDF(new BcHMAC()), random, receiverExecutor);
+
+		OTBatchROutput output = transfer(sender, new OTBatchOnByteArraySInput(x0Arr, x1Arr), receiver);
+		ArrayList<byte[]> xSigmaArr = ((OTBatchOnByteArrayROutput) output).getXSigmaArr();
+		assertEquals(BATCH, xSigmaArr.size());
+		for (int i = 0; i < BATCH; i++){
+			byte[] expected = (sigmaArr.get(i) == 0) ? x0Arr.get(i) : x1Arr.get(i);
+			assertArrayEquals(expected, xSigmaArr.get(i));
+		}
+	}
+
+	@Test
+	public void testOnByteArray() throws Exception {
+		checkByteArrayTransfer(null, null);
+	}
+
+	@Test
+	public void testOnByteArrayInParallel() throws Exception {
+		checkByteArrayTransfer(workers, workers);
+	}
+
+	@Test
+	public void testParallelSenderWithSequentialReceiver() throws Exception {
+		checkByteArrayTransfer(workers, null);
+	}
+
+	@Test
+	public void testOnGroupElementInParallel() throws Exception {
+		ArrayList<GroupElement> x0Arr = new ArrayList<GroupElement>();
+		ArrayList<GroupElement> x1Arr = new ArrayList<GroupElement>();
+		for (int i = 0; i < BATCH; i++){
+			x0Arr.add(dlog.createRandomElement());
+			x1Arr.add(dlog.createRandomElement());
+		}
+		OTBatchSender sender = new OTSemiHonestDDHBatchOnGroupElementSender(dlog, random, workers);
+		OTBatchReceiver receiver = new OTSemiHonestDDHBatchOnGroupElementReceiver(dlog, random, workers);
+
+		OTBatchROutput output = transfer(sender, new OTBatchOnGroupElementSInput(x0Arr, x1Arr), receiver);
+		ArrayList<GroupElement> xSigmaArr = ((OTBatchOnGroupElementROutput) output).getXSigmaArr();
+		assertEquals(BATCH, xSigmaArr.size());
+		for (int i = 0; i < BATCH; i++){
+			GroupElement expected = (sigmaArr.get(i) == 0) ? x0Arr.get(i) : x1Arr.get(i);
+			assertEquals(expected, xSigmaArr.get(i));
+		}
+	}
+}
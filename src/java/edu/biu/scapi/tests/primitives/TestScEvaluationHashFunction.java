@@ -0,0 +1,73 @@
+package edu.biu.scapi.tests.primitives;
+
+import static org.junit.Assert.*;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import javax.crypto.SecretKey;
+
+import org.junit.Test;
+
+import edu.biu.scapi.paddings.BitPadding;
+import edu.biu.scapi.paddings.NoPadding;
+import edu.biu.scapi.primitives.universalHash.ScEvaluationHashFunction;
+import edu.biu.scapi.tools.math.GF2tField;
+
+public class TestScEvaluationHashFunction {
+	
+	private SecureRandom random = new SecureRandom();
+	
+	/**
+	 * Computes the hash as the NTL implementation does: pad the whole input, evaluate the polynomial at k and multiply by k.
+	 */
+	private byte[] reference(byte[] key, byte[] input) {
+		GF2tField field = GF2tField.getInstance(64);
+		int padSize = (input.length % 8 == 0) ? 8 : 8 - input.length % 8;
+		byte[] padded = new BitPadding().pad(input, padSize);
+		
+		long[] k = field.fromBytes(Arrays.copyOf(key, 8));
+		long[] acc = field.zero();
+		for (int i = padded.length - 8; i >= 0; i -= 8){
+			acc = field.multiply(field.add(acc, field.fromBytes(Arrays.copyOfRange(padded, i, i + 8))), k);
+		}
+		return field.toBytes(acc);
+	}
+	
+	@Test
+	public void testMatchesReference() throws Exception {
+		ScEvaluationHashFunction hash = new ScEvaluationHashFunction();
+		SecretKey key = hash.generateKey(64);
+		hash.setKey(key);
+		
+		for (int len = 0; len < 70; len++){
+			byte[] input = new byte[len + 3];
+			random.nextBytes(input);
+			byte[] out = new byte[12];
+			hash.compute(input, 3, len, out, 4);
+			
+			byte[] expected = reference(key.getEncoded(), Arrays.copyOfRange(input, 3, len + 3));
+			assertArrayEquals(expected, Arrays.copyOfRange(out, 4, 12));
+		}
+	}
+	
+	@Test
+	public void testLargeInput() throws Exception {
+		ScEvaluationHashFunction hash = new ScEvaluationHashFunction();
+		SecretKey key = hash.generateKey(64);
+		hash.setKey(key);
+		
+		byte[] input = new byte[(1 << 22) + 5];
+		random.nextBytes(input);
+		byte[] out = new byte[8];
+		hash.compute(input, 0, input.length, out, 0);
+		assertArrayEquals(reference(key.getEncoded(), input), out);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoPaddingUnaligned() throws Exception {
+		ScEvaluationHashFunction hash = new ScEvaluationHashFunction(new NoPadding(), random);
+		hash.setKey(hash.generateKey(64));
+		hash.compute(new byte[13], 0, 13, new byte[8], 0);
+	}
+}
@@ -0,0 +1,143 @@
+package edu.biu.scapi.tests.sigma;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.and.SigmaANDProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.and.SigmaANDProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.and.SigmaANDVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCommittedValue.SigmaPedersenCommittedValueProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCommittedValue.SigmaPedersenCommittedValueProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCommittedValue.SigmaPedersenCommittedValueVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirFromSigmaProver;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirFromSigmaVerifier;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirProof;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirProverInput;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKProverInput;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+
+public class TestSigmaBatchProver {
+	
+	private static final int T = 80;
+	private static final int N = 16;
+	private SecureRandom random = new SecureRandom();
+	private DlogGroup dlog = new ScDlogRistretto255();
+	
+	private BigInteger randomExponent(){
+		return new BigInteger(dlog.getOrder().bitLength() - 1, random);
+	}
+	
+	@Test
+	public void TestANDBatchProofs() throws Exception{
+		ArrayList<SigmaProverComputation> provers = new ArrayList<SigmaProverComputation>();
+		provers.add(new SigmaDlogProverComputation(dlog, T, random));
+		provers.add(new SigmaDHProverComputation(dlog, T, random));
+		ArrayList<SigmaVerifierComputation> verifiers = new ArrayList<SigmaVerifierComputation>();
+		verifiers.add(new SigmaDlogVerifierComputation(dlog, T, random));
+		verifiers.add(new SigmaDHVerifierComputation(dlog, T, random));
+		
+		ZKPOKFiatShamirFromSigmaProver prover = new ZKPOKFiatShamirFromSigmaProver(null, new SigmaANDProverComputation(provers, T, random));
+		ZKPOKFiatShamirFromSigmaVerifier verifier = new ZKPOKFiatShamirFromSigmaVerifier(null, new SigmaANDVerifierComputation(verifiers, T, random));
+		
+		GroupElement h = dlog.createRandomElement();
+		ZKProverInput[] inputs = new ZKProverInput[N];
+		for (int i=0; i<N; i++){
+			BigInteger w1 = randomExponent();
+			BigInteger w2 = randomExponent();
+			ArrayList<SigmaProverInput> andInputs = new ArrayList<SigmaProverInput>();
+			andInputs.add(new SigmaDlogProverInput(dlog.exponentiate(dlog.getGenerator(), w1), w1));
+			andInputs.add(new SigmaDHProverInput(h, dlog.exponentiate(dlog.getGenerator(), w2), dlog.exponentiate(h, w2), w2));
+			SigmaANDProverInput input = new SigmaANDProverInput(andInputs);
+			//Half of the proofs have a context.
+			inputs[i] = (i % 2 == 0) ? input : new ZKPOKFiatShamirProverInput(input, new byte[]{(byte) i});
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try{
+			ZKPOKFiatShamirProof[] proofs = prover.generateFiatShamirProofs(inputs, executor);
+			assertEquals(N, proofs.length);
+			for (int i=0; i<N; i++){
+				assertTrue(verifier.verifyFiatShamirProof(commonInput(inputs[i]), proofs[i]));
+			}
+			
+			//A proof of one input should not be accepted for another.
+			assertFalse(verifier.verifyFiatShamirProof(commonInput(inputs[2]), proofs[0]));
+			
+			//Without an executor, the same proofs should be produced by the calling thread.
+			proofs = prover.generateFiatShamirProofs(inputs, null);
+			for (int i=0; i<N; i++){
+				assertTrue(verifier.verifyFiatShamirProof(commonInput(inputs[i]), proofs[i]));
+			}
+		} finally{
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void TestANDWithNonBatchProver() throws Exception{
+		ArrayList<SigmaProverComputation> provers = new ArrayList<SigmaProverComputation>();
+		provers.add(new SigmaDlogProverComputation(dlog, T, random));
+		provers.add(new SigmaPedersenCommittedValueProverComputation(dlog, T, random));
+		ArrayList<SigmaVerifierComputation> verifiers = new ArrayList<SigmaVerifierComputation>();
+		verifiers.add(new SigmaDlogVerifierComputation(dlog, T, random));
+		verifiers.add(new SigmaPedersenCommittedValueVerifierComputation(dlog, T, random));
+		
+		SigmaANDProverComputation andProver = new SigmaANDProverComputation(provers, T, random);
+		assertFalse(andProver.supportsBatch());
+		ZKPOKFiatShamirFromSigmaProver prover = new ZKPOKFiatShamirFromSigmaProver(null, andProver);
+		ZKPOKFiatShamirFromSigmaVerifier verifier = new ZKPOKFiatShamirFromSigmaVerifier(null, new SigmaANDVerifierComputation(verifiers, T, random));
+		
+		GroupElement h = dlog.createRandomElement();
+		ZKProverInput[] inputs = new ZKProverInput[N];
+		for (int i=0; i<N; i++){
+			BigInteger w = randomExponent();
+			BigInteger x = randomExponent();
+			BigInteger r = randomExponent();
+			//c = g^r * h^x
+			GroupElement commitment = dlog.multiplyGroupElements(dlog.exponentiate(dlog.getGenerator(), r), dlog.exponentiate(h, x));
+			ArrayList<SigmaProverInput> andInputs = new ArrayList<SigmaProverInput>();
+			andInputs.add(new SigmaDlogProverInput(dlog.exponentiate(dlog.getGenerator(), w), w));
+			andInputs.add(new SigmaPedersenCommittedValueProverInput(h, commitment, x, r));
+			inputs[i] = new SigmaANDProverInput(andInputs);
+		}
+		
+		//The proofs are generated one by one, since the Pedersen prover does not compute batches.
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try{
+			ZKPOKFiatShamirProof[] proofs = prover.generateFiatShamirProofs(inputs, executor);
+			for (int i=0; i<N; i++){
+				assertTrue(verifier.verifyFiatShamirProof(commonInput(inputs[i]), proofs[i]));
+			}
+		} finally{
+			executor.shutdown();
+		}
+	}
+	
+	private ZKCommonInput commonInput(ZKProverInput input){
+		if (input instanceof ZKPOKFiatShamirProverInput){
+			ZKPOKFiatShamirProverInput fsInput = (ZKPOKFiatShamirProverInput) input;
+			return new ZKPOKFiatShamirCommonInput(fsInput.getSigmaInput().getCommonParams(), fsInput.getContext());
+		}
+		return ((SigmaProverInput) input).getCommonParams();
+	}
+}
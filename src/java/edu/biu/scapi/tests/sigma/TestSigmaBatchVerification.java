@@ -0,0 +1,195 @@
+package edu.biu.scapi.tests.sigma;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.junit.Test;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCmtKnowledge.SigmaPedersenCmtKnowledgeCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCmtKnowledge.SigmaPedersenCmtKnowledgeProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCmtKnowledge.SigmaPedersenCmtKnowledgeProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCmtKnowledge.SigmaPedersenCmtKnowledgeVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaGroupElementMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.tests.dlog.BigIntegerDlogZpSafePrime;
+
+public class TestSigmaBatchVerification {
+	
+	private static final int T = 80;
+	private static final int N = 20;
+	private SecureRandom random = new SecureRandom();
+	private DlogGroup dlog = new ScDlogRistretto255();
+	
+	private BigInteger randomExponent(){
+		return new BigInteger(dlog.getOrder().bitLength() - 1, random);
+	}
+	
+	private byte[] randomChallenge(){
+		byte[] e = new byte[T/8];
+		random.nextBytes(e);
+		return e;
+	}
+	
+	@Test
+	public void TestDlogBatch() throws Exception{
+		SigmaDlogProverComputation prover = new SigmaDlogProverComputation(dlog, T, random);
+		SigmaDlogVerifierComputation verifier = new SigmaDlogVerifierComputation(dlog, T, random);
+		
+		SigmaCommonInput[] inputs = new SigmaCommonInput[N];
+		SigmaProtocolMsg[] a = new SigmaProtocolMsg[N];
+		byte[][] e = new byte[N][];
+		SigmaProtocolMsg[] z = new SigmaProtocolMsg[N];
+		for (int i=0; i<N; i++){
+			BigInteger w = randomExponent();
+			SigmaDlogProverInput input = new SigmaDlogProverInput(dlog.exponentiate(dlog.getGenerator(), w), w);
+			inputs[i] = input.getCommonParams();
+			a[i] = prover.computeFirstMsg(input);
+			e[i] = randomChallenge();
+			z[i] = prover.computeSecondMsg(e[i]);
+		}
+		
+		boolean[] verified = verifier.verifyBatch(inputs, a, e, z);
+		for (int i=0; i<N; i++){
+			assertTrue(verified[i]);
+		}
+		
+		//Corrupt two proofs. The binary search should find exactly them.
+		z[3] = new SigmaBIMsg(((SigmaBIMsg) z[3]).getMsg().add(BigInteger.ONE));
+		e[17] = randomChallenge();
+		verified = verifier.verifyBatch(inputs, a, e, z);
+		for (int i=0; i<N; i++){
+			assertEquals(i != 3 && i != 17, verified[i]);
+			verifier.setChallenge(e[i]);
+			assertEquals(verifier.verify(inputs[i], a[i], z[i]), verified[i]);
+		}
+	}
+	
+	@Test
+	public void TestDHBatch() throws Exception{
+		SigmaDHProverComputation prover = new SigmaDHProverComputation(dlog, T, random);
+		SigmaDHVerifierComputation verifier = new SigmaDHVerifierComputation(dlog, T, random);
+		GroupElement h = dlog.createRandomElement();
+		
+		SigmaCommonInput[] inputs = new SigmaCommonInput[N];
+		SigmaProtocolMsg[] a = new SigmaProtocolMsg[N];
+		byte[][] e = new byte[N][];
+		SigmaProtocolMsg[] z = new SigmaProtocolMsg[N];
+		for (int i=0; i<N; i++){
+			BigInteger w = randomExponent();
+			//The last proof has a wrong v.
+			GroupElement v = (i == N-1) ? dlog.createRandomElement() : dlog.exponentiate(h, w);
+			SigmaDHProverInput input = new SigmaDHProverInput(h, dlog.exponentiate(dlog.getGenerator(), w), v, w);
+			inputs[i] = input.getCommonParams();
+			a[i] = prover.computeFirstMsg(input);
+			e[i] = randomChallenge();
+			z[i] = prover.computeSecondMsg(e[i]);
+		}
+		
+		boolean[] verified = verifier.verifyBatch(inputs, a, e, z);
+		for (int i=0; i<N; i++){
+			assertEquals(i != N-1, verified[i]);
+		}
+	}
+	
+	/*
+	 * The following tests use Zp*, where -1 has order 2 and is not a member of the subgroup of quadratic residues.
+	 * Each proof is honest except that one element is multiplied by -1. Without the membership checks, the random exponent 
+	 * of the batch cancels -1 whenever it is even, so about half of these proofs would be accepted.
+	 */
+	
+	@Test
+	public void TestDlogBatchRejectsSmallOrderElementInZp() throws Exception{
+		BigIntegerDlogZpSafePrime zp = new BigIntegerDlogZpSafePrime(160, random);
+		SigmaDlogProverComputation prover = new SigmaDlogProverComputation(zp, T, random);
+		SigmaDlogVerifierComputation verifier = new SigmaDlogVerifierComputation(zp, T, random);
+		
+		SigmaCommonInput[] inputs = new SigmaCommonInput[N];
+		SigmaProtocolMsg[] a = new SigmaProtocolMsg[N];
+		byte[][] e = new byte[N][];
+		SigmaProtocolMsg[] z = new SigmaProtocolMsg[N];
+		for (int i=0; i<N; i++){
+			BigInteger w = new BigInteger(zp.getOrder().bitLength() - 1, random);
+			SigmaDlogProverInput input = new SigmaDlogProverInput(zp.exponentiate(zp.getGenerator(), w), w);
+			inputs[i] = input.getCommonParams();
+			GroupElement aElement = zp.reconstructElement(true, ((SigmaGroupElementMsg) prover.computeFirstMsg(input)).getElement());
+			a[i] = new SigmaGroupElementMsg(zp.multiplyGroupElements(aElement, zp.getMinusOne()).generateSendableData());
+			e[i] = randomChallenge();
+			z[i] = prover.computeSecondMsg(e[i]);
+		}
+		
+		boolean[] verified = verifier.verifyBatch(inputs, a, e, z);
+		for (int i=0; i<N; i++){
+			assertFalse(verified[i]);
+		}
+	}
+	
+	@Test
+	public void TestDHBatchRejectsSmallOrderElementInZp() throws Exception{
+		BigIntegerDlogZpSafePrime zp = new BigIntegerDlogZpSafePrime(160, random);
+		SigmaDHProverComputation prover = new SigmaDHProverComputation(zp, T, random);
+		SigmaDHVerifierComputation verifier = new SigmaDHVerifierComputation(zp, T, random);
+		GroupElement h = zp.createRandomElement();
+		
+		SigmaCommonInput[] inputs = new SigmaCommonInput[N];
+		SigmaProtocolMsg[] a = new SigmaProtocolMsg[N];
+		byte[][] e = new byte[N][];
+		SigmaProtocolMsg[] z = new SigmaProtocolMsg[N];
+		for (int i=0; i<N; i++){
+			BigInteger w = new BigInteger(zp.getOrder().bitLength() - 1, random);
+			GroupElement u = zp.exponentiate(zp.getGenerator(), w);
+			SigmaDHProverInput input = new SigmaDHProverInput(h, u, zp.exponentiate(h, w), w);
+			//The statement has -u instead of u, so it is false.
+			inputs[i] = new SigmaDHProverInput(h, zp.multiplyGroupElements(u, zp.getMinusOne()), zp.exponentiate(h, w), w).getCommonParams();
+			a[i] = prover.computeFirstMsg(input);
+			e[i] = randomChallenge();
+			z[i] = prover.computeSecondMsg(e[i]);
+		}
+		
+		boolean[] verified = verifier.verifyBatch(inputs, a, e, z);
+		for (int i=0; i<N; i++){
+			assertFalse(verified[i]);
+		}
+	}
+	
+	@Test
+	public void TestPedersenCmtKnowledgeBatchRejectsSmallOrderElementInZp() throws Exception{
+		BigIntegerDlogZpSafePrime zp = new BigIntegerDlogZpSafePrime(160, random);
+		SigmaPedersenCmtKnowledgeProverComputation prover = new SigmaPedersenCmtKnowledgeProverComputation(zp, T, random);
+		SigmaPedersenCmtKnowledgeVerifierComputation verifier = new SigmaPedersenCmtKnowledgeVerifierComputation(zp, T, random);
+		GroupElement h = zp.createRandomElement();
+		
+		SigmaCommonInput[] inputs = new SigmaCommonInput[N];
+		SigmaProtocolMsg[] a = new SigmaProtocolMsg[N];
+		byte[][] e = new byte[N][];
+		SigmaProtocolMsg[] z = new SigmaProtocolMsg[N];
+		for (int i=0; i<N; i++){
+			BigInteger x = new BigInteger(zp.getOrder().bitLength() - 1, random);
+			BigInteger r = new BigInteger(zp.getOrder().bitLength() - 1, random);
+			GroupElement c = zp.multiplyGroupElements(zp.exponentiate(h, x), zp.exponentiate(zp.getGenerator(), r));
+			SigmaPedersenCmtKnowledgeProverInput input = new SigmaPedersenCmtKnowledgeProverInput(h, c, x, r);
+			//The commitment is -c instead of c.
+			inputs[i] = new SigmaPedersenCmtKnowledgeCommonInput(h, zp.multiplyGroupElements(c, zp.getMinusOne()));
+			a[i] = prover.computeFirstMsg(input);
+			e[i] = randomChallenge();
+			z[i] = prover.computeSecondMsg(e[i]);
+		}
+		
+		boolean[] verified = verifier.verifyBatch(inputs, a, e, z);
+		for (int i=0; i<N; i++){
+			assertFalse(verified[i]);
+		}
+	}
+}
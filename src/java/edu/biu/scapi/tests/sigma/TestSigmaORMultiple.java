@@ -0,0 +1,111 @@
+package edu.biu.scapi.tests.sigma;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Hashtable;
+
+import org.junit.Test;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogSimulator;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple.SigmaORMultipleCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple.SigmaORMultipleProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple.SigmaORMultipleProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple.SigmaORMultipleSimulator;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple.SigmaORMultipleVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaSimulatorOutput;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.tools.math.GF2tField;
+import edu.biu.scapi.tools.math.GF2tLagrangeInterpolator;
+
+public class TestSigmaORMultiple {
+	
+	private static final int T = 80;
+	private static final int N = 7;
+	private SecureRandom random = new SecureRandom();
+	private DlogGroup dlog = new ScDlogRistretto255();
+	
+	@Test
+	public void TestInterpolation(){
+		GF2tField field = GF2tField.getInstance(T);
+		int n = 20;
+		long[][] xs = new long[n][];
+		long[][] ys = new long[n][];
+		for (int i = 0; i < n; i++){
+			xs[i] = field.fromLong(i);
+			ys[i] = field.random(random);
+		}
+		GF2tLagrangeInterpolator interpolator = new GF2tLagrangeInterpolator(field, xs);
+		long[][] polynomial = interpolator.interpolate(ys);
+		assertEquals(n, polynomial.length);
+		for (int i = 0; i < n; i++){
+			assertTrue(field.equals(ys[i], field.evaluate(polynomial, xs[i])));
+		}
+		//The barycentric evaluation should agree with the coefficients.
+		long[] x = field.random(random);
+		assertTrue(field.equals(field.evaluate(polynomial, x), interpolator.evaluate(ys, x)));
+		
+		long[] a = field.random(random);
+		assertTrue(field.equals(field.one(), field.multiply(a, field.inverse(a))));
+		assertTrue(field.equals(a, field.fromBytes(field.toBytes(a))));
+	}
+	
+	@Test
+	public void TestProof() throws Exception{
+		//The prover knows the witnesses of statements 1 and 4.
+		Hashtable<Integer, SigmaProverComputation> provers = new Hashtable<Integer, SigmaProverComputation>();
+		Hashtable<Integer, SigmaSimulator> simulators = new Hashtable<Integer, SigmaSimulator>();
+		Hashtable<Integer, SigmaProverInput> proverInputs = new Hashtable<Integer, SigmaProverInput>();
+		Hashtable<Integer, SigmaCommonInput> simulatorInputs = new Hashtable<Integer, SigmaCommonInput>();
+		ArrayList<SigmaVerifierComputation> verifiers = new ArrayList<SigmaVerifierComputation>();
+		ArrayList<SigmaCommonInput> commonInputs = new ArrayList<SigmaCommonInput>();
+		for (int i = 0; i < N; i++){
+			BigInteger w = new BigInteger(dlog.getOrder().bitLength() - 1, random);
+			SigmaDlogProverInput input = new SigmaDlogProverInput(dlog.exponentiate(dlog.getGenerator(), w), w);
+			if (i == 1 || i == 4){
+				provers.put(i, new SigmaDlogProverComputation(dlog, T, random));
+				proverInputs.put(i, input);
+			} else{
+				simulators.put(i, new SigmaDlogSimulator(dlog, T, random));
+				simulatorInputs.put(i, input.getCommonParams());
+			}
+			verifiers.add(new SigmaDlogVerifierComputation(dlog, T, random));
+			commonInputs.add(input.getCommonParams());
+		}
+		SigmaORMultipleCommonInput commonInput = new SigmaORMultipleCommonInput(commonInputs, 2);
+		
+		SigmaORMultipleProverComputation prover = new SigmaORMultipleProverComputation(provers, simulators, T, random);
+		SigmaORMultipleVerifierComputation verifier = new SigmaORMultipleVerifierComputation(verifiers, T, random);
+		
+		SigmaProtocolMsg a = prover.computeFirstMsg(new SigmaORMultipleProverInput(proverInputs, simulatorInputs));
+		verifier.sampleChallenge();
+		SigmaProtocolMsg z = prover.computeSecondMsg(verifier.getChallenge());
+		assertTrue(verifier.verify(commonInput, a, z));
+		
+		//The same messages should not be accepted for another challenge.
+		verifier.sampleChallenge();
+		assertFalse(verifier.verify(commonInput, a, z));
+		
+		//A simulated transcript should be accepted.
+		ArrayList<SigmaSimulator> allSimulators = new ArrayList<SigmaSimulator>();
+		for (int i = 0; i < N; i++){
+			allSimulators.add(new SigmaDlogSimulator(dlog, T, random));
+		}
+		SigmaSimulatorOutput output = new SigmaORMultipleSimulator(allSimulators, T, random).simulate(commonInput);
+		verifier.setChallenge(output.getE());
+		assertTrue(verifier.verify(commonInput, output.getA(), output.getZ()));
+	}
+}
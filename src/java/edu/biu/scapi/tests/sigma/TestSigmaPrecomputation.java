@@ -0,0 +1,80 @@
+package edu.biu.scapi.tests.sigma;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.junit.Test;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.tools.precomputation.PrecomputationPoolMetrics;
+
+public class TestSigmaPrecomputation {
+	
+	private static final int T = 80;
+	private SecureRandom random = new SecureRandom();
+	private DlogGroup dlog = new ScDlogRistretto255();
+	
+	private BigInteger randomExponent(){
+		return new BigInteger(dlog.getOrder().bitLength() - 1, random);
+	}
+	
+	@Test
+	public void TestDlogPrecomputation() throws Exception{
+		SigmaDlogProverComputation prover = new SigmaDlogProverComputation(dlog, T, random);
+		SigmaDlogVerifierComputation verifier = new SigmaDlogVerifierComputation(dlog, T, random);
+		
+		PrecomputationPoolMetrics metrics = prover.precompute(4);
+		assertEquals(4, metrics.getFillLevel());
+		
+		//The first 4 proofs use the pool, the 5th computes the first message online.
+		for (int i=0; i<5; i++){
+			BigInteger w = randomExponent();
+			SigmaDlogProverInput input = new SigmaDlogProverInput(dlog.exponentiate(dlog.getGenerator(), w), w);
+			SigmaProtocolMsg a = prover.computeFirstMsg(input);
+			verifier.sampleChallenge();
+			SigmaProtocolMsg z = prover.computeSecondMsg(verifier.getChallenge());
+			assertTrue(verifier.verify(input.getCommonParams(), a, z));
+		}
+		assertEquals(4, metrics.getHits());
+		assertEquals(1, metrics.getMisses());
+		
+		prover.stopPrecomputation();
+		assertNull(prover.getPrecomputationMetrics());
+	}
+	
+	@Test
+	public void TestDHPrecomputation() throws Exception{
+		SigmaDHProverComputation prover = new SigmaDHProverComputation(dlog, T, random);
+		SigmaDHVerifierComputation verifier = new SigmaDHVerifierComputation(dlog, T, random);
+		GroupElement h = dlog.createRandomElement();
+		GroupElement otherH = dlog.createRandomElement();
+		
+		PrecomputationPoolMetrics metrics = prover.startPrecomputation(h, 8, 2);
+		try{
+			//Proofs with the h of the pool and with another h should both be valid.
+			for (int i=0; i<6; i++){
+				GroupElement currentH = (i % 2 == 0) ? h : otherH;
+				BigInteger w = randomExponent();
+				SigmaDHProverInput input = new SigmaDHProverInput(currentH, dlog.exponentiate(dlog.getGenerator(), w), dlog.exponentiate(currentH, w), w);
+				SigmaProtocolMsg a = prover.computeFirstMsg(input);
+				verifier.sampleChallenge();
+				SigmaProtocolMsg z = prover.computeSecondMsg(verifier.getChallenge());
+				assertTrue(verifier.verify(input.getCommonParams(), a, z));
+			}
+			assertEquals(6, metrics.getHits() + metrics.getMisses());
+		} finally{
+			prover.stopPrecomputation();
+		}
+	}
+}
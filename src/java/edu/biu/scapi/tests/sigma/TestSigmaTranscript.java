@@ -0,0 +1,102 @@
+package edu.biu.scapi.tests.sigma;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirFromSigmaProver;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirFromSigmaVerifier;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirProof;
+import edu.biu.scapi.interactiveMidProtocols.zeroKnowledge.ZKPOKFiatShamirProverInput;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ristretto.ScDlogRistretto255;
+import edu.biu.scapi.primitives.hash.bc.BcSHA256;
+import edu.biu.scapi.primitives.randomOracle.HKDFBasedRO;
+import edu.biu.scapi.primitives.randomOracle.HashBasedRO;
+import edu.biu.scapi.primitives.randomOracle.RandomOracle;
+
+public class TestSigmaTranscript {
+	
+	private SecureRandom random = new SecureRandom();
+	private DlogGroup dlog = new ScDlogRistretto255();
+	
+	/**
+	 * A random oracle that gets its input in one array, so that the transcript buffers the encoding.
+	 */
+	private static class NonStreamingRO implements RandomOracle {
+		private HashBasedRO ro = new HashBasedRO(new BcSHA256());
+		
+		public String getAlgorithmName() {
+			return "NonStreamingRO";
+		}
+		
+		public byte[] compute(byte[] input, int inOffset, int inLen, int outLen) {
+			return ro.compute(input, inOffset, inLen, outLen);
+		}
+	}
+	
+	private byte[] challenge(RandomOracle ro, GroupElement h, BigInteger z, byte[] cont){
+		SigmaTranscript transcript = new SigmaTranscript(ro);
+		transcript.absorb(new SigmaDlogCommonInput(h));
+		transcript.absorb(new SigmaBIMsg(z));
+		transcript.absorb(cont);
+		return transcript.computeChallenge(10);
+	}
+	
+	@Test
+	public void TestStreamingMatchesBuffered(){
+		GroupElement h = dlog.createRandomElement();
+		BigInteger z = new BigInteger(200, random);
+		byte[] cont = "context".getBytes();
+		byte[] streamed = challenge(new HashBasedRO(new BcSHA256()), h, z, cont);
+		assertArrayEquals(challenge(new NonStreamingRO(), h, z, cont), streamed);
+		
+		//The encoding depends on every value.
+		assertFalse(Arrays.equals(streamed, challenge(new HashBasedRO(new BcSHA256()), h, z, null)));
+		assertFalse(Arrays.equals(streamed, challenge(new HashBasedRO(new BcSHA256()), h, z.add(BigInteger.ONE), cont)));
+	}
+	
+	@Test
+	public void TestInterruptedTranscriptIsDiscarded(){
+		GroupElement h = dlog.createRandomElement();
+		BigInteger z = new BigInteger(200, random);
+		byte[] cont = "context".getBytes();
+		HashBasedRO ro = new HashBasedRO(new BcSHA256());
+		
+		//A transcript that stopped in the middle, as if absorbing threw an exception, does not change the next challenge.
+		new SigmaTranscript(ro).absorb(new SigmaDlogCommonInput(h));
+		assertArrayEquals(challenge(new HashBasedRO(new BcSHA256()), h, z, cont), challenge(ro, h, z, cont));
+		
+		byte[] input = "input".getBytes();
+		ro.update(input, 0, input.length);
+		assertArrayEquals(new HashBasedRO(new BcSHA256()).compute(input, 0, input.length, 10), ro.compute(input, 0, input.length, 10));
+	}
+	
+	@Test
+	public void TestFiatShamirProof() throws Exception{
+		for (RandomOracle ro : new RandomOracle[]{new HKDFBasedRO(), new HashBasedRO(new BcSHA256())}){
+			ZKPOKFiatShamirFromSigmaProver prover = new ZKPOKFiatShamirFromSigmaProver(null, new SigmaDlogProverComputation(dlog, 80, random), ro);
+			ZKPOKFiatShamirFromSigmaVerifier verifier = new ZKPOKFiatShamirFromSigmaVerifier(null, new SigmaDlogVerifierComputation(dlog, 80, random), ro);
+			
+			BigInteger w = new BigInteger(200, random);
+			SigmaDlogProverInput input = new SigmaDlogProverInput(dlog.exponentiate(dlog.getGenerator(), w), w);
+			byte[] cont = "session".getBytes();
+			ZKPOKFiatShamirProof proof = prover.generateFiatShamirProof(new ZKPOKFiatShamirProverInput(input, cont));
+			
+			assertTrue(verifier.verifyFiatShamirProof(new ZKPOKFiatShamirCommonInput(input.getCommonParams(), cont), proof));
+			assertFalse(verifier.verifyFiatShamirProof(new ZKPOKFiatShamirCommonInput(input.getCommonParams(), "other".getBytes()), proof));
+		}
+	}
+}
@@ -66,7 +66,8 @@ public final class DlogGroupFactory {
 	 * This function creates and returns a DlogGroup object from a specified provider.
 	 * @param algName is the name of a specific DlogGroup.A list of possible names follows: <p>
  	 * 	   	  For Elliptic Curves:   DlogECFp, DlogECF2m. <p>
-	 *		  For Dlog groups:	 DlogZpSafePrime 		  
+	 *		  For Dlog groups:	 DlogZpSafePrime <p>
+	 *		  For Ristretto255 group:	 DlogRistretto255 		  
 	 * @param provider the required provider name
 	 * @return an object of type DlogGroup class that was determined by the algName + provider
 	 * @throws FactoriesException 
@@ -80,7 +81,8 @@ public final class DlogGroupFactory {
 	 * This function creates and returns a DlogGroup object from a default provider chosen by SCAPI.
 	 * @param algName is the name of a specific DlogGroup.A list of possible names follows: <p>
  	 * 	   	  For Elliptic Curves:   DlogECFp, DlogECF2m. <p>
-	 *		  For Dlog groups:	 DlogZpSafePrime 		  
+	 *		  For Dlog groups:	 DlogZpSafePrime <p>
+	 *		  For Ristretto255 group:	 DlogRistretto255 		  
 	 *
 	 * @return an object of type DlogGroup class that was determined by the algName + the default provider for that algorithm
 	 * @throws FactoriesException 
@@ -0,0 +1,556 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.tools.math;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pure-Java implementation of the binary extension field GF(2^t).<p>
+ * 
+ * An element is a polynomial of degree less than t over GF(2), represented by an array of longs where bit j of word i is the 
+ * coefficient of X^(64i+j). All functions of this class accept and return elements in this representation; 
+ * the arrays have {@link #getNumOfWords()} words and the functions never change their arguments.<p>
+ * 
+ * The field is defined by a sparse irreducible polynomial: the trinomial X^t + X^k + 1 with the smallest k if there is one, 
+ * and otherwise the pentanomial X^t + X^k3 + X^k2 + X^k1 + 1 with the smallest (k3, k2, k1). This is the choice of the tables of 
+ * low-weight irreducible polynomials that NTL's BuildSparseIrred uses, so the field is the one the NTL based implementations used.<p>
+ * 
+ * Multiplication is a carry-less multiplication of 64 bit words using a 4 bit window, followed by a word-level reduction 
+ * that uses the precomputed exponents of the sparse modulus.<p>
+ * 
+ * The byte representation of an element is the one used by NTL: byte i holds the coefficients of X^(8i),...,X^(8i+7).<p>
+ * 
+ * Instances of this class are immutable and can be shared between threads. Since finding the irreducible polynomial takes a few milliseconds, 
+ * {@link #getInstance(int)} keeps one instance per degree.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class GF2tField {
+	
+	private final int t;				//The degree of the field.
+	private final int words;			//Number of words of an element.
+	private final int[] taps;			//The exponents of the modulus except t, in decreasing order. The last one is 0.
+	private final long topMask;			//Mask of the used bits in the last word of an element.
+	
+	private static final ConcurrentHashMap<Integer, GF2tField> instances = new ConcurrentHashMap<Integer, GF2tField>();
+	
+	/**
+	 * Returns the field GF(2^t). The fields are created once and shared.
+	 * @param t the degree of the field.
+	 * @throws IllegalArgumentException if t is smaller than 2.
+	 */
+	public static GF2tField getInstance(int t) {
+		GF2tField field = instances.get(t);
+		if (field == null){
+			field = new GF2tField(t);
+			GF2tField existing = instances.putIfAbsent(t, field);
+			if (existing != null){
+				field = existing;
+			}
+		}
+		return field;
+	}
+	
+	/**
+	 * Creates the field GF(2^t) with a sparse irreducible polynomial of degree t.
+	 * @param t the degree of the field.
+	 * @throws IllegalArgumentException if t is smaller than 2.
+	 */
+	public GF2tField(int t) {
+		if (t < 2){
+			throw new IllegalArgumentException("the degree of the field should be at least 2");
+		}
+		this.t = t;
+		words = (t + 63) / 64;
+		topMask = (t % 64 == 0) ? -1L : (1L << (t % 64)) - 1;
+		taps = findSparseIrreducible(t);
+	}
+	
+	/**
+	 * @return the degree of the field.
+	 */
+	public int getDegree() {
+		return t;
+	}
+	
+	/**
+	 * @return the number of longs in an element.
+	 */
+	public int getNumOfWords() {
+		return words;
+	}
+	
+	/**
+	 * @return the exponents of the irreducible polynomial of the field, in decreasing order.
+	 */
+	public int[] getModulusExponents() {
+		int[] exponents = new int[taps.length + 1];
+		exponents[0] = t;
+		System.arraycopy(taps, 0, exponents, 1, taps.length);
+		return exponents;
+	}
+	
+	/**
+	 * @return the zero element.
+	 */
+	public long[] zero() {
+		return new long[words];
+	}
+	
+	/**
+	 * @return the one element.
+	 */
+	public long[] one() {
+		long[] one = new long[words];
+		one[0] = 1;
+		return one;
+	}
+	
+	/**
+	 * Returns the element whose coefficients are the bits of the given value, reduced modulo the field polynomial.<p>
+	 * This is the element that NTL creates from the little endian bytes of the value.
+	 * @param value non negative number.
+	 * @return the element that represents the given value.
+	 */
+	public long[] fromLong(long value) {
+		return reduce(new long[]{value});
+	}
+	
+	/**
+	 * Converts the given bytes to a field element. Byte i holds the coefficients of X^(8i),...,X^(8i+7). 
+	 * If the polynomial has degree t or more it is reduced modulo the field polynomial.
+	 * @param bytes the bytes of the element.
+	 * @return the element.
+	 */
+	public long[] fromBytes(byte[] bytes) {
+		long[] poly = new long[Math.max(words, (bytes.length + 7) / 8)];
+		for (int i = 0; i < bytes.length; i++){
+			poly[i / 8] |= (bytes[i] & 0xFFL) << (8 * (i % 8));
+		}
+		return reduce(poly);
+	}
+	
+	/**
+	 * Converts the given element to (t+7)/8 bytes. Byte i holds the coefficients of X^(8i),...,X^(8i+7).
+	 * @param element field element.
+	 * @return the bytes of the element.
+	 */
+	public byte[] toBytes(long[] element) {
+		byte[] bytes = new byte[(t + 7) / 8];
+		for (int i = 0; i < bytes.length; i++){
+			bytes[i] = (byte) (element[i / 8] >>> (8 * (i % 8)));
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Samples a uniformly random field element.
+	 * @param random source of randomness.
+	 * @return the random element.
+	 */
+	public long[] random(SecureRandom random) {
+		long[] element = new long[words];
+		for (int i = 0; i < words; i++){
+			element[i] = random.nextLong();
+		}
+		element[words - 1] &= topMask;
+		return element;
+	}
+	
+	/**
+	 * @return true if the given element is zero; false, otherwise.
+	 */
+	public boolean isZero(long[] element) {
+		for (int i = 0; i < words; i++){
+			if (element[i] != 0){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return true if the given elements are equal; false, otherwise.
+	 */
+	public boolean equals(long[] a, long[] b) {
+		for (int i = 0; i < words; i++){
+			if (a[i] != b[i]){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Computes a+b. In characteristic 2 this is also a-b.
+	 */
+	public long[] add(long[] a, long[] b) {
+		long[] result = new long[words];
+		for (int i = 0; i < words; i++){
+			result[i] = a[i] ^ b[i];
+		}
+		return result;
+	}
+	
+	/**
+	 * Computes a*b.
+	 */
+	public long[] multiply(long[] a, long[] b) {
+		long[] product = new long[2 * words];
+		long[] table = new long[16];
+		long[] tableHigh = new long[16];
+		for (int i = 0; i < words; i++){
+			if (a[i] == 0){
+				continue;
+			}
+			fillTable(a[i], table, tableHigh);
+			for (int j = 0; j < words; j++){
+				if (b[j] != 0){
+					clmul(table, tableHigh, b[j], product, i + j);
+				}
+			}
+		}
+		return reduceInPlace(product);
+	}
+	
+	/**
+	 * Computes a^2. Squaring in characteristic 2 only spreads the bits, so it is cheaper than multiplication.
+	 */
+	public long[] square(long[] a) {
+		long[] product = new long[2 * words];
+		for (int i = 0; i < words; i++){
+			product[2 * i] = spread((int) a[i]);
+			product[2 * i + 1] = spread((int) (a[i] >>> 32));
+		}
+		return reduceInPlace(product);
+	}
+	
+	/**
+	 * Computes a^(-1) = a^(2^t - 2).
+	 * @throws ArithmeticException if a is zero.
+	 */
+	public long[] inverse(long[] a) {
+		if (isZero(a)){
+			throw new ArithmeticException("zero has no inverse");
+		}
+		//2^t - 2 = 2 + 4 + ... + 2^(t-1), so a^(2^t - 2) is the product of a^(2^i) for i = 1,...,t-1.
+		long[] power = square(a);
+		long[] result = power;
+		for (int i = 2; i < t; i++){
+			power = square(power);
+			result = multiply(result, power);
+		}
+		return result;
+	}
+	
+	/**
+	 * Computes the inverses of all the given elements using a single field inversion (Montgomery's trick).
+	 * @param elements non zero elements.
+	 * @return array that holds the inverse of each element in the same index.
+	 * @throws ArithmeticException if one of the elements is zero.
+	 */
+	public long[][] inverse(long[][] elements) {
+		int n = elements.length;
+		long[][] inverses = new long[n][];
+		if (n == 0){
+			return inverses;
+		}
+		//prefix[i] = elements[0]*...*elements[i]
+		long[][] prefix = new long[n][];
+		prefix[0] = elements[0];
+		for (int i = 1; i < n; i++){
+			prefix[i] = multiply(prefix[i - 1], elements[i]);
+		}
+		long[] inv = inverse(prefix[n - 1]);
+		for (int i = n - 1; i > 0; i--){
+			inverses[i] = multiply(inv, prefix[i - 1]);
+			inv = multiply(inv, elements[i]);
+		}
+		inverses[0] = inv;
+		return inverses;
+	}
+	
+	/**
+	 * Evaluates the polynomial with the given coefficients at the given point, using Horner's rule.
+	 * @param coefficients the coefficients of the polynomial, where coefficients[i] is the coefficient of x^i.
+	 * @param x the point to evaluate at.
+	 * @return the value of the polynomial at x.
+	 */
+	public long[] evaluate(long[][] coefficients, long[] x) {
+		long[] result = zero();
+		for (int i = coefficients.length - 1; i >= 0; i--){
+			result = add(multiply(result, x), coefficients[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Fills table[u] = u*a for every 4 bit u. The products have up to 67 bits, so the 3 high bits are kept in tableHigh.
+	 */
+	private static void fillTable(long a, long[] table, long[] tableHigh) {
+		table[1] = a;
+		for (int u = 2; u < 16; u += 2){
+			table[u] = table[u >>> 1] << 1;
+			tableHigh[u] = (tableHigh[u >>> 1] << 1) | (table[u >>> 1] >>> 63);
+			table[u + 1] = table[u] ^ a;
+			tableHigh[u + 1] = tableHigh[u];
+		}
+	}
+	
+	/**
+	 * Computes the carry-less product of a and b, where the table of a was filled by {@link #fillTable}, 
+	 * and adds the 128 bit result to the words index and index+1 of the given result.
+	 */
+	private static void clmul(long[] table, long[] tableHigh, long b, long[] result, int index) {
+		int u = (int) b & 15;
+		long lo = table[u];
+		long hi = tableHigh[u];
+		//Skip the zero nibbles at the top of b.
+		int bits = 64 - Long.numberOfLeadingZeros(b);
+		for (int i = 4; i < bits; i += 4){
+			u = (int) (b >>> i) & 15;
+			lo ^= table[u] << i;
+			hi ^= (table[u] >>> (64 - i)) ^ (tableHigh[u] << i);
+		}
+		result[index] ^= lo;
+		result[index + 1] ^= hi;
+	}
+	
+	/**
+	 * Spreads the 32 bits of the given value to the even bits of a long.
+	 */
+	private static long spread(int value) {
+		long x = value & 0xFFFFFFFFL;
+		x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+		x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+		x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+		x = (x | (x << 2)) & 0x3333333333333333L;
+		x = (x | (x << 1)) & 0x5555555555555555L;
+		return x;
+	}
+	
+	/**
+	 * Reduces the given polynomial modulo the field polynomial.<p>
+	 * @param poly a polynomial of any degree. It is not changed.
+	 * @return the reduced element.
+	 */
+	private long[] reduce(long[] poly) {
+		return reduceInPlace(poly.clone());
+	}
+	
+	/**
+	 * Reduces the given polynomial modulo the field polynomial, as {@link #reduce(long[])} does, but uses the given array as temporary space.<p>
+	 * The bits of degree t and more are eliminated up to 64 at a time: Let c be the bits [low, low+64) of p, where low >= t. 
+	 * Since X^t = X^k3 + ... + 1 in the field, c*X^low = c*X^(low-t+k3) + ... + c*X^(low-t). 
+	 * The new bits are below low, so repeating this from the top ends with a polynomial of degree less than t.
+	 */
+	private long[] reduceInPlace(long[] p) {
+		int degree = degree(p);
+		while (degree >= t){
+			int low = Math.max(t, degree - 63);
+			long chunk = getBits(p, low);
+			//Clear the chunk.
+			xorBits(p, low, chunk);
+			for (int tap : taps){
+				xorBits(p, low - t + tap, chunk);
+			}
+			degree = degree(p, low);
+		}
+		if (p.length == words){
+			return p;
+		}
+		long[] result = new long[words];
+		System.arraycopy(p, 0, result, 0, Math.min(words, p.length));
+		return result;
+	}
+	
+	/**
+	 * @return the 64 bits of the given polynomial that start at the given position.
+	 */
+	private static long getBits(long[] poly, int position) {
+		int word = position >>> 6;
+		int shift = position & 63;
+		long bits = (word < poly.length) ? poly[word] >>> shift : 0;
+		if (shift != 0 && word + 1 < poly.length){
+			bits |= poly[word + 1] << (64 - shift);
+		}
+		return bits;
+	}
+	
+	/**
+	 * XORs the given 64 bits into the given polynomial, starting at the given position. Bits beyond the end of the array are dropped.
+	 */
+	private static void xorBits(long[] poly, int position, long bits) {
+		int word = position >>> 6;
+		int shift = position & 63;
+		poly[word] ^= bits << shift;
+		if (shift != 0 && word + 1 < poly.length){
+			poly[word + 1] ^= bits >>> (64 - shift);
+		}
+	}
+	
+	/**
+	 * @return the degree of the given polynomial, or -1 if it is zero.
+	 */
+	private static int degree(long[] poly) {
+		return degree(poly, poly.length * 64 - 1);
+	}
+	
+	/**
+	 * @return the degree of the given polynomial, that is known to be at most maxDegree, or -1 if it is zero.
+	 */
+	private static int degree(long[] poly, int maxDegree) {
+		for (int i = Math.min(maxDegree >>> 6, poly.length - 1); i >= 0; i--){
+			if (poly[i] != 0){
+				return 64 * i + 63 - Long.numberOfLeadingZeros(poly[i]);
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * poly ^= value*X^n. The given poly should be long enough.
+	 */
+	private static void xorShifted(long[] poly, long[] value, int n) {
+		int wordShift = n / 64;
+		int bitShift = n % 64;
+		for (int i = 0; i < value.length; i++){
+			if (value[i] == 0){
+				continue;
+			}
+			poly[i + wordShift] ^= value[i] << bitShift;
+			if (bitShift != 0 && i + wordShift + 1 < poly.length){
+				poly[i + wordShift + 1] ^= value[i] >>> (64 - bitShift);
+			}
+		}
+	}
+	
+	/**
+	 * Finds a sparse irreducible polynomial of degree t.
+	 * @return the exponents of the polynomial except t, in decreasing order.
+	 */
+	private static int[] findSparseIrreducible(int t) {
+		//First, try trinomials X^t + X^k + 1.
+		for (int k = 1; k < t; k++){
+			int[] candidate = new int[]{k, 0};
+			if (isIrreducible(t, candidate)){
+				return candidate;
+			}
+		}
+		//Then, try pentanomials X^t + X^k3 + X^k2 + X^k1 + 1.
+		for (int k3 = 3; k3 < t; k3++){
+			for (int k2 = 2; k2 < k3; k2++){
+				for (int k1 = 1; k1 < k2; k1++){
+					int[] candidate = new int[]{k3, k2, k1, 0};
+					if (isIrreducible(t, candidate)){
+						return candidate;
+					}
+				}
+			}
+		}
+		//There is an irreducible pentanomial for every degree that is used in practice.
+		throw new IllegalArgumentException("there is no irreducible trinomial or pentanomial of degree " + t);
+	}
+	
+	/**
+	 * Private constructor used to compute in GF(2)[X]/f, where f is not necessarily irreducible.
+	 */
+	private GF2tField(int t, int[] taps) {
+		this.t = t;
+		words = (t + 63) / 64;
+		topMask = (t % 64 == 0) ? -1L : (1L << (t % 64)) - 1;
+		this.taps = taps;
+	}
+	
+	/**
+	 * Checks if the polynomial f = X^t + X^taps[0] + ... is irreducible, using Rabin's test:<p>
+	 * f is irreducible iff X^(2^t) = X mod f, and gcd(X^(2^(t/p)) - X, f) = 1 for every prime p that divides t.
+	 */
+	private static boolean isIrreducible(int t, int[] taps) {
+		GF2tField ring = new GF2tField(t, taps);
+		long[] f = new long[t / 64 + 1];
+		f[t / 64] |= 1L << (t % 64);
+		for (int tap : taps){
+			f[tap / 64] |= 1L << (tap % 64);
+		}
+		long[] x = ring.fromLong(2);
+		
+		ArrayList<Integer> primes = new ArrayList<Integer>();
+		int n = t;
+		for (int p = 2; p * p <= n; p++){
+			if (n % p == 0){
+				primes.add(p);
+				while (n % p == 0){
+					n /= p;
+				}
+			}
+		}
+		if (n > 1){
+			primes.add(n);
+		}
+		
+		//powers[i] = X^(2^i) mod f.
+		long[] power = x;
+		for (int i = 1; i <= t; i++){
+			power = ring.square(power);
+			for (int p : primes){
+				if (i == t / p && degree(gcd(ring.add(power, x), f)) > 0){
+					return false;
+				}
+			}
+		}
+		return ring.equals(power, x);
+	}
+	
+	/**
+	 * @return the greatest common divisor of the given polynomials.
+	 */
+	private static long[] gcd(long[] a, long[] b) {
+		int length = Math.max(a.length, b.length);
+		long[] u = new long[length];
+		long[] v = new long[length];
+		System.arraycopy(a, 0, u, 0, a.length);
+		System.arraycopy(b, 0, v, 0, b.length);
+		int degU = degree(u);
+		int degV = degree(v);
+		while (degV >= 0){
+			//u = u mod v
+			while (degU >= degV){
+				xorShifted(u, v, degU - degV);
+				degU = degree(u);
+			}
+			long[] temp = u;
+			u = v;
+			v = temp;
+			int tempDeg = degU;
+			degU = degV;
+			degV = tempDeg;
+		}
+		return u;
+	}
+}
@@ -0,0 +1,165 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.tools.math;
+
+/**
+ * Lagrange interpolation over GF(2^t) with a fixed set of x coordinates.<p>
+ * 
+ * The barycentric weights w_j = 1/prod_{m != j}(x_j - x_m) and the coefficients of l(X) = prod_j(X - x_j) depend only on the 
+ * x coordinates, so they are computed once, in O(n^2) field multiplications and a single field inversion. 
+ * After that, each interpolation costs O(n^2) multiplications and each evaluation O(n) multiplications and one inversion, 
+ * for any y coordinates.<p>
+ * 
+ * Instances of this class are immutable and can be shared between threads.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class GF2tLagrangeInterpolator {
+	
+	private final GF2tField field;
+	private final long[][] xs;			//The x coordinates.
+	private final long[][] weights;		//The barycentric weights.
+	private final long[][] nodePoly;	//The coefficients of l(X) = prod_j(X - x_j). nodePoly[i] is the coefficient of X^i.
+	
+	/**
+	 * Precomputes the interpolation data of the given x coordinates.
+	 * @param field the underlying field.
+	 * @param xs the x coordinates. They should be distinct.
+	 * @throws IllegalArgumentException if there are no x coordinates or two of them are equal.
+	 */
+	public GF2tLagrangeInterpolator(GF2tField field, long[][] xs) {
+		int n = xs.length;
+		if (n == 0){
+			throw new IllegalArgumentException("there should be at least one x coordinate");
+		}
+		this.field = field;
+		this.xs = new long[n][];
+		for (int j = 0; j < n; j++){
+			this.xs[j] = xs[j].clone();
+		}
+		
+		//Compute prod_{m != j}(x_j - x_m) for each j, and invert all of them at once.
+		long[][] denominators = new long[n][];
+		for (int j = 0; j < n; j++){
+			long[] product = field.one();
+			for (int m = 0; m < n; m++){
+				if (m != j){
+					long[] difference = field.add(xs[j], xs[m]);
+					if (field.isZero(difference)){
+						throw new IllegalArgumentException("the x coordinates should be distinct");
+					}
+					product = field.multiply(product, difference);
+				}
+			}
+			denominators[j] = product;
+		}
+		weights = field.inverse(denominators);
+		
+		//Compute l(X) by multiplying by (X - x_j) one at a time.
+		nodePoly = new long[n + 1][];
+		nodePoly[0] = field.one();
+		for (int i = 1; i <= n; i++){
+			nodePoly[i] = field.zero();
+		}
+		for (int j = 0; j < n; j++){
+			//(c_0 + ... + c_j X^j)(X + x_j): the new c_i is c_(i-1) + x_j*c_i.
+			for (int i = j + 1; i > 0; i--){
+				nodePoly[i] = field.add(nodePoly[i - 1], field.multiply(xs[j], nodePoly[i]));
+			}
+			nodePoly[0] = field.multiply(xs[j], nodePoly[0]);
+		}
+	}
+	
+	/**
+	 * @return the number of points of this interpolator.
+	 */
+	public int getNumOfPoints() {
+		return xs.length;
+	}
+	
+	/**
+	 * Computes the coefficients of the unique polynomial Q of degree less than n such that Q(x_j) = y_j for every j.<p>
+	 * Q(X) = sum_j y_j*w_j*l(X)/(X - x_j), where each l(X)/(X - x_j) is computed by synthetic division in O(n).
+	 * @param ys the y coordinates, in the order of the x coordinates.
+	 * @return n coefficients, where the i-th one is the coefficient of X^i.
+	 * @throws IllegalArgumentException if the number of y coordinates is not the number of x coordinates.
+	 */
+	public long[][] interpolate(long[][] ys) {
+		int n = checkLength(ys);
+		long[][] coefficients = new long[n][];
+		for (int i = 0; i < n; i++){
+			coefficients[i] = field.zero();
+		}
+		for (int j = 0; j < n; j++){
+			long[] scale = field.multiply(ys[j], weights[j]);
+			if (field.isZero(scale)){
+				continue;
+			}
+			//q(X) = l(X)/(X - x_j): q_(n-1) = l_n and q_(i-1) = l_i + x_j*q_i.
+			long[] q = nodePoly[n];
+			for (int i = n - 1; i >= 0; i--){
+				coefficients[i] = field.add(coefficients[i], field.multiply(scale, q));
+				q = field.add(nodePoly[i], field.multiply(xs[j], q));
+			}
+		}
+		return coefficients;
+	}
+	
+	/**
+	 * Evaluates the interpolated polynomial at the given point without computing its coefficients, using the barycentric formula:<p>
+	 * Q(x) = l(x) * sum_j w_j*y_j/(x - x_j).
+	 * @param ys the y coordinates, in the order of the x coordinates.
+	 * @param x the point to evaluate at.
+	 * @return Q(x).
+	 * @throws IllegalArgumentException if the number of y coordinates is not the number of x coordinates.
+	 */
+	public long[] evaluate(long[][] ys, long[] x) {
+		int n = checkLength(ys);
+		long[][] differences = new long[n][];
+		long[] l = field.one();
+		for (int j = 0; j < n; j++){
+			differences[j] = field.add(x, xs[j]);
+			//If x is one of the x coordinates, the value is known.
+			if (field.isZero(differences[j])){
+				return ys[j].clone();
+			}
+			l = field.multiply(l, differences[j]);
+		}
+		long[][] inverses = field.inverse(differences);
+		long[] sum = field.zero();
+		for (int j = 0; j < n; j++){
+			sum = field.add(sum, field.multiply(field.multiply(weights[j], ys[j]), inverses[j]));
+		}
+		return field.multiply(l, sum);
+	}
+	
+	private int checkLength(long[][] ys) {
+		if (ys.length != xs.length){
+			throw new IllegalArgumentException("the number of y coordinates should be equal to the number of x coordinates");
+		}
+		return ys.length;
+	}
+}
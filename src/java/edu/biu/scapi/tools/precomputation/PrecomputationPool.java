@@ -0,0 +1,185 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.tools.precomputation;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of values that are computed in advance, in the offline phase or in the idle time of the application, and consumed in the online phase.<p>
+ * 
+ * The values are computed by a {@link Producer}. After {@link #start()} is called, background threads keep the pool full; 
+ * When the pool is full the threads wait until a value is taken. {@link #fill()} fills the pool on the calling thread instead.<p>
+ * 
+ * {@link #take()} returns a pre-computed value if there is one. Otherwise, it computes the value on the calling thread, 
+ * so the online phase is never blocked by the pool. The number of hits and misses are counted and exposed as {@link PrecomputationPoolMetrics}.<p>
+ * 
+ * The producer is called from the background threads, so it should be thread-safe.
+ * 
+ * @param <T> the type of the pre-computed values.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class PrecomputationPool<T> implements PrecomputationPoolMetrics {
+	
+	/**
+	 * Computes a single value for the pool. Each call should return a new value that is independent of the previous ones.
+	 */
+	public interface Producer<T> {
+		public T produce();
+	}
+	
+	private final Producer<T> producer;
+	private final ArrayBlockingQueue<T> pool;
+	private final int capacity;
+	private final int numOfThreads;
+	private Thread[] fillers;		//The background threads. Null if the pool was not started.
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	
+	/**
+	 * Creates an empty pool. Call {@link #start()} or {@link #fill()} to fill it.
+	 * @param producer computes the values of the pool.
+	 * @param capacity the maximal number of values in the pool.
+	 * @param numOfThreads the number of background threads that fill the pool after start is called.
+	 */
+	public PrecomputationPool(Producer<T> producer, int capacity, int numOfThreads) {
+		if (capacity <= 0 || numOfThreads <= 0){
+			throw new IllegalArgumentException("capacity and number of threads should be positive");
+		}
+		this.producer = producer;
+		this.capacity = capacity;
+		this.numOfThreads = numOfThreads;
+		pool = new ArrayBlockingQueue<T>(capacity);
+	}
+	
+	/**
+	 * Starts the background threads that fill the pool. 
+	 * The threads have the minimal priority, so they use mostly the idle time of the machine. They are daemon threads and 
+	 * do not keep the application alive, but they should be stopped by {@link #stop()} when the pool is no longer needed.
+	 */
+	public synchronized void start() {
+		if (fillers != null){
+			return;
+		}
+		fillers = new Thread[numOfThreads];
+		for (int i=0; i<numOfThreads; i++){
+			fillers[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						while (!Thread.currentThread().isInterrupted()){
+							//put waits while the pool is full.
+							pool.put(producer.produce());
+						}
+					} catch (InterruptedException e) {
+						//The pool was stopped.
+					}
+				}
+			}, "PrecomputationPool-" + i);
+			fillers[i].setDaemon(true);
+			fillers[i].setPriority(Thread.MIN_PRIORITY);
+			fillers[i].start();
+		}
+	}
+	
+	/**
+	 * Stops the background threads. The values that are already in the pool can still be taken.
+	 */
+	public synchronized void stop() {
+		if (fillers == null){
+			return;
+		}
+		for (Thread filler : fillers){
+			filler.interrupt();
+		}
+		fillers = null;
+	}
+
+	/**
+	 * Removes the values that were not taken yet. Used together with {@link #stop()} when the values are no longer valid,
+	 * for example after the key that they were computed for was replaced.
+	 */
+	public void clear() {
+		pool.clear();
+	}
+
+	/**
+	 * Fills the pool on the calling thread. Useful for an explicit offline phase.
+	 */
+	public void fill() {
+		while (pool.remainingCapacity() > 0){
+			if (!pool.offer(producer.produce())){
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Returns a pre-computed value. If the pool is empty, the value is computed on the calling thread.
+	 * @return a value that was not returned before.
+	 */
+	public T take() {
+		T value = pool.poll();
+		if (value != null){
+			hits.incrementAndGet();
+			return value;
+		}
+		misses.incrementAndGet();
+		return producer.produce();
+	}
+	
+	@Override
+	public int getFillLevel() {
+		return pool.size();
+	}
+	
+	@Override
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	@Override
+	public long getHits() {
+		return hits.get();
+	}
+	
+	@Override
+	public long getMisses() {
+		return misses.get();
+	}
+	
+	@Override
+	public double getMissRate() {
+		long h = hits.get();
+		long m = misses.get();
+		return (h + m == 0) ? 0 : ((double) m) / (h + m);
+	}
+	
+	@Override
+	public String toString() {
+		return "PrecomputationPool [fillLevel=" + getFillLevel() + ", capacity=" + capacity + ", hits=" + getHits() + ", misses=" + getMisses() + "]";
+	}
+}